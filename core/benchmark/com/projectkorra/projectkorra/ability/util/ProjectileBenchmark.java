@@ -0,0 +1,260 @@
+package com.projectkorra.projectkorra.ability.util;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.util.BoundingBox;
+import org.bukkit.util.Vector;
+
+import com.projectkorra.projectkorra.Element;
+import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.ability.CoreAbility;
+import com.projectkorra.projectkorra.util.EntitySpatialIndex;
+
+/**
+ * Compares moving projectiles with the {@link ProjectileManager} against the
+ * loop FireBlast ran in its own progress before it was moved onto the
+ * manager: a cube query for the closest entity, a walk over the blocks of
+ * the step and moving a location by a cloned and scaled direction.
+ * <p>
+ * The world is a proxy of passable blocks and entity proxies, so the
+ * benchmark runs without a server. Its getNearbyEntities tests every entity,
+ * which is cheaper than the chunk walk of a server. Run it with the plugin
+ * and spigot-api jars on the classpath:
+ *
+ * <pre>
+ * java -cp ProjectKorra.jar:spigot-api.jar:benchmark com.projectkorra.projectkorra.ability.util.ProjectileBenchmark [projectiles] [entities] [ticks]
+ * </pre>
+ */
+public class ProjectileBenchmark {
+
+	private static final double AREA = 96;
+	private static final double SPEED = 20;
+	private static final double RANGE = 20;
+	private static final double RADIUS = 1;
+
+	private static long legacyHits;
+	private static long managerHits;
+
+	public static void main(final String[] args) {
+		final int projectileCount = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		final int entityCount = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		final int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+		ProjectKorra.time_step = 50;
+
+		final Random random = new Random(0);
+		final List<Entity> entities = new ArrayList<>();
+		final World world = createWorld(entities);
+		for (int i = 0; i < entityCount; i++) {
+			final double x = random.nextDouble() * AREA - AREA / 2, y = 64, z = random.nextDouble() * AREA - AREA / 2;
+			entities.add(createEntity(world, new BoundingBox(x - 0.3, y, z - 0.3, x + 0.3, y + 1.8, z + 0.3)));
+		}
+
+		final Location[] origins = new Location[projectileCount];
+		final Vector[] directions = new Vector[projectileCount];
+		for (int i = 0; i < projectileCount; i++) {
+			origins[i] = new Location(world, random.nextDouble() * AREA - AREA / 2, 65, random.nextDouble() * AREA - AREA / 2);
+			directions[i] = new Vector(random.nextDouble() - 0.5, random.nextDouble() * 0.2 - 0.1, random.nextDouble() - 0.5).normalize();
+		}
+
+		final BenchmarkAbility ability = new BenchmarkAbility();
+		for (int round = 0; round < 3; round++) {
+			final LegacyBlast[] blasts = new LegacyBlast[projectileCount];
+			for (int i = 0; i < projectileCount; i++) {
+				blasts[i] = new LegacyBlast(origins[i], directions[i]);
+			}
+			legacyHits = 0;
+			long start = System.nanoTime();
+			for (int tick = 0; tick < ticks; tick++) {
+				for (int i = 0; i < projectileCount; i++) {
+					if (!blasts[i].progress()) {
+						blasts[i] = new LegacyBlast(origins[i], directions[i]);
+					}
+				}
+			}
+			final long legacy = System.nanoTime() - start;
+
+			for (int i = 0; i < projectileCount; i++) {
+				launch(ability, origins[i], directions[i]);
+			}
+			managerHits = 0;
+			start = System.nanoTime();
+			for (int tick = 0; tick < ticks; tick++) {
+				EntitySpatialIndex.begin();
+				ProjectileManager.progressAll();
+				EntitySpatialIndex.end();
+			}
+			final long manager = System.nanoTime() - start;
+			ability.stopped = true;
+			ProjectileManager.progressAll();
+			ability.stopped = false;
+
+			System.out.printf("%d projectiles, %d entities, round %d: per ability loops %.1f us, manager %.1f us per tick (%d and %d entity hits)%n", projectileCount, entityCount, round, legacy / 1000.0 / ticks, manager / 1000.0 / ticks, legacyHits, managerHits);
+		}
+	}
+
+	private static void launch(final BenchmarkAbility ability, final Location origin, final Vector direction) {
+		new Projectile(ability, new Projectile.Handler() {
+			@Override
+			public boolean onEntityHit(final Projectile projectile, final Entity entity) {
+				managerHits++;
+				return false;
+			}
+
+			@Override
+			public void onEnd(final Projectile projectile, final Projectile.EndReason reason) {
+				launch(ability, origin, direction);
+			}
+		}, origin.clone(), direction, SPEED, RANGE, RADIUS).setRegionChecked(false);
+	}
+
+	/**
+	 * The movement and hit detection FireBlast did in its progress.
+	 */
+	private static final class LegacyBlast {
+
+		private static final Predicate<Entity> FILTER = entity -> !entity.isDead();
+
+		private final Location location;
+		private final Location origin;
+		private final Vector direction;
+
+		private LegacyBlast(final Location origin, final Vector direction) {
+			this.location = origin.clone();
+			this.origin = origin.clone();
+			this.direction = direction.clone().normalize();
+		}
+
+		private boolean progress() {
+			final double speedFactor = SPEED * (ProjectKorra.time_step / 1000.0);
+			if (this.location.distanceSquared(this.origin) > RANGE * RANGE) {
+				return false;
+			}
+
+			Entity closest = null;
+			double distance = 0;
+			for (final Entity entity : new ArrayList<>(this.location.getWorld().getNearbyEntities(this.location, RADIUS, RADIUS, RADIUS, FILTER))) {
+				final double check = this.location.distanceSquared(entity.getLocation());
+				if (closest == null || check < distance) {
+					closest = entity;
+					distance = check;
+				}
+			}
+			if (closest != null) {
+				legacyHits++;
+			}
+
+			final int blocks = (int) Math.ceil(this.direction.clone().multiply(speedFactor).length());
+			for (int i = 0; i <= blocks; i++) {
+				if (!this.location.clone().add(this.direction.clone().multiply(i)).getBlock().isPassable()) {
+					return false;
+				}
+			}
+			this.location.add(this.direction.clone().multiply(speedFactor));
+			return true;
+		}
+	}
+
+	private static final class BenchmarkAbility extends CoreAbility {
+
+		private boolean stopped;
+
+		@Override
+		public void progress() {}
+
+		@Override
+		public boolean isRemoved() {
+			return this.stopped;
+		}
+
+		@Override
+		public boolean isSneakAbility() {
+			return false;
+		}
+
+		@Override
+		public boolean isHarmlessAbility() {
+			return true;
+		}
+
+		@Override
+		public long getCooldown() {
+			return 0;
+		}
+
+		@Override
+		public String getName() {
+			return "ProjectileBenchmark";
+		}
+
+		@Override
+		public Element getElement() {
+			return Element.FIRE;
+		}
+
+		@Override
+		public Location getLocation() {
+			return null;
+		}
+	}
+
+	private static World createWorld(final List<Entity> entities) {
+		final World[] world = new World[1];
+		final Block air = (Block) Proxy.newProxyInstance(Block.class.getClassLoader(), new Class<?>[] { Block.class }, (proxy, method, args) -> {
+			if (method.getName().equals("isPassable")) {
+				return true;
+			} else if (method.getName().equals("isLiquid")) {
+				return false;
+			}
+			return null;
+		});
+		world[0] = (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[] { World.class }, (proxy, method, args) -> {
+			if (method.getName().equals("getBlockAt")) {
+				return air;
+			} else if (method.getName().equals("getEntities")) {
+				return new ArrayList<>(entities);
+			} else if (method.getName().equals("getNearbyEntities") && args.length >= 4) {
+				final BoundingBox box = BoundingBox.of((Location) args[0], (Double) args[1], (Double) args[2], (Double) args[3]);
+				@SuppressWarnings("unchecked")
+				final Predicate<Entity> filter = args.length == 5 ? (Predicate<Entity>) args[4] : null;
+				final List<Entity> nearby = new ArrayList<>();
+				for (final Entity entity : entities) {
+					if (entity.getBoundingBox().overlaps(box) && (filter == null || filter.test(entity))) {
+						nearby.add(entity);
+					}
+				}
+				return nearby;
+			} else if (method.getName().equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			} else if (method.getName().equals("equals")) {
+				return proxy == args[0];
+			}
+			return null;
+		});
+		return world[0];
+	}
+
+	private static Entity createEntity(final World world, final BoundingBox box) {
+		return (Entity) Proxy.newProxyInstance(Entity.class.getClassLoader(), new Class<?>[] { Entity.class }, (proxy, method, args) -> {
+			if (method.getName().equals("getBoundingBox")) {
+				return box.clone();
+			} else if (method.getName().equals("getLocation")) {
+				return new Location(world, box.getCenterX(), box.getMinY(), box.getCenterZ());
+			} else if (method.getName().equals("isDead")) {
+				return false;
+			} else if (method.getName().equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			} else if (method.getName().equals("equals")) {
+				return proxy == args[0];
+			}
+			return null;
+		});
+	}
+}
@@ -0,0 +1,138 @@
+package com.projectkorra.projectkorra.util;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * Compares the lookup the physics listener does for every BlockPhysicsEvent
+ * in the blocks of moving earth, between the ArrayList EarthAbility used
+ * before and the {@link BlockCountSet} it uses now.
+ * <p>
+ * Earth is moved in chains of blocks around a few players, while physics
+ * events happen all over the loaded area, like on a server with redstone,
+ * water and falling blocks. Blocks are proxies that compare their world and
+ * position like CraftBlock does. Run it with the plugin and spigot-api jars
+ * on the classpath:
+ *
+ * <pre>
+ * java -cp ProjectKorra.jar:spigot-api.jar:benchmark com.projectkorra.projectkorra.util.BlockCountSetBenchmark [chains] [events] [rounds]
+ * </pre>
+ */
+public class BlockCountSetBenchmark {
+
+	private static final int CHAIN_LENGTH = 9;
+	private static final int AREA = 512;
+	private static final int PLAYERS = 8;
+
+	public static void main(final String[] args) {
+		final int chainCount = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+		final int eventCount = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		final int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+		final Random random = new Random(0);
+		final World world = createWorld();
+		final List<Block> list = new ArrayList<>();
+		final BlockCountSet set = new BlockCountSet();
+		for (int i = 0; i < chainCount; i++) {
+			final int player = random.nextInt(PLAYERS);
+			final int x = player * 48 + random.nextInt(16), y = 60 + random.nextInt(8), z = player * 48 + random.nextInt(16);
+			for (int j = -2; j <= CHAIN_LENGTH; j++) {
+				final Block block = createBlock(world, x, y + j, z);
+				if (!list.contains(block)) {
+					list.add(block);
+				}
+				set.add(block);
+			}
+		}
+
+		final Block[] events = new Block[eventCount];
+		for (int i = 0; i < eventCount; i++) {
+			if (random.nextInt(100) == 0) {
+				events[i] = list.get(random.nextInt(list.size()));
+			} else {
+				events[i] = createBlock(world, random.nextInt(AREA) - AREA / 2, random.nextInt(128), random.nextInt(AREA) - AREA / 2);
+			}
+		}
+
+		for (int round = 0; round < 3; round++) {
+			long listFound = 0;
+			long start = System.nanoTime();
+			for (int r = 0; r < rounds; r++) {
+				for (final Block block : events) {
+					if (list.contains(block)) {
+						listFound++;
+					}
+				}
+			}
+			final long legacy = System.nanoTime() - start;
+
+			long setFound = 0;
+			start = System.nanoTime();
+			for (int r = 0; r < rounds; r++) {
+				for (final Block block : events) {
+					if (set.contains(block)) {
+						setFound++;
+					}
+				}
+			}
+			final long indexed = System.nanoTime() - start;
+
+			if (listFound != setFound) {
+				throw new IllegalStateException("Different amount of blocks found: " + listFound + " != " + setFound);
+			}
+			final long lookups = (long) rounds * eventCount;
+			System.out.printf("%d blocks in %d chains, round %d: list %.1f ns, set %.1f ns per physics event%n", set.size(), chainCount, round, legacy / (double) lookups, indexed / (double) lookups);
+		}
+
+		final BlockCountSet overlapping = new BlockCountSet();
+		final Block block = createBlock(world, 0, 64, 0);
+		overlapping.add(block);
+		overlapping.add(block);
+		overlapping.remove(block);
+		if (!overlapping.contains(block) || !overlapping.remove(block) || !overlapping.isEmpty()) {
+			throw new IllegalStateException("Overlapping chains aren't counted");
+		}
+	}
+
+	private static World createWorld() {
+		return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[] { World.class }, (proxy, method, args) -> {
+			if (method.getName().equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			} else if (method.getName().equals("equals")) {
+				return proxy == args[0];
+			}
+			return null;
+		});
+	}
+
+	private static Block createBlock(final World world, final int x, final int y, final int z) {
+		final int[] position = { x, y, z };
+		return (Block) Proxy.newProxyInstance(Block.class.getClassLoader(), new Class<?>[] { Block.class }, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "getWorld":
+					return world;
+				case "getX":
+					return position[0];
+				case "getY":
+					return position[1];
+				case "getZ":
+					return position[2];
+				case "hashCode":
+					return (position[1] << 24) ^ (position[0] << 12) ^ position[2];
+				case "equals":
+					if (!(args[0] instanceof Block)) {
+						return false;
+					}
+					final Block other = (Block) args[0];
+					return other.getWorld() == world && other.getX() == position[0] && other.getY() == position[1] && other.getZ() == position[2];
+				default:
+					return null;
+			}
+		});
+	}
+}
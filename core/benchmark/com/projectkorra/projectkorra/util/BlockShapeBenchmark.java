@@ -0,0 +1,147 @@
+package com.projectkorra.projectkorra.util;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * Compares {@link BlockShape} against the cube scan that
+ * {@code GeneralMethods.getBlocksAroundPoint} used before it was backed by
+ * offset tables.
+ * <p>
+ * The world is a proxy that hands out block proxies, so the benchmark runs
+ * without a server. Run it with the plugin and spigot-api jars on the
+ * classpath:
+ *
+ * <pre>
+ * java -cp ProjectKorra.jar:spigot-api.jar:benchmark com.projectkorra.projectkorra.util.BlockShapeBenchmark [radius] [iterations]
+ * </pre>
+ */
+public class BlockShapeBenchmark {
+
+	public static void main(final String[] args) {
+		final double radius = args.length > 0 ? Double.parseDouble(args[0]) : 3;
+		final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+		final World world = createWorld();
+		final Random random = new Random(0);
+		final Location[] centers = new Location[256];
+		for (int i = 0; i < centers.length; i++) {
+			centers[i] = new Location(world, random.nextDouble() * 2000 - 1000, random.nextDouble() * 200, random.nextDouble() * 2000 - 1000);
+		}
+
+		for (final Location center : centers) {
+			final List<Block> expected = legacyScan(center, radius);
+			final List<Block> actual = BlockShape.sphere(radius).getBlocks(center);
+			if (!sameBlocks(expected, actual)) {
+				throw new IllegalStateException("Different blocks around " + center + ": " + expected.size() + " != " + actual.size());
+			}
+		}
+
+		final BlockShape shape = BlockShape.sphere(radius);
+		for (int round = 0; round < 3; round++) {
+			long found = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < iterations; i++) {
+				found += legacyScan(centers[i & 255], radius).size();
+			}
+			final long legacy = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < iterations; i++) {
+				found -= shape.getBlocks(centers[i & 255]).size();
+			}
+			final long list = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < iterations; i++) {
+				shape.forEach(centers[i & 255], (x, y, z) -> x != Integer.MIN_VALUE);
+			}
+			final long visitor = System.nanoTime() - start;
+
+			System.out.printf("radius %.2f, round %d: cube scan %.1f us, table %.1f us, visitor %.2f us per query%n", radius, round, legacy / 1000.0 / iterations, list / 1000.0 / iterations, visitor / 1000.0 / iterations);
+			if (found != 0) {
+				throw new IllegalStateException("Different amount of blocks");
+			}
+		}
+		System.out.println("Table size: " + shape.getTableSize() + " offsets, cube scan: " + (long) Math.pow((int) radius * 8 + 1, 3) + " blocks");
+	}
+
+	/**
+	 * The previous implementation of getBlocksAroundPoint.
+	 */
+	private static List<Block> legacyScan(final Location location, final double radius) {
+		final List<Block> blocks = new ArrayList<Block>();
+
+		final int xorg = location.getBlockX();
+		final int yorg = location.getBlockY();
+		final int zorg = location.getBlockZ();
+
+		final int r = (int) radius * 4;
+
+		for (int x = xorg - r; x <= xorg + r; x++) {
+			for (int y = yorg - r; y <= yorg + r; y++) {
+				for (int z = zorg - r; z <= zorg + r; z++) {
+					final Block block = location.getWorld().getBlockAt(x, y, z);
+					if (block.getLocation().distanceSquared(location) <= radius * radius) {
+						blocks.add(block);
+					}
+				}
+			}
+		}
+		return blocks;
+	}
+
+	private static boolean sameBlocks(final List<Block> expected, final List<Block> actual) {
+		if (expected.size() != actual.size()) {
+			return false;
+		}
+		for (int i = 0; i < expected.size(); i++) {
+			final Block a = expected.get(i);
+			final Block b = actual.get(i);
+			if (a.getX() != b.getX() || a.getY() != b.getY() || a.getZ() != b.getZ()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static World createWorld() {
+		final World[] world = new World[1];
+		world[0] = (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[] { World.class }, (proxy, method, args) -> {
+			if (method.getName().equals("getBlockAt") && args.length == 3) {
+				return createBlock(world[0], (Integer) args[0], (Integer) args[1], (Integer) args[2]);
+			} else if (method.getName().equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			} else if (method.getName().equals("equals")) {
+				return proxy == args[0];
+			}
+			return null;
+		});
+		return world[0];
+	}
+
+	private static Block createBlock(final World world, final int x, final int y, final int z) {
+		return (Block) Proxy.newProxyInstance(Block.class.getClassLoader(), new Class<?>[] { Block.class }, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "getX":
+					return x;
+				case "getY":
+					return y;
+				case "getZ":
+					return z;
+				case "getWorld":
+					return world;
+				case "getLocation":
+					return new Location(world, x, y, z);
+				default:
+					return null;
+			}
+		});
+	}
+}
@@ -0,0 +1,151 @@
+package com.projectkorra.projectkorra.util;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.util.BoundingBox;
+
+/**
+ * Compares a tick of projectiles looking for entities through
+ * {@link EntitySpatialIndex} against every projectile calling
+ * {@link World#getNearbyEntities(Location, double, double, double, Predicate)},
+ * which is what {@code GeneralMethods.getEntitiesAroundPoint} did before.
+ * <p>
+ * The world is a proxy whose getNearbyEntities tests every entity and copies
+ * the result, which is cheaper than the chunk walk of a server, so the
+ * difference on a server is larger than shown here. The index is rebuilt
+ * every simulated tick, so its build cost is part of the numbers. Run it with
+ * the plugin and spigot-api jars on the classpath:
+ *
+ * <pre>
+ * java -cp ProjectKorra.jar:spigot-api.jar:benchmark com.projectkorra.projectkorra.util.EntitySpatialIndexBenchmark [entities] [projectiles] [ticks]
+ * </pre>
+ */
+public class EntitySpatialIndexBenchmark {
+
+	private static final double RADIUS = 2.5;
+	private static final double AREA = 96;
+
+	public static void main(final String[] args) {
+		final int entityCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		final int projectileCount = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		final int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+
+		final Random random = new Random(0);
+		final List<Entity> entities = new ArrayList<>();
+		final World world = createWorld(entities);
+		for (int i = 0; i < entityCount; i++) {
+			final double x = random.nextDouble() * AREA - AREA / 2, y = 64 + random.nextInt(4), z = random.nextDouble() * AREA - AREA / 2;
+			final double width = random.nextInt(10) == 0 ? 1.4 : 0.6;
+			entities.add(createEntity(new BoundingBox(x - width / 2, y, z - width / 2, x + width / 2, y + 1.8, z + width / 2)));
+		}
+
+		final Location[][] projectiles = new Location[64][projectileCount];
+		for (final Location[] tick : projectiles) {
+			for (int i = 0; i < projectileCount; i++) {
+				tick[i] = new Location(world, random.nextDouble() * AREA - AREA / 2, 64 + random.nextDouble() * 4, random.nextDouble() * AREA - AREA / 2);
+			}
+		}
+
+		final Predicate<Entity> filter = entity -> !entity.isDead();
+		final EntitySpatialIndex index = new EntitySpatialIndex(world);
+		index.build(world.getEntities());
+		for (final Location location : projectiles[0]) {
+			final Collection<Entity> expected = world.getNearbyEntities(location, RADIUS, RADIUS, RADIUS, filter);
+			final List<Entity> actual = new ArrayList<>();
+			index.forEachAround(location.getX(), location.getY(), location.getZ(), RADIUS, RADIUS, RADIUS, filter, actual::add);
+			if (expected.size() != actual.size() || !new HashSet<>(expected).equals(new HashSet<>(actual))) {
+				throw new IllegalStateException("Different entities around " + location + ": " + expected.size() + " != " + actual.size());
+			}
+		}
+
+		final List<Entity> found = new ArrayList<>();
+		for (int round = 0; round < 3; round++) {
+			long legacyFound = 0;
+			long start = System.nanoTime();
+			for (int tick = 0; tick < ticks; tick++) {
+				for (final Location location : projectiles[tick & 63]) {
+					legacyFound += new ArrayList<>(world.getNearbyEntities(location, RADIUS, RADIUS, RADIUS, filter)).size();
+				}
+			}
+			final long legacy = System.nanoTime() - start;
+
+			long listFound = 0;
+			start = System.nanoTime();
+			for (int tick = 0; tick < ticks; tick++) {
+				index.build(world.getEntities());
+				for (final Location location : projectiles[tick & 63]) {
+					final List<Entity> list = new ArrayList<>();
+					index.forEachAround(location.getX(), location.getY(), location.getZ(), RADIUS, RADIUS, RADIUS, filter, list::add);
+					listFound += list.size();
+				}
+			}
+			final long list = System.nanoTime() - start;
+
+			long visitorFound = 0;
+			start = System.nanoTime();
+			for (int tick = 0; tick < ticks; tick++) {
+				index.build(world.getEntities());
+				for (final Location location : projectiles[tick & 63]) {
+					found.clear();
+					visitorFound += index.forEachAround(location.getX(), location.getY(), location.getZ(), RADIUS, RADIUS, RADIUS, filter, found::add);
+				}
+			}
+			final long visitor = System.nanoTime() - start;
+
+			final long queries = (long) ticks * projectileCount;
+			System.out.printf("%d entities, %d projectiles, round %d: world query %.2f us, index list %.2f us, index visitor %.2f us per query (%.1f us per tick with the build)%n", entityCount, projectileCount, round, legacy / 1000.0 / queries, list / 1000.0 / queries, visitor / 1000.0 / queries, visitor / 1000.0 / ticks);
+			if (legacyFound != listFound || legacyFound != visitorFound) {
+				throw new IllegalStateException("Different amount of entities");
+			}
+		}
+	}
+
+	private static World createWorld(final List<Entity> entities) {
+		return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[] { World.class }, (proxy, method, args) -> {
+			if (method.getName().equals("getEntities")) {
+				return new ArrayList<>(entities);
+			} else if (method.getName().equals("getNearbyEntities") && args.length == 5) {
+				final Location location = (Location) args[0];
+				final BoundingBox box = BoundingBox.of(location, (Double) args[1], (Double) args[2], (Double) args[3]);
+				@SuppressWarnings("unchecked")
+				final Predicate<Entity> filter = (Predicate<Entity>) args[4];
+				final List<Entity> nearby = new ArrayList<>();
+				for (final Entity entity : entities) {
+					if (entity.getBoundingBox().overlaps(box) && (filter == null || filter.test(entity))) {
+						nearby.add(entity);
+					}
+				}
+				return nearby;
+			} else if (method.getName().equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			} else if (method.getName().equals("equals")) {
+				return proxy == args[0];
+			}
+			return null;
+		});
+	}
+
+	private static Entity createEntity(final BoundingBox box) {
+		return (Entity) Proxy.newProxyInstance(Entity.class.getClassLoader(), new Class<?>[] { Entity.class }, (proxy, method, args) -> {
+			if (method.getName().equals("getBoundingBox")) {
+				return box.clone();
+			} else if (method.getName().equals("isDead")) {
+				return false;
+			} else if (method.getName().equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			} else if (method.getName().equals("equals")) {
+				return proxy == args[0];
+			}
+			return null;
+		});
+	}
+}
@@ -1,19 +1,22 @@
 package com.projectkorra.projectkorra;
 
 import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
 
 import com.projectkorra.projectkorra.event.WorldTimeEvent;
+import com.projectkorra.projectkorra.util.BlockChangeBuffer;
 import com.projectkorra.projectkorra.util.ChatUtil;
+import com.projectkorra.projectkorra.util.CooldownStore;
+import com.projectkorra.projectkorra.util.EntitySpatialIndex;
 import com.projectkorra.projectkorra.util.TempBlock;
 import com.projectkorra.projectkorra.util.TempFallingBlock;
+import com.projectkorra.projectkorra.util.TickProfiler;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.ability.ElementalAbility;
+import com.projectkorra.projectkorra.ability.util.ProjectileManager;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.earthbending.metal.MetalClips;
 import com.projectkorra.projectkorra.object.HorizontalVelocityTracker;
@@ -37,6 +40,11 @@ public class BendingManager implements Runnable {
 		this.time = System.currentTimeMillis();
 
 		times.clear();
+		TempBlock.setMaxRevertsPerTick(ConfigManager.getConfig().getInt("Properties.TempBlock.MaxRevertsPerTick"));
+		BlockChangeBuffer.setEnabled(ConfigManager.getConfig().getBoolean("Properties.TempBlock.BatchChanges"));
+		EntitySpatialIndex.setEnabled(ConfigManager.getConfig().getBoolean("Properties.EntitySpatialIndex.Enabled"));
+		EntitySpatialIndex.setBuildThreshold(ConfigManager.getConfig().getInt("Properties.EntitySpatialIndex.BuildThreshold"));
+		RevertChecker.loadConfig();
 
 		handleDayNight();
 	}
@@ -46,16 +54,12 @@ public class BendingManager implements Runnable {
 	}
 
 	public void handleCooldowns() {
-		for (Map.Entry<UUID, BendingPlayer> entry : BendingPlayer.getPlayers().entrySet()) {
-			BendingPlayer bPlayer = entry.getValue();
-
-			bPlayer.removeOldCooldowns();
-		}
+		CooldownStore.expire(System.currentTimeMillis());
 	}
 
 	public void handleDayNight() {
 		for (final World world : Bukkit.getServer().getWorlds()) {
-			if (ConfigManager.defaultConfig.get().getStringList("Properties.DisabledWorlds").contains(world.getName())) {
+			if (ConfigManager.getSnapshot().isWorldDisabled(world)) {
 				continue;
 			}
 
@@ -109,33 +113,44 @@ public class BendingManager implements Runnable {
 		this.time = System.currentTimeMillis();
 		ProjectKorra.time_step = this.interval;
 
-		//try (MCTiming timing = this.CORE_ABILITY_TIMING.startTiming()) {
+		TickProfiler.beginTick();
+		final long tickStart = TickProfiler.start();
+		BlockChangeBuffer.begin();
+		EntitySpatialIndex.begin();
+
+		long start = TickProfiler.start();
 		CoreAbility.progressAll();
-		//}
+		TickProfiler.stop(TickProfiler.ABILITIES, start);
+
+		start = TickProfiler.start();
+		ProjectileManager.progressAll();
+		TickProfiler.stop("Projectiles", start);
 
-		//try (MCTiming timing = this.TEMP_POTION_TIMING.startTiming()) {
+		start = TickProfiler.start();
 		TempPotionEffect.progressAll();
-		//}
+		TickProfiler.stop("TempPotionEffect", start);
 
-		//try (MCTiming timing = this.DAY_NIGHT_TIMING.startTiming()) {
+		start = TickProfiler.start();
 		this.handleDayNight();
-		//}
+		TickProfiler.stop("DayNight", start);
 
-		RevertChecker.revertAirBlocks();
+		start = TickProfiler.start();
+		RevertChecker.progressAll();
+		TickProfiler.stop("RevertEarthbending", start);
 
-		//try (MCTiming timing = this.HORIZONTAL_VELOCITY_TRACKER_TIMING.startTiming()) {
+		start = TickProfiler.start();
 		HorizontalVelocityTracker.updateAll();
-		//}
+		TickProfiler.stop("HorizontalVelocityTracker", start);
 
-		//try (MCTiming timing = this.COOLDOWN_TIMING.startTiming()) {
+		start = TickProfiler.start();
 		this.handleCooldowns();
-		//}
+		TickProfiler.stop("Cooldowns", start);
 
-		//try (MCTiming timing = this.TEMP_ARMOR_TIMING.startTiming()) {
+		start = TickProfiler.start();
 		TempArmor.cleanup();
-		//}
+		TickProfiler.stop("TempArmor", start);
 
-		//try (MCTiming timing = this.ACTIONBAR_STATUS_TIMING.startTiming()) {
+		start = TickProfiler.start();
 		for (final Player player : Bukkit.getOnlinePlayers()) {
 			if (Bloodbending.isBloodbent(player)) {
 				ActionBar.sendActionBar(Element.BLOOD.getColor() + "* Bloodbent *", player);
@@ -143,15 +158,23 @@ public class BendingManager implements Runnable {
 				ActionBar.sendActionBar(Element.METAL.getColor() + "* MetalClipped *", player);
 			}
 		}
-		//}
+		TickProfiler.stop("ActionBarStatus", start);
 
-		//try (MCTiming timing = this.TEMP_FALLING_BLOCK_TIMING.startTiming()) {
+		start = TickProfiler.start();
 		TempFallingBlock.manage();
-		//}
+		TickProfiler.stop("TempFallingBlock", start);
 
-		//try (MCTiming timing = this.TEMP_BLOCK_TIMING.startTiming()) {
+		start = TickProfiler.start();
 		tempBlockRevertTask.run();
-		//}
+		TickProfiler.stop("TempBlockRevert", start);
+
+		start = TickProfiler.start();
+		BlockChangeBuffer.flush();
+		TickProfiler.stop("BlockChangeFlush", start);
+
+		EntitySpatialIndex.end();
+
+		TickProfiler.stop(TickProfiler.TICK, tickStart);
 	}
 
 	public static String getSunriseMessage() {
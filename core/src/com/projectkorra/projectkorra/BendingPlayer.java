@@ -1,13 +1,9 @@
 package com.projectkorra.projectkorra;
 
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -30,10 +26,8 @@ import org.apache.commons.lang3.builder.ToStringStyle;
 
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
-import org.bukkit.Location;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 
 import com.projectkorra.projectkorra.Element.SubElement;
@@ -46,10 +40,12 @@ import com.projectkorra.projectkorra.avatar.AvatarState;
 import com.projectkorra.projectkorra.board.BendingBoardManager;
 import com.projectkorra.projectkorra.command.Commands;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.configuration.ConfigSnapshot;
 import com.projectkorra.projectkorra.earthbending.metal.MetalClips;
 import com.projectkorra.projectkorra.event.PlayerCooldownChangeEvent;
 import com.projectkorra.projectkorra.event.PlayerCooldownChangeEvent.Result;
 import com.projectkorra.projectkorra.util.Cooldown;
+import com.projectkorra.projectkorra.util.CooldownStore;
 import com.projectkorra.projectkorra.waterbending.blood.Bloodbending;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
@@ -62,7 +58,11 @@ import org.jetbrains.annotations.NotNull;
 public class BendingPlayer extends OfflineBendingPlayer {
 
 	protected static Map<JavaPlugin, CanBendHook> HOOKS = new HashMap<>();
-	static Set<String> DISABLED_WORLDS = new HashSet<>();
+	/**
+	 * True if every hook allows caching its answers, see
+	 * {@link CanBendHook#isCacheable()}.
+	 */
+	private static boolean hooksCacheable = true;
 
 	private long slowTime;
 	private final Player player;
@@ -71,6 +71,7 @@ public class BendingPlayer extends OfflineBendingPlayer {
 	protected boolean tremorSense;
 	protected boolean illumination;
 	protected boolean chiBlocked;
+	private final CanBendCache canBendCache;
 
 	public BendingPlayer(Player player) {
 		super(player);
@@ -79,6 +80,9 @@ public class BendingPlayer extends OfflineBendingPlayer {
 		this.tremorSense = true;
 		this.illumination = true;
 		this.chiBlocked = false;
+		this.canBendCache = new CanBendCache(player);
+
+		this.cooldowns.track(this::expireCooldown);
 	}
 
 	/**
@@ -98,7 +102,7 @@ public class BendingPlayer extends OfflineBendingPlayer {
 		Bukkit.getServer().getPluginManager().callEvent(event);
 
 		if (!event.isCancelled()) {
-			this.cooldowns.put(ability, new Cooldown(cooldown + System.currentTimeMillis(), database));
+			this.cooldowns.set(CooldownStore.getId(ability), cooldown + System.currentTimeMillis(), database);
 
 			if (this.getBoundAbilityName() != null && this.getBoundAbilityName().equalsIgnoreCase(ability)) {
 				ChatUtil.displayMovePreview(this.player);
@@ -133,55 +137,114 @@ public class BendingPlayer extends OfflineBendingPlayer {
 	}
 
 	private boolean canBend(@NotNull final CoreAbility ability, final boolean ignoreBinds, final boolean ignoreCooldowns) {
-
-		final List<String> disabledWorlds = getConfig().getStringList("Properties.DisabledWorlds");
-		final Location playerLoc = this.player.getLocation();
-
-		//Loop through all hooks and test them
-		for (JavaPlugin plugin : HOOKS.keySet()) {
-			CanBendHook hook = HOOKS.get(plugin);
-			try {
-				Optional<Boolean> bool = hook.canBend(this, ability, ignoreBinds, ignoreCooldowns);
-				if (bool.isPresent()) return bool.get(); //If the hook didn't return
-			} catch (Exception e) {
-				ProjectKorra.log.severe("An error occurred while running CanBendHook registered by " + plugin.getName() + ".");
-				e.printStackTrace();
+		if (!hooksCacheable) {
+			final int hooked = this.runCanBendHooks(ability, ignoreBinds, ignoreCooldowns);
+			if (hooked != CanBendCache.UNKNOWN) {
+				return hooked == CanBendCache.HOOK_ALLOWED;
 			}
 		}
 
+		final int cooldownId = CooldownStore.getId(ability.getName());
+		final int key = CanBendCache.getKey(cooldownId, ignoreBinds, ignoreCooldowns);
+		int decision = this.canBendCache.get(key);
+		if (decision == CanBendCache.UNKNOWN) {
+			decision = this.decideCanBend(ability, ignoreBinds, ignoreCooldowns);
+			this.canBendCache.put(key, decision);
+		}
+		if (decision != CanBendCache.PASSED) {
+			return decision == CanBendCache.HOOK_ALLOWED;
+		}
+
 		if (!this.player.isOnline() || this.player.isDead()) {
 			return false;
-		} else if (!this.canBind(ability)) {
-			return false;
 		} else if (ability.getPlayer() != null && ability.getLocation() != null && !ability.getLocation().getWorld().equals(this.player.getWorld())) {
 			return false;
-		} else if (!ignoreCooldowns && this.isOnCooldown(ability.getName())) {
-			return false;
-		} else if (!ignoreBinds && (!ability.getName().equals(this.getBoundAbilityName()))) {
-			return false;
-		} else if (disabledWorlds.contains(this.player.getWorld().getName())) {
+		} else if (Commands.isToggledForAll || this.isChiBlocked()) {
 			return false;
-		} else if (Commands.isToggledForAll || !this.isToggled() || !this.isElementToggled(ability.getElement())) {
-			return false;
-		} else if (this.player.getGameMode() == GameMode.SPECTATOR) {
+		}
+
+		final long now = System.currentTimeMillis();
+		if (!ignoreCooldowns && this.cooldowns.isOnCooldown(cooldownId, now)) {
 			return false;
 		}
 
-		if (!ignoreCooldowns && this.cooldowns.containsKey(ability.getName())) {
-			if (this.cooldowns.get(ability.getName()).getCooldown() + getConfig().getLong("Properties.GlobalCooldown") >= System.currentTimeMillis()) {
+		if (!ignoreCooldowns && this.cooldowns.contains(cooldownId)) {
+			if (this.cooldowns.getExpiry(cooldownId) + ConfigManager.getSnapshot().getGlobalCooldown() >= now) {
 				return false;
 			}
 
-			this.cooldowns.remove(ability.getName());
+			this.cooldowns.remove(cooldownId);
 		}
 
-		if (this.isChiBlocked() || this.isParalyzed() || (this.isBloodbent() && !ability.getName().equalsIgnoreCase("AvatarState")) || this.isControlledByMetalClips()) {
-			return false;
-		} else if (RegionProtection.isRegionProtected(this.player, playerLoc, ability)) {
-			return false;
+		return true;
+	}
+
+	/**
+	 * Runs the checks of {@link #canBend(CoreAbility)} that don't depend on
+	 * the ability instance or the time, whose result is cached for the tick.
+	 *
+	 * @return One of the decisions of {@link CanBendCache}
+	 */
+	private int decideCanBend(@NotNull final CoreAbility ability, final boolean ignoreBinds, final boolean ignoreCooldowns) {
+		final ConfigSnapshot config = ConfigManager.getSnapshot();
+
+		if (hooksCacheable) {
+			final int hooked = this.runCanBendHooks(ability, ignoreBinds, ignoreCooldowns);
+			if (hooked != CanBendCache.UNKNOWN) {
+				return hooked;
+			}
 		}
 
-		return true;
+		if (!this.canBind(ability)) {
+			return CanBendCache.DENIED;
+		} else if (!ignoreBinds && (!ability.getName().equals(this.getBoundAbilityName()))) {
+			return CanBendCache.DENIED;
+		} else if (config.isWorldDisabled(this.player.getWorld())) {
+			return CanBendCache.DENIED;
+		} else if (!this.isToggled() || !this.isElementToggled(ability.getElement())) {
+			return CanBendCache.DENIED;
+		} else if (this.player.getGameMode() == GameMode.SPECTATOR) {
+			return CanBendCache.DENIED;
+		}
+
+		if (this.isParalyzed() || (this.isBloodbent() && !ability.getName().equalsIgnoreCase("AvatarState")) || this.isControlledByMetalClips()) {
+			return CanBendCache.DENIED;
+		} else if (RegionProtection.isRegionProtected(this.player, this.player.getLocation(), ability)) {
+			return CanBendCache.DENIED;
+		}
+
+		return CanBendCache.PASSED;
+	}
+
+	/**
+	 * Asks every hook whether the player can bend the ability.
+	 *
+	 * @return {@link CanBendCache#HOOK_ALLOWED} or {@link CanBendCache#DENIED}
+	 *         if a hook decided, {@link CanBendCache#UNKNOWN} otherwise
+	 */
+	private int runCanBendHooks(@NotNull final CoreAbility ability, final boolean ignoreBinds, final boolean ignoreCooldowns) {
+		//Loop through all hooks and test them
+		for (JavaPlugin plugin : HOOKS.keySet()) {
+			CanBendHook hook = HOOKS.get(plugin);
+			try {
+				Optional<Boolean> bool = hook.canBend(this, ability, ignoreBinds, ignoreCooldowns);
+				if (bool.isPresent()) return bool.get() ? CanBendCache.HOOK_ALLOWED : CanBendCache.DENIED; //If the hook didn't return
+			} catch (Exception e) {
+				ProjectKorra.log.severe("An error occurred while running CanBendHook registered by " + plugin.getName() + ".");
+				e.printStackTrace();
+			}
+		}
+		return CanBendCache.UNKNOWN;
+	}
+
+	/**
+	 * Forgets the cached results of {@link #canBend(CoreAbility)} and its
+	 * variants for this player, e.g. after changing something they depend on
+	 * that the player doesn't know about. They are forgotten every tick
+	 * anyway.
+	 */
+	public void invalidateCanBend() {
+		this.canBendCache.invalidate();
 	}
 
 	public boolean canBendIgnoreBinds(final CoreAbility ability) {
@@ -201,12 +264,11 @@ public class BendingPlayer extends OfflineBendingPlayer {
 			return false; // If the passive is disabled.
 		}
 		final Element element = ability.getElement();
-		if (Commands.isToggledForAll && ConfigManager.defaultConfig.get().getBoolean("Properties.TogglePassivesWithAllBending")) {
+		final ConfigSnapshot config = ConfigManager.getSnapshot();
+		if (Commands.isToggledForAll && config.isTogglePassivesWithAllBending()) {
 			return false;
 		}
 
-		final List<String> disabledWorlds = getConfig().getStringList("Properties.DisabledWorlds");
-
 		if (element == null || this.player == null) {
 			return false;
 		} else if (!this.player.hasPermission("bending." + element.getName() + ".passive")) {
@@ -215,14 +277,14 @@ public class BendingPlayer extends OfflineBendingPlayer {
 			return false;
 		} else if (!this.hasElement(element)) {
 			return false;
-		} else if (disabledWorlds.contains(this.player.getWorld().getName())) {
+		} else if (config.isWorldDisabled(this.player.getWorld())) {
 			return false;
 		} else return this.player.getGameMode() != GameMode.SPECTATOR;
 	}
 
 	public boolean canUsePassive(final CoreAbility ability) {
 		final Element element = ability.getElement();
-		if ((!this.isToggled() && ConfigManager.defaultConfig.get().getBoolean("Properties.TogglePassivesWithAllBending")) || !this.isElementToggled(element) || !this.isPassiveToggled(element) || !this.isToggledPassives()) {
+		if ((!this.isToggled() && ConfigManager.getSnapshot().isTogglePassivesWithAllBending()) || !this.isElementToggled(element) || !this.isPassiveToggled(element) || !this.isToggledPassives()) {
 			return false;
 		} else if (this.isChiBlocked() || this.isParalyzed() || this.isBloodbent()) {
 			return false;
@@ -257,7 +319,7 @@ public class BendingPlayer extends OfflineBendingPlayer {
 	 * Check if the {@link BendingPlayer} can bend in the world they are in
 	 */
 	public boolean canBendInWorld() {
-		return !DISABLED_WORLDS.contains(this.getPlayer().getWorld().getName());
+		return !ConfigManager.getSnapshot().isWorldDisabled(this.getPlayer().getWorld());
 	}
 
 	/**
@@ -388,10 +450,6 @@ public class BendingPlayer extends OfflineBendingPlayer {
 		return getBendingPlayer(oPlayer);
 	}
 
-	private static FileConfiguration getConfig() {
-		return ConfigManager.getConfig();
-	}
-
 	@Override
 	public void uncache() throws IllegalStateException {
 		throw new IllegalStateException("Cannot uncache an online BendingPlayer!");
@@ -434,8 +492,33 @@ public class BendingPlayer extends OfflineBendingPlayer {
 		return OfflineBendingPlayer.PLAYERS;
 	}
 
+	/**
+	 * Registers a hook that can decide if a player can bend an ability before
+	 * any other check. Hooks are asked on every call, unless every registered
+	 * hook is {@link CanBendHook#isCacheable() cacheable}. Then their answers
+	 * are cached like the rest of {@link #canBend(CoreAbility)}, so they are
+	 * asked at most once per tick for each ability of a player, see
+	 * {@link #invalidateCanBend()}.
+	 *
+	 * @param plugin The plugin registering the hook
+	 * @param hook The hook
+	 */
 	public static void registerCanBendHook(@NotNull JavaPlugin plugin, @NotNull CanBendHook hook) {
 		HOOKS.put(plugin, hook);
+		hooksCacheable = HOOKS.values().stream().allMatch(CanBendHook::isCacheable);
+		CanBendCache.invalidateAll();
+	}
+
+	/**
+	 * Removes the hook of a plugin, e.g. when the plugin is disabled.
+	 *
+	 * @param plugin The plugin that registered the hook
+	 */
+	public static void unregisterCanBendHook(@NotNull JavaPlugin plugin) {
+		if (HOOKS.remove(plugin) != null) {
+			hooksCacheable = HOOKS.values().stream().allMatch(CanBendHook::isCacheable);
+			CanBendCache.invalidateAll();
+		}
 	}
 
 	/**
@@ -487,11 +570,7 @@ public class BendingPlayer extends OfflineBendingPlayer {
 	 */
 	@Override
 	public boolean isOnCooldown(final String ability) {
-		if (this.cooldowns.containsKey(ability)) {
-			return System.currentTimeMillis() < this.cooldowns.get(ability).getCooldown();
-		}
-
-		return false;
+		return this.cooldowns.isOnCooldown(CooldownStore.findId(ability), System.currentTimeMillis());
 	}
 
 	public boolean isParalyzed() {
@@ -545,7 +624,7 @@ public class BendingPlayer extends OfflineBendingPlayer {
 	 * @return True if bending is disabled in the world
 	 */
 	public static boolean isWorldDisabled(World world) {
-		return DISABLED_WORLDS.contains(world.getName());
+		return ConfigManager.getSnapshot().isWorldDisabled(world);
 	}
 
 	/**
@@ -572,36 +651,46 @@ public class BendingPlayer extends OfflineBendingPlayer {
 	}
 
 	/**
-	 * Removes all cooldowns that have expired.
-	 *
-	 * We cannot call the {@link #removeCooldown(String)} method here because it
-	 * would cause a ConcurrentModificationException. That's why we have to copy
-	 * most of the method here so the event is still called, but we remove from
-	 * the iterator instead of the map like we do in {@link #removeCooldown(String)}
+	 * Removes all cooldowns that have expired. Expired cooldowns are already
+	 * removed every tick by {@link CooldownStore#expire(long)}, so this only
+	 * has to be called to remove them right away.
 	 */
 	@Override
 	protected void removeOldCooldowns() {
-		Iterator<Entry<String, Cooldown>> iterator = this.cooldowns.entrySet().iterator();
-		while (iterator.hasNext()) {
-			Map.Entry<String, Cooldown> entry = iterator.next();
-			if (System.currentTimeMillis() >= entry.getValue().getCooldown()) {
-				final PlayerCooldownChangeEvent event = new PlayerCooldownChangeEvent(this.player, entry.getKey(), 0, Result.REMOVED);
-				Bukkit.getServer().getPluginManager().callEvent(event);
-				if (!event.isCancelled()) {
-					iterator.remove();
-
-					final String abilityName = event.getAbility();
-
-					if (this.getBoundAbility() != null && this.getBoundAbilityName().equals(abilityName)) {
-						ChatUtil.displayMovePreview(this.player);
-					}
-
-					BendingBoardManager.updateBoard(this.player, event.getAbility(), false, 0);
-				}
+		final long now = System.currentTimeMillis();
+		for (final Map.Entry<String, Cooldown> entry : this.cooldowns.entrySet()) {
+			if (now >= entry.getValue().getCooldown()) {
+				this.expireCooldown(entry.getKey());
 			}
 		}
 	}
 
+	/**
+	 * Removes an expired cooldown while firing a
+	 * {@link PlayerCooldownChangeEvent}. If the event is cancelled the
+	 * cooldown stays and expires again on the next tick.
+	 */
+	private void expireCooldown(final String ability) {
+		if (ONLINE_PLAYERS.get(this.getUUID()) != this) {
+			this.cooldowns.untrack();
+			return;
+		}
+
+		final PlayerCooldownChangeEvent event = new PlayerCooldownChangeEvent(this.player, ability, 0, Result.REMOVED);
+		Bukkit.getServer().getPluginManager().callEvent(event);
+		if (!event.isCancelled()) {
+			this.cooldowns.remove(CooldownStore.findId(ability));
+
+			final String abilityName = event.getAbility();
+
+			if (this.getBoundAbility() != null && this.getBoundAbilityName().equals(abilityName)) {
+				ChatUtil.displayMovePreview(this.player);
+			}
+
+			BendingBoardManager.updateBoard(this.player, event.getAbility(), false, 0);
+		}
+	}
+
 	/**
 	 * Sets the player's {@link ChiAbility Chi stance}
 	 * Also update any previews
@@ -632,6 +721,7 @@ public class BendingPlayer extends OfflineBendingPlayer {
 	@Override
 	public void toggleBending() {
 		this.toggled = !this.toggled;
+		this.invalidateCanBend();
 		PassiveManager.registerPassives(this.player);
 	}
 
@@ -644,9 +734,22 @@ public class BendingPlayer extends OfflineBendingPlayer {
 	@Override
 	public void toggleElement(final Element element) {
 		super.toggleElement(element);
+		this.invalidateCanBend();
 		PassiveManager.registerPassives(this.player);
 	}
 
+	@Override
+	public void bindAbility(final String ability, final int slot) {
+		super.bindAbility(ability, slot);
+		this.invalidateCanBend();
+	}
+
+	@Override
+	public void setAbilities(@NotNull final HashMap<Integer, String> abilities) {
+		super.setAbilities(abilities);
+		this.invalidateCanBend();
+	}
+
 	@Override
 	public void togglePassive(final Element element) {
 		super.togglePassive(element);
@@ -0,0 +1,126 @@
+package com.projectkorra.projectkorra;
+
+import java.util.Arrays;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import com.projectkorra.projectkorra.ability.CoreAbility;
+
+/**
+ * Remembers the part of {@link BendingPlayer#canBend(CoreAbility)} that
+ * doesn't depend on the ability instance or the time, per ability name id (see
+ * {@link com.projectkorra.projectkorra.util.CooldownStore#getId(String)}) and
+ * combination of ignoreBinds and ignoreCooldowns. Abilities check it every
+ * tick, usually with the same answer.
+ * <p>
+ * Every decision is stored with the generation it was made in, so forgetting
+ * all of them is increasing the generation. That happens once per bending
+ * tick, when the player moves into another block, changes world or held slot,
+ * when {@link #invalidate()} is called for the player, and for every player
+ * when {@link #invalidateAll()} is called. Decisions are only cached on the
+ * main thread.
+ */
+final class CanBendCache {
+
+	static final int UNKNOWN = -1;
+	/**
+	 * A hook or one of the cached checks denied it.
+	 */
+	static final int DENIED = 0;
+	/**
+	 * The cached checks passed, the instance and cooldown checks still have to.
+	 */
+	static final int PASSED = 1;
+	/**
+	 * A hook allowed it, nothing else is checked.
+	 */
+	static final int HOOK_ALLOWED = 2;
+
+	private static int epoch;
+
+	private final Player player;
+	private final Location location;
+	private long[] decisions = new long[0];
+	private long generation = 1;
+	private long tick = Long.MIN_VALUE;
+	private int seenEpoch;
+	private World world;
+	private int blockX, blockY, blockZ;
+	private int slot;
+
+	CanBendCache(final Player player) {
+		this.player = player;
+		this.location = new Location(null, 0, 0, 0);
+	}
+
+	/**
+	 * Forgets the decisions of every player.
+	 */
+	static void invalidateAll() {
+		epoch++;
+	}
+
+	/**
+	 * @return The key of a decision
+	 */
+	static int getKey(final int cooldownId, final boolean ignoreBinds, final boolean ignoreCooldowns) {
+		return cooldownId << 2 | (ignoreBinds ? 2 : 0) | (ignoreCooldowns ? 1 : 0);
+	}
+
+	/**
+	 * @return The cached decision, or {@link #UNKNOWN} if there is none or
+	 *         this isn't the main thread
+	 */
+	int get(final int key) {
+		if (!Bukkit.isPrimaryThread()) {
+			return UNKNOWN;
+		}
+		this.validate();
+		if (key < this.decisions.length) {
+			final long decision = this.decisions[key];
+			if (decision >>> 2 == this.generation) {
+				return (int) (decision & 3);
+			}
+		}
+		return UNKNOWN;
+	}
+
+	void put(final int key, final int decision) {
+		if (!Bukkit.isPrimaryThread()) {
+			return;
+		}
+		if (key >= this.decisions.length) {
+			this.decisions = Arrays.copyOf(this.decisions, Math.max((key | 3) + 1, this.decisions.length * 2));
+		}
+		this.decisions[key] = this.generation << 2 | decision;
+	}
+
+	void invalidate() {
+		this.generation++;
+	}
+
+	/**
+	 * Forgets the decisions if they were made in another tick or the player
+	 * moved since.
+	 */
+	private void validate() {
+		final long tick = CoreAbility.getCurrentTick();
+		this.player.getLocation(this.location);
+		final World world = this.location.getWorld();
+		final int blockX = this.location.getBlockX(), blockY = this.location.getBlockY(), blockZ = this.location.getBlockZ();
+		final int slot = this.player.getInventory().getHeldItemSlot();
+		if (tick != this.tick || this.seenEpoch != epoch || world != this.world || blockX != this.blockX || blockY != this.blockY || blockZ != this.blockZ || slot != this.slot) {
+			this.generation++;
+			this.tick = tick;
+			this.seenEpoch = epoch;
+			this.world = world;
+			this.blockX = blockX;
+			this.blockY = blockY;
+			this.blockZ = blockZ;
+			this.slot = slot;
+		}
+	}
+}
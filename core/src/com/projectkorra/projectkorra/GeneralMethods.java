@@ -19,6 +19,7 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Predicate;
 
 import com.google.common.io.Files;
@@ -29,8 +30,8 @@ import com.projectkorra.projectkorra.command.PKCommand;
 import com.projectkorra.projectkorra.earthbending.util.EarthbendingManager;
 import com.projectkorra.projectkorra.firebending.util.FirebendingManager;
 import com.projectkorra.projectkorra.region.RegionProtection;
+import com.projectkorra.projectkorra.util.BlockShape;
 import com.projectkorra.projectkorra.util.ChatUtil;
-import com.projectkorra.projectkorra.util.RevertChecker;
 import com.projectkorra.projectkorra.util.TempFallingBlock;
 import com.projectkorra.projectkorra.waterbending.blood.Bloodbending;
 import com.projectkorra.projectkorra.waterbending.util.WaterbendingManager;
@@ -93,11 +94,14 @@ import com.projectkorra.projectkorra.firebending.combustion.Combustion;
 import com.projectkorra.projectkorra.object.Preset;
 import com.projectkorra.projectkorra.storage.DBConnection;
 import com.projectkorra.projectkorra.util.ColoredParticle;
+import com.projectkorra.projectkorra.util.EntitySpatialIndex;
 import com.projectkorra.projectkorra.util.MovementHandler;
 import com.projectkorra.projectkorra.util.ParticleEffect;
+import com.projectkorra.projectkorra.util.StatisticsManager;
 import com.projectkorra.projectkorra.util.TempArmor;
 import com.projectkorra.projectkorra.util.TempArmorStand;
 import com.projectkorra.projectkorra.util.TempBlock;
+import com.projectkorra.projectkorra.util.TickProfiler;
 import com.projectkorra.projectkorra.waterbending.WaterManipulation;
 import com.projectkorra.projectkorra.waterbending.WaterSpout;
 
@@ -536,25 +540,16 @@ public class GeneralMethods {
 	 * @return The list of Blocks
 	 */
 	public static List<Block> getBlocksAroundPoint(final Location location, final double radius) {
-		final List<Block> blocks = new ArrayList<Block>();
-
-		final int xorg = location.getBlockX();
-		final int yorg = location.getBlockY();
-		final int zorg = location.getBlockZ();
-
-		final int r = (int) radius * 4;
-
-		for (int x = xorg - r; x <= xorg + r; x++) {
-			for (int y = yorg - r; y <= yorg + r; y++) {
-				for (int z = zorg - r; z <= zorg + r; z++) {
-					final Block block = location.getWorld().getBlockAt(x, y, z);
-					if (block.getLocation().distanceSquared(location) <= radius * radius) {
-						blocks.add(block);
-					}
-				}
+		if ((int) radius <= 0) {
+			// Radii below one only ever covered the block of the location
+			final List<Block> blocks = new ArrayList<Block>(1);
+			final Block block = location.getBlock();
+			if ((int) radius == 0 && block.getLocation().distanceSquared(location) <= radius * radius) {
+				blocks.add(block);
 			}
+			return blocks;
 		}
-		return blocks;
+		return BlockShape.sphere(radius).getBlocks(location);
 	}
 
 	public static BlockFace getCardinalDirection(final Vector vector) {
@@ -715,7 +710,13 @@ public class GeneralMethods {
 	 * @return A list of entities around a point
 	 */
 	public static List<Entity> getEntitiesAroundPoint(final Location location, final double radius, Predicate<Entity> acceptable) {
-		return new ArrayList<>(location.getWorld().getNearbyEntities(location, radius, radius, radius, acceptable));
+		final EntitySpatialIndex index = EntitySpatialIndex.get(location.getWorld());
+		if (index == null) {
+			return new ArrayList<>(location.getWorld().getNearbyEntities(location, radius, radius, radius, acceptable));
+		}
+		final List<Entity> entities = new ArrayList<>();
+		index.forEachAround(location.getX(), location.getY(), location.getZ(), radius, radius, radius, acceptable, entities::add);
+		return entities;
 	}
 
 	/**
@@ -731,7 +732,7 @@ public class GeneralMethods {
 	}
 
 	public static long getGlobalCooldown() {
-		return ConfigManager.defaultConfig.get().getLong("Properties.GlobalCooldown");
+		return ConfigManager.getSnapshot().getGlobalCooldown();
 	}
 
 	/**
@@ -1338,10 +1339,15 @@ public class GeneralMethods {
 			return;
 		}
 		if (DBConnection.isOpen()) {
-			DBConnection.sql.close();
+			if (ProjectKorra.isStatisticsEnabled()) {
+				Manager.getManager(StatisticsManager.class).flush(false);
+			}
+			DBConnection.close();
 		}
 		GeneralMethods.stopBending();
+		RegionProtection.invalidateAll();
 		ConfigManager.defaultConfig.reload();
+		ConfigManager.compileSnapshot();
 		ConfigManager.languageConfig.reload();
 		ConfigManager.presetConfig.reload();
 		Arrays.stream(Element.getElements()).forEach(e -> {e.setColor(null); e.setSubColor(null);}); //Load colors from config again
@@ -1349,6 +1355,7 @@ public class GeneralMethods {
 		ElementalAbility.clearBendableMaterials(); // Clear and re-cache the material lists on reload.
 		ElementalAbility.setupBendableMaterials();
 		EarthTunnel.clearBendableMaterials();
+		TickProfiler.loadConfig();
 
 		Bukkit.getScheduler().cancelTasks(ProjectKorra.plugin);
 		ProjectKorra.plugin.getServer().getScheduler().scheduleSyncRepeatingTask(ProjectKorra.plugin, new BendingManager(), 0, 1);
@@ -1357,7 +1364,6 @@ public class GeneralMethods {
 		ProjectKorra.plugin.getServer().getScheduler().scheduleSyncRepeatingTask(ProjectKorra.plugin, new EarthbendingManager(ProjectKorra.plugin), 0, 1);
 		ProjectKorra.plugin.getServer().getScheduler().scheduleSyncRepeatingTask(ProjectKorra.plugin, new FirebendingManager(ProjectKorra.plugin), 0, 1);
 		ProjectKorra.plugin.getServer().getScheduler().scheduleSyncRepeatingTask(ProjectKorra.plugin, new ChiblockingManager(ProjectKorra.plugin), 0, 1);
-		ProjectKorra.plugin.revertChecker = ProjectKorra.plugin.getServer().getScheduler().runTaskTimerAsynchronously(ProjectKorra.plugin, new RevertChecker(ProjectKorra.plugin), 0, 200);
 
 		EarthTunnel.setupBendableMaterials();
 		Bloodbending.loadBloodlessFromConfig();
@@ -1382,15 +1388,19 @@ public class GeneralMethods {
 			ProjectKorra.log.severe("Unable to enable ProjectKorra due to the database not being open");
 			stopPlugin();
 		}
+		Manager.getManager(StatisticsManager.class).refreshKeys();
+		Manager.getManager(StatisticsManager.class).start();
 		BendingPlayer.getOfflinePlayers().clear();
 		BendingPlayer.getPlayers().clear();
-		BendingPlayer.DISABLED_WORLDS = new HashSet<>(ConfigManager.defaultConfig.get().getStringList("Properties.DisabledWorlds"));
 		BendingBoardManager.reload();
+		final List<UUID> uuids = new ArrayList<>();
 		for (final Player player : Bukkit.getOnlinePlayers()) {
 			Preset.unloadPreset(player);
-			OfflineBendingPlayer.loadAsync(player.getUniqueId(), false);
+			uuids.add(player.getUniqueId());
 			PassiveManager.registerPassives(player);
 		}
+		OfflineBendingPlayer.loadAllAsync(uuids, false);
+		OfflineBendingPlayer.rescheduleLoginBatch();
 
 		plugin.updater.checkUpdate();
 		ProjectKorra.log.info("Reload complete");
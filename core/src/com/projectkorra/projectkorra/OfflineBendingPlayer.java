@@ -7,20 +7,25 @@ import com.projectkorra.projectkorra.command.CooldownCommand;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.event.PlayerBindChangeEvent;
 import com.projectkorra.projectkorra.storage.DBConnection;
+import com.projectkorra.projectkorra.storage.PlayerRecord;
+import com.projectkorra.projectkorra.storage.PlayerWriteQueue.Column;
 import com.projectkorra.projectkorra.util.ChatUtil;
 import com.projectkorra.projectkorra.util.Cooldown;
+import com.projectkorra.projectkorra.util.CooldownStore;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.OfflinePlayer;
 
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -51,6 +56,13 @@ public class OfflineBendingPlayer {
      */
     protected static final Map<UUID, BendingPlayer> ONLINE_PLAYERS = new ConcurrentHashMap<>();
 
+    /**
+     * Players that logged in recently and are waiting to be loaded together
+     * in the next login batch.
+     */
+    private static final Map<UUID, CompletableFuture<OfflineBendingPlayer>> LOGIN_BATCH = new LinkedHashMap<>();
+    private static BukkitTask loginBatchTask;
+
     protected final OfflinePlayer player;
     protected final UUID uuid;
     protected boolean permaRemoved;
@@ -61,7 +73,7 @@ public class OfflineBendingPlayer {
     protected final List<Element> elements = new ArrayList<>();
     protected final List<SubElement> subelements = new ArrayList<>();
     protected HashMap<Integer, String> abilities = new HashMap<>();
-    protected final Map<String, Cooldown> cooldowns = new HashMap<>();
+    protected final CooldownStore cooldowns = new CooldownStore();
     protected final Set<Element> toggledElements = new HashSet<>();
     protected final Set<Element> toggledPassives = new HashSet<>();
 
@@ -103,298 +115,467 @@ public class OfflineBendingPlayer {
         }
 
         Runnable runnable = () -> {
-            OfflineBendingPlayer bPlayer = new OfflineBendingPlayer(offlinePlayer);
-            if (offlinePlayer.isOnline()) {
-                bPlayer = new BendingPlayer(((Player)offlinePlayer));
-                ONLINE_PLAYERS.put(uuid, (BendingPlayer)bPlayer);
+            try {
+                DBConnection.getWriteQueue().flush(uuid); //Make sure we don't read anything older than what is queued
+                final PlayerRecord record = PlayerRecord.fetch(Collections.singleton(uuid), ProjectKorra.isDatabaseCooldownsEnabled()).get(uuid);
+                final OfflineBendingPlayer bPlayer = load(offlinePlayer, record, onStartup);
+                postLoad(Collections.singletonList(bPlayer));
+                future.complete(bPlayer);
+            } catch (final SQLException | ExecutionException | InterruptedException ex) {
+                ex.printStackTrace();
+                future.cancel(true);
             }
+        };
 
-            PLAYERS.put(uuid, bPlayer);
+        if (!Bukkit.isPrimaryThread()) runnable.run();
+        else Bukkit.getScheduler().runTaskAsynchronously(ProjectKorra.plugin, runnable);
 
-            final ResultSet rs2 = DBConnection.sql.readQuery("SELECT * FROM pk_players WHERE uuid = '" + uuid.toString() + "'");
-            try {
-                if (!rs2.next()) { // Data doesn't exist, we want a completely new player.
-                    DBConnection.sql.modifyQuery("INSERT INTO pk_players (uuid, player, slot1, slot2, slot3, slot4, slot5, slot6, slot7, slot8, slot9) VALUES ('" + uuid.toString() + "', '" + offlinePlayer.getName() + "', 'null', 'null', 'null', 'null', 'null', 'null', 'null', 'null', 'null')");
-                    Bukkit.getScheduler().runTask(ProjectKorra.plugin, () -> ProjectKorra.log.info("Created new BendingPlayer for " + offlinePlayer.getName()));
-                    OfflineBendingPlayer newPlayer;
-                    if (offlinePlayer.isOnline()) {
-                        newPlayer = new BendingPlayer((Player)offlinePlayer);
-                        //Call postLoad() on the main thread and wait for it to complete
-                        Bukkit.getScheduler().callSyncMethod(ProjectKorra.plugin, () -> {
-                            ((BendingPlayer)newPlayer).postLoad();
-                            return true;
-                        }).get();
-                        ONLINE_PLAYERS.put(uuid, (BendingPlayer) newPlayer);
-                    } else {
-                        newPlayer = new OfflineBendingPlayer(offlinePlayer);
-                    }
-                    PLAYERS.put(uuid, newPlayer);
-                    future.complete(newPlayer);
-                } else {
-                    // The player has at least played before.
-                    final String player2 = rs2.getString("player");
-                    if (!offlinePlayer.getName().equalsIgnoreCase(player2)) {
-                        DBConnection.sql.modifyQuery("UPDATE pk_players SET player = '" + offlinePlayer.getName() + "' WHERE uuid = '" + uuid.toString() + "'");
-                        // They have changed names.
-                        ProjectKorra.log.info("Updating Player Name for " + offlinePlayer.getName());
+        return future;
+    }
+
+    /**
+     * Loads many players at once. The data of every player that isn't cached
+     * yet is fetched with a few bulk queries rather than a few queries per
+     * player, and the online players are post loaded in the same tick.
+     *
+     * @param uuids The players to load
+     * @param onStartup Whether addon elements and abilities may still be
+     *            loading
+     * @return A future that completes once every player is loaded
+     */
+    protected static CompletableFuture<Void> loadAllAsync(@NotNull final Collection<UUID> uuids, final boolean onStartup) {
+        final Map<UUID, CompletableFuture<OfflineBendingPlayer>> futures = new LinkedHashMap<>();
+        for (final UUID uuid : uuids) {
+            futures.put(uuid, new CompletableFuture<>());
+        }
+
+        if (!Bukkit.isPrimaryThread()) loadAll(futures, onStartup);
+        else Bukkit.getScheduler().runTaskAsynchronously(ProjectKorra.plugin, () -> loadAll(futures, onStartup));
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Loads a player that just logged in. Logins that happen close together
+     * are loaded as one batch, see {@link #loadAllAsync(Collection, boolean)}.
+     *
+     * @param uuid The player that logged in
+     * @return A future with the loaded player
+     */
+    protected static CompletableFuture<OfflineBendingPlayer> loadOnLogin(@NotNull final UUID uuid) {
+        final long delay = ConfigManager.getConfig().getLong("Storage.Preload.LoginBatchDelay") / 50;
+        if (delay <= 0 || PLAYERS.get(uuid) != null) {
+            return loadAsync(uuid, false);
+        }
+
+        synchronized (LOGIN_BATCH) {
+            final CompletableFuture<OfflineBendingPlayer> future = LOGIN_BATCH.computeIfAbsent(uuid, key -> new CompletableFuture<>());
+            //The task may have been cancelled by someone cancelling all tasks of the plugin
+            if (loginBatchTask == null || !Bukkit.getScheduler().isQueued(loginBatchTask.getTaskId())) {
+                scheduleLoginBatch(delay);
+            }
+            return future;
+        }
+    }
+
+    /**
+     * Schedules the login batch to be loaded. Must be called while holding
+     * the lock of {@link #LOGIN_BATCH}.
+     */
+    private static void scheduleLoginBatch(final long delay) {
+        loginBatchTask = Bukkit.getScheduler().runTaskLaterAsynchronously(ProjectKorra.plugin, () -> {
+            final Map<UUID, CompletableFuture<OfflineBendingPlayer>> batch;
+            synchronized (LOGIN_BATCH) {
+                batch = new LinkedHashMap<>(LOGIN_BATCH);
+                LOGIN_BATCH.clear();
+                loginBatchTask = null;
+            }
+            loadAll(batch, false);
+        }, delay);
+    }
+
+    /**
+     * Schedules the logins that are waiting for their batch again. Called on
+     * reload once the database is open again, since the reload cancels every
+     * task of the plugin, including the batch task.
+     */
+    static void rescheduleLoginBatch() {
+        synchronized (LOGIN_BATCH) {
+            if (loginBatchTask != null) {
+                loginBatchTask.cancel();
+                loginBatchTask = null;
+            }
+            if (!LOGIN_BATCH.isEmpty()) {
+                scheduleLoginBatch(Math.max(1, ConfigManager.getConfig().getLong("Storage.Preload.LoginBatchDelay") / 50));
+            }
+        }
+    }
+
+    /**
+     * Cancels the logins that are waiting for their batch. Called on disable.
+     */
+    static void cancelLoginBatch() {
+        final List<CompletableFuture<OfflineBendingPlayer>> futures;
+        synchronized (LOGIN_BATCH) {
+            if (loginBatchTask != null) {
+                loginBatchTask.cancel();
+                loginBatchTask = null;
+            }
+            futures = new ArrayList<>(LOGIN_BATCH.values());
+            LOGIN_BATCH.clear();
+        }
+        for (final CompletableFuture<OfflineBendingPlayer> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Loads the players and completes their futures. Must not be called on
+     * the main thread.
+     */
+    private static void loadAll(final Map<UUID, CompletableFuture<OfflineBendingPlayer>> futures, final boolean onStartup) {
+        final List<UUID> uuids = new ArrayList<>();
+        for (final Map.Entry<UUID, CompletableFuture<OfflineBendingPlayer>> entry : futures.entrySet()) {
+            if (PLAYERS.get(entry.getKey()) != null) { //Cached players may need to be converted to online players on the main thread
+                final CompletableFuture<OfflineBendingPlayer> future = entry.getValue();
+                Bukkit.getScheduler().runTask(ProjectKorra.plugin, () -> {
+                    try {
+                        loadAsync(entry.getKey(), onStartup).whenComplete((bPlayer, e) -> {
+                            if (e != null) future.completeExceptionally(e); //Don't leave the batch waiting for a player that failed to load
+                            else future.complete(bPlayer);
+                        });
+                    } catch (final RuntimeException e) {
+                        e.printStackTrace();
+                        future.completeExceptionally(e);
                     }
-                    final String subelementField = rs2.getString("subelement");
-                    final String elementField = rs2.getString("element");
-                    final String permaremovedField = rs2.getString("permaremoved");
-
-                    //Load the elements
-                    if (elementField != null && !elementField.equalsIgnoreCase("NULL")) {
-                        final boolean hasAddon = elementField.contains(";");
-                        final String[] split = elementField.split(";");
-                        if (split.length > 0 && !split[0].equals("")) { // Player has an element.
-                            if (split[0].contains("a")) {
-                                bPlayer.elements.add(Element.AIR);
-                            }
-                            if (split[0].contains("w")) {
-                                bPlayer.elements.add(Element.WATER);
-                            }
-                            if (split[0].contains("e")) {
-                                bPlayer.elements.add(Element.EARTH);
-                            }
-                            if (split[0].contains("f")) {
-                                bPlayer.elements.add(Element.FIRE);
-                            }
-                            if (split[0].contains("c")) {
-                                bPlayer.elements.add(Element.CHI);
+                });
+            } else {
+                uuids.add(entry.getKey());
+            }
+        }
+        if (uuids.isEmpty()) {
+            return;
+        }
+
+        try {
+            DBConnection.getWriteQueue().flush(uuids); //Make sure we don't read anything older than what is queued
+            final Map<UUID, PlayerRecord> records = PlayerRecord.fetch(uuids, ProjectKorra.isDatabaseCooldownsEnabled());
+            final List<OfflineBendingPlayer> loaded = new ArrayList<>(uuids.size());
+            for (final UUID uuid : uuids) {
+                loaded.add(load(Bukkit.getOfflinePlayer(uuid), records.get(uuid), onStartup));
+            }
+            postLoad(loaded);
+            for (final OfflineBendingPlayer bPlayer : loaded) {
+                futures.get(bPlayer.getUUID()).complete(bPlayer);
+            }
+        } catch (final SQLException | ExecutionException | InterruptedException ex) {
+            ex.printStackTrace();
+            for (final UUID uuid : uuids) {
+                futures.get(uuid).cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Creates the OfflineBendingPlayer, or BendingPlayer if the player is
+     * online, from their stored record and caches it. Doesn't call
+     * {@link BendingPlayer#postLoad()}, see {@link #postLoad(Collection)}.
+     *
+     * @param offlinePlayer The player to load
+     * @param record The stored record of the player, or null if they have
+     *            never played before
+     * @param onStartup Whether addon elements and abilities may still be
+     *            loading
+     * @return The loaded player
+     */
+    static OfflineBendingPlayer load(final OfflinePlayer offlinePlayer, final PlayerRecord record, final boolean onStartup) {
+        final UUID uuid = offlinePlayer.getUniqueId();
+        OfflineBendingPlayer bPlayer = new OfflineBendingPlayer(offlinePlayer);
+        if (offlinePlayer.isOnline()) {
+            bPlayer = new BendingPlayer(((Player)offlinePlayer));
+            ONLINE_PLAYERS.put(uuid, (BendingPlayer)bPlayer);
+        }
+
+        PLAYERS.put(uuid, bPlayer);
+
+        if (record == null) { // Data doesn't exist, we want a completely new player.
+            DBConnection.getWriteQueue().queueInsert(uuid, offlinePlayer.getName());
+            Bukkit.getScheduler().runTask(ProjectKorra.plugin, () -> ProjectKorra.log.info("Created new BendingPlayer for " + offlinePlayer.getName()));
+            OfflineBendingPlayer newPlayer;
+            if (offlinePlayer.isOnline()) {
+                newPlayer = new BendingPlayer((Player)offlinePlayer);
+                ONLINE_PLAYERS.put(uuid, (BendingPlayer) newPlayer);
+            } else {
+                newPlayer = new OfflineBendingPlayer(offlinePlayer);
+            }
+            PLAYERS.put(uuid, newPlayer);
+            return newPlayer;
+        }
+
+        // The player has at least played before.
+        final String player2 = record.getName();
+        if (!offlinePlayer.getName().equalsIgnoreCase(player2)) {
+            DBConnection.getWriteQueue().queue(uuid, Column.PLAYER, offlinePlayer.getName());
+            // They have changed names.
+            ProjectKorra.log.info("Updating Player Name for " + offlinePlayer.getName());
+        }
+        final String subelementField = record.getSubelement();
+        final String elementField = record.getElement();
+        final String permaremovedField = record.getPermaremoved();
+
+        //Load the elements
+        if (elementField != null && !elementField.equalsIgnoreCase("NULL")) {
+            final boolean hasAddon = elementField.contains(";");
+            final String[] split = elementField.split(";");
+            if (split.length > 0 && !split[0].equals("")) { // Player has an element.
+                if (split[0].contains("a")) {
+                    bPlayer.elements.add(Element.AIR);
+                }
+                if (split[0].contains("w")) {
+                    bPlayer.elements.add(Element.WATER);
+                }
+                if (split[0].contains("e")) {
+                    bPlayer.elements.add(Element.EARTH);
+                }
+                if (split[0].contains("f")) {
+                    bPlayer.elements.add(Element.FIRE);
+                }
+                if (split[0].contains("c")) {
+                    bPlayer.elements.add(Element.CHI);
+                }
+            }
+            if (hasAddon) {
+                /*
+                 * Because plugins which depend on ProjectKorra
+                 * would be loaded after ProjectKorra, addon
+                 * elements would = null. To work around this, we
+                 * keep trying to load in the elements from the
+                 * database until it successfully loads everything
+                 * in, or it times out.
+                 */
+                final CopyOnWriteArrayList<String> addonClone = new CopyOnWriteArrayList<>(Arrays.asList(split[split.length - 1].split(",")));
+                final long startTime = System.currentTimeMillis();
+                final long timeoutLength = 5_000; // How long until it should time out attempting to load addons in.
+                OfflineBendingPlayer finalBPlayer = bPlayer;
+                Predicate<List<String>> func = (elements) -> {
+                    if (System.currentTimeMillis() - startTime > timeoutLength) {
+                        ProjectKorra.log.severe("ProjectKorra has timed out after attempting to load in the following addon elements: " + addonClone.toString());
+                        ProjectKorra.log.severe("These elements have taken too long to load in, resulting in users having lost these element.");
+                        return true;
+                    } else {
+                        ProjectKorra.log.info("Attempting to load in the following addon elements... " + elements.toString());
+                        for (final String addon : elements) {
+                            if (Element.getElement(addon) != null) {
+                                finalBPlayer.elements.add(Element.getElement(addon));
+                                elements.remove(addon);
                             }
                         }
-                        if (hasAddon) {
-                            /*
-                             * Because plugins which depend on ProjectKorra
-                             * would be loaded after ProjectKorra, addon
-                             * elements would = null. To work around this, we
-                             * keep trying to load in the elements from the
-                             * database until it successfully loads everything
-                             * in, or it times out.
-                             */
-                            final CopyOnWriteArrayList<String> addonClone = new CopyOnWriteArrayList<>(Arrays.asList(split[split.length - 1].split(",")));
-                            final long startTime = System.currentTimeMillis();
-                            final long timeoutLength = 5_000; // How long until it should time out attempting to load addons in.
-                            OfflineBendingPlayer finalBPlayer = bPlayer;
-                            Predicate<List<String>> func = (elements) -> {
-                                if (System.currentTimeMillis() - startTime > timeoutLength) {
-                                    ProjectKorra.log.severe("ProjectKorra has timed out after attempting to load in the following addon elements: " + addonClone.toString());
-                                    ProjectKorra.log.severe("These elements have taken too long to load in, resulting in users having lost these element.");
-                                    return true;
-                                } else {
-                                    ProjectKorra.log.info("Attempting to load in the following addon elements... " + elements.toString());
-                                    for (final String addon : elements) {
-                                        if (Element.getElement(addon) != null) {
-                                            finalBPlayer.elements.add(Element.getElement(addon));
-                                            elements.remove(addon);
-                                        }
-                                    }
-                                    if (elements.isEmpty()) {
-                                        ProjectKorra.log.info("Successfully loaded in all addon elements!");
-                                        return true;
-                                    }
-                                }
-                                return false;
-                            };
-
-                            if (onStartup) { //If we are doing this on startup, addon elements aren't loaded yet. So do this async
-                                new BukkitRunnable() {
-                                    @Override
-                                    public void run() {
-                                        if (func.test(addonClone)) {
-                                            this.cancel();
-                                        }
-                                    }
-                                }.runTaskTimer(ProjectKorra.plugin, 0, 5);
-                            } else func.test(addonClone); //Addon elements should be loaded so
+                        if (elements.isEmpty()) {
+                            ProjectKorra.log.info("Successfully loaded in all addon elements!");
+                            return true;
                         }
                     }
-
-                    //Load subelements
-                    if (subelementField != null && !subelementField.equalsIgnoreCase("NULL")) {
-                        final boolean hasAddon = subelementField.contains(";");
-                        final String[] split = subelementField.split(";");
-
-                        //If the subelements aren't defined, we give them now
-                        if (subelementField.equals("-")) {
-                            boolean shouldSave = false;
-                            if (offlinePlayer instanceof Player) { //Only if the player is online though
-                                subloop:
-                                for (final SubElement sub : Element.getAllSubElements()) {
-                                    if (sub instanceof Element.MultiSubElement) { //If it's a multisub, check if they have any of the parent element and perm for the sub of that parent
-                                        for (Element parent : ((Element.MultiSubElement) sub).getParentElements()) {
-                                            if (((Player) offlinePlayer).hasPermission("bending." + parent.getName() + "." + sub.getName() + sub.getType().getBending()) && bPlayer.elements.contains(sub.getParentElement())) {
-                                                bPlayer.subelements.add(sub);
-                                                continue subloop;
-                                            }
-                                        }
-                                    } else if (((Player)offlinePlayer).hasPermission("bending." + sub.getParentElement().getName().toLowerCase() + "." + sub.getName().toLowerCase() + sub.getType().getBending())
-                                            && bPlayer.elements.contains(sub.getParentElement())) {
-                                        bPlayer.subelements.add(sub);
-                                        shouldSave = true;
-                                    }
-                                }
-                                if (shouldSave) bPlayer.saveSubElements();
-                            }
-                        } else if (split.length > 0 && !split[0].equals("")) {
-                            if (split[0].contains("m")) {
-                                bPlayer.subelements.add(Element.METAL);
-                            }
-                            if (split[0].contains("v")) {
-                                bPlayer.subelements.add(Element.LAVA);
-                            }
-                            if (split[0].contains("s")) {
-                                bPlayer.subelements.add(Element.SAND);
-                            }
-                            if (split[0].contains("c")) {
-                                bPlayer.subelements.add(Element.COMBUSTION);
-                            }
-                            if (split[0].contains("l")) {
-                                bPlayer.subelements.add(Element.LIGHTNING);
-                            }
-                            if (split[0].contains("t")) {
-                                bPlayer.subelements.add(Element.SPIRITUAL);
-                            }
-                            if (split[0].contains("f")) {
-                                bPlayer.subelements.add(Element.FLIGHT);
-                            }
-                            if (split[0].contains("i")) {
-                                bPlayer.subelements.add(Element.ICE);
-                            }
-                            if (split[0].contains("h")) {
-                                bPlayer.subelements.add(Element.HEALING);
-                            }
-                            if (split[0].contains("b")) {
-                                bPlayer.subelements.add(Element.BLOOD);
-                            }
-                            if (split[0].contains("p")) {
-                                bPlayer.subelements.add(Element.PLANT);
-                            }
-                            if (split[0].contains("r")) {
-                                bPlayer.subelements.add(Element.BLUE_FIRE);
+                    return false;
+                };
+
+                if (onStartup) { //If we are doing this on startup, addon elements aren't loaded yet. So do this async
+                    new BukkitRunnable() {
+                        @Override
+                        public void run() {
+                            if (func.test(addonClone)) {
+                                this.cancel();
                             }
                         }
-                        if (hasAddon) {
-                            final CopyOnWriteArrayList<String> addonClone = new CopyOnWriteArrayList<String>(Arrays.asList(split[split.length - 1].split(",")));
-                            final long startTime = System.currentTimeMillis();
-                            final long timeoutLength = 5_000; // How long until it should time out attempting to load addons in.
-                            OfflineBendingPlayer finalBPlayer1 = bPlayer;
-                            Predicate<List<String>> func = (elements) -> {
-                                if (System.currentTimeMillis() - startTime > timeoutLength) {
-                                    ProjectKorra.log.severe("ProjectKorra has timed out after attempting to load in the following addon subelements: " + addonClone.toString());
-                                    ProjectKorra.log.severe("These subelements have taken too long to load in, resulting in users having lost these subelement.");
-                                    return true;
-                                } else {
-                                    ProjectKorra.log.info("Attempting to load in the following addon subelements... " + elements.toString());
-                                    for (final String addon : elements) {
-                                        if (Element.getElement(addon) != null && Element.getElement(addon) instanceof SubElement) {
-                                            finalBPlayer1.subelements.add((SubElement) Element.getElement(addon));
-                                            elements.remove(addon);
-                                        }
-                                    }
-
-                                    if (elements.isEmpty()) {
-                                        ProjectKorra.log.info("Successfully loaded in all addon subelements!");
-                                        return true;
-                                    }
-                                    return false;
+                    }.runTaskTimer(ProjectKorra.plugin, 0, 5);
+                } else func.test(addonClone); //Addon elements should be loaded so
+            }
+        }
+
+        //Load subelements
+        if (subelementField != null && !subelementField.equalsIgnoreCase("NULL")) {
+            final boolean hasAddon = subelementField.contains(";");
+            final String[] split = subelementField.split(";");
+
+            //If the subelements aren't defined, we give them now
+            if (subelementField.equals("-")) {
+                boolean shouldSave = false;
+                if (offlinePlayer instanceof Player) { //Only if the player is online though
+                    subloop:
+                    for (final SubElement sub : Element.getAllSubElements()) {
+                        if (sub instanceof Element.MultiSubElement) { //If it's a multisub, check if they have any of the parent element and perm for the sub of that parent
+                            for (Element parent : ((Element.MultiSubElement) sub).getParentElements()) {
+                                if (((Player) offlinePlayer).hasPermission("bending." + parent.getName() + "." + sub.getName() + sub.getType().getBending()) && bPlayer.elements.contains(sub.getParentElement())) {
+                                    bPlayer.subelements.add(sub);
+                                    continue subloop;
                                 }
-                            };
-                            if (onStartup) { //If we are doing this on startup, addon elements aren't loaded yet. So do this async
-                                new BukkitRunnable() {
-                                    @Override
-                                    public void run() {
-                                        if (func.test(addonClone)) {
-                                            this.cancel();
-                                        }
-                                    }
-                                }.runTaskTimer(ProjectKorra.plugin, 0, 5);
-                            } else func.test(addonClone); //Addon elements should be loaded by now
+                            }
+                        } else if (((Player)offlinePlayer).hasPermission("bending." + sub.getParentElement().getName().toLowerCase() + "." + sub.getName().toLowerCase() + sub.getType().getBending())
+                                && bPlayer.elements.contains(sub.getParentElement())) {
+                            bPlayer.subelements.add(sub);
+                            shouldSave = true;
                         }
                     }
-
-                    //Load the abilities
-                    final ConcurrentHashMap<Integer, String> abilitiesClone = new ConcurrentHashMap<>();
-                    for (int i = 1; i <= 9; i++) {
-                        final String ability = rs2.getString("slot" + i);
-                        abilitiesClone.put(i, ability);
-                    }
-                    final long startTime = System.currentTimeMillis();
-                    final long timeoutLength = 5_000; // How long until it should time out attempting to load addons in.
-                    OfflineBendingPlayer finalBPlayer2 = bPlayer;
-                    Predicate<Map<Integer, String>> func = (abils) -> {
-                        if (System.currentTimeMillis() - startTime > timeoutLength) {
-                            ProjectKorra.log.severe("ProjectKorra has timed out after attempting to load in the following abilities: " + abilitiesClone.toString());
-                            ProjectKorra.log.severe("These abilities have taken too long to load in, resulting in users having lost these abilities.");
-                            return true;
-                        } else {
-                            for (final Map.Entry<Integer, String> set : abils.entrySet()) {
-                                if (set.getValue() == null || set.getValue().equalsIgnoreCase("null")) {
-                                    abils.remove(set.getKey());
-                                } else if (CoreAbility.getAbility(set.getValue()) != null && CoreAbility.getAbility(set.getValue()).isEnabled()) {
-                                    finalBPlayer2.abilities.put(set.getKey(), set.getValue());
-                                    abils.remove(set.getKey());
-                                }
+                    if (shouldSave) bPlayer.saveSubElements();
+                }
+            } else if (split.length > 0 && !split[0].equals("")) {
+                if (split[0].contains("m")) {
+                    bPlayer.subelements.add(Element.METAL);
+                }
+                if (split[0].contains("v")) {
+                    bPlayer.subelements.add(Element.LAVA);
+                }
+                if (split[0].contains("s")) {
+                    bPlayer.subelements.add(Element.SAND);
+                }
+                if (split[0].contains("c")) {
+                    bPlayer.subelements.add(Element.COMBUSTION);
+                }
+                if (split[0].contains("l")) {
+                    bPlayer.subelements.add(Element.LIGHTNING);
+                }
+                if (split[0].contains("t")) {
+                    bPlayer.subelements.add(Element.SPIRITUAL);
+                }
+                if (split[0].contains("f")) {
+                    bPlayer.subelements.add(Element.FLIGHT);
+                }
+                if (split[0].contains("i")) {
+                    bPlayer.subelements.add(Element.ICE);
+                }
+                if (split[0].contains("h")) {
+                    bPlayer.subelements.add(Element.HEALING);
+                }
+                if (split[0].contains("b")) {
+                    bPlayer.subelements.add(Element.BLOOD);
+                }
+                if (split[0].contains("p")) {
+                    bPlayer.subelements.add(Element.PLANT);
+                }
+                if (split[0].contains("r")) {
+                    bPlayer.subelements.add(Element.BLUE_FIRE);
+                }
+            }
+            if (hasAddon) {
+                final CopyOnWriteArrayList<String> addonClone = new CopyOnWriteArrayList<String>(Arrays.asList(split[split.length - 1].split(",")));
+                final long startTime = System.currentTimeMillis();
+                final long timeoutLength = 5_000; // How long until it should time out attempting to load addons in.
+                OfflineBendingPlayer finalBPlayer1 = bPlayer;
+                Predicate<List<String>> func = (elements) -> {
+                    if (System.currentTimeMillis() - startTime > timeoutLength) {
+                        ProjectKorra.log.severe("ProjectKorra has timed out after attempting to load in the following addon subelements: " + addonClone.toString());
+                        ProjectKorra.log.severe("These subelements have taken too long to load in, resulting in users having lost these subelement.");
+                        return true;
+                    } else {
+                        ProjectKorra.log.info("Attempting to load in the following addon subelements... " + elements.toString());
+                        for (final String addon : elements) {
+                            if (Element.getElement(addon) != null && Element.getElement(addon) instanceof SubElement) {
+                                finalBPlayer1.subelements.add((SubElement) Element.getElement(addon));
+                                elements.remove(addon);
                             }
+                        }
 
-                            if (abils.isEmpty()) {
-                                ProjectKorra.log.info("Successfully loaded in all abilities!");
-                                return true;
-                            }
-                            return false;
+                        if (elements.isEmpty()) {
+                            ProjectKorra.log.info("Successfully loaded in all addon subelements!");
+                            return true;
                         }
-                    };
-                    if (onStartup) { //If we are doing this on startup, addon elements aren't loaded yet. So do this async
-                        new BukkitRunnable() {
-                            @Override
-                            public void run() {
-                                if (func.test(abilitiesClone)) {
-                                    this.cancel();
-                                }
-                            }
-                        }.runTaskTimer(ProjectKorra.plugin, 0, 5);
-                    } else func.test(abilitiesClone); //Addon elements should be loaded by now
-
-                    //Load permaRemove
-                    if (permaremovedField != null && permaremovedField.equalsIgnoreCase("true")) bPlayer.permaRemoved = true;
-
-                    //Load cooldowns
-                    if (ProjectKorra.isDatabaseCooldownsEnabled()) {
-                        try (ResultSet rs = DBConnection.sql.readQuery("SELECT * FROM pk_cooldowns WHERE uuid = '" + uuid.toString() + "'")) {
-                            while (rs.next()) {
-                                final String name = rs.getString("cooldown");
-                                final long value = rs.getLong("value");
-                                bPlayer.cooldowns.put(name, new Cooldown(value, true));
+                        return false;
+                    }
+                };
+                if (onStartup) { //If we are doing this on startup, addon elements aren't loaded yet. So do this async
+                    new BukkitRunnable() {
+                        @Override
+                        public void run() {
+                            if (func.test(addonClone)) {
+                                this.cancel();
                             }
-                        } catch (final SQLException e) {
-                            e.printStackTrace();
                         }
-                    }
+                    }.runTaskTimer(ProjectKorra.plugin, 0, 5);
+                } else func.test(addonClone); //Addon elements should be loaded by now
+            }
+        }
 
-                    bPlayer.loading = false;
-                    //Call postLoad() on the main thread and wait for it to complete
-                    if (bPlayer instanceof BendingPlayer) {
-                        BendingPlayer finalBPlayer3 = (BendingPlayer) bPlayer;
-                        Bukkit.getScheduler().callSyncMethod(ProjectKorra.plugin, () -> {
-                            finalBPlayer3.postLoad();
-                            return true;
-                        }).get();
-                    } else {
-                        bPlayer.uncacheAfter(30_000);
+        //Load the abilities
+        final ConcurrentHashMap<Integer, String> abilitiesClone = new ConcurrentHashMap<>();
+        for (int i = 1; i <= 9; i++) {
+            final String ability = record.getSlot(i);
+            abilitiesClone.put(i, ability);
+        }
+        final long startTime = System.currentTimeMillis();
+        final long timeoutLength = 5_000; // How long until it should time out attempting to load addons in.
+        OfflineBendingPlayer finalBPlayer2 = bPlayer;
+        Predicate<Map<Integer, String>> func = (abils) -> {
+            if (System.currentTimeMillis() - startTime > timeoutLength) {
+                ProjectKorra.log.severe("ProjectKorra has timed out after attempting to load in the following abilities: " + abilitiesClone.toString());
+                ProjectKorra.log.severe("These abilities have taken too long to load in, resulting in users having lost these abilities.");
+                return true;
+            } else {
+                for (final Map.Entry<Integer, String> set : abils.entrySet()) {
+                    if (set.getValue() == null || set.getValue().equalsIgnoreCase("null")) {
+                        abils.remove(set.getKey());
+                    } else if (CoreAbility.getAbility(set.getValue()) != null && CoreAbility.getAbility(set.getValue()).isEnabled()) {
+                        finalBPlayer2.abilities.put(set.getKey(), set.getValue());
+                        abils.remove(set.getKey());
                     }
+                }
 
-                    future.complete(bPlayer);
+                if (abils.isEmpty()) {
+                    ProjectKorra.log.info("Successfully loaded in all abilities!");
+                    return true;
                 }
-            } catch (final SQLException | ExecutionException | InterruptedException ex) {
-                ex.printStackTrace();
-                future.cancel(true);
+                return false;
             }
         };
+        if (onStartup) { //If we are doing this on startup, addon elements aren't loaded yet. So do this async
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    if (func.test(abilitiesClone)) {
+                        this.cancel();
+                    }
+                }
+            }.runTaskTimer(ProjectKorra.plugin, 0, 5);
+        } else func.test(abilitiesClone); //Addon elements should be loaded by now
 
-        if (!Bukkit.isPrimaryThread()) runnable.run();
-        else Bukkit.getScheduler().runTaskAsynchronously(ProjectKorra.plugin, runnable);
+        //Load permaRemove
+        if (permaremovedField != null && permaremovedField.equalsIgnoreCase("true")) bPlayer.permaRemoved = true;
 
-        return future;
+        //Load cooldowns
+        for (final Map.Entry<String, Long> cooldown : record.getCooldowns().entrySet()) {
+            bPlayer.cooldowns.set(CooldownStore.getId(cooldown.getKey()), cooldown.getValue(), true);
+        }
+
+        bPlayer.loading = false;
+        if (!(bPlayer instanceof BendingPlayer)) {
+            bPlayer.uncacheAfter(30_000);
+        }
+        return bPlayer;
+    }
+
+    /**
+     * Calls {@link BendingPlayer#postLoad()} for the online players on the
+     * main thread, all in the same tick, and waits for it to complete.
+     *
+     * @param players The loaded players
+     */
+    static void postLoad(final Collection<OfflineBendingPlayer> players) throws ExecutionException, InterruptedException {
+        final List<BendingPlayer> online = new ArrayList<>();
+        for (final OfflineBendingPlayer player : players) {
+            if (player instanceof BendingPlayer) {
+                online.add((BendingPlayer) player);
+            }
+        }
+        if (online.isEmpty()) {
+            return;
+        }
+
+        if (Bukkit.isPrimaryThread()) {
+            online.forEach(BendingPlayer::postLoad);
+        } else {
+            Bukkit.getScheduler().callSyncMethod(ProjectKorra.plugin, () -> {
+                online.forEach(BendingPlayer::postLoad);
+                return true;
+            }).get();
+        }
     }
 
     /**
@@ -454,7 +635,7 @@ public class OfflineBendingPlayer {
             subs.append("NULL");
         }
 
-        DBConnection.sql.modifyQuery("UPDATE pk_players SET subelement = '" + subs.toString() + "' WHERE uuid = '" + uuid + "'");
+        DBConnection.getWriteQueue().queue(this.uuid, Column.SUBELEMENT, subs.toString());
     }
 
     /**
@@ -493,7 +674,7 @@ public class OfflineBendingPlayer {
             elements.append("NULL");
         }
 
-        DBConnection.sql.modifyQuery("UPDATE pk_players SET element = '" + elements.toString() + "' WHERE uuid = '" + uuid + "'");
+        DBConnection.getWriteQueue().queue(this.uuid, Column.ELEMENT, elements.toString());
     }
 
     /**
@@ -553,7 +734,7 @@ public class OfflineBendingPlayer {
             return;
         }
 
-        DBConnection.sql.modifyQuery("UPDATE pk_players SET slot" + slot + " = '" + (this.abilities.get(slot) == null ? null : abilities.get(slot)) + "' WHERE uuid = '" + uuid + "'");
+        DBConnection.getWriteQueue().queue(this.uuid, Column.slot(slot), String.valueOf(this.abilities.get(slot)));
     }
 
     /**
@@ -679,11 +860,7 @@ public class OfflineBendingPlayer {
      *         </p>
      */
     public long getCooldown(final String ability) {
-        if (this.cooldowns.containsKey(ability)) {
-            return this.cooldowns.get(ability).getCooldown();
-        }
-
-        return -1;
+        return this.cooldowns.getExpiry(CooldownStore.findId(ability));
     }
 
     /**
@@ -692,7 +869,7 @@ public class OfflineBendingPlayer {
      * @param ability The ability's cooldown to remove
      */
     public void removeCooldown(final String ability) {
-        this.cooldowns.remove(ability);
+        this.cooldowns.remove(CooldownStore.findId(ability));
     }
 
     /**
@@ -707,7 +884,8 @@ public class OfflineBendingPlayer {
      * Remove all cooldowns that have expired
      */
     protected void removeOldCooldowns() {
-        this.cooldowns.entrySet().removeIf(entry -> System.currentTimeMillis() >= entry.getValue().getCooldown());
+        final long now = System.currentTimeMillis();
+        this.cooldowns.entrySet().removeIf(entry -> now >= entry.getValue().getCooldown());
     }
 
     /**
@@ -730,11 +908,7 @@ public class OfflineBendingPlayer {
      * @return true if the cooldown map contains the ability
      */
     public boolean isOnCooldown(final String ability) {
-        if (this.cooldowns.containsKey(ability)) {
-            return true;
-        }
-
-        return false;
+        return this.cooldowns.contains(CooldownStore.findId(ability));
     }
 
     public void addCooldown(final Ability ability, final long cooldown, final boolean database) {
@@ -768,35 +942,29 @@ public class OfflineBendingPlayer {
             return;
         }
 
-        this.cooldowns.put(ability, new Cooldown(cooldown + System.currentTimeMillis(), database));
+        this.cooldowns.set(CooldownStore.getId(ability), cooldown + System.currentTimeMillis(), database);
 
         CooldownCommand.addCooldownType(ability);
     }
 
     /**
-     * Commits cooldowns to the database
+     * Queues the cooldowns to be saved to the database. The cooldowns are
+     * copied right away.
+     *
+     * @param async If false, the cooldowns are written before this returns
      */
-    private void saveCooldownsForce() {
-        DBConnection.sql.modifyQuery("DELETE FROM pk_cooldowns WHERE uuid = '" + this.uuid.toString() + "'", false);
+    public void saveCooldowns(boolean async) {
+        final Map<String, Long> cooldowns = new HashMap<>();
         for (final Map.Entry<String, Cooldown> entry : this.cooldowns.entrySet()) {
-            final String name = entry.getKey();
-            final Cooldown cooldown = entry.getValue();
-            if (!cooldown.isDatabase()) continue;
-            try (ResultSet rs = DBConnection.sql.readQuery("SELECT value FROM pk_cooldowns WHERE uuid = '" + this.uuid.toString() + "' AND cooldown = '" + name + "'")) {
-                if (rs.next()) {
-                    DBConnection.sql.modifyQuery("UPDATE pk_cooldowns SET value = " + cooldown.getCooldown() + " WHERE uuid = '" + this.uuid.toString() + "' AND cooldown = '" + name + "'", false);
-                } else {
-                    DBConnection.sql.modifyQuery("INSERT INTO  pk_cooldowns (uuid, cooldown, value) VALUES ('" + this.uuid.toString() + "', '" + name + "', " + cooldown.getCooldown() + ")", false);
-                }
-            } catch (final SQLException e) {
-                e.printStackTrace();
+            if (entry.getValue().isDatabase()) {
+                cooldowns.put(entry.getKey(), entry.getValue().getCooldown());
             }
         }
-    }
 
-    public void saveCooldowns(boolean async) {
-        if (async) Bukkit.getScheduler().runTaskAsynchronously(ProjectKorra.plugin, this::saveCooldownsForce);
-        else this.saveCooldownsForce();
+        DBConnection.getWriteQueue().queueCooldowns(this.uuid, cooldowns);
+        if (!async) {
+            DBConnection.getWriteQueue().flush(this.uuid);
+        }
     }
 
     public void saveCooldowns() {
@@ -913,7 +1081,7 @@ public class OfflineBendingPlayer {
         this.abilities = abilities;
 
         for (int i = 1; i <= 9; i++) {
-            DBConnection.sql.modifyQuery("UPDATE pk_players SET slot" + i + " = '" + abilities.get(i) + "' WHERE uuid = '" + this.uuid + "'");
+            DBConnection.getWriteQueue().queue(this.uuid, Column.slot(i), String.valueOf(abilities.get(i)));
         }
     }
 
@@ -935,7 +1103,7 @@ public class OfflineBendingPlayer {
      */
     public void setPermaRemoved(final boolean permaRemoved) {
         this.permaRemoved = permaRemoved;
-        DBConnection.sql.modifyQuery("UPDATE pk_players SET permaremoved = '" + (permaRemoved ? "true" : "false") + "' WHERE uuid = '" + uuid + "'");
+        DBConnection.getWriteQueue().queue(this.uuid, Column.PERMAREMOVED, permaRemoved ? "true" : "false");
     }
 
     public void toggleBending() {
@@ -1099,6 +1267,7 @@ public class OfflineBendingPlayer {
         offlineBendingPlayer.toggled = bendingPlayer.toggled;
         offlineBendingPlayer.allPassivesToggled = bendingPlayer.allPassivesToggled;
         offlineBendingPlayer.permaRemoved = bendingPlayer.permaRemoved;
+        bendingPlayer.cooldowns.untrack();
         offlineBendingPlayer.cooldowns.putAll(bendingPlayer.cooldowns);
         offlineBendingPlayer.loading = false;
         offlineBendingPlayer.lastAccessed = System.currentTimeMillis();
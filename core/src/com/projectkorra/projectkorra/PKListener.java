@@ -13,14 +13,13 @@ import java.util.stream.Collectors;
 import com.projectkorra.projectkorra.Element.SubElement;
 import com.projectkorra.projectkorra.ability.Ability;
 import com.projectkorra.projectkorra.ability.AddonAbility;
-import com.projectkorra.projectkorra.ability.AirAbility;
-import com.projectkorra.projectkorra.ability.AvatarAbility;
 import com.projectkorra.projectkorra.ability.ChiAbility;
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.ability.EarthAbility;
 import com.projectkorra.projectkorra.ability.ElementalAbility;
 import com.projectkorra.projectkorra.ability.FireAbility;
 import com.projectkorra.projectkorra.ability.WaterAbility;
+import com.projectkorra.projectkorra.ability.util.ActivationManager;
 import com.projectkorra.projectkorra.ability.util.ComboManager;
 import com.projectkorra.projectkorra.ability.util.MultiAbilityManager;
 import com.projectkorra.projectkorra.ability.util.PassiveManager;
@@ -99,14 +98,17 @@ import com.projectkorra.projectkorra.firebending.util.FireDamageTimer;
 import com.projectkorra.projectkorra.region.RegionProtection;
 import com.projectkorra.projectkorra.object.HorizontalVelocityTracker;
 import com.projectkorra.projectkorra.object.Preset;
+import com.projectkorra.projectkorra.storage.DBConnection;
 import com.projectkorra.projectkorra.util.BlockSource;
 import com.projectkorra.projectkorra.util.ChatUtil;
 import com.projectkorra.projectkorra.util.ClickType;
 import com.projectkorra.projectkorra.util.DamageHandler;
+import com.projectkorra.projectkorra.util.EntitySpatialIndex;
 import com.projectkorra.projectkorra.util.FlightHandler;
 import com.projectkorra.projectkorra.util.FlightHandler.Flight;
 import com.projectkorra.projectkorra.util.MovementHandler;
 import com.projectkorra.projectkorra.util.PassiveHandler;
+import com.projectkorra.projectkorra.util.RevertChecker;
 import com.projectkorra.projectkorra.util.StatisticsManager;
 import com.projectkorra.projectkorra.util.StatisticsMethods;
 import com.projectkorra.projectkorra.util.TempArmor;
@@ -197,6 +199,7 @@ import org.bukkit.event.player.PlayerSwapHandItemsEvent;
 import org.bukkit.event.player.PlayerToggleFlightEvent;
 import org.bukkit.event.player.PlayerToggleSneakEvent;
 import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.event.world.WorldUnloadEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
@@ -219,6 +222,181 @@ public class PKListener implements Listener {
 		this.plugin = plugin;
 	}
 
+	static {
+		registerSneakActivators();
+		registerClickActivators();
+	}
+
+	private static void registerSneakActivators() {
+		final ClickType type = ClickType.SHIFT_DOWN;
+
+		ActivationManager.registerCore("Tornado", type, (player, bPlayer) -> new Tornado(player));
+		ActivationManager.registerCore("AirBlast", type, (player, bPlayer) -> AirBlast.setOrigin(player));
+		ActivationManager.registerCore("AirBurst", type, (player, bPlayer) -> new AirBurst(player, false));
+		ActivationManager.registerCore("AirSuction", type, (player, bPlayer) -> new AirSuction(player));
+		ActivationManager.registerCore("AirSwipe", type, (player, bPlayer) -> new AirSwipe(player, true));
+		ActivationManager.registerCore("AirShield", type, (player, bPlayer) -> new AirShield(player));
+		ActivationManager.registerCore("Suffocate", type, (player, bPlayer) -> new Suffocate(player));
+
+		ActivationManager.registerCore("Bloodbending", type, (player, bPlayer) -> new Bloodbending(player));
+		ActivationManager.registerCore("IceBlast", type, (player, bPlayer) -> new IceBlast(player));
+		ActivationManager.registerCore("IceSpike", type, (player, bPlayer) -> new IceSpikeBlast(player));
+		ActivationManager.registerCore("OctopusForm", type, (player, bPlayer) -> OctopusForm.form(player));
+		ActivationManager.registerCore("PhaseChange", type, (player, bPlayer) -> {
+			if (!CoreAbility.hasAbility(player, PhaseChange.class)) {
+				new PhaseChange(player, PhaseChangeType.MELT);
+			} else {
+				final PhaseChange pc = CoreAbility.getAbility(player, PhaseChange.class);
+				pc.startNewType(PhaseChangeType.MELT);
+			}
+		});
+		ActivationManager.registerCore("WaterManipulation", type, (player, bPlayer) -> new WaterManipulation(player));
+		ActivationManager.registerCore("WaterBubble", type, (player, bPlayer) -> new WaterBubble(player, true));
+		ActivationManager.registerCore("Surge", type, (player, bPlayer) -> SurgeWall.form(player));
+		ActivationManager.registerCore("Torrent", type, (player, bPlayer) -> Torrent.create(player));
+		ActivationManager.registerCore("WaterArms", type, (player, bPlayer) -> new WaterArms(player));
+		ActivationManager.registerCore("HealingWaters", type, (player, bPlayer) -> new HealingWaters(player));
+
+		ActivationManager.registerCore("Catapult", type, (player, bPlayer) -> new Catapult(player, true));
+		ActivationManager.registerCore("EarthBlast", type, (player, bPlayer) -> new EarthBlast(player));
+		ActivationManager.registerCore("EarthArmor", type, (player, bPlayer) -> new EarthArmor(player));
+		ActivationManager.registerCore("RaiseEarth", type, (player, bPlayer) -> new RaiseEarthWall(player));
+		ActivationManager.registerCore("Collapse", type, (player, bPlayer) -> new CollapseWall(player));
+		ActivationManager.registerCore("Shockwave", type, (player, bPlayer) -> new Shockwave(player, false));
+		ActivationManager.registerCore("EarthTunnel", type, (player, bPlayer) -> new EarthTunnel(player));
+		ActivationManager.registerCore("Tremorsense", type, (player, bPlayer) -> {
+			bPlayer.toggleTremorSense();
+			ChatUtil.displayMovePreview(player);
+			BendingBoardManager.updateAllSlots(player);
+		});
+		ActivationManager.registerCore("Extraction", type, (player, bPlayer) -> new Extraction(player));
+		ActivationManager.registerCore("LavaFlow", type, (player, bPlayer) -> new LavaFlow(player, LavaFlow.AbilityType.SHIFT));
+		ActivationManager.registerCore("EarthSmash", type, (player, bPlayer) -> new EarthSmash(player, ClickType.SHIFT_DOWN));
+		ActivationManager.registerCore("MetalClips", type, (player, bPlayer) -> {
+			final MetalClips clips = CoreAbility.getAbility(player, MetalClips.class);
+			if (clips != null) {
+				if (clips.getTargetEntity() == null) {
+					clips.setMagnetized(true);
+				} else {
+					clips.setControlling(true);
+				}
+			} else {
+				new MetalClips(player, 1);
+			}
+		});
+		ActivationManager.registerCore("EarthGrab", type, (player, bPlayer) -> new EarthGrab(player, GrabMode.DRAG));
+
+		ActivationManager.registerCore("Blaze", type, (player, bPlayer) -> new BlazeRing(player));
+		ActivationManager.registerCore("FireBlast", type, (player, bPlayer) -> new FireBlastCharged(player));
+		ActivationManager.registerCore("HeatControl", type, (player, bPlayer) -> new HeatControl(player, HeatControlType.COOK));
+		ActivationManager.registerCore("FireBurst", type, (player, bPlayer) -> new FireBurst(player));
+		ActivationManager.registerCore("FireShield", type, (player, bPlayer) -> new FireShield(player, true));
+		ActivationManager.registerCore("Lightning", type, (player, bPlayer) -> new Lightning(player));
+		ActivationManager.registerCore("Combustion", type, (player, bPlayer) -> new Combustion(player));
+		ActivationManager.registerCore("FireManipulation", type, (player, bPlayer) -> new FireManipulation(player, FireManipulationType.SHIFT));
+	}
+
+	private static void registerClickActivators() {
+		final ClickType type = ClickType.LEFT_CLICK;
+
+		ActivationManager.registerCore("AirBlast", type, (player, bPlayer) -> new AirBlast(player));
+		ActivationManager.registerCore("AirSuction", type, (player, bPlayer) -> AirSuction.shoot(player));
+		ActivationManager.registerCore("AirBurst", type, (player, bPlayer) -> AirBurst.coneBurst(player));
+		ActivationManager.registerCore("AirScooter", type, (player, bPlayer) -> new AirScooter(player));
+		ActivationManager.registerCore("AirSpout", type, (player, bPlayer) -> new AirSpout(player));
+		ActivationManager.registerCore("AirSwipe", type, (player, bPlayer) -> new AirSwipe(player));
+		ActivationManager.registerCore("Flight", type, (player, bPlayer) -> new FlightMultiAbility(player));
+
+		ActivationManager.registerCore("Bloodbending", type, (player, bPlayer) -> Bloodbending.launch(player));
+		ActivationManager.registerCore("IceBlast", type, (player, bPlayer) -> IceBlast.activate(player));
+		ActivationManager.registerCore("IceSpike", type, (player, bPlayer) -> IceSpikeBlast.activate(player));
+		ActivationManager.registerCore("OctopusForm", type, (player, bPlayer) -> new OctopusForm(player));
+		ActivationManager.registerCore("PhaseChange", type, (player, bPlayer) -> {
+			if (!CoreAbility.hasAbility(player, PhaseChange.class)) {
+				new PhaseChange(player, PhaseChangeType.FREEZE);
+			} else {
+				final PhaseChange pc = CoreAbility.getAbility(player, PhaseChange.class);
+				pc.startNewType(PhaseChangeType.FREEZE);
+			}
+		});
+		ActivationManager.registerCore("WaterBubble", type, (player, bPlayer) -> new WaterBubble(player, false));
+		ActivationManager.registerCore("WaterSpout", type, (player, bPlayer) -> new WaterSpout(player));
+		ActivationManager.registerCore("WaterManipulation", type, (player, bPlayer) -> WaterManipulation.moveWater(player));
+		ActivationManager.registerCore("Surge", type, (player, bPlayer) -> new SurgeWall(player));
+		ActivationManager.registerCore("Torrent", type, (player, bPlayer) -> new Torrent(player));
+
+		ActivationManager.registerCore("Catapult", type, (player, bPlayer) -> new Catapult(player, false));
+		ActivationManager.registerCore("EarthBlast", type, (player, bPlayer) -> EarthBlast.throwEarth(player));
+		ActivationManager.registerCore("RaiseEarth", type, (player, bPlayer) -> new RaiseEarth(player));
+		ActivationManager.registerCore("Collapse", type, (player, bPlayer) -> new Collapse(player));
+		ActivationManager.registerCore("Shockwave", type, (player, bPlayer) -> Shockwave.coneShockwave(player));
+		ActivationManager.registerCore("EarthArmor", type, (player, bPlayer) -> {
+			final EarthArmor armor = CoreAbility.getAbility(player, EarthArmor.class);
+			if (armor != null && armor.isFormed()) {
+				armor.click();
+			}
+		});
+		ActivationManager.registerCore("Tremorsense", type, (player, bPlayer) -> new Tremorsense(player, true));
+		ActivationManager.registerCore("MetalClips", type, (player, bPlayer) -> {
+			final MetalClips clips = CoreAbility.getAbility(player, MetalClips.class);
+			if (clips == null) {
+				new MetalClips(player, 0);
+			} else if (clips.getMetalClipsCount() < (player.hasPermission("bending.ability.MetalClips.4clips") ? 4 : 3)) {
+				clips.shootMetal();
+			} else if (clips.getMetalClipsCount() == 4 && clips.isCanUse4Clips()) {
+				clips.crush();
+			}
+		});
+		ActivationManager.registerCore("LavaSurge", type, (player, bPlayer) -> {
+			final LavaSurge surge = CoreAbility.getAbility(player, LavaSurge.class);
+			if (surge != null) {
+				surge.launch();
+			}
+		});
+		ActivationManager.registerCore("LavaFlow", type, (player, bPlayer) -> new LavaFlow(player, AbilityType.CLICK));
+		ActivationManager.registerCore("EarthSmash", type, (player, bPlayer) -> new EarthSmash(player, ClickType.LEFT_CLICK));
+		ActivationManager.registerCore("EarthGrab", type, (player, bPlayer) -> new EarthGrab(player, GrabMode.PROJECTING));
+
+		ActivationManager.registerCore("Blaze", type, (player, bPlayer) -> new Blaze(player));
+		ActivationManager.registerCore("FireBlast", type, (player, bPlayer) -> new FireBlast(player));
+		ActivationManager.registerCore("FireJet", type, (player, bPlayer) -> new FireJet(player));
+		ActivationManager.registerCore("HeatControl", type, (player, bPlayer) -> new HeatControl(player, HeatControlType.MELT));
+		ActivationManager.registerCore("Illumination", type, (player, bPlayer) -> {
+			if (ConfigManager.defaultConfig.get().getBoolean("Abilities.Fire.Illumination.Passive")) {
+				bPlayer.toggleIllumination();
+				ChatUtil.displayMovePreview(player);
+				BendingBoardManager.updateAllSlots(player);
+			} else {
+				new Illumination(player);
+			}
+		});
+		ActivationManager.registerCore("FireBurst", type, (player, bPlayer) -> FireBurst.coneBurst(player));
+		ActivationManager.registerCore("FireShield", type, (player, bPlayer) -> new FireShield(player));
+		ActivationManager.registerCore("WallOfFire", type, (player, bPlayer) -> new WallOfFire(player));
+		ActivationManager.registerCore("Combustion", type, (player, bPlayer) -> Combustion.explode(player));
+		ActivationManager.registerCore("FireManipulation", type, (player, bPlayer) -> {
+			if (CoreAbility.hasAbility(player, FireManipulation.class)) {
+				final FireManipulation fireManip = CoreAbility.getAbility(player, FireManipulation.class);
+				if (fireManip.getFireManipulationType() == FireManipulationType.SHIFT) {
+					fireManip.click();
+				}
+			} else {
+				new FireManipulation(player, FireManipulationType.CLICK);
+			}
+		});
+
+		ActivationManager.registerCore("HighJump", type, (player, bPlayer) -> new HighJump(player));
+		ActivationManager.registerCore("Smokescreen", type, (player, bPlayer) -> new Smokescreen(player));
+		ActivationManager.registerCore("WarriorStance", type, (player, bPlayer) -> new WarriorStance(player));
+		ActivationManager.registerCore("AcrobatStance", type, (player, bPlayer) -> new AcrobatStance(player));
+
+		ActivationManager.registerCore("AvatarState", type, (player, bPlayer) -> {
+			new AvatarState(player);
+			ChatUtil.displayMovePreview(player);
+			BendingBoardManager.updateAllSlots(player);
+		});
+	}
+
 	@EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
 	public void onBlockBreak(final BlockBreakEvent event) {
 		if (BendingPlayer.isWorldDisabled(event.getBlock().getWorld())) {
@@ -314,7 +492,7 @@ public class PKListener implements Listener {
 
 	@EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
 	public void onFluidLevelChange(final FluidLevelChangeEvent event) {
-		if (BendingPlayer.isWorldDisabled(event.getBlock().getWorld())) {
+		if (BendingPlayer.isWorldDisabled(event.getBlock().getWorld()) || !TempBlock.hasTempBlocksNear(event.getBlock())) {
 			return;
 		}
 
@@ -410,7 +588,7 @@ public class PKListener implements Listener {
 		//}
 
 		//try (MCTiming timing = TimingPhysicsEarthAbilityCheck.startTiming()) {
-			if (EarthAbility.getPreventPhysicsBlocks().contains(block)) {
+			if (EarthAbility.getPreventPhysicsBlockSet().contains(block)) {
 				event.setCancelled(true);
 				return;
 			}
@@ -418,7 +596,7 @@ public class PKListener implements Listener {
 
 		// If there is a TempBlock of Air bellow FallingSand blocks, prevent it from updating.
 		//try (MCTiming timing = TimingPhysicsAirTempBlockBelowFallingBlockCheck.startTiming()) {
-			if ((block.getType() == Material.SAND || block.getType() == Material.RED_SAND || block.getType() == Material.GRAVEL || block.getType() == Material.ANVIL || block.getType() == Material.DRAGON_EGG) && ElementalAbility.isAir(block.getRelative(BlockFace.DOWN).getType()) && TempBlock.isTempBlock(block.getRelative(BlockFace.DOWN))) {
+			if (TempBlock.hasTempBlocks(block.getWorld(), block.getX() >> 4, block.getZ() >> 4) && (block.getType() == Material.SAND || block.getType() == Material.RED_SAND || block.getType() == Material.GRAVEL || block.getType() == Material.ANVIL || block.getType() == Material.DRAGON_EGG) && ElementalAbility.isAir(block.getRelative(BlockFace.DOWN).getType()) && TempBlock.isTempBlock(block.getRelative(BlockFace.DOWN))) {
 				event.setCancelled(true);
 			}
 		//}
@@ -1269,11 +1447,11 @@ public class PKListener implements Listener {
 		final Player player = event.getPlayer();
 		JUMPS.put(player, player.getStatistic(Statistic.JUMP));
 
-		//Load the player's bending data from the database
-		BendingPlayer.getOrLoadOfflineAsync(player);
+		//Load the player's bending data from the database, batched with other players logging in
+		OfflineBendingPlayer.loadOnLogin(player.getUniqueId());
 
 		if (ProjectKorra.isStatisticsEnabled()) {
-			Manager.getManager(StatisticsManager.class).load(player.getUniqueId());
+			Manager.getManager(StatisticsManager.class).queueLoad(player.getUniqueId());
 		}
 
 		if (ConfigManager.languageConfig.get().getBoolean("Chat.Branding.JoinMessage.Enabled")) {
@@ -1421,6 +1599,8 @@ public class PKListener implements Listener {
 				bPlayer.saveCooldowns();
 			}
 		}
+		DBConnection.getWriteQueue().flushAsync(player.getUniqueId());
+		RegionProtection.invalidate(player.getUniqueId());
 
 		Commands.invincible.remove(player.getName());
 
@@ -1502,7 +1682,6 @@ public class PKListener implements Listener {
 		}
 
 		final CoreAbility coreAbil = bPlayer.getBoundAbility();
-		final String abil = bPlayer.getBoundAbilityName();
 
 		if (coreAbil == null || !coreAbil.isSneakAbility()) {
 			if (PassiveManager.hasPassive(player, CoreAbility.getAbility(FerroControl.class))) {
@@ -1519,136 +1698,7 @@ public class PKListener implements Listener {
 		}
 
 		if (!player.isSneaking() && bPlayer.canBendIgnoreCooldowns(coreAbil)) {
-			if (coreAbil instanceof AddonAbility) {
-				return;
-			}
-
-			if (coreAbil instanceof AirAbility && bPlayer.isElementToggled(Element.AIR)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("Tornado")) {
-						new Tornado(player);
-					} else if (abil.equalsIgnoreCase("AirBlast")) {
-						AirBlast.setOrigin(player);
-					} else if (abil.equalsIgnoreCase("AirBurst")) {
-						new AirBurst(player, false);
-					} else if (abil.equalsIgnoreCase("AirSuction")) {
-						new AirSuction(player);
-					} else if (abil.equalsIgnoreCase("AirSwipe")) {
-						new AirSwipe(player, true);
-					} else if (abil.equalsIgnoreCase("AirShield")) {
-						new AirShield(player);
-					} else if (abil.equalsIgnoreCase("Suffocate")) {
-						new Suffocate(player);
-					}
-				}
-			}
-
-			if (coreAbil instanceof WaterAbility && bPlayer.isElementToggled(Element.WATER)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("Bloodbending")) {
-						new Bloodbending(player);
-					} else if (abil.equalsIgnoreCase("IceBlast")) {
-						new IceBlast(player);
-					} else if (abil.equalsIgnoreCase("IceSpike")) {
-						new IceSpikeBlast(player);
-					} else if (abil.equalsIgnoreCase("OctopusForm")) {
-						OctopusForm.form(player);
-					} else if (abil.equalsIgnoreCase("PhaseChange")) {
-						if (!CoreAbility.hasAbility(player, PhaseChange.class)) {
-							new PhaseChange(player, PhaseChangeType.MELT);
-						} else {
-							final PhaseChange pc = CoreAbility.getAbility(player, PhaseChange.class);
-							pc.startNewType(PhaseChangeType.MELT);
-						}
-					} else if (abil.equalsIgnoreCase("WaterManipulation")) {
-						new WaterManipulation(player);
-					} else if (abil.equalsIgnoreCase("WaterBubble")) {
-						new WaterBubble(player, true);
-					} else if (abil.equalsIgnoreCase("Surge")) {
-						SurgeWall.form(player);
-					} else if (abil.equalsIgnoreCase("Torrent")) {
-						Torrent.create(player);
-					} else if (abil.equalsIgnoreCase("WaterArms")) {
-						new WaterArms(player);
-					} else if (abil.equalsIgnoreCase("HealingWaters")) {
-						new HealingWaters(player);
-//					} else if (abil.equalsIgnoreCase("PlantTether")) {
-//						if (CoreAbility.hasAbility(player, PlantTether.class)) {
-//							final PlantTether pt = CoreAbility.getAbility(player, PlantTether.class);
-//							if (pt.isInitial()) {
-//								pt.searchForEntity();
-//							}
-//						} else {
-//							new PlantTether(player);
-//						}
-					}
-				}
-			}
-
-			if (coreAbil instanceof EarthAbility && bPlayer.isElementToggled(Element.EARTH)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("Catapult")) {
-						new Catapult(player, true);
-					} else if (abil.equalsIgnoreCase("EarthBlast")) {
-						new EarthBlast(player);
-					} else if (abil.equalsIgnoreCase("EarthArmor")) {
-						new EarthArmor(player);
-					} else if (abil.equalsIgnoreCase("RaiseEarth")) {
-						new RaiseEarthWall(player);
-					} else if (abil.equalsIgnoreCase("Collapse")) {
-						new CollapseWall(player);
-					} else if (abil.equalsIgnoreCase("Shockwave")) {
-						new Shockwave(player, false);
-					} else if (abil.equalsIgnoreCase("EarthTunnel")) {
-						new EarthTunnel(player);
-					} else if (abil.equalsIgnoreCase("Tremorsense")) {
-						bPlayer.toggleTremorSense();
-						ChatUtil.displayMovePreview(player);
-						BendingBoardManager.updateAllSlots(player);
-					} else if (abil.equalsIgnoreCase("Extraction")) {
-						new Extraction(player);
-					} else if (abil.equalsIgnoreCase("LavaFlow")) {
-						new LavaFlow(player, LavaFlow.AbilityType.SHIFT);
-					} else if (abil.equalsIgnoreCase("EarthSmash")) {
-						new EarthSmash(player, ClickType.SHIFT_DOWN);
-					} else if (abil.equalsIgnoreCase("MetalClips")) {
-						final MetalClips clips = CoreAbility.getAbility(player, MetalClips.class);
-						if (clips != null) {
-							if (clips.getTargetEntity() == null) {
-								clips.setMagnetized(true);
-							} else {
-								clips.setControlling(true);
-							}
-						} else {
-							new MetalClips(player, 1);
-						}
-					} else if (abil.equalsIgnoreCase("EarthGrab")) {
-						new EarthGrab(player, GrabMode.DRAG);
-					}
-				}
-			}
-
-			if (coreAbil instanceof FireAbility && bPlayer.isElementToggled(Element.FIRE)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("Blaze")) {
-						new BlazeRing(player);
-					} else if (abil.equalsIgnoreCase("FireBlast")) {
-						new FireBlastCharged(player);
-					} else if (abil.equalsIgnoreCase("HeatControl")) {
-						new HeatControl(player, HeatControlType.COOK);
-					} else if (abil.equalsIgnoreCase("FireBurst")) {
-						new FireBurst(player);
-					} else if (abil.equalsIgnoreCase("FireShield")) {
-						new FireShield(player, true);
-					} else if (abil.equalsIgnoreCase("Lightning")) {
-						new Lightning(player);
-					} else if (abil.equalsIgnoreCase("Combustion")) {
-						new Combustion(player);
-					} else if (abil.equalsIgnoreCase("FireManipulation")) {
-						new FireManipulation(player, FireManipulationType.SHIFT);
-					}
-				}
-			}
+			ActivationManager.activate(coreAbil, ClickType.SHIFT_DOWN, player, bPlayer);
 		}
 	}
 
@@ -1768,178 +1818,23 @@ public class PKListener implements Listener {
 		}
 		BendingPlayer bPlayer = BendingPlayer.getBendingPlayer(player);
 
-		String abil = bPlayer.getBoundAbilityName();
 		final CoreAbility coreAbil = bPlayer.getBoundAbility();
 
 		if (coreAbil == null && !MultiAbilityManager.hasMultiAbilityBound(player)) {
 			return;
 		} else if (bPlayer.canBendIgnoreCooldowns(coreAbil)) {
-			if (coreAbil instanceof AddonAbility) {
-				return;
-			}
-
-			if (coreAbil instanceof AirAbility && bPlayer.isElementToggled(Element.AIR)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("AirBlast")) {
-						new AirBlast(player);
-					} else if (abil.equalsIgnoreCase("AirSuction")) {
-						AirSuction.shoot(player);
-					} else if (abil.equalsIgnoreCase("AirBurst")) {
-						AirBurst.coneBurst(player);
-					} else if (abil.equalsIgnoreCase("AirScooter")) {
-						new AirScooter(player);
-					} else if (abil.equalsIgnoreCase("AirSpout")) {
-						new AirSpout(player);
-					} else if (abil.equalsIgnoreCase("AirSwipe")) {
-						new AirSwipe(player);
-					} else if (abil.equalsIgnoreCase("Flight")) {
-						new FlightMultiAbility(player);
-						return;
-					}
+			if (coreAbil instanceof WaterAbility && !(coreAbil instanceof AddonAbility) && bPlayer.isElementToggled(Element.WATER) && bPlayer.canCurrentlyBendWithWeapons()) {
+				if (CoreAbility.hasAbility(player, IceBullet.class)) {
+					CoreAbility.getAbility(player, IceBullet.class).doLeftClick();
 				}
 			}
 
-			if (coreAbil instanceof WaterAbility && bPlayer.isElementToggled(Element.WATER)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (CoreAbility.hasAbility(player, IceBullet.class)) {
-						CoreAbility.getAbility(player, IceBullet.class).doLeftClick();
-					}
-
-					if (abil.equalsIgnoreCase("Bloodbending")) {
-						Bloodbending.launch(player);
-					} else if (abil.equalsIgnoreCase("IceBlast")) {
-						IceBlast.activate(player);
-					} else if (abil.equalsIgnoreCase("IceSpike")) {
-						IceSpikeBlast.activate(player);
-					} else if (abil.equalsIgnoreCase("OctopusForm")) {
-						new OctopusForm(player);
-					} else if (abil.equalsIgnoreCase("PhaseChange")) {
-						if (!CoreAbility.hasAbility(player, PhaseChange.class)) {
-							new PhaseChange(player, PhaseChangeType.FREEZE);
-						} else {
-							final PhaseChange pc = CoreAbility.getAbility(player, PhaseChange.class);
-							pc.startNewType(PhaseChangeType.FREEZE);
-						}
-					} else if (abil.equalsIgnoreCase("WaterBubble")) {
-						new WaterBubble(player, false);
-					} else if (abil.equalsIgnoreCase("WaterSpout")) {
-						new WaterSpout(player);
-					} else if (abil.equalsIgnoreCase("WaterManipulation")) {
-						WaterManipulation.moveWater(player);
-					} else if (abil.equalsIgnoreCase("Surge")) {
-						new SurgeWall(player);
-					} else if (abil.equalsIgnoreCase("Torrent")) {
-						new Torrent(player);
-					}
-				}
-			}
-
-			if (coreAbil instanceof EarthAbility && bPlayer.isElementToggled(Element.EARTH)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("Catapult")) {
-						new Catapult(player, false);
-					} else if (abil.equalsIgnoreCase("EarthBlast")) {
-						EarthBlast.throwEarth(player);
-					} else if (abil.equalsIgnoreCase("RaiseEarth")) {
-						new RaiseEarth(player);
-					} else if (abil.equalsIgnoreCase("Collapse")) {
-						new Collapse(player);
-					} else if (abil.equalsIgnoreCase("Shockwave")) {
-						Shockwave.coneShockwave(player);
-					} else if (abil.equalsIgnoreCase("EarthArmor")) {
-						final EarthArmor armor = CoreAbility.getAbility(player, EarthArmor.class);
-						if (armor != null && armor.isFormed()) {
-							armor.click();
-						}
-					} else if (abil.equalsIgnoreCase("Tremorsense")) {
-						new Tremorsense(player, true);
-					} else if (abil.equalsIgnoreCase("MetalClips")) {
-						final MetalClips clips = CoreAbility.getAbility(player, MetalClips.class);
-						if (clips == null) {
-							new MetalClips(player, 0);
-						} else if (clips.getMetalClipsCount() < (player.hasPermission("bending.ability.MetalClips.4clips") ? 4 : 3)) {
-							clips.shootMetal();
-						} else if (clips.getMetalClipsCount() == 4 && clips.isCanUse4Clips()) {
-							clips.crush();
-						}
-					} else if (abil.equalsIgnoreCase("LavaSurge")) {
-						final LavaSurge surge = CoreAbility.getAbility(player, LavaSurge.class);
-						if (surge != null) {
-							surge.launch();
-						}
-					} else if (abil.equalsIgnoreCase("LavaFlow")) {
-						new LavaFlow(player, AbilityType.CLICK);
-					} else if (abil.equalsIgnoreCase("EarthSmash")) {
-						new EarthSmash(player, ClickType.LEFT_CLICK);
-					} else if (abil.equalsIgnoreCase("EarthGrab")) {
-						new EarthGrab(player, GrabMode.PROJECTING);
-					}
-				}
-			}
-
-			if (coreAbil instanceof FireAbility && bPlayer.isElementToggled(Element.FIRE)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("Blaze")) {
-						new Blaze(player);
-					} else if (abil.equalsIgnoreCase("FireBlast")) {
-						new FireBlast(player);
-					} else if (abil.equalsIgnoreCase("FireJet")) {
-						new FireJet(player);
-					} else if (abil.equalsIgnoreCase("HeatControl")) {
-						new HeatControl(player, HeatControlType.MELT);
-					} else if (abil.equalsIgnoreCase("Illumination")) {
-						if (ConfigManager.defaultConfig.get().getBoolean("Abilities.Fire.Illumination.Passive")) {
-							bPlayer.toggleIllumination();
-							ChatUtil.displayMovePreview(player);
-							BendingBoardManager.updateAllSlots(player);
-						} else {
-							new Illumination(player);
-						}
-					} else if (abil.equalsIgnoreCase("FireBurst")) {
-						FireBurst.coneBurst(player);
-					} else if (abil.equalsIgnoreCase("FireShield")) {
-						new FireShield(player);
-					} else if (abil.equalsIgnoreCase("WallOfFire")) {
-						new WallOfFire(player);
-					} else if (abil.equalsIgnoreCase("Combustion")) {
-						Combustion.explode(player);
-					} else if (abil.equalsIgnoreCase("FireManipulation")) {
-						if (CoreAbility.hasAbility(player, FireManipulation.class)) {
-							final FireManipulation fireManip = CoreAbility.getAbility(player, FireManipulation.class);
-							if (fireManip.getFireManipulationType() == FireManipulationType.SHIFT) {
-								fireManip.click();
-							}
-						} else {
-							new FireManipulation(player, FireManipulationType.CLICK);
-						}
-					}
-				}
-			}
-
-			if (coreAbil instanceof ChiAbility && bPlayer.isElementToggled(Element.CHI)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("HighJump")) {
-						new HighJump(player);
-					} else if (abil.equalsIgnoreCase("Smokescreen")) {
-						new Smokescreen(player);
-					} else if (abil.equalsIgnoreCase("WarriorStance")) {
-						new WarriorStance(player);
-					} else if (abil.equalsIgnoreCase("AcrobatStance")) {
-						new AcrobatStance(player);
-					}
-				}
-			}
-
-			if (coreAbil instanceof AvatarAbility) {
-				if (abil.equalsIgnoreCase("AvatarState")) {
-					new AvatarState(player);
-					ChatUtil.displayMovePreview(player);
-					BendingBoardManager.updateAllSlots(player);
-				}
+			if (ActivationManager.activate(coreAbil, ClickType.LEFT_CLICK, player, bPlayer) && coreAbil instanceof FlightMultiAbility) {
+				return;
 			}
 		}
 		if (MultiAbilityManager.hasMultiAbilityBound(player)) {
-			abil = MultiAbilityManager.getBoundMultiAbility(player);
+			final String abil = MultiAbilityManager.getBoundMultiAbility(player);
 			if (abil.equalsIgnoreCase("WaterArms")) {
 				new WaterArms(player);
 			} else if (abil.equalsIgnoreCase("Flight")) {
@@ -2135,12 +2030,20 @@ public class PKListener implements Listener {
 	@EventHandler
 	public void onPluginUnload(PluginDisableEvent event) {
 		RegionProtection.unloadPlugin((JavaPlugin) event.getPlugin());
-		BendingPlayer.HOOKS.remove((JavaPlugin) event.getPlugin());
+		BendingPlayer.unregisterCanBendHook((JavaPlugin) event.getPlugin());
 	}
 
 	@EventHandler
 	public void onWorldUnload(WorldUnloadEvent event) {
 		TempBlock.removeAllInWorld(event.getWorld());
+		RegionProtection.invalidate(event.getWorld());
+		EntitySpatialIndex.remove(event.getWorld());
+	}
+
+	@EventHandler
+	public void onChunkUnload(ChunkUnloadEvent event) {
+		TempBlock.removeAllInChunk(event.getWorld(), event.getChunk().getX(), event.getChunk().getZ());
+		RevertChecker.revertChunk(event.getWorld(), event.getChunk().getX(), event.getChunk().getZ());
 	}
 
 	public static HashMap<Player, Pair<String, Player>> getBendingPlayerDeath() {
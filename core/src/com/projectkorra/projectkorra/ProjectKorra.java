@@ -1,7 +1,9 @@
 package com.projectkorra.projectkorra;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
 import java.util.logging.Logger;
 
 import com.projectkorra.projectkorra.region.RegionProtection;
@@ -28,8 +30,8 @@ import com.projectkorra.projectkorra.hooks.WorldGuardFlag;
 import com.projectkorra.projectkorra.object.Preset;
 import com.projectkorra.projectkorra.storage.DBConnection;
 import com.projectkorra.projectkorra.util.Metrics;
-import com.projectkorra.projectkorra.util.RevertChecker;
 import com.projectkorra.projectkorra.util.StatisticsManager;
+import com.projectkorra.projectkorra.util.TickProfiler;
 import com.projectkorra.projectkorra.util.Updater;
 import com.projectkorra.projectkorra.waterbending.util.WaterbendingManager;
 
@@ -41,6 +43,12 @@ public class ProjectKorra extends JavaPlugin {
 	public static CollisionInitializer collisionInitializer;
 	public static long time_step = 1;
 	public Updater updater;
+	/**
+	 * @deprecated Moved earth is reverted by
+	 *             {@link com.projectkorra.projectkorra.util.RevertChecker#progressAll()}
+	 *             on the main thread, this task is never scheduled.
+	 */
+	@Deprecated
 	BukkitTask revertChecker;
 	private static PlaceholderAPIHook papiHook;
 
@@ -52,6 +60,7 @@ public class ProjectKorra extends JavaPlugin {
 
 		new ConfigManager();
 		new GeneralMethods(this);
+		TickProfiler.loadConfig();
 		final boolean checkUpdateOnStartup = ConfigManager.getConfig().getBoolean("Properties.UpdateChecker");
 		this.updater = new Updater(this, "https://projectkorra.com/forum/resources/projectkorra-core.1/", checkUpdateOnStartup);
 		new Commands(this);
@@ -73,7 +82,6 @@ public class ProjectKorra extends JavaPlugin {
 
 		Manager.startup();
 		BendingBoardManager.setup();
-		BendingPlayer.DISABLED_WORLDS = new HashSet<>(ConfigManager.defaultConfig.get().getStringList("Properties.DisabledWorlds"));
 
 		this.getServer().getPluginManager().registerEvents(new PKListener(this), this);
 		this.getServer().getScheduler().scheduleSyncRepeatingTask(this, new BendingManager(), 0, 1);
@@ -82,14 +90,14 @@ public class ProjectKorra extends JavaPlugin {
 		this.getServer().getScheduler().scheduleSyncRepeatingTask(this, new EarthbendingManager(this), 0, 1);
 		this.getServer().getScheduler().scheduleSyncRepeatingTask(this, new FirebendingManager(this), 0, 1);
 		this.getServer().getScheduler().scheduleSyncRepeatingTask(this, new ChiblockingManager(this), 0, 1);
-		this.revertChecker = this.getServer().getScheduler().runTaskTimerAsynchronously(this, new RevertChecker(this), 0, 200);
 
+		final List<UUID> uuids = new ArrayList<>();
 		for (final Player player : Bukkit.getOnlinePlayers()) {
 			PKListener.getJumpStatistics().put(player, player.getStatistic(Statistic.JUMP));
-
-			OfflineBendingPlayer.loadAsync(player.getUniqueId(), true);
-			Manager.getManager(StatisticsManager.class).load(player.getUniqueId());
+			uuids.add(player.getUniqueId());
 		}
+		OfflineBendingPlayer.loadAllAsync(uuids, true);
+		Manager.getManager(StatisticsManager.class).loadAll(uuids);
 
 		final Metrics metrics = new Metrics(this);
 		metrics.addCustomChart(new Metrics.AdvancedPie("Elements") {
@@ -128,12 +136,9 @@ public class ProjectKorra extends JavaPlugin {
 
 	@Override
 	public void onDisable() {
-		this.revertChecker.cancel();
+		OfflineBendingPlayer.cancelLoginBatch();
 		GeneralMethods.stopBending();
 		for (final Player player : this.getServer().getOnlinePlayers()) {
-			if (isStatisticsEnabled()) {
-				Manager.getManager(StatisticsManager.class).save(player.getUniqueId(), false);
-			}
 			final BendingPlayer bPlayer = BendingPlayer.getBendingPlayer(player);
 			if (bPlayer != null && isDatabaseCooldownsEnabled()) {
 				bPlayer.saveCooldowns(false);
@@ -141,7 +146,7 @@ public class ProjectKorra extends JavaPlugin {
 		}
 		Manager.shutdown();
 		if (DBConnection.isOpen()) {
-			DBConnection.sql.close();
+			DBConnection.close();
 		}
 
 		if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
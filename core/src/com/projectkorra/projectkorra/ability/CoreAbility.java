@@ -7,6 +7,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -46,11 +47,14 @@ import com.projectkorra.projectkorra.Element;
 import com.projectkorra.projectkorra.Element.SubElement;
 import com.projectkorra.projectkorra.Manager;
 import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.ability.util.AbilityFactory;
 import com.projectkorra.projectkorra.ability.util.AbilityLoader;
+import com.projectkorra.projectkorra.ability.util.ActivationManager;
 import com.projectkorra.projectkorra.ability.util.AddonAbilityLoader;
 import com.projectkorra.projectkorra.ability.util.Collision;
 import com.projectkorra.projectkorra.ability.util.CollisionManager;
 import com.projectkorra.projectkorra.ability.util.ComboManager;
+import com.projectkorra.projectkorra.ability.util.InstanceRegistry;
 import com.projectkorra.projectkorra.ability.util.MultiAbilityManager;
 import com.projectkorra.projectkorra.ability.util.MultiAbilityManager.MultiAbilityInfo;
 import com.projectkorra.projectkorra.ability.util.PassiveManager;
@@ -58,10 +62,12 @@ import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.attribute.AttributeModifier;
 import com.projectkorra.projectkorra.attribute.AttributePriority;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.configuration.ConfigSnapshot.AbilityConfig;
 import com.projectkorra.projectkorra.event.AbilityEndEvent;
 import com.projectkorra.projectkorra.event.AbilityProgressEvent;
 import com.projectkorra.projectkorra.event.AbilityStartEvent;
 import com.projectkorra.projectkorra.util.FlightHandler;
+import com.projectkorra.projectkorra.util.TickProfiler;
 import com.projectkorra.projectkorra.util.TimeUtil;
 
 /**
@@ -83,8 +89,7 @@ import com.projectkorra.projectkorra.util.TimeUtil;
 public abstract class CoreAbility implements Ability {
 
 	private static final Set<CoreAbility> INSTANCES = Collections.newSetFromMap(new ConcurrentHashMap<CoreAbility, Boolean>());
-	private static final Map<Class<? extends CoreAbility>, Map<UUID, Map<Integer, CoreAbility>>> INSTANCES_BY_PLAYER = new ConcurrentHashMap<>();
-	private static final Map<Class<? extends CoreAbility>, Set<CoreAbility>> INSTANCES_BY_CLASS = new ConcurrentHashMap<>();
+	private static final InstanceRegistry REGISTRY = new InstanceRegistry();
 	private static final Map<String, CoreAbility> ABILITIES_BY_NAME = new ConcurrentSkipListMap<>(); // preserves ordering.
 	private static final Map<Class<? extends CoreAbility>, CoreAbility> ABILITIES_BY_CLASS = new ConcurrentHashMap<>();
 	private static final double DEFAULT_COLLISION_RADIUS = 0.3;
@@ -184,21 +189,7 @@ public abstract class CoreAbility implements Ability {
 		this.started = true;
 		this.startTime = System.currentTimeMillis();
 		this.startTick = getCurrentTick();
-		final Class<? extends CoreAbility> clazz = this.getClass();
-		final UUID uuid = this.player.getUniqueId();
-
-		if (!INSTANCES_BY_PLAYER.containsKey(clazz)) {
-			INSTANCES_BY_PLAYER.put(clazz, new ConcurrentHashMap<UUID, Map<Integer, CoreAbility>>());
-		}
-		if (!INSTANCES_BY_PLAYER.get(clazz).containsKey(uuid)) {
-			INSTANCES_BY_PLAYER.get(clazz).put(uuid, new ConcurrentHashMap<Integer, CoreAbility>());
-		}
-		if (!INSTANCES_BY_CLASS.containsKey(clazz)) {
-			INSTANCES_BY_CLASS.put(clazz, Collections.newSetFromMap(new ConcurrentHashMap<CoreAbility, Boolean>()));
-		}
-
-		INSTANCES_BY_PLAYER.get(clazz).get(uuid).put(this.id, this);
-		INSTANCES_BY_CLASS.get(clazz).add(this);
+		REGISTRY.add(this, this.player.getUniqueId());
 		INSTANCES.add(this);
 	}
 
@@ -220,24 +211,7 @@ public abstract class CoreAbility implements Ability {
 		Bukkit.getServer().getPluginManager().callEvent(new AbilityEndEvent(this));
 		this.removed = true;
 
-		final Map<UUID, Map<Integer, CoreAbility>> classMap = INSTANCES_BY_PLAYER.get(this.getClass());
-		if (classMap != null) {
-			final Map<Integer, CoreAbility> playerMap = classMap.get(this.player.getUniqueId());
-			if (playerMap != null) {
-				playerMap.remove(this.id);
-				if (playerMap.size() == 0) {
-					classMap.remove(this.player.getUniqueId());
-				}
-			}
-
-			if (classMap.size() == 0) {
-				INSTANCES_BY_PLAYER.remove(this.getClass());
-			}
-		}
-
-		if (INSTANCES_BY_CLASS.containsKey(this.getClass())) {
-			INSTANCES_BY_CLASS.get(this.getClass()).remove(this);
-		}
+		REGISTRY.remove(this, this.player.getUniqueId());
 		INSTANCES.remove(this);
 	}
 
@@ -246,9 +220,26 @@ public abstract class CoreAbility implements Ability {
 	 * that has been started and has not been removed.
 	 */
 	public static void progressAll() {
-		for (final Set<CoreAbility> setAbils : INSTANCES_BY_CLASS.values()) {
-			for (final CoreAbility abil : setAbils) {
-				if (abil instanceof PassiveAbility) {
+		final boolean profiling = TickProfiler.isEnabled();
+		long tickEventNanos = 0;
+		int tickEventCalls = 0;
+
+		final int classes = REGISTRY.getClassCount();
+		for (int id = 0; id < classes; id++) {
+			final CoreAbility[] abils = REGISTRY.getInstances(id);
+			if (abils.length == 0) {
+				continue;
+			}
+
+			final int instances = abils.length;
+			long progressNanos = 0;
+			long eventNanos = 0;
+			int calls = 0;
+
+			for (final CoreAbility abil : abils) {
+				if (abil.removed) { // Removed by an instance that progressed earlier this tick.
+					continue;
+				} else if (abil instanceof PassiveAbility) {
 					if (!((PassiveAbility) abil).isProgressable()) {
 						continue;
 					}
@@ -273,11 +264,17 @@ public abstract class CoreAbility implements Ability {
 						abil.attributesModified = true;
 					}
 
-					//try (MCTiming timing = ProjectKorra.timing(abil.getName()).startTiming()) {
-						abil.progress();
-					//}
+					final long start = profiling ? System.nanoTime() : 0;
+					abil.progress();
+					final long progressed = profiling ? System.nanoTime() : 0;
 
 					Bukkit.getServer().getPluginManager().callEvent(new AbilityProgressEvent(abil));
+
+					if (profiling) {
+						progressNanos += progressed - start;
+						eventNanos += System.nanoTime() - progressed;
+						calls++;
+					}
 				} catch (final Exception e) {
 					e.printStackTrace();
 					Bukkit.getLogger().severe(abil.toString());
@@ -293,6 +290,16 @@ public abstract class CoreAbility implements Ability {
 					}
 				}
 			}
+
+			if (profiling) {
+				TickProfiler.recordAbility(REGISTRY.getAbilityClass(id), instances, calls, progressNanos, eventNanos);
+				tickEventNanos += eventNanos;
+				tickEventCalls += calls;
+			}
+		}
+
+		if (profiling) {
+			TickProfiler.record(TickProfiler.PROGRESS_EVENT, tickEventNanos, tickEventCalls);
 		}
 		currentTick++;
 	}
@@ -302,8 +309,9 @@ public abstract class CoreAbility implements Ability {
 	 * removed.
 	 */
 	public static void removeAll() {
-		for (final Set<CoreAbility> setAbils : INSTANCES_BY_CLASS.values()) {
-			for (final CoreAbility abil : setAbils) {
+		final int classes = REGISTRY.getClassCount();
+		for (int id = 0; id < classes; id++) {
+			for (final CoreAbility abil : REGISTRY.getInstances(id)) {
 				try {
 					abil.remove();
 				} catch (Exception e) {
@@ -334,11 +342,11 @@ public abstract class CoreAbility implements Ability {
 	 * @return a CoreAbility instance or null
 	 */
 	public static <T extends CoreAbility> T getAbility(final Player player, final Class<T> clazz) {
-		final Collection<T> abils = getAbilities(player, clazz);
-		if (abils.iterator().hasNext()) {
-			return abils.iterator().next();
+		if (player == null || clazz == null) {
+			return null;
 		}
-		return null;
+		final CoreAbility[] abils = REGISTRY.getInstances(player.getUniqueId(), REGISTRY.getId(clazz));
+		return abils.length > 0 ? clazz.cast(abils[0]) : null;
 	}
 
 	/**
@@ -398,10 +406,10 @@ public abstract class CoreAbility implements Ability {
 	 * @return a Collection of real instances
 	 */
 	public static <T extends CoreAbility> Collection<T> getAbilities(final Class<T> clazz) {
-		if (clazz == null || INSTANCES_BY_CLASS.get(clazz) == null || INSTANCES_BY_CLASS.get(clazz).size() == 0) {
+		if (clazz == null) {
 			return Collections.emptySet();
 		}
-		return (Collection<T>) CoreAbility.INSTANCES_BY_CLASS.get(clazz);
+		return asCollection(REGISTRY.getInstances(REGISTRY.getId(clazz)));
 	}
 
 	/**
@@ -413,10 +421,23 @@ public abstract class CoreAbility implements Ability {
 	 * @return a Collection of real instances
 	 */
 	public static <T extends CoreAbility> Collection<T> getAbilities(final Player player, final Class<T> clazz) {
-		if (player == null || clazz == null || INSTANCES_BY_PLAYER.get(clazz) == null || INSTANCES_BY_PLAYER.get(clazz).get(player.getUniqueId()) == null) {
+		if (player == null || clazz == null) {
+			return Collections.emptySet();
+		}
+		return asCollection(REGISTRY.getInstances(player.getUniqueId(), REGISTRY.getId(clazz)));
+	}
+
+	/**
+	 * Wraps an instance array of the registry. The array is never modified,
+	 * so the Collection is a snapshot that is safe to iterate while instances
+	 * are started or removed.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T extends CoreAbility> Collection<T> asCollection(final CoreAbility[] abils) {
+		if (abils.length == 0) {
 			return Collections.emptySet();
 		}
-		return (Collection<T>) INSTANCES_BY_PLAYER.get(clazz).get(player.getUniqueId()).values();
+		return (Collection<T>) Collections.unmodifiableList(Arrays.asList(abils));
 	}
 
 	/**
@@ -470,7 +491,7 @@ public abstract class CoreAbility implements Ability {
 	 * @param clazz the class for the type of CoreAbility
 	 */
 	public static <T extends CoreAbility> boolean hasAbility(final Player player, final Class<T> clazz) {
-		return getAbility(player, clazz) != null;
+		return player != null && clazz != null && REGISTRY.has(player.getUniqueId(), REGISTRY.getId(clazz));
 	}
 
 	/**
@@ -502,13 +523,10 @@ public abstract class CoreAbility implements Ability {
 	public static Set<Player> getPlayers(final Class<? extends CoreAbility> clazz) {
 		final HashSet<Player> players = new HashSet<>();
 		if (clazz != null) {
-			final Map<UUID, Map<Integer, CoreAbility>> uuidMap = INSTANCES_BY_PLAYER.get(clazz);
-			if (uuidMap != null) {
-				for (final UUID uuid : uuidMap.keySet()) {
-					final Player uuidPlayer = Bukkit.getPlayer(uuid);
-					if (uuidPlayer != null) {
-						players.add(uuidPlayer);
-					}
+			for (final UUID uuid : REGISTRY.getPlayers(REGISTRY.getId(clazz))) {
+				final Player uuidPlayer = Bukkit.getPlayer(uuid);
+				if (uuidPlayer != null) {
+					players.add(uuidPlayer);
 				}
 			}
 		}
@@ -544,6 +562,7 @@ public abstract class CoreAbility implements Ability {
 		}
 
 		for (final CoreAbility coreAbil : loadedAbilities) {
+			REGISTRY.getId(coreAbil.getClass());
 			if (!coreAbil.isEnabled()) {
 				//plugin.getLogger().info(coreAbil.getName() + " is disabled");
 				ABILITIES_BY_CLASS.put(coreAbil.getClass(), coreAbil);
@@ -573,6 +592,9 @@ public abstract class CoreAbility implements Ability {
 					if (!PassiveManager.getPassiveClasses().containsKey(passive)) {
 						PassiveManager.getPassiveClasses().put(passive, coreAbil.getClass());
 					}
+					if (passive.isInstantiable()) {
+						AbilityFactory.of(coreAbil.getClass()); //Resolve the constructor once instead of on every passive registration
+					}
 				}
 
 				//Register the cooldown of the ability so it appears in the list of cooldowns
@@ -588,6 +610,11 @@ public abstract class CoreAbility implements Ability {
 				ABILITIES_BY_CLASS.remove(coreAbil.getClass());
 			}
 		}
+
+		//Activators are registered by name, so they have to be resolved against the newly loaded abilities
+		ActivationManager.rebuild();
+		//Abilities of other plugins may have added config defaults that the snapshot doesn't have yet
+		ConfigManager.compileSnapshot();
 	}
 
 	/**
@@ -611,6 +638,7 @@ public abstract class CoreAbility implements Ability {
 		final Permission bendingPlayerPerm = Bukkit.getPluginManager().getPermission("bending.player");
 
 		for (final CoreAbility coreAbil : loadedAbilities) {
+			REGISTRY.getId(coreAbil.getClass());
 			if (!(coreAbil instanceof AddonAbility)) {
 				plugin.getLogger().warning(coreAbil.getName() + " is an addon ability and must implement the AddonAbility interface");
 				continue;
@@ -636,7 +664,7 @@ public abstract class CoreAbility implements Ability {
 				if (coreAbil instanceof ComboAbility) {
 					final ComboAbility combo = (ComboAbility) coreAbil;
 					if (combo.getCombination() != null) {
-						ComboManager.getComboAbilities().put(name, new ComboManager.ComboAbilityInfo(name, combo.getCombination(), combo));
+						ComboManager.registerCombo(new ComboManager.ComboAbilityInfo(name, combo.getCombination(), combo));
 						ComboManager.getDescriptions().put(name, coreAbil.getDescription());
 						ComboManager.getInstructions().put(name, coreAbil.getInstructions());
 						ComboManager.getAuthors().put(name, addon.getAuthor());
@@ -655,6 +683,9 @@ public abstract class CoreAbility implements Ability {
 					if (!PassiveManager.getPassiveClasses().containsKey(passive)) {
 						PassiveManager.getPassiveClasses().put(passive, coreAbil.getClass());
 					}
+					if (passive.isInstantiable()) {
+						AbilityFactory.of(coreAbil.getClass()); //Resolve the constructor once instead of on every passive registration
+					}
 				}
 
 				//Define a permission for this addon if none have been defined already
@@ -683,6 +714,10 @@ public abstract class CoreAbility implements Ability {
 				ABILITIES_BY_CLASS.remove(coreAbil.getClass());
 			}
 		}
+
+		ActivationManager.rebuild();
+		//Addons add their config defaults in load()
+		ConfigManager.compileSnapshot();
 	}
 
 	public long getStartTime() {
@@ -737,18 +772,14 @@ public abstract class CoreAbility implements Ability {
 			elementName = ((SubElement) this.getElement()).getParentElement().getName();
 		}
 
-		String tag = null;
-		if (this instanceof PassiveAbility) {
-			tag = "Abilities." + elementName + ".Passive." + this.getName() + ".Enabled";
-		} else {
-			tag = "Abilities." + elementName + "." + this.getName() + ".Enabled";
+		final AbilityConfig config = ConfigManager.getSnapshot().getAbility(elementName, this.getName(), this instanceof PassiveAbility);
+		if (config != null) {
+			return config.isEnabled();
 		}
 
-		if (getConfig().isBoolean(tag)) {
-			return getConfig().getBoolean(tag);
-		} else {
-			return true;
-		}
+		//Not in the snapshot yet, e.g. defaults added after it was compiled
+		final String tag = "Abilities." + elementName + (this instanceof PassiveAbility ? ".Passive." : ".") + this.getName() + ".Enabled";
+		return !getConfig().isBoolean(tag) || getConfig().getBoolean(tag);
 	}
 
 	@Override
@@ -826,45 +857,11 @@ public abstract class CoreAbility implements Ability {
 			return;
 		}
 
-		final Class<? extends CoreAbility> clazz = this.getClass();
-
-		// The mapping from player UUID to a map of the player's instances.
-		Map<UUID, Map<Integer, CoreAbility>> classMap = INSTANCES_BY_PLAYER.get(clazz);
-
-		if (classMap != null) {
-			// The map of AbilityId to Ability for the current player.
-			final Map<Integer, CoreAbility> playerMap = classMap.get(this.player.getUniqueId());
-
-			if (playerMap != null) {
-				// Remove the ability from the current player's map.
-				playerMap.remove(this.id);
-
-				if (playerMap.isEmpty()) {
-					// Remove the player's empty ability map from global instances map.
-					classMap.remove(this.player.getUniqueId());
-				}
-			}
-
-			if (classMap.isEmpty()) {
-				INSTANCES_BY_PLAYER.remove(this.getClass());
-			}
-		}
-
-		// Add a new map for the current ability if it doesn't exist in the global map.
-		if (!INSTANCES_BY_PLAYER.containsKey(clazz)) {
-			INSTANCES_BY_PLAYER.put(clazz, new ConcurrentHashMap<>());
-		}
-
-		classMap = INSTANCES_BY_PLAYER.get(clazz);
-
-		// Create an AbilityId to Ability map for the target player if it doesn't exist.
-		if (!classMap.containsKey(target.getUniqueId())) {
-			classMap.put(target.getUniqueId(), new ConcurrentHashMap<>());
+		// Only started instances are registered to their player.
+		if (this.started && !this.removed) {
+			REGISTRY.move(this, this.player.getUniqueId(), target.getUniqueId());
 		}
 
-		// Add the current instance to the target player's ability map.
-		classMap.get(target.getUniqueId()).put(this.getId(), this);
-
 		this.player = target;
 
 		final BendingPlayer newBendingPlayer = BendingPlayer.getBendingPlayer(target);
@@ -1029,23 +1026,11 @@ public abstract class CoreAbility implements Ability {
 		int playerCounter = 0;
 		final HashMap<String, Integer> classCounter = new HashMap<>();
 
-		for (final Map<UUID, Map<Integer, CoreAbility>> map1 : INSTANCES_BY_PLAYER.values()) {
-			playerCounter++;
-			for (final Map<Integer, CoreAbility> map2 : map1.values()) {
-				for (final CoreAbility coreAbil : map2.values()) {
-					final String simpleName = coreAbil.getClass().getSimpleName();
-
-					if (classCounter.containsKey(simpleName)) {
-						classCounter.put(simpleName, classCounter.get(simpleName) + 1);
-					} else {
-						classCounter.put(simpleName, 1);
-					}
-				}
-			}
-		}
+		playerCounter = REGISTRY.getPlayerCount();
 
-		for (final Set<CoreAbility> set : INSTANCES_BY_CLASS.values()) {
-			for (final CoreAbility coreAbil : set) {
+		final int classes = REGISTRY.getClassCount();
+		for (int id = 0; id < classes; id++) {
+			for (final CoreAbility coreAbil : REGISTRY.getInstances(id)) {
 				final String simpleName = coreAbil.getClass().getSimpleName();
 				if (classCounter.containsKey(simpleName)) {
 					classCounter.put(simpleName, classCounter.get(simpleName) + 1);
@@ -1055,7 +1040,7 @@ public abstract class CoreAbility implements Ability {
 			}
 		}
 
-		sb.append("Class->UUID's in memory: " + playerCounter + "\n");
+		sb.append("Players with abilities in memory: " + playerCounter + "\n");
 		sb.append("Abilities in memory:\n");
 		for (final String className : classCounter.keySet()) {
 			sb.append(className + ": " + classCounter.get(className) + "\n");
@@ -29,9 +29,11 @@ import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.earthbending.RaiseEarth;
 import com.projectkorra.projectkorra.earthbending.lava.LavaFlow;
 import com.projectkorra.projectkorra.earthbending.passive.DensityShift;
+import com.projectkorra.projectkorra.util.BlockCountSet;
 import com.projectkorra.projectkorra.util.BlockSource;
 import com.projectkorra.projectkorra.util.Information;
 import com.projectkorra.projectkorra.util.ParticleEffect;
+import com.projectkorra.projectkorra.util.RevertChecker;
 import com.projectkorra.projectkorra.util.TempBlock;
 
 public abstract class EarthAbility extends ElementalAbility {
@@ -39,7 +41,7 @@ public abstract class EarthAbility extends ElementalAbility {
 	private static final HashSet<Block> PREVENT_EARTHBENDING = new HashSet<Block>();
 	private static final Map<Block, Information> MOVED_EARTH = new ConcurrentHashMap<Block, Information>();
 	private static final Map<Integer, Information> TEMP_AIR_LOCATIONS = new ConcurrentHashMap<Integer, Information>();
-	private static final ArrayList<Block> PREVENT_PHYSICS = new ArrayList<Block>();
+	private static final BlockCountSet PREVENT_PHYSICS = new BlockCountSet();
 
 	public EarthAbility(final Player player) {
 		super(player);
@@ -136,8 +138,19 @@ public abstract class EarthAbility extends ElementalAbility {
 		return this.moveEarth(block, direction, chainlength, true);
 	}
 
-	public boolean moveEarth(Block block, final Vector direction, final int chainlength, final boolean throwplayer) {
-		if ((!TempBlock.isTempBlock(block) || isBendableEarthTempBlock(block)) && this.isEarthbendable(block) && !GeneralMethods.isRegionProtectedFromBuild(this, block.getLocation())) {
+	public boolean moveEarth(final Block block, final Vector direction, final int chainlength, final boolean throwplayer) {
+		return this.moveEarth(block, direction, chainlength, throwplayer, true);
+	}
+
+	/**
+	 * Moves earth like {@link #moveEarth(Block, Vector, int, boolean)}.
+	 *
+	 * @param checkRegion False if the ability already checked the region
+	 *            protection of the block, e.g. with
+	 *            {@link com.projectkorra.projectkorra.region.RegionProtection#getProtectedBlocks(Player, java.util.Collection, CoreAbility)}
+	 */
+	public boolean moveEarth(Block block, final Vector direction, final int chainlength, final boolean throwplayer, final boolean checkRegion) {
+		if ((!TempBlock.isTempBlock(block) || isBendableEarthTempBlock(block)) && this.isEarthbendable(block) && (!checkRegion || !GeneralMethods.isRegionProtectedFromBuild(this, block.getLocation()))) {
 			boolean up = false;
 			boolean down = false;
 			final Vector norm = direction.clone().normalize();
@@ -153,10 +166,8 @@ public abstract class EarthAbility extends ElementalAbility {
 
 			for (double j = -2; j <= chainlength; j++) {
 				final Block checkblock = location.clone().add(negnorm.clone().multiply(j)).getBlock();
-				if (!PREVENT_PHYSICS.contains(checkblock)) {
-					blocks.add(checkblock);
-					PREVENT_PHYSICS.add(checkblock);
-				}
+				blocks.add(checkblock);
+				PREVENT_PHYSICS.add(checkblock);
 			}
 
 			Block affectedblock = location.clone().add(norm).getBlock();
@@ -281,6 +292,7 @@ public abstract class EarthAbility extends ElementalAbility {
 		block.setType(Material.AIR, false);
 		info.setTime(System.currentTimeMillis());
 		TEMP_AIR_LOCATIONS.put(info.getID(), info);
+		RevertChecker.trackAir(info);
 	}
 
 	public static void displaySandParticle(final Location loc, final int amount, final double xOffset, final double yOffset, final double zOffset, final double speed, final boolean red) {
@@ -400,10 +412,25 @@ public abstract class EarthAbility extends ElementalAbility {
 		return PREVENT_EARTHBENDING;
 	}
 
-	public static ArrayList<Block> getPreventPhysicsBlocks() {
+	/**
+	 * @return The blocks that physics updates are cancelled for while earth
+	 *         is moved. Every moveEarth adds the blocks of its chain and
+	 *         removes them again, so overlapping chains are counted.
+	 */
+	public static BlockCountSet getPreventPhysicsBlockSet() {
 		return PREVENT_PHYSICS;
 	}
 
+	/**
+	 * @return A copy of the blocks that physics updates are cancelled for.
+	 *         Changes to the list aren't applied.
+	 * @deprecated Use {@link #getPreventPhysicsBlockSet()}
+	 */
+	@Deprecated
+	public static ArrayList<Block> getPreventPhysicsBlocks() {
+		return PREVENT_PHYSICS.toList();
+	}
+
 	public static ChatColor getSubChatColor() {
 		return ChatColor.valueOf(ConfigManager.getConfig().getString("Properties.Chat.Colors.EarthSub"));
 	}
@@ -466,6 +493,7 @@ public abstract class EarthAbility extends ElementalAbility {
 		}
 		info.setTime(System.currentTimeMillis());
 		MOVED_EARTH.put(target, info);
+		RevertChecker.trackEarth(target, info);
 
 		if (info.getState().getType() == Material.SAND) {
 			target.setType(Material.SANDSTONE, false);
@@ -557,6 +585,7 @@ public abstract class EarthAbility extends ElementalAbility {
 		for (final Integer i : TEMP_AIR_LOCATIONS.keySet()) {
 			revertAirBlock(i, true);
 		}
+		RevertChecker.clear();
 	}
 
 	public static void removeRevertIndex(final Block block) {
@@ -0,0 +1,110 @@
+package com.projectkorra.projectkorra.ability.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+
+import org.bukkit.entity.Player;
+
+import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.util.ReflectionHandler;
+
+/**
+ * Creates instances of ability classes from their {@code (Player)}
+ * constructor.
+ * <p>
+ * The constructor of a class is looked up once, the first time the class is
+ * used, and turned into a factory. Classes loaded by the same class loader as
+ * ProjectKorra get a factory generated by the {@link LambdaMetafactory}, which
+ * costs the same as calling the constructor directly. Classes of addons can't
+ * be linked from the plugin class loader, so they get a factory that invokes a
+ * {@link MethodHandle} of the constructor. Classes without an accessible
+ * {@code (Player)} constructor fall back to
+ * {@link ReflectionHandler#instantiateObject(Class, Object...)}.
+ */
+public final class AbilityFactory {
+
+	private static final MethodType FUNCTION_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final ClassValue<Function<Player, Object>> FACTORIES = new ClassValue<Function<Player, Object>>() {
+		@Override
+		protected Function<Player, Object> computeValue(final Class<?> type) {
+			return createFactory(type);
+		}
+	};
+
+	private AbilityFactory() {}
+
+	/**
+	 * @return The factory of the class, creating it if the class doesn't have
+	 *         one yet
+	 */
+	public static Function<Player, Object> of(final Class<?> clazz) {
+		return FACTORIES.get(clazz);
+	}
+
+	/**
+	 * Creates an instance of the class for the player.
+	 *
+	 * @return The created instance
+	 */
+	public static Object create(final Class<?> clazz, final Player player) {
+		return FACTORIES.get(clazz).apply(player);
+	}
+
+	private static Function<Player, Object> createFactory(final Class<?> clazz) {
+		final Constructor<?> constructor;
+		try {
+			constructor = clazz.getDeclaredConstructor(Player.class);
+			if (!Modifier.isPublic(constructor.getModifiers()) || !Modifier.isPublic(clazz.getModifiers())) {
+				constructor.setAccessible(true);
+			}
+		} catch (NoSuchMethodException | SecurityException e) {
+			return reflectiveFactory(clazz);
+		}
+
+		final MethodHandle handle;
+		try {
+			handle = MethodHandles.lookup().unreflectConstructor(constructor);
+		} catch (final IllegalAccessException e) {
+			return reflectiveFactory(clazz);
+		}
+
+		if (clazz.getClassLoader() == AbilityFactory.class.getClassLoader() && Modifier.isPublic(clazz.getModifiers()) && Modifier.isPublic(constructor.getModifiers())) {
+			try {
+				final CallSite site = LambdaMetafactory.metafactory(MethodHandles.lookup(), "apply", MethodType.methodType(Function.class), FUNCTION_TYPE, handle, MethodType.methodType(clazz, Player.class));
+				@SuppressWarnings("unchecked")
+				final Function<Player, Object> factory = (Function<Player, Object>) site.getTarget().invokeExact();
+				return factory;
+			} catch (final Throwable e) {
+				ProjectKorra.log.fine("Falling back to a method handle to create " + clazz.getName() + ": " + e);
+			}
+		}
+
+		final MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Player.class));
+		return player -> {
+			try {
+				return (Object) generic.invokeExact(player);
+			} catch (final RuntimeException | Error e) {
+				throw e;
+			} catch (final Throwable e) {
+				throw new IllegalStateException("Unable to create " + clazz.getName(), e);
+			}
+		};
+	}
+
+	private static Function<Player, Object> reflectiveFactory(final Class<?> clazz) {
+		return player -> {
+			try {
+				return ReflectionHandler.instantiateObject(clazz, player);
+			} catch (final ReflectiveOperationException | IllegalArgumentException e) {
+				throw new IllegalStateException("Unable to create " + clazz.getName(), e);
+			}
+		};
+	}
+}
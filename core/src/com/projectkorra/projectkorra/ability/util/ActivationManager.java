@@ -0,0 +1,191 @@
+package com.projectkorra.projectkorra.ability.util;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.entity.Player;
+
+import com.projectkorra.projectkorra.BendingPlayer;
+import com.projectkorra.projectkorra.Element;
+import com.projectkorra.projectkorra.Element.SubElement;
+import com.projectkorra.projectkorra.ability.AddonAbility;
+import com.projectkorra.projectkorra.ability.CoreAbility;
+import com.projectkorra.projectkorra.util.ClickType;
+
+/**
+ * Maps the bound ability and the click type of a player to the code that
+ * activates the ability, so PKListener doesn't compare the bound ability name
+ * against every ability of the element on each click and sneak.
+ * <p>
+ * Activators are registered by ability name and resolved against the
+ * registered CoreAbilities whenever abilities are (re)loaded, after which
+ * finding the activator of a click is a single identity lookup. Addons can
+ * register activators for their own abilities the same way the core abilities
+ * are registered:
+ *
+ * <pre>
+ * ActivationManager.register("MyAbility", ClickType.LEFT_CLICK, (player, bPlayer) -&gt; new MyAbility(player));
+ * </pre>
+ *
+ * Before an activator is run, the element of the ability has to be toggled on
+ * and the player has to be able to bend with the item they are holding. Avatar
+ * abilities skip both checks.
+ * <p>
+ * The activators of the core abilities are registered with
+ * {@link #registerCore(String, ClickType, Activator)}. They are not used when
+ * an addon replaces the core ability of that name.
+ */
+public class ActivationManager {
+
+	/**
+	 * Activates an ability for a player that can bend it.
+	 */
+	@FunctionalInterface
+	public interface Activator {
+		void activate(Player player, BendingPlayer bPlayer);
+	}
+
+	private static final List<Registration> REGISTRATIONS = new ArrayList<>();
+	@SuppressWarnings("unchecked")
+	private static final Map<CoreAbility, Activation>[] ACTIVATIONS = new Map[ClickType.values().length];
+
+	static {
+		for (int i = 0; i < ACTIVATIONS.length; i++) {
+			ACTIVATIONS[i] = new IdentityHashMap<>();
+		}
+	}
+
+	/**
+	 * Registers the activator of an ability. An activator registered for the
+	 * same ability and click type before is replaced.
+	 *
+	 * @param ability The name of the ability
+	 * @param type The click that activates the ability
+	 * @param activator The activator
+	 */
+	public static void register(final String ability, final ClickType type, final Activator activator) {
+		register(new Registration(ability, type, activator, false));
+	}
+
+	/**
+	 * Registers the activator of a core ability. Unlike
+	 * {@link #register(String, ClickType, Activator)}, the activator is not
+	 * used while the name belongs to an {@link AddonAbility}.
+	 *
+	 * @param ability The name of the ability
+	 * @param type The click that activates the ability
+	 * @param activator The activator
+	 */
+	public static void registerCore(final String ability, final ClickType type, final Activator activator) {
+		register(new Registration(ability, type, activator, true));
+	}
+
+	private static void register(final Registration registration) {
+		REGISTRATIONS.removeIf(r -> r.type == registration.type && r.ability.equalsIgnoreCase(registration.ability));
+		REGISTRATIONS.add(registration);
+		registration.resolve();
+	}
+
+	/**
+	 * Removes the activator of an ability.
+	 */
+	public static void unregister(final String ability, final ClickType type) {
+		REGISTRATIONS.removeIf(r -> r.type == type && r.ability.equalsIgnoreCase(ability));
+		final CoreAbility coreAbil = CoreAbility.getAbility(ability);
+		if (coreAbil != null) {
+			ACTIVATIONS[type.ordinal()].remove(coreAbil);
+		}
+	}
+
+	/**
+	 * Resolves every registered activator against the currently registered
+	 * CoreAbilities. Called whenever abilities are registered.
+	 */
+	public static void rebuild() {
+		for (final Map<CoreAbility, Activation> activations : ACTIVATIONS) {
+			activations.clear();
+		}
+		for (final Registration registration : REGISTRATIONS) {
+			registration.resolve();
+		}
+	}
+
+	/**
+	 * @return True if an activator is registered for the ability and click
+	 *         type
+	 */
+	public static boolean hasActivator(final CoreAbility ability, final ClickType type) {
+		return ability != null && ACTIVATIONS[type.ordinal()].containsKey(ability);
+	}
+
+	/**
+	 * Runs the activator of an ability, if it has one for the click type and
+	 * the player has the element of the ability toggled on and can bend with
+	 * the item they are holding. Does not check whether the player can bend
+	 * the ability.
+	 *
+	 * @param ability The ability bound by the player
+	 * @param type The click the player did
+	 * @return True if an activator was run
+	 */
+	public static boolean activate(final CoreAbility ability, final ClickType type, final Player player, final BendingPlayer bPlayer) {
+		if (ability == null) {
+			return false;
+		}
+		final Activation activation = ACTIVATIONS[type.ordinal()].get(ability);
+		if (activation == null) {
+			return false;
+		} else if (activation.element != null && (!bPlayer.isElementToggled(activation.element) || !bPlayer.canCurrentlyBendWithWeapons())) {
+			return false;
+		}
+		activation.activator.activate(player, bPlayer);
+		return true;
+	}
+
+	private static class Registration {
+
+		private final String ability;
+		private final ClickType type;
+		private final Activator activator;
+		private final boolean core;
+
+		private Registration(final String ability, final ClickType type, final Activator activator, final boolean core) {
+			this.ability = ability;
+			this.type = type;
+			this.activator = activator;
+			this.core = core;
+		}
+
+		private void resolve() {
+			final CoreAbility coreAbil = CoreAbility.getAbility(this.ability);
+			if (coreAbil == null) {
+				return;
+			} else if (this.core && coreAbil instanceof AddonAbility) {
+				//An addon replaced the core ability, it activates itself
+				return;
+			}
+			ACTIVATIONS[this.type.ordinal()].put(coreAbil, new Activation(coreAbil, this.activator));
+		}
+	}
+
+	private static class Activation {
+
+		/**
+		 * The element that has to be toggled on, or null if the activation
+		 * isn't checked at all.
+		 */
+		private final Element element;
+		private final Activator activator;
+
+		private Activation(final CoreAbility ability, final Activator activator) {
+			Element element = ability.getElement();
+			if (element instanceof SubElement) {
+				element = ((SubElement) element).getParentElement();
+			}
+			this.element = element == Element.AVATAR ? null : element;
+			this.activator = activator;
+		}
+	}
+}
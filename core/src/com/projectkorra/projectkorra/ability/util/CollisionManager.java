@@ -2,18 +2,26 @@ package com.projectkorra.projectkorra.ability.util;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.ability.PassiveAbility;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.event.AbilityCollisionEvent;
+import com.projectkorra.projectkorra.util.BlockKey;
+import com.projectkorra.projectkorra.util.TickProfiler;
 
 /**
  * A CollisionManager is used to monitor possible collisions between all
@@ -32,6 +40,11 @@ import com.projectkorra.projectkorra.event.AbilityCollisionEvent;
  * During a Collision the {@link AbilityCollisionEvent} is called, then if not
  * cancelled, abilityFirst.handleCollision, and finally
  * abilitySecond.handleCollision.
+ * <p>
+ * By default the locations of every instance are bucketed into a uniform grid
+ * each tick (the broadphase), so only instances that are near each other are
+ * compared location by location. The broadphase can be disabled with
+ * Properties.Collisions.Broadphase.Enabled to compare every instance pair.
  */
 public class CollisionManager {
 
@@ -56,6 +69,18 @@ public class CollisionManager {
 	 */
 	private double certainNoCollisionDistance;
 
+	/*
+	 * If true the locations of every instance are bucketed into a uniform grid
+	 * each tick and only instances that share or neighbour a cell are
+	 * compared. If false every instance pair is compared.
+	 */
+	private boolean broadphase;
+
+	/*
+	 * The side length of a broadphase grid cell in blocks.
+	 */
+	private double cellSize;
+
 	private ArrayList<Collision> collisions;
 	private BukkitRunnable detectionRunnable;
 
@@ -63,6 +88,8 @@ public class CollisionManager {
 		this.removeMultipleInstances = true;
 		this.detectionDelay = 1;
 		this.certainNoCollisionDistance = 100;
+		this.broadphase = ConfigManager.getConfig().getBoolean("Properties.Collisions.Broadphase.Enabled");
+		this.cellSize = Math.max(1, ConfigManager.getConfig().getDouble("Properties.Collisions.Broadphase.CellSize"));
 		this.collisions = new ArrayList<>();
 	}
 
@@ -81,7 +108,22 @@ public class CollisionManager {
 			return;
 		}
 
+		final long start = TickProfiler.start();
+		if (this.broadphase) {
+			this.detectCollisionsBroadphase();
+		} else {
+			this.detectCollisionsAllPairs();
+		}
+		TickProfiler.stop(this.broadphase ? "CollisionManager.Broadphase" : "CollisionManager.AllPairs", start);
+	}
+
+	/**
+	 * Compares every instance pair of every registered Collision. Only used
+	 * when the broadphase is disabled, mostly to benchmark against it.
+	 */
+	private void detectCollisionsAllPairs() {
 		final HashMap<CoreAbility, List<Location>> locationsCache = new HashMap<>();
+		final double certainNoCollisionDistSquared = Math.pow(this.certainNoCollisionDistance, 2);
 
 		for (final Collision collision : this.collisions) {
 			final Collection<? extends CoreAbility> instancesFirst = CoreAbility.getAbilities(collision.getAbilityFirst().getClass());
@@ -93,90 +135,176 @@ public class CollisionManager {
 				continue;
 			}
 			final HashSet<CoreAbility> alreadyCollided = new HashSet<CoreAbility>();
-			final double certainNoCollisionDistSquared = Math.pow(this.certainNoCollisionDistance, 2);
 
 			for (final CoreAbility abilityFirst : instancesFirst) {
 				if (abilityFirst.getPlayer() == null || alreadyCollided.contains(abilityFirst) || !abilityFirst.isCollidable()) {
 					continue;
 				}
 
-				if (!locationsCache.containsKey(abilityFirst)) {
-					locationsCache.put(abilityFirst, abilityFirst.getLocations());
-				}
-				final List<Location> locationsFirst = locationsCache.get(abilityFirst);
+				final List<Location> locationsFirst = getLocations(abilityFirst, locationsCache);
 				if (locationsFirst.isEmpty()) {
 					continue;
 				}
 
 				for (final CoreAbility abilitySecond : instancesSecond) {
-					if (abilitySecond.getPlayer() == null || alreadyCollided.contains(abilitySecond) || !abilitySecond.isCollidable()) {
-						continue;
-					} else if (abilityFirst.getPlayer().equals(abilitySecond.getPlayer())) {
-						continue;
+					if (this.checkPair(collision, abilityFirst, locationsFirst, abilitySecond, locationsCache, alreadyCollided, certainNoCollisionDistSquared)) {
+						break;
 					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Buckets the locations of every instance into a uniform grid per ability
+	 * class and world, and then only compares instances that share or
+	 * neighbour a cell.
+	 */
+	private void detectCollisionsBroadphase() {
+		final HashMap<CoreAbility, List<Location>> locationsCache = new HashMap<>();
+		final HashMap<Class<? extends CoreAbility>, CollisionGrid> grids = new HashMap<>();
+		final Set<CoreAbility> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+		final double certainNoCollisionDistSquared = Math.pow(this.certainNoCollisionDistance, 2);
 
-					if (!locationsCache.containsKey(abilitySecond)) {
-						locationsCache.put(abilitySecond, abilitySecond.getLocations());
+		for (final Collision collision : this.collisions) {
+			final Collection<? extends CoreAbility> instancesFirst = CoreAbility.getAbilities(collision.getAbilityFirst().getClass());
+			if (instancesFirst.isEmpty()) {
+				continue;
+			}
+			final Collection<? extends CoreAbility> instancesSecond = CoreAbility.getAbilities(collision.getAbilitySecond().getClass());
+			if (instancesSecond.isEmpty()) {
+				continue;
+			}
+
+			CollisionGrid gridSecond = grids.get(collision.getAbilitySecond().getClass());
+			if (gridSecond == null) {
+				gridSecond = new CollisionGrid(this.cellSize);
+				for (final CoreAbility ability : instancesSecond) {
+					if (ability.getPlayer() != null && ability.isCollidable()) {
+						gridSecond.insert(ability, getLocations(ability, locationsCache));
 					}
-					final List<Location> locationsSecond = locationsCache.get(abilitySecond);
-					if (locationsSecond.isEmpty()) {
+				}
+				grids.put(collision.getAbilitySecond().getClass(), gridSecond);
+			}
+			if (gridSecond.isEmpty()) {
+				continue;
+			}
+
+			final HashSet<CoreAbility> alreadyCollided = new HashSet<CoreAbility>();
+
+			for (final CoreAbility abilityFirst : instancesFirst) {
+				if (abilityFirst.getPlayer() == null || alreadyCollided.contains(abilityFirst) || !abilityFirst.isCollidable()) {
+					continue;
+				}
+
+				final List<Location> locationsFirst = getLocations(abilityFirst, locationsCache);
+				if (locationsFirst.isEmpty()) {
+					continue;
+				}
+
+				candidates.clear();
+				gridSecond.collect(locationsFirst, abilityFirst.getCollisionRadius(), candidates);
+				if (candidates.isEmpty()) {
+					continue;
+				}
+
+				// Iterate the instances rather than the candidates to keep the same collision order as before.
+				for (final CoreAbility abilitySecond : instancesSecond) {
+					if (!candidates.contains(abilitySecond)) {
 						continue;
 					}
+					if (this.checkPair(collision, abilityFirst, locationsFirst, abilitySecond, locationsCache, alreadyCollided, certainNoCollisionDistSquared)) {
+						break;
+					}
+				}
+			}
+		}
+	}
 
-					boolean collided = false;
-					boolean certainNoCollision = false; // Used for efficiency.
-					Location locationFirst = null;
-					Location locationSecond = null;
-					final double requiredDist = abilityFirst.getCollisionRadius() + abilitySecond.getCollisionRadius();
-					final double requiredDistSquared = Math.pow(requiredDist, 2);
-
-					for (int i = 0; i < locationsFirst.size(); i++) {
-						locationFirst = locationsFirst.get(i);
-						if (locationFirst == null) {
-							continue;
-						}
-						for (int j = 0; j < locationsSecond.size(); j++) {
-							locationSecond = locationsSecond.get(j);
-							if (locationSecond == null) {
-								continue;
-							}
+	/**
+	 * Checks a single pair of instances for a collision and handles it.
+	 *
+	 * @return true if abilityFirst should not be compared with any more
+	 *         instances this tick
+	 */
+	private boolean checkPair(final Collision collision, final CoreAbility abilityFirst, final List<Location> locationsFirst, final CoreAbility abilitySecond, final Map<CoreAbility, List<Location>> locationsCache, final Set<CoreAbility> alreadyCollided, final double certainNoCollisionDistSquared) {
+		if (abilitySecond.getPlayer() == null || alreadyCollided.contains(abilitySecond) || !abilitySecond.isCollidable()) {
+			return false;
+		} else if (abilityFirst.getPlayer().equals(abilitySecond.getPlayer())) {
+			return false;
+		}
 
-							if (locationFirst.getWorld() != locationSecond.getWorld()) {
-								continue;
-							}
-							final double distSquared = locationFirst.distanceSquared(locationSecond);
-							if (distSquared <= requiredDistSquared) {
-								collided = true;
-								break;
-							} else if (distSquared >= certainNoCollisionDistSquared) {
-								certainNoCollision = true;
-								break;
-							}
-						}
-						if (collided || certainNoCollision) {
-							break;
-						}
-					}
+		final List<Location> locationsSecond = getLocations(abilitySecond, locationsCache);
+		if (locationsSecond.isEmpty()) {
+			return false;
+		}
 
-					if (collided) {
-						final Collision forwardCollision = new Collision(abilityFirst, abilitySecond, collision.isRemovingFirst(), collision.isRemovingSecond(), locationFirst, locationSecond);
-						final Collision reverseCollision = new Collision(abilitySecond, abilityFirst, collision.isRemovingSecond(), collision.isRemovingFirst(), locationSecond, locationFirst);
-						final AbilityCollisionEvent event = new AbilityCollisionEvent(forwardCollision);
-						Bukkit.getServer().getPluginManager().callEvent(event);
-						if (event.isCancelled()) {
-							continue;
-						}
-						abilityFirst.handleCollision(forwardCollision);
-						abilitySecond.handleCollision(reverseCollision);
-						if (!this.removeMultipleInstances) {
-							alreadyCollided.add(abilityFirst);
-							alreadyCollided.add(abilitySecond);
-							break;
-						}
-					}
+		boolean collided = false;
+		boolean certainNoCollision = false; // Used for efficiency.
+		Location locationFirst = null;
+		Location locationSecond = null;
+		final double requiredDist = abilityFirst.getCollisionRadius() + abilitySecond.getCollisionRadius();
+		final double requiredDistSquared = Math.pow(requiredDist, 2);
+
+		for (int i = 0; i < locationsFirst.size(); i++) {
+			locationFirst = locationsFirst.get(i);
+			if (locationFirst == null) {
+				continue;
+			}
+			for (int j = 0; j < locationsSecond.size(); j++) {
+				locationSecond = locationsSecond.get(j);
+				if (locationSecond == null) {
+					continue;
+				}
+
+				if (locationFirst.getWorld() != locationSecond.getWorld()) {
+					continue;
 				}
+				final double distSquared = locationFirst.distanceSquared(locationSecond);
+				if (distSquared <= requiredDistSquared) {
+					collided = true;
+					break;
+				} else if (distSquared >= certainNoCollisionDistSquared) {
+					certainNoCollision = true;
+					break;
+				}
+			}
+			if (collided || certainNoCollision) {
+				break;
 			}
 		}
+
+		if (!collided) {
+			return false;
+		}
+
+		final Collision forwardCollision = new Collision(abilityFirst, abilitySecond, collision.isRemovingFirst(), collision.isRemovingSecond(), locationFirst, locationSecond);
+		final Collision reverseCollision = new Collision(abilitySecond, abilityFirst, collision.isRemovingSecond(), collision.isRemovingFirst(), locationSecond, locationFirst);
+		final AbilityCollisionEvent event = new AbilityCollisionEvent(forwardCollision);
+		Bukkit.getServer().getPluginManager().callEvent(event);
+		if (event.isCancelled()) {
+			return false;
+		}
+		abilityFirst.handleCollision(forwardCollision);
+		abilitySecond.handleCollision(reverseCollision);
+		if (!this.removeMultipleInstances) {
+			alreadyCollided.add(abilityFirst);
+			alreadyCollided.add(abilitySecond);
+			return true;
+		}
+		return false;
+	}
+
+	private static List<Location> getLocations(final CoreAbility ability, final Map<CoreAbility, List<Location>> locationsCache) {
+		List<Location> locations = locationsCache.get(ability);
+		if (locations == null) {
+			locations = ability.getLocations();
+			if (locations == null) {
+				locations = Collections.emptyList();
+			}
+			locationsCache.put(ability, locations);
+		}
+		return locations;
 	}
 
 	/**
@@ -250,6 +378,22 @@ public class CollisionManager {
 		this.certainNoCollisionDistance = certainNoCollisionDistance;
 	}
 
+	public boolean isBroadphase() {
+		return this.broadphase;
+	}
+
+	public void setBroadphase(final boolean broadphase) {
+		this.broadphase = broadphase;
+	}
+
+	public double getCellSize() {
+		return this.cellSize;
+	}
+
+	public void setCellSize(final double cellSize) {
+		this.cellSize = Math.max(1, cellSize);
+	}
+
 	public ArrayList<Collision> getCollisions() {
 		return this.collisions;
 	}
@@ -266,4 +410,93 @@ public class CollisionManager {
 		this.detectionRunnable = detectionRunnable;
 	}
 
+	/**
+	 * A uniform grid of the instances of a single ability class, partitioned
+	 * by world. Cells are keyed by their packed cell coordinates.
+	 */
+	private static class CollisionGrid {
+
+		private final double cellSize;
+		private final Map<World, Map<Long, List<CoreAbility>>> cells = new HashMap<>();
+		private double maxRadius;
+
+		private CollisionGrid(final double cellSize) {
+			this.cellSize = cellSize;
+		}
+
+		private boolean isEmpty() {
+			return this.cells.isEmpty();
+		}
+
+		private void insert(final CoreAbility ability, final List<Location> locations) {
+			boolean inserted = false;
+			for (final Location location : locations) {
+				if (location == null || location.getWorld() == null) {
+					continue;
+				}
+
+				final long key = BlockKey.of(this.cell(location.getX()), this.cell(location.getY()), this.cell(location.getZ()));
+				final List<CoreAbility> cell = this.cells.computeIfAbsent(location.getWorld(), w -> new HashMap<>()).computeIfAbsent(key, k -> new ArrayList<>(2));
+				if (cell.isEmpty() || cell.get(cell.size() - 1) != ability) {
+					cell.add(ability);
+				}
+				inserted = true;
+			}
+
+			if (inserted) {
+				this.maxRadius = Math.max(this.maxRadius, ability.getCollisionRadius());
+			}
+		}
+
+		/**
+		 * Adds every instance that has a location in a cell within reach of
+		 * the given locations.
+		 */
+		private void collect(final List<Location> locations, final double radius, final Set<CoreAbility> result) {
+			final double reach = radius + this.maxRadius;
+			for (final Location location : locations) {
+				if (location == null) {
+					continue;
+				}
+
+				final Map<Long, List<CoreAbility>> worldCells = this.cells.get(location.getWorld());
+				if (worldCells == null) {
+					continue;
+				}
+
+				final int minX = this.cell(location.getX() - reach), maxX = this.cell(location.getX() + reach);
+				final int minY = this.cell(location.getY() - reach), maxY = this.cell(location.getY() + reach);
+				final int minZ = this.cell(location.getZ() - reach), maxZ = this.cell(location.getZ() + reach);
+				final long probes = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+
+				if (probes > worldCells.size()) {
+					// Large reach compared to the amount of occupied cells, so scan the occupied cells instead.
+					for (final Map.Entry<Long, List<CoreAbility>> entry : worldCells.entrySet()) {
+						final long key = entry.getKey();
+						final int x = BlockKey.getX(key), y = BlockKey.getY(key), z = BlockKey.getZ(key);
+						if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+							result.addAll(entry.getValue());
+						}
+					}
+					continue;
+				}
+
+				for (int x = minX; x <= maxX; x++) {
+					for (int y = minY; y <= maxY; y++) {
+						for (int z = minZ; z <= maxZ; z++) {
+							final List<CoreAbility> cell = worldCells.get(BlockKey.of(x, y, z));
+							if (cell != null) {
+								result.addAll(cell);
+							}
+						}
+					}
+				}
+			}
+		}
+
+		private int cell(final double coordinate) {
+			return (int) Math.floor(coordinate / this.cellSize);
+		}
+	}
+
 }
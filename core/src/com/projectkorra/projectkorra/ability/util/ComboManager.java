@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Bukkit;
@@ -19,18 +20,24 @@ import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.earthbending.combo.EarthDomeOthers;
 import com.projectkorra.projectkorra.util.ClickType;
-import com.projectkorra.projectkorra.util.ReflectionHandler;
 
 public class ComboManager {
 	private static final long CLEANUP_DELAY = 20 * 60;
-	private static final Map<String, ArrayList<AbilityInformation>> RECENTLY_USED = new ConcurrentHashMap<>();
+	/**
+	 * The amount of recent inputs that are remembered per player.
+	 */
+	private static final int HISTORY_SIZE = 10;
+	private static final Map<UUID, RecentInputs> RECENTLY_USED = new ConcurrentHashMap<>();
 	private static final HashMap<String, ComboAbilityInfo> COMBO_ABILITIES = new HashMap<>();
+	private static ComboMatcher matcher;
+	private static int matcherVersion;
 	private static final HashMap<String, String> AUTHORS = new HashMap<>();
 	private static final HashMap<String, String> DESCRIPTIONS = new HashMap<>();
 	private static final HashMap<String, String> INSTRUCTIONS = new HashMap<>();
 
 	public ComboManager() {
 		COMBO_ABILITIES.clear();
+		invalidateMatcher();
 		DESCRIPTIONS.clear();
 		INSTRUCTIONS.clear();
 
@@ -38,7 +45,7 @@ public class ComboManager {
 			final ArrayList<AbilityInformation> earthDomeOthers = new ArrayList<>();
 			earthDomeOthers.add(new AbilityInformation("RaiseEarth", ClickType.RIGHT_CLICK_BLOCK));
 			earthDomeOthers.add(new AbilityInformation("Shockwave", ClickType.LEFT_CLICK));
-			COMBO_ABILITIES.put("EarthDomeOthers", new ComboAbilityInfo("EarthDomeOthers", earthDomeOthers, EarthDomeOthers.class));
+			registerCombo(new ComboAbilityInfo("EarthDomeOthers", earthDomeOthers, EarthDomeOthers.class));
 		}*/
 
 		Bukkit.getScheduler().runTaskLater(ProjectKorra.plugin, ComboManager::registerCombos, 1L);
@@ -56,10 +63,10 @@ public class ComboManager {
 			return;
 		}
 
-		final AbilityInformation info = new AbilityInformation(abilityName, type, System.currentTimeMillis());
-		addRecentAbility(player, info);
+		final RecentInputs inputs = getRecentInputs(player);
+		inputs.add(abilityName, type, System.currentTimeMillis());
 
-		final ComboAbilityInfo comboAbil = checkForValidCombo(player);
+		final ComboAbilityInfo comboAbil = getMatcher().getCombo(inputs.state);
 		if (comboAbil == null) {
 			return;
 		} else if (!player.hasPermission("bending.ability." + comboAbil.getName())) {
@@ -72,7 +79,7 @@ public class ComboManager {
 				if (comboAbil.getComboType() instanceof Class) {
 					final Class<?> clazz = (Class<?>) comboAbil.getComboType();
 					try {
-						ReflectionHandler.instantiateObject(clazz, player);
+						AbilityFactory.create(clazz, player);
 					} catch (final Exception e) {
 						e.printStackTrace();
 					}
@@ -95,16 +102,7 @@ public class ComboManager {
 	 * @param info The AbilityInformation to add
 	 */
 	public static void addRecentAbility(final Player player, final AbilityInformation info) {
-		ArrayList<AbilityInformation> list;
-		final String name = player.getName();
-		if (RECENTLY_USED.containsKey(name)) {
-			list = RECENTLY_USED.get(name);
-		} else {
-			list = new ArrayList<AbilityInformation>();
-		}
-
-		list.add(info);
-		RECENTLY_USED.put(name, list);
+		getRecentInputs(player).add(info.getAbilityName(), info.getClickType(), info.getTime());
 	}
 
 	/**
@@ -113,14 +111,11 @@ public class ComboManager {
 	 * @param type The type of combo to remove
 	 */
 	public static void removeRecentType(final Player player, ClickType type) {
-		if (RECENTLY_USED.containsKey(player.getName())) {
-			ArrayList<AbilityInformation> list = RECENTLY_USED.get(player.getName());
-
-			if (list.size() > 0) {
-				AbilityInformation last = list.get(list.size() - 1);
-				if (last.getTime() > System.currentTimeMillis() - 50 && last.getClickType() == type) { //If the ability was within the last tick
-					list.remove(last);
-				}
+		final RecentInputs inputs = RECENTLY_USED.get(player.getUniqueId());
+		if (inputs != null && inputs.size > 0) {
+			final int last = inputs.index(inputs.size - 1);
+			if (inputs.times[last] > System.currentTimeMillis() - 50 && inputs.types[last] == type) { //If the ability was within the last tick
+				inputs.removeLast();
 			}
 		}
 	}
@@ -136,34 +131,13 @@ public class ComboManager {
 	 *         no valid combo was found
 	 */
 	public static ComboAbilityInfo checkForValidCombo(final Player player) {
-		final ArrayList<AbilityInformation> playerCombo = getRecentlyUsedAbilities(player, 8);
-		for (final String ability : COMBO_ABILITIES.keySet()) {
-			final ComboAbilityInfo customAbility = COMBO_ABILITIES.get(ability);
-			final ArrayList<AbilityInformation> abilityCombo = customAbility.getAbilities();
-			final int size = abilityCombo.size();
-
-			if (playerCombo.size() < size) {
-				continue;
-			}
-
-			boolean isValid = true;
-			for (int i = 1; i <= size; i++) {
-				final AbilityInformation playerInfo = playerCombo.get(playerCombo.size() - i);
-				final AbilityInformation comboInfo = abilityCombo.get(abilityCombo.size() - i);
-				if (playerInfo.getAbilityName().equals(comboInfo.getAbilityName()) && playerInfo.getClickType() == ClickType.LEFT_CLICK_ENTITY && comboInfo.getClickType() == ClickType.LEFT_CLICK) {
-					continue;
-				} else if (!playerInfo.equalsWithoutTime(comboInfo)) {
-					isValid = false;
-					break;
-				}
-			}
-
-			if (isValid) {
-				return customAbility;
-			}
+		final RecentInputs inputs = RECENTLY_USED.get(player.getUniqueId());
+		if (inputs == null) {
+			return null;
 		}
-
-		return null;
+		final ComboMatcher matcher = getMatcher();
+		inputs.update(matcher);
+		return matcher.getCombo(inputs.state);
 	}
 
 	public static void cleanupOldCombos() {
@@ -180,22 +154,66 @@ public class ComboManager {
 	 *         used abilities
 	 */
 	public static ArrayList<AbilityInformation> getRecentlyUsedAbilities(final Player player, final int amount) {
-		final String name = player.getName();
-		if (!RECENTLY_USED.containsKey(name)) {
+		final RecentInputs inputs = RECENTLY_USED.get(player.getUniqueId());
+		if (inputs == null) {
 			return new ArrayList<AbilityInformation>();
 		}
 
-		final ArrayList<AbilityInformation> list = RECENTLY_USED.get(name);
-		if (list.size() < amount) {
-			return new ArrayList<AbilityInformation>(list);
+		final int count = Math.min(amount, inputs.size);
+		final ArrayList<AbilityInformation> list = new ArrayList<AbilityInformation>(count);
+		for (int i = inputs.size - count; i < inputs.size; i++) {
+			final int index = inputs.index(i);
+			list.add(new AbilityInformation(inputs.names[index], inputs.types[index], inputs.times[index]));
 		}
+		return list;
+	}
 
-		final ArrayList<AbilityInformation> tempList = new ArrayList<AbilityInformation>();
-		for (int i = 0; i < amount; i++) {
-			tempList.add(0, list.get(list.size() - 1 - i));
-		}
+	private static RecentInputs getRecentInputs(final Player player) {
+		return RECENTLY_USED.computeIfAbsent(player.getUniqueId(), uuid -> new RecentInputs());
+	}
+
+	/**
+	 * Registers a combo, replacing a combo with the same name.
+	 *
+	 * @param info The combo to register
+	 */
+	public static void registerCombo(final ComboAbilityInfo info) {
+		COMBO_ABILITIES.put(info.getName(), info);
+		invalidateMatcher();
+	}
+
+	/**
+	 * Unregisters a combo.
+	 *
+	 * @param name The name of the combo
+	 * @return The combo that was registered with the name, or null
+	 */
+	public static ComboAbilityInfo unregisterCombo(final String name) {
+		final ComboAbilityInfo info = COMBO_ABILITIES.remove(name);
+		invalidateMatcher();
+		return info;
+	}
 
-		return tempList;
+	/**
+	 * Recompiles the combo matcher on the next input. Has to be called after
+	 * changing the map of {@link #getComboAbilities()} directly.
+	 */
+	public static void invalidateMatcher() {
+		matcher = null;
+	}
+
+	/**
+	 * @return The matcher of the registered combos, compiling it if a combo
+	 *         was registered or unregistered since it was last compiled
+	 */
+	private static ComboMatcher getMatcher() {
+		ComboMatcher matcher = ComboManager.matcher;
+		if (matcher == null) {
+			matcher = new ComboMatcher(new ArrayList<>(COMBO_ABILITIES.values()));
+			ComboManager.matcher = matcher;
+			matcherVersion++;
+		}
+		return matcher;
 	}
 
 	/**
@@ -239,6 +257,11 @@ public class ComboManager {
 		return CLEANUP_DELAY;
 	}
 
+	/**
+	 * @return The registered combos. Use {@link #registerCombo(ComboAbilityInfo)}
+	 *         and {@link #unregisterCombo(String)} to change them, or call
+	 *         {@link #invalidateMatcher()} after changing the map directly.
+	 */
 	public static HashMap<String, ComboAbilityInfo> getComboAbilities() {
 		return COMBO_ABILITIES;
 	}
@@ -262,7 +285,7 @@ public class ComboManager {
 				try { //Using a try catch here because we can run addon code. And that may crash/stop the loop
 					ArrayList<AbilityInformation> combination = combo.getCombination();
 					if (combination != null) {
-						ComboManager.getComboAbilities().put(ability.getName(), new ComboManager.ComboAbilityInfo(ability.getName(), combination, combo));
+						registerCombo(new ComboAbilityInfo(ability.getName(), combination, combo));
 						ComboManager.getDescriptions().put(ability.getName(), ability.getDescription());
 						ComboManager.getInstructions().put(ability.getName(), ability.getInstructions());
 					}
@@ -273,6 +296,68 @@ public class ComboManager {
 		}
 	}
 
+	/**
+	 * The recent inputs of a player in a ring buffer, together with the state
+	 * of the combo matcher after each of them.
+	 */
+	private static class RecentInputs {
+
+		private final String[] names = new String[HISTORY_SIZE];
+		private final ClickType[] types = new ClickType[HISTORY_SIZE];
+		private final long[] times = new long[HISTORY_SIZE];
+		private final int[] states = new int[HISTORY_SIZE];
+		private int start;
+		private int size;
+		/** The matcher state after the last input. */
+		private int state = ComboMatcher.START;
+		private int version = matcherVersion;
+
+		private int index(final int i) {
+			return (this.start + i) % HISTORY_SIZE;
+		}
+
+		private void add(final String name, final ClickType type, final long time) {
+			final ComboMatcher matcher = getMatcher();
+			this.update(matcher);
+
+			final int index;
+			if (this.size == HISTORY_SIZE) {
+				index = this.start;
+				this.start = this.index(1);
+			} else {
+				index = this.index(this.size++);
+			}
+			this.state = matcher.next(this.state, matcher.symbol(name, type));
+			this.names[index] = name;
+			this.types[index] = type;
+			this.times[index] = time;
+			this.states[index] = this.state;
+		}
+
+		private void removeLast() {
+			this.size--;
+			this.names[this.index(this.size)] = null;
+			this.state = this.size > 0 ? this.states[this.index(this.size - 1)] : ComboMatcher.START;
+		}
+
+		/**
+		 * Recomputes the states of the inputs if the matcher was recompiled
+		 * since they were computed.
+		 */
+		private void update(final ComboMatcher matcher) {
+			if (this.version == matcherVersion) {
+				return;
+			}
+			this.version = matcherVersion;
+			this.state = ComboMatcher.START;
+			for (int i = Math.max(0, this.size - ComboMatcher.MAX_LENGTH); i < this.size; i++) {
+				final int index = this.index(i);
+				this.state = matcher.next(this.state, matcher.symbol(this.names[index], this.types[index]));
+				this.states[index] = this.state;
+			}
+		}
+	}
+
 	/**
 	 * Contains information on an ability used in a combo.
 	 *
@@ -354,6 +439,9 @@ public class ComboManager {
 			this.name = name;
 			this.abilities = abilities;
 			this.comboType = comboType;
+			if (comboType instanceof Class) {
+				AbilityFactory.of((Class<?>) comboType); //Resolve the constructor now instead of on the first activation
+			}
 		}
 
 		public ArrayList<AbilityInformation> getAbilities() {
@@ -0,0 +1,220 @@
+package com.projectkorra.projectkorra.ability.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.projectkorra.projectkorra.ability.util.ComboManager.AbilityInformation;
+import com.projectkorra.projectkorra.ability.util.ComboManager.ComboAbilityInfo;
+import com.projectkorra.projectkorra.util.ClickType;
+
+/**
+ * Matches the recent inputs of a player against every combo at once.
+ * <p>
+ * The combos are compiled into a trie over (ability, click type) symbols. A
+ * state of the matcher is the set of trie nodes that match a suffix of the
+ * inputs so far, so advancing a state by one input and checking whether it
+ * completes a combo doesn't depend on the amount of combos. States and their
+ * transitions are created the first time they are reached and reused after
+ * that, which makes advancing a state a single array lookup.
+ * <p>
+ * A left click on an entity also matches a left click of the same ability,
+ * like it did when combos were compared one by one.
+ */
+final class ComboMatcher {
+
+	/**
+	 * The longest combo that can be matched. Only the last 8 inputs of a
+	 * player were ever compared against the combos.
+	 */
+	static final int MAX_LENGTH = 8;
+	static final int START = 0;
+	static final int NO_SYMBOL = -1;
+
+	private static final int CLICK_TYPES = ClickType.values().length;
+
+	private final Map<String, Integer> abilities = new HashMap<>();
+	private final int symbols;
+
+	private int[][] children;
+	private int[] depth;
+	private ComboAbilityInfo[] combos;
+	private int nodes;
+
+	private final Map<NodeSet, Integer> stateIds = new HashMap<>();
+	private final List<int[]> stateNodes = new ArrayList<>();
+	private final List<int[]> transitions = new ArrayList<>();
+	private final List<ComboAbilityInfo> accepts = new ArrayList<>();
+
+	ComboMatcher(final Collection<ComboAbilityInfo> combos) {
+		final List<ComboAbilityInfo> valid = new ArrayList<>();
+		for (final ComboAbilityInfo combo : combos) {
+			if (isValid(combo)) {
+				valid.add(combo);
+				for (final AbilityInformation info : combo.getAbilities()) {
+					this.abilities.putIfAbsent(info.getAbilityName(), this.abilities.size());
+				}
+			}
+		}
+		this.symbols = this.abilities.size() * CLICK_TYPES;
+
+		this.children = new int[16][];
+		this.depth = new int[16];
+		this.combos = new ComboAbilityInfo[16];
+		this.newNode(0);
+		for (final ComboAbilityInfo combo : valid) {
+			int node = 0;
+			for (final AbilityInformation info : combo.getAbilities()) {
+				final int symbol = this.symbol(info.getAbilityName(), info.getClickType());
+				if (this.children[node][symbol] < 0) {
+					this.children[node][symbol] = this.newNode(this.depth[node] + 1);
+				}
+				node = this.children[node][symbol];
+			}
+			this.combos[node] = combo;
+		}
+
+		this.state(new int[0]);
+	}
+
+	private static boolean isValid(final ComboAbilityInfo combo) {
+		final List<AbilityInformation> abilities = combo.getAbilities();
+		if (abilities == null || abilities.isEmpty() || abilities.size() > MAX_LENGTH) {
+			return false;
+		}
+		for (final AbilityInformation info : abilities) {
+			if (info == null || info.getAbilityName() == null || info.getClickType() == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int newNode(final int depth) {
+		if (this.nodes == this.children.length) {
+			this.children = Arrays.copyOf(this.children, this.nodes * 2);
+			this.depth = Arrays.copyOf(this.depth, this.nodes * 2);
+			this.combos = Arrays.copyOf(this.combos, this.nodes * 2);
+		}
+		final int[] row = new int[this.symbols];
+		Arrays.fill(row, -1);
+		this.children[this.nodes] = row;
+		this.depth[this.nodes] = depth;
+		return this.nodes++;
+	}
+
+	/**
+	 * @return The symbol of an input, or {@link #NO_SYMBOL} if the ability
+	 *         isn't part of any combo
+	 */
+	int symbol(final String ability, final ClickType type) {
+		final Integer id = ability == null || type == null ? null : this.abilities.get(ability);
+		return id == null ? NO_SYMBOL : id * CLICK_TYPES + type.ordinal();
+	}
+
+	/**
+	 * @return The state after the input with the given symbol
+	 */
+	int next(final int state, final int symbol) {
+		if (symbol == NO_SYMBOL) {
+			return START;
+		}
+		final int[] row = this.transitions.get(state);
+		if (row[symbol] < 0) {
+			row[symbol] = this.computeNext(state, symbol);
+		}
+		return row[symbol];
+	}
+
+	private int computeNext(final int state, final int symbol) {
+		final int[] current = this.stateNodes.get(state);
+		final boolean entity = symbol % CLICK_TYPES == ClickType.LEFT_CLICK_ENTITY.ordinal();
+		final int alternative = symbol - ClickType.LEFT_CLICK_ENTITY.ordinal() + ClickType.LEFT_CLICK.ordinal();
+
+		final int[] next = new int[(current.length + 1) * 2];
+		int size = 0;
+		for (int i = -1; i < current.length; i++) {
+			final int[] row = this.children[i < 0 ? 0 : current[i]];
+			if (row[symbol] >= 0) {
+				next[size++] = row[symbol];
+			}
+			if (entity && row[alternative] >= 0) {
+				next[size++] = row[alternative];
+			}
+		}
+
+		Arrays.sort(next, 0, size);
+		int unique = 0;
+		for (int i = 0; i < size; i++) {
+			if (unique == 0 || next[unique - 1] != next[i]) {
+				next[unique++] = next[i];
+			}
+		}
+		return this.state(Arrays.copyOf(next, unique));
+	}
+
+	private int state(final int[] nodes) {
+		final NodeSet key = new NodeSet(nodes);
+		final Integer existing = this.stateIds.get(key);
+		if (existing != null) {
+			return existing;
+		}
+
+		ComboAbilityInfo accept = null;
+		int acceptDepth = 0;
+		for (final int node : nodes) {
+			if (this.combos[node] != null && this.depth[node] > acceptDepth) {
+				accept = this.combos[node];
+				acceptDepth = this.depth[node];
+			}
+		}
+
+		final int id = this.stateNodes.size();
+		final int[] row = new int[this.symbols];
+		Arrays.fill(row, -1);
+		this.stateIds.put(key, id);
+		this.stateNodes.add(nodes);
+		this.transitions.add(row);
+		this.accepts.add(accept);
+		return id;
+	}
+
+	/**
+	 * @return The longest combo completed by the last input of the state, or
+	 *         null
+	 */
+	ComboAbilityInfo getCombo(final int state) {
+		return this.accepts.get(state);
+	}
+
+	/**
+	 * @return The amount of states reached so far
+	 */
+	int getStateCount() {
+		return this.stateNodes.size();
+	}
+
+	private static final class NodeSet {
+
+		private final int[] nodes;
+		private final int hash;
+
+		private NodeSet(final int[] nodes) {
+			this.nodes = nodes;
+			this.hash = Arrays.hashCode(nodes);
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			return o instanceof NodeSet && Arrays.equals(this.nodes, ((NodeSet) o).nodes);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+	}
+}
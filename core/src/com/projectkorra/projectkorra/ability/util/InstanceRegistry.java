@@ -0,0 +1,269 @@
+package com.projectkorra.projectkorra.ability.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.projectkorra.projectkorra.ability.CoreAbility;
+
+/**
+ * Keeps track of the started CoreAbility instances by class and by player.
+ * <p>
+ * Every ability class gets a dense integer id the first time it is seen, which
+ * indexes the per class instance lists and the per player bitset of active
+ * ability classes, so checking if a player has an active instance of a class
+ * is a single map lookup and a bit test.
+ * <p>
+ * Instance lists are copy on write arrays. Starting or removing an instance
+ * copies the list of its class, but reading a list never allocates or locks,
+ * and a list that is being iterated is never modified, so instances can be
+ * started and removed while iterating. Instances are kept in the order they
+ * were started.
+ */
+public class InstanceRegistry {
+
+	private static final CoreAbility[] EMPTY = new CoreAbility[0];
+
+	private final List<Class<? extends CoreAbility>> classes = new ArrayList<>();
+	private final ClassValue<Integer> ids = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(final Class<?> type) {
+			synchronized (InstanceRegistry.this.classes) {
+				InstanceRegistry.this.classes.add(type.asSubclass(CoreAbility.class));
+				return InstanceRegistry.this.classes.size() - 1;
+			}
+		}
+	};
+
+	private volatile CoreAbility[][] byClass = new CoreAbility[0][];
+	private final Map<UUID, PlayerInstances> byPlayer = new ConcurrentHashMap<>();
+	private final Object lock = new Object();
+
+	/**
+	 * @return the dense id of the ability class, assigning one if the class
+	 *         doesn't have one yet
+	 */
+	public int getId(final Class<? extends CoreAbility> clazz) {
+		return this.ids.get(clazz);
+	}
+
+	/**
+	 * @return the amount of ability classes that have an id
+	 */
+	public int getClassCount() {
+		synchronized (this.classes) {
+			return this.classes.size();
+		}
+	}
+
+	public Class<? extends CoreAbility> getAbilityClass(final int id) {
+		synchronized (this.classes) {
+			return this.classes.get(id);
+		}
+	}
+
+	/**
+	 * @return the instances of the class with the given id. Do not modify the
+	 *         array.
+	 */
+	public CoreAbility[] getInstances(final int id) {
+		final CoreAbility[][] byClass = this.byClass;
+		return id < byClass.length && byClass[id] != null ? byClass[id] : EMPTY;
+	}
+
+	/**
+	 * @return the instances of the class with the given id that belong to the
+	 *         player. Do not modify the array.
+	 */
+	public CoreAbility[] getInstances(final UUID player, final int id) {
+		final PlayerInstances instances = this.byPlayer.get(player);
+		return instances != null ? instances.get(id) : EMPTY;
+	}
+
+	/**
+	 * @return true if the player has an instance of the class with the given
+	 *         id
+	 */
+	public boolean has(final UUID player, final int id) {
+		final PlayerInstances instances = this.byPlayer.get(player);
+		return instances != null && instances.has(id);
+	}
+
+	/**
+	 * @return the players that have an instance of the class with the given id
+	 */
+	public Set<UUID> getPlayers(final int id) {
+		final Set<UUID> players = new HashSet<>();
+		for (final Map.Entry<UUID, PlayerInstances> entry : this.byPlayer.entrySet()) {
+			if (entry.getValue().has(id)) {
+				players.add(entry.getKey());
+			}
+		}
+		return players;
+	}
+
+	/**
+	 * @return the amount of players that have any instance
+	 */
+	public int getPlayerCount() {
+		return this.byPlayer.size();
+	}
+
+	public void add(final CoreAbility ability, final UUID player) {
+		final int id = this.getId(ability.getClass());
+		synchronized (this.lock) {
+			CoreAbility[][] byClass = this.byClass;
+			if (id >= byClass.length) {
+				byClass = Arrays.copyOf(byClass, Math.max(id + 1, byClass.length * 2));
+			} else {
+				byClass = byClass.clone();
+			}
+			byClass[id] = append(byClass[id], ability);
+			this.byClass = byClass;
+
+			this.byPlayer.computeIfAbsent(player, key -> new PlayerInstances()).add(id, ability);
+		}
+	}
+
+	public void remove(final CoreAbility ability, final UUID player) {
+		final int id = this.getId(ability.getClass());
+		synchronized (this.lock) {
+			final CoreAbility[][] byClass = this.byClass;
+			if (id < byClass.length && byClass[id] != null) {
+				final CoreAbility[] instances = without(byClass[id], ability);
+				if (instances != byClass[id]) {
+					final CoreAbility[][] copy = byClass.clone();
+					copy[id] = instances;
+					this.byClass = copy;
+				}
+			}
+
+			final PlayerInstances playerInstances = this.byPlayer.get(player);
+			if (playerInstances != null && playerInstances.remove(id, ability)) {
+				this.byPlayer.remove(player);
+			}
+		}
+	}
+
+	/**
+	 * Moves an instance to a different player.
+	 */
+	public void move(final CoreAbility ability, final UUID from, final UUID to) {
+		final int id = this.getId(ability.getClass());
+		synchronized (this.lock) {
+			final PlayerInstances playerInstances = this.byPlayer.get(from);
+			if (playerInstances != null && playerInstances.remove(id, ability)) {
+				this.byPlayer.remove(from);
+			}
+			this.byPlayer.computeIfAbsent(to, key -> new PlayerInstances()).add(id, ability);
+		}
+	}
+
+	private static CoreAbility[] append(final CoreAbility[] array, final CoreAbility ability) {
+		if (array == null || array.length == 0) {
+			return new CoreAbility[] { ability };
+		}
+		for (final CoreAbility existing : array) {
+			if (existing == ability) {
+				return array;
+			}
+		}
+		final CoreAbility[] copy = Arrays.copyOf(array, array.length + 1);
+		copy[array.length] = ability;
+		return copy;
+	}
+
+	/**
+	 * @return a copy of the array without the ability, or the same array if it
+	 *         doesn't contain the ability
+	 */
+	private static CoreAbility[] without(final CoreAbility[] array, final CoreAbility ability) {
+		for (int i = 0; i < array.length; i++) {
+			if (array[i] == ability) {
+				if (array.length == 1) {
+					return EMPTY;
+				}
+				final CoreAbility[] copy = new CoreAbility[array.length - 1];
+				System.arraycopy(array, 0, copy, 0, i);
+				System.arraycopy(array, i + 1, copy, i, array.length - i - 1);
+				return copy;
+			}
+		}
+		return array;
+	}
+
+	/**
+	 * The instances of a single player. Only modified while holding the lock
+	 * of the registry.
+	 */
+	private static class PlayerInstances {
+
+		private volatile CoreAbility[][] byClass = new CoreAbility[0][];
+		private volatile long[] active = new long[0];
+		private int count;
+
+		private CoreAbility[] get(final int id) {
+			final CoreAbility[][] byClass = this.byClass;
+			return id < byClass.length && byClass[id] != null ? byClass[id] : EMPTY;
+		}
+
+		private boolean has(final int id) {
+			final long[] active = this.active;
+			final int word = id >>> 6;
+			return word < active.length && (active[word] & (1L << id)) != 0;
+		}
+
+		private void add(final int id, final CoreAbility ability) {
+			CoreAbility[][] byClass = this.byClass;
+			if (id >= byClass.length) {
+				byClass = Arrays.copyOf(byClass, id + 1);
+			} else {
+				byClass = byClass.clone();
+			}
+			final CoreAbility[] instances = append(byClass[id], ability);
+			if (instances == byClass[id]) {
+				return;
+			}
+			byClass[id] = instances;
+			this.byClass = byClass;
+			this.count++;
+			this.setActive(id, true);
+		}
+
+		/**
+		 * @return true if the player has no instances left
+		 */
+		private boolean remove(final int id, final CoreAbility ability) {
+			final CoreAbility[][] byClass = this.byClass;
+			if (id < byClass.length && byClass[id] != null) {
+				final CoreAbility[] instances = without(byClass[id], ability);
+				if (instances != byClass[id]) {
+					final CoreAbility[][] copy = byClass.clone();
+					copy[id] = instances;
+					this.byClass = copy;
+					this.count--;
+					if (instances.length == 0) {
+						this.setActive(id, false);
+					}
+				}
+			}
+			return this.count == 0;
+		}
+
+		private void setActive(final int id, final boolean value) {
+			final int word = id >>> 6;
+			final long[] active = Arrays.copyOf(this.active, Math.max(this.active.length, word + 1));
+			if (value) {
+				active[word] |= 1L << id;
+			} else {
+				active[word] &= ~(1L << id);
+			}
+			this.active = active;
+		}
+	}
+}
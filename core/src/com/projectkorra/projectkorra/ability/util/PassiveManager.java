@@ -1,7 +1,5 @@
 package com.projectkorra.projectkorra.ability.util;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -46,10 +44,9 @@ public class PassiveManager {
 
 				try {
 					final Class<? extends CoreAbility> clazz = PASSIVE_CLASSES.get(ability);
-					final Constructor<?> constructor = clazz.getConstructor(Player.class);
-					final Object object = constructor.newInstance(player);
+					final Object object = AbilityFactory.create(clazz, player);
 					((CoreAbility) object).start();
-				} catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException | NoSuchMethodException | SecurityException e) {
+				} catch (final Exception | Error e) {
 					e.printStackTrace();
 				}
 			}
@@ -75,7 +72,7 @@ public class PassiveManager {
 			return false;
 		} else if (!bPlayer.canBendPassive(passive)) {
 			return false;
-		} else if (!bPlayer.isToggled() && ConfigManager.defaultConfig.get().getBoolean("Properties.TogglePassivesWithAllBending")) {
+		} else if (!bPlayer.isToggled() && ConfigManager.getSnapshot().isTogglePassivesWithAllBending()) {
 			return false;
 		} else if (!bPlayer.isElementToggled(element)) {
 			return false;
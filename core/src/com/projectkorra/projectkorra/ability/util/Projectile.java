@@ -0,0 +1,280 @@
+package com.projectkorra.projectkorra.ability.util;
+
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.util.Vector;
+
+import com.projectkorra.projectkorra.ability.CoreAbility;
+
+/**
+ * A projectile of an ability that flies in a straight line and is advanced
+ * by the {@link ProjectileManager} together with every other projectile,
+ * instead of in the progress of its ability.
+ * <p>
+ * Creating a projectile launches it. Every tick the manager checks its range
+ * and region, calls {@link Handler#onStep(Projectile)}, walks its center
+ * over the blocks it passes, sweeps its sphere against the entities of the
+ * world up to the first block that stops it, and then moves it. Whatever it
+ * hits is passed to the handler, which is usually the ability itself.
+ */
+public class Projectile {
+
+	/**
+	 * Which of the entities in the path of a projectile are passed to its
+	 * handler.
+	 */
+	public enum HitPolicy {
+		/**
+		 * Entities aren't tested.
+		 */
+		NONE,
+		/**
+		 * Only the closest entity in the path is passed.
+		 */
+		FIRST,
+		/**
+		 * Every entity in the path is passed, closest first, until the
+		 * handler stops the projectile.
+		 */
+		ALL
+	}
+
+	/**
+	 * Why a projectile stopped.
+	 */
+	public enum EndReason {
+		RANGE, REGION, BLOCK, ENTITY, CANCELLED
+	}
+
+	/**
+	 * Receives the hits of a projectile.
+	 */
+	public interface Handler {
+
+		/**
+		 * Called every tick before the projectile moves, e.g. to display it.
+		 */
+		default void onStep(final Projectile projectile) {}
+
+		/**
+		 * Called for every block the center of the projectile passes, before
+		 * the entities of the same tick. If the projectile is stopped at the
+		 * block, the entities in front of it are still passed to
+		 * {@link #onEntityHit(Projectile, Entity)} first.
+		 *
+		 * @return True to stop the projectile at the block
+		 */
+		default boolean onBlockHit(final Projectile projectile, final Block block) {
+			return !block.isPassable();
+		}
+
+		/**
+		 * Called for the entities in the path of the projectile, see
+		 * {@link HitPolicy}. The player of the ability is only passed if
+		 * {@link Projectile#isPlayerHit()} is true.
+		 *
+		 * @return True to stop the projectile at the entity
+		 */
+		default boolean onEntityHit(final Projectile projectile, final Entity entity) {
+			return true;
+		}
+
+		/**
+		 * Called once the projectile stopped, unless it stopped because its
+		 * ability was removed. Removes the ability by default.
+		 */
+		default void onEnd(final Projectile projectile, final EndReason reason) {
+			if (!projectile.getAbility().isRemoved()) {
+				projectile.getAbility().remove();
+			}
+		}
+	}
+
+	private final CoreAbility ability;
+	private final Handler handler;
+	private final Location location;
+	private Location origin;
+	private final Vector direction;
+	private double speed;
+	private boolean speedPerTick;
+	private double range;
+	private double radius;
+	private HitPolicy hitPolicy = HitPolicy.FIRST;
+	private boolean regionChecked = true;
+	private boolean playerHit;
+	/**
+	 * The index of the projectile in the arrays of the manager, or -1 once it
+	 * stopped.
+	 */
+	int slot = -1;
+
+	/**
+	 * Creates and launches a projectile.
+	 *
+	 * @param ability The ability the projectile belongs to, the projectile
+	 *            stops once it is removed
+	 * @param handler Receives the hits of the projectile
+	 * @param location The location to launch from. The projectile moves this
+	 *            location instead of a copy, so an ability can keep using it
+	 *            as its own location.
+	 * @param direction The direction to fly in
+	 * @param speed The speed in blocks per second, or per tick, see
+	 *            {@link #setSpeedPerTick(boolean)}
+	 * @param range The max distance from where it was launched
+	 * @param radius The radius of the sphere tested against entities
+	 */
+	public Projectile(final CoreAbility ability, final Handler handler, final Location location, final Vector direction, final double speed, final double range, final double radius) {
+		this.ability = ability;
+		this.handler = handler;
+		this.location = location;
+		this.origin = location.clone();
+		this.direction = direction.clone().normalize();
+		this.speed = speed;
+		this.range = range;
+		this.radius = radius;
+		ProjectileManager.launch(this);
+	}
+
+	/**
+	 * Stops the projectile, {@link Handler#onEnd(Projectile, EndReason)} is
+	 * called with {@link EndReason#CANCELLED}.
+	 */
+	public void cancel() {
+		ProjectileManager.end(this, EndReason.CANCELLED);
+	}
+
+	public boolean isActive() {
+		return this.slot >= 0;
+	}
+
+	public CoreAbility getAbility() {
+		return this.ability;
+	}
+
+	public Handler getHandler() {
+		return this.handler;
+	}
+
+	/**
+	 * @return The current location of the projectile, which is moved by the
+	 *         manager
+	 */
+	public Location getLocation() {
+		return this.location;
+	}
+
+	/**
+	 * Moves the projectile to another location in the same world.
+	 */
+	public void setLocation(final Location location) {
+		this.location.setX(location.getX());
+		this.location.setY(location.getY());
+		this.location.setZ(location.getZ());
+		ProjectileManager.update(this);
+	}
+
+	public Location getOrigin() {
+		return this.origin;
+	}
+
+	/**
+	 * Sets the location the range is measured from, which is where the
+	 * projectile was launched by default.
+	 */
+	public Projectile setOrigin(final Location origin) {
+		this.origin = origin.clone();
+		ProjectileManager.update(this);
+		return this;
+	}
+
+	/**
+	 * @return A copy of the normalized direction of the projectile
+	 */
+	public Vector getDirection() {
+		return this.direction.clone();
+	}
+
+	public void setDirection(final Vector direction) {
+		this.direction.copy(direction).normalize();
+		ProjectileManager.update(this);
+	}
+
+	public double getSpeed() {
+		return this.speed;
+	}
+
+	public void setSpeed(final double speed) {
+		this.speed = speed;
+		ProjectileManager.update(this);
+	}
+
+	/**
+	 * @return True if the speed is in blocks per tick, so the projectile
+	 *         moves the same distance every tick no matter how long the tick
+	 *         took
+	 */
+	public boolean isSpeedPerTick() {
+		return this.speedPerTick;
+	}
+
+	public Projectile setSpeedPerTick(final boolean speedPerTick) {
+		this.speedPerTick = speedPerTick;
+		ProjectileManager.update(this);
+		return this;
+	}
+
+	public double getRange() {
+		return this.range;
+	}
+
+	public void setRange(final double range) {
+		this.range = range;
+		ProjectileManager.update(this);
+	}
+
+	public double getRadius() {
+		return this.radius;
+	}
+
+	public void setRadius(final double radius) {
+		this.radius = radius;
+		ProjectileManager.update(this);
+	}
+
+	public HitPolicy getHitPolicy() {
+		return this.hitPolicy;
+	}
+
+	public Projectile setHitPolicy(final HitPolicy hitPolicy) {
+		this.hitPolicy = hitPolicy;
+		ProjectileManager.update(this);
+		return this;
+	}
+
+	/**
+	 * @return True if the projectile stops once it enters a region the
+	 *         player can't bend the ability in
+	 */
+	public boolean isRegionChecked() {
+		return this.regionChecked;
+	}
+
+	public Projectile setRegionChecked(final boolean regionChecked) {
+		this.regionChecked = regionChecked;
+		return this;
+	}
+
+	/**
+	 * @return True if the player of the ability is passed to the handler
+	 *         like any other entity in the path
+	 */
+	public boolean isPlayerHit() {
+		return this.playerHit;
+	}
+
+	public Projectile setPlayerHit(final boolean playerHit) {
+		this.playerHit = playerHit;
+		return this;
+	}
+}
@@ -0,0 +1,394 @@
+package com.projectkorra.projectkorra.ability.util;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+
+import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.ability.CoreAbility;
+import com.projectkorra.projectkorra.ability.util.Projectile.EndReason;
+import com.projectkorra.projectkorra.ability.util.Projectile.HitPolicy;
+import com.projectkorra.projectkorra.region.RegionProtection;
+import com.projectkorra.projectkorra.util.EntitySpatialIndex;
+
+/**
+ * Advances every {@link Projectile} once per tick, after the abilities
+ * progressed.
+ * <p>
+ * The state the pass needs is kept in parallel primitive arrays indexed by
+ * the slot of the projectile, so moving a projectile doesn't clone locations
+ * or vectors. Entities are found with a swept sphere test against the
+ * {@link EntitySpatialIndex} of the tick, and blocks by walking the blocks
+ * the center of the projectile passes. A projectile launched during the pass
+ * moves from the next tick on.
+ */
+public final class ProjectileManager {
+
+	private static Projectile[] projectiles = new Projectile[16];
+	private static World[] worlds = new World[16];
+	private static double[] x = new double[16];
+	private static double[] y = new double[16];
+	private static double[] z = new double[16];
+	private static double[] dirX = new double[16];
+	private static double[] dirY = new double[16];
+	private static double[] dirZ = new double[16];
+	private static double[] originX = new double[16];
+	private static double[] originY = new double[16];
+	private static double[] originZ = new double[16];
+	private static double[] speed = new double[16];
+	private static boolean[] speedPerTick = new boolean[16];
+	private static double[] rangeSquared = new double[16];
+	private static double[] radius = new double[16];
+	private static HitPolicy[] policies = new HitPolicy[16];
+	private static int size;
+	private static boolean progressing;
+
+	private static Entity[] hits = new Entity[8];
+	private static double[] hitDistances = new double[8];
+	private static int hitCount;
+	private static Player shooter;
+	private static final Predicate<Entity> FILTER = entity -> entity != shooter && !entity.isDead() && !(entity instanceof Player && ((Player) entity).getGameMode() == GameMode.SPECTATOR);
+	private static final EntitySpatialIndex.RayConsumer COLLECT = ProjectileManager::collect;
+	/**
+	 * Holds the entities around a single projectile when there is no index
+	 * for the tick, e.g. if it is disabled or the world wasn't queried often
+	 * enough yet.
+	 */
+	private static final EntitySpatialIndex FALLBACK = new EntitySpatialIndex(null);
+
+	private ProjectileManager() {}
+
+	/**
+	 * @return The amount of projectiles in flight
+	 */
+	public static int size() {
+		return size;
+	}
+
+	static void launch(final Projectile projectile) {
+		if (size == projectiles.length) {
+			grow();
+		}
+		projectile.slot = size++;
+		update(projectile);
+	}
+
+	/**
+	 * Copies the state of an active projectile into the arrays.
+	 */
+	static void update(final Projectile projectile) {
+		final int slot = projectile.slot;
+		if (slot < 0) {
+			return;
+		}
+		final Location location = projectile.getLocation();
+		final Location origin = projectile.getOrigin();
+		final Vector direction = projectile.getDirection();
+		projectiles[slot] = projectile;
+		worlds[slot] = location.getWorld();
+		x[slot] = location.getX();
+		y[slot] = location.getY();
+		z[slot] = location.getZ();
+		dirX[slot] = direction.getX();
+		dirY[slot] = direction.getY();
+		dirZ[slot] = direction.getZ();
+		originX[slot] = origin.getX();
+		originY[slot] = origin.getY();
+		originZ[slot] = origin.getZ();
+		speed[slot] = projectile.getSpeed();
+		speedPerTick[slot] = projectile.isSpeedPerTick();
+		rangeSquared[slot] = projectile.getRange() * projectile.getRange();
+		radius[slot] = projectile.getRadius();
+		policies[slot] = projectile.getHitPolicy();
+	}
+
+	/**
+	 * Stops a projectile.
+	 *
+	 * @param reason Passed to the handler, or null to not call the handler
+	 */
+	static void end(final Projectile projectile, final EndReason reason) {
+		final int slot = projectile.slot;
+		if (slot < 0) {
+			return;
+		}
+		projectile.slot = -1;
+		if (!progressing) {
+			// Outside of the pass the last projectile can take the slot right away.
+			final int last = --size;
+			if (slot != last) {
+				move(last, slot);
+			}
+			projectiles[last] = null;
+			worlds[last] = null;
+		}
+		if (reason != null) {
+			projectile.getHandler().onEnd(projectile, reason);
+		}
+	}
+
+	/**
+	 * Advances every projectile by the distance it travels in this tick.
+	 * Called every tick by the BendingManager.
+	 */
+	public static void progressAll() {
+		if (size == 0) {
+			return;
+		}
+		final double seconds = ProjectKorra.time_step / 1000.0;
+		final int count = size;
+		progressing = true;
+		try {
+			for (int slot = 0; slot < count; slot++) {
+				if (projectiles[slot].slot == slot) {
+					step(slot, seconds);
+				}
+			}
+		} finally {
+			progressing = false;
+			compact();
+		}
+	}
+
+	private static void step(final int slot, final double seconds) {
+		final Projectile projectile = projectiles[slot];
+		final CoreAbility ability = projectile.getAbility();
+		if (ability.isRemoved()) {
+			end(projectile, null);
+			return;
+		}
+
+		final double fromOriginX = x[slot] - originX[slot], fromOriginY = y[slot] - originY[slot], fromOriginZ = z[slot] - originZ[slot];
+		if (fromOriginX * fromOriginX + fromOriginY * fromOriginY + fromOriginZ * fromOriginZ > rangeSquared[slot]) {
+			end(projectile, EndReason.RANGE);
+			return;
+		} else if (projectile.isRegionChecked() && RegionProtection.isRegionProtected(ability, projectile.getLocation())) {
+			end(projectile, EndReason.REGION);
+			return;
+		}
+
+		projectile.getHandler().onStep(projectile);
+		if (!isActive(projectile, slot)) {
+			return;
+		}
+
+		final double length = speedPerTick[slot] ? speed[slot] : speed[slot] * seconds;
+		final double blocked = walkBlocks(slot, projectile, length);
+		if (blocked < 0) {
+			return;
+		}
+		// Entities behind the block that stops the projectile can't be hit
+		if (policies[slot] != HitPolicy.NONE && sweepEntities(slot, projectile, Math.min(length, blocked))) {
+			return;
+		} else if (blocked <= length) {
+			end(projectile, EndReason.BLOCK);
+			return;
+		}
+
+		x[slot] += dirX[slot] * length;
+		y[slot] += dirY[slot] * length;
+		z[slot] += dirZ[slot] * length;
+		final Location location = projectile.getLocation();
+		location.setX(x[slot]);
+		location.setY(y[slot]);
+		location.setZ(z[slot]);
+	}
+
+	/**
+	 * Passes the entities the sphere of the projectile sweeps over to its
+	 * handler, closest first.
+	 *
+	 * @return True if the projectile stopped
+	 */
+	private static boolean sweepEntities(final int slot, final Projectile projectile, final double length) {
+		final World world = worlds[slot];
+		EntitySpatialIndex index = EntitySpatialIndex.get(world);
+		if (index == null) {
+			final double reach = length / 2 + radius[slot];
+			final Location middle = new Location(world, x[slot] + dirX[slot] * length / 2, y[slot] + dirY[slot] * length / 2, z[slot] + dirZ[slot] * length / 2);
+			FALLBACK.build(world.getNearbyEntities(middle, reach, reach, reach));
+			index = FALLBACK;
+		}
+
+		hitCount = 0;
+		shooter = projectile.isPlayerHit() ? null : projectile.getAbility().getPlayer();
+		try {
+			index.forEachOnRay(x[slot], y[slot], z[slot], dirX[slot], dirY[slot], dirZ[slot], length, radius[slot], FILTER, COLLECT);
+		} finally {
+			shooter = null;
+		}
+		if (hitCount == 0) {
+			return false;
+		}
+
+		// Insertion sort, there are rarely more than a few entities in a path.
+		for (int i = 1; i < hitCount; i++) {
+			final Entity entity = hits[i];
+			final double distance = hitDistances[i];
+			int j = i - 1;
+			for (; j >= 0 && hitDistances[j] > distance; j--) {
+				hits[j + 1] = hits[j];
+				hitDistances[j + 1] = hitDistances[j];
+			}
+			hits[j + 1] = entity;
+			hitDistances[j + 1] = distance;
+		}
+
+		final int offered = policies[slot] == HitPolicy.FIRST ? 1 : hitCount;
+		final Entity[] path = Arrays.copyOf(hits, offered);
+		Arrays.fill(hits, 0, hitCount, null);
+		for (final Entity entity : path) {
+			if (projectile.getHandler().onEntityHit(projectile, entity)) {
+				end(projectile, EndReason.ENTITY);
+				return true;
+			} else if (!isActive(projectile, slot)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void collect(final Entity entity, final double distance) {
+		if (hitCount == hits.length) {
+			hits = Arrays.copyOf(hits, hitCount * 2);
+			hitDistances = Arrays.copyOf(hitDistances, hitCount * 2);
+		}
+		hits[hitCount] = entity;
+		hitDistances[hitCount++] = distance;
+	}
+
+	/**
+	 * Passes the blocks the center of the projectile passes to its handler,
+	 * starting with the block it is in, by stepping from block boundary to
+	 * block boundary along its direction, until the handler reports a block
+	 * that stops the projectile. The projectile isn't stopped here, so the
+	 * entities in front of the block can still be hit.
+	 *
+	 * @return The distance to the block that stops the projectile,
+	 *         {@link Double#POSITIVE_INFINITY} if no block does, or -1 if a
+	 *         handler stopped the projectile
+	 */
+	private static double walkBlocks(final int slot, final Projectile projectile, final double length) {
+		final World world = worlds[slot];
+		final double px = x[slot], py = y[slot], pz = z[slot];
+		final double dx = dirX[slot], dy = dirY[slot], dz = dirZ[slot];
+		int blockX = (int) Math.floor(px), blockY = (int) Math.floor(py), blockZ = (int) Math.floor(pz);
+		final int stepX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+		final int stepY = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+		final int stepZ = dz > 0 ? 1 : dz < 0 ? -1 : 0;
+		final double deltaX = stepX == 0 ? Double.POSITIVE_INFINITY : 1 / Math.abs(dx);
+		final double deltaY = stepY == 0 ? Double.POSITIVE_INFINITY : 1 / Math.abs(dy);
+		final double deltaZ = stepZ == 0 ? Double.POSITIVE_INFINITY : 1 / Math.abs(dz);
+		double nextX = stepX == 0 ? Double.POSITIVE_INFINITY : (stepX > 0 ? blockX + 1 - px : px - blockX) * deltaX;
+		double nextY = stepY == 0 ? Double.POSITIVE_INFINITY : (stepY > 0 ? blockY + 1 - py : py - blockY) * deltaY;
+		double nextZ = stepZ == 0 ? Double.POSITIVE_INFINITY : (stepZ > 0 ? blockZ + 1 - pz : pz - blockZ) * deltaZ;
+
+		double entered = 0;
+		while (true) {
+			final boolean stops = projectile.getHandler().onBlockHit(projectile, world.getBlockAt(blockX, blockY, blockZ));
+			if (!isActive(projectile, slot)) {
+				return -1;
+			} else if (stops) {
+				return entered;
+			}
+
+			final double distance;
+			if (nextX <= nextY && nextX <= nextZ) {
+				distance = nextX;
+				nextX += deltaX;
+				blockX += stepX;
+			} else if (nextY <= nextZ) {
+				distance = nextY;
+				nextY += deltaY;
+				blockY += stepY;
+			} else {
+				distance = nextZ;
+				nextZ += deltaZ;
+				blockZ += stepZ;
+			}
+			if (distance > length) {
+				return Double.POSITIVE_INFINITY;
+			}
+			entered = distance;
+		}
+	}
+
+	/**
+	 * @return False if a handler stopped the projectile or removed its
+	 *         ability, in which case it is stopped too
+	 */
+	private static boolean isActive(final Projectile projectile, final int slot) {
+		if (projectile.slot != slot) {
+			return false;
+		} else if (projectile.getAbility().isRemoved()) {
+			end(projectile, null);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Moves the projectiles left after the pass to the front of the arrays,
+	 * keeping their order.
+	 */
+	private static void compact() {
+		int kept = 0;
+		for (int slot = 0; slot < size; slot++) {
+			if (projectiles[slot].slot != slot) {
+				continue;
+			} else if (kept != slot) {
+				move(slot, kept);
+			}
+			kept++;
+		}
+		Arrays.fill(projectiles, kept, size, null);
+		Arrays.fill(worlds, kept, size, null);
+		size = kept;
+	}
+
+	private static void move(final int from, final int to) {
+		projectiles[to] = projectiles[from];
+		projectiles[to].slot = to;
+		worlds[to] = worlds[from];
+		x[to] = x[from];
+		y[to] = y[from];
+		z[to] = z[from];
+		dirX[to] = dirX[from];
+		dirY[to] = dirY[from];
+		dirZ[to] = dirZ[from];
+		originX[to] = originX[from];
+		originY[to] = originY[from];
+		originZ[to] = originZ[from];
+		speed[to] = speed[from];
+		speedPerTick[to] = speedPerTick[from];
+		rangeSquared[to] = rangeSquared[from];
+		radius[to] = radius[from];
+		policies[to] = policies[from];
+	}
+
+	private static void grow() {
+		final int capacity = projectiles.length * 2;
+		projectiles = Arrays.copyOf(projectiles, capacity);
+		worlds = Arrays.copyOf(worlds, capacity);
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		z = Arrays.copyOf(z, capacity);
+		dirX = Arrays.copyOf(dirX, capacity);
+		dirY = Arrays.copyOf(dirY, capacity);
+		dirZ = Arrays.copyOf(dirZ, capacity);
+		originX = Arrays.copyOf(originX, capacity);
+		originY = Arrays.copyOf(originY, capacity);
+		originZ = Arrays.copyOf(originZ, capacity);
+		speed = Arrays.copyOf(speed, capacity);
+		speedPerTick = Arrays.copyOf(speedPerTick, capacity);
+		rangeSquared = Arrays.copyOf(rangeSquared, capacity);
+		radius = Arrays.copyOf(radius, capacity);
+		policies = Arrays.copyOf(policies, capacity);
+	}
+}
@@ -22,7 +22,6 @@ import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.util.BlockIterator;
 import org.bukkit.util.Vector;
 
 import com.projectkorra.projectkorra.BendingPlayer;
@@ -31,6 +30,7 @@ import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.AirAbility;
 import com.projectkorra.projectkorra.ability.FireAbility;
 import com.projectkorra.projectkorra.ability.util.Collision;
+import com.projectkorra.projectkorra.ability.util.Projectile;
 import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.command.Commands;
 import com.projectkorra.projectkorra.earthbending.lava.LavaFlow;
@@ -38,7 +38,7 @@ import com.projectkorra.projectkorra.object.HorizontalVelocityTracker;
 import com.projectkorra.projectkorra.util.DamageHandler;
 import com.projectkorra.projectkorra.util.TempBlock;
 
-public class AirBlast extends AirAbility {
+public class AirBlast extends AirAbility implements Projectile.Handler {
 
 	private static final int MAX_TICKS = 10000;
 	private static final Map<Player, Location> ORIGINS = new ConcurrentHashMap<>();
@@ -76,6 +76,7 @@ public class AirBlast extends AirAbility {
 	private Random random;
 	private ArrayList<Block> affectedLevers;
 	private ArrayList<Entity> affectedEntities;
+	private Projectile projectile;
 
 	public AirBlast(final Player player) {
 		super(player);
@@ -108,6 +109,7 @@ public class AirBlast extends AirAbility {
 		this.location = this.origin.clone();
 		this.bPlayer.addCooldown(this);
 		this.start();
+		this.launch();
 	}
 
 	public AirBlast(final Player player, final Location location, final Vector direction, final double modifiedPushFactor, final AirBurst burst) {
@@ -138,6 +140,7 @@ public class AirBlast extends AirAbility {
 		this.pushFactor *= modifiedPushFactor;
 
 		this.start();
+		this.launch();
 	}
 
 	private void setFields() {
@@ -202,19 +205,10 @@ public class AirBlast extends AirAbility {
 
 	}
 
-	private void advanceLocation() {
-		if (this.showParticles) {
-			playAirbendingParticles(this.location, this.particles, 0.275F, 0.275F, 0.275F);
-		}
-		if (this.random.nextInt(4) == 0) {
-			playAirbendingSound(this.location);
+	private void launch() {
+		if (this.isStarted()) {
+			this.projectile = new Projectile(this, this, this.location, this.direction, this.speed, this.range, this.radius).setOrigin(this.origin).setHitPolicy(Projectile.HitPolicy.ALL).setPlayerHit(this.isFromOtherOrigin);
 		}
-
-		BlockIterator blocks = new BlockIterator(this.getLocation().getWorld(), this.location.toVector(), this.direction, 0, (int) Math.ceil(this.direction.clone().multiply(speedFactor).length()));
-
-		while (blocks.hasNext() && checkLocation(blocks.next()));
-		
-		this.location.add(this.direction.clone().multiply(speedFactor));
 	}
 
 	public boolean checkLocation(Block block) {
@@ -317,9 +311,6 @@ public class AirBlast extends AirAbility {
 		if (this.player.isDead() || !this.player.isOnline()) {
 			this.remove();
 			return;
-		} else if (GeneralMethods.isRegionProtectedFromBuild(this, this.location)) {
-			this.remove();
-			return;
 		}
 
 		this.speedFactor = this.speed * (ProjectKorra.time_step / 1000.0);
@@ -330,39 +321,35 @@ public class AirBlast extends AirAbility {
 			return;
 		}
 
-		final Block block = this.location.getBlock();
-
 		for (final Block testblock : GeneralMethods.getBlocksAroundPoint(this.location, this.radius)) {
 			if (!processBlock(testblock.getLocation())) {
 				remove();
 				return;
 			}
 		}
+	}
 
-		/*
-		 * If a player presses shift and AirBlasts straight down then the
-		 * AirBlast's location gets messed up and reading the distance returns
-		 * Double.NaN. If we don't remove this instance then the AirBlast will
-		 * never be removed.
-		 */
-		double dist = 0;
-		if (this.location.getWorld().equals(this.origin.getWorld())) {
-			dist = this.location.distance(this.origin);
+	@Override
+	public void onStep(final Projectile projectile) {
+		if (this.showParticles) {
+			playAirbendingParticles(this.location, this.particles, 0.275F, 0.275F, 0.275F);
 		}
-		if (Double.isNaN(dist) || dist > this.range) {
-			this.remove();
-			return;
+		if (this.random.nextInt(4) == 0) {
+			playAirbendingSound(this.location);
 		}
+	}
 
-		for (final Entity entity : GeneralMethods.getEntitiesAroundPoint(this.location, this.radius)) {
-			if (GeneralMethods.isRegionProtectedFromBuild(this, entity.getLocation()) || ((entity instanceof Player) && Commands.invincible.contains(((Player) entity).getName()))) {
-				continue;
-			}
+	@Override
+	public boolean onBlockHit(final Projectile projectile, final Block block) {
+		return !this.checkLocation(block);
+	}
+
+	@Override
+	public boolean onEntityHit(final Projectile projectile, final Entity entity) {
+		if (!GeneralMethods.isRegionProtectedFromBuild(this, entity.getLocation()) && !((entity instanceof Player) && Commands.invincible.contains(((Player) entity).getName()))) {
 			this.affect(entity);
 		}
-
-		this.advanceLocation();
-		return;
+		return false;
 	}
 
 	/**
@@ -534,6 +521,9 @@ public class AirBlast extends AirAbility {
 
 	public void setOrigin(final Location origin) {
 		this.origin = origin;
+		if (this.projectile != null) {
+			this.projectile.setOrigin(origin);
+		}
 	}
 
 	public Vector getDirection() {
@@ -542,6 +532,9 @@ public class AirBlast extends AirAbility {
 
 	public void setDirection(final Vector direction) {
 		this.direction = direction;
+		if (this.projectile != null) {
+			this.projectile.setDirection(direction);
+		}
 	}
 
 	public int getTicks() {
@@ -566,6 +559,9 @@ public class AirBlast extends AirAbility {
 
 	public void setRange(final double range) {
 		this.range = range;
+		if (this.projectile != null) {
+			this.projectile.setRange(range);
+		}
 	}
 
 	public double getPushFactor() {
@@ -598,6 +594,9 @@ public class AirBlast extends AirAbility {
 
 	public void setSpeed(final double speed) {
 		this.speed = speed;
+		if (this.projectile != null) {
+			this.projectile.setSpeed(speed);
+		}
 	}
 
 	public double getRadius() {
@@ -606,6 +605,9 @@ public class AirBlast extends AirAbility {
 
 	public void setRadius(final double radius) {
 		this.radius = radius;
+		if (this.projectile != null) {
+			this.projectile.setRadius(radius);
+		}
 	}
 
 	public boolean isCanFlickLevers() {
@@ -646,6 +648,9 @@ public class AirBlast extends AirAbility {
 
 	public void setFromOtherOrigin(final boolean isFromOtherOrigin) {
 		this.isFromOtherOrigin = isFromOtherOrigin;
+		if (this.projectile != null) {
+			this.projectile.setPlayerHit(isFromOtherOrigin);
+		}
 	}
 
 	public boolean isShowParticles() {
@@ -673,7 +678,15 @@ public class AirBlast extends AirAbility {
 	}
 
 	public void setLocation(final Location location) {
-		this.location = location;
+		if (this.projectile != null) {
+			this.projectile.setLocation(location);
+		} else {
+			this.location = location;
+		}
+	}
+
+	public Projectile getProjectile() {
+		return this.projectile;
 	}
 
 	public void setCooldown(final long cooldown) {
@@ -13,8 +13,6 @@ import org.bukkit.block.data.Levelled;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.util.BlockIterator;
 import org.bukkit.util.Vector;
 
 import com.projectkorra.projectkorra.GeneralMethods;
@@ -24,6 +22,8 @@ import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.ability.ElementalAbility;
 import com.projectkorra.projectkorra.ability.FireAbility;
 import com.projectkorra.projectkorra.ability.util.Collision;
+import com.projectkorra.projectkorra.ability.util.Projectile;
+import com.projectkorra.projectkorra.ability.util.Projectile.EndReason;
 import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.command.Commands;
 import com.projectkorra.projectkorra.earthbending.lava.LavaFlow;
@@ -60,6 +60,7 @@ public class AirSwipe extends AirAbility {
 	private Random random;
 	private Map<Vector, Location> streams;
 	private ArrayList<Entity> affectedEntities;
+	private List<Stream> projectiles;
 
 	public AirSwipe(final Player player) {
 		this(player, false);
@@ -94,6 +95,7 @@ public class AirSwipe extends AirAbility {
 		this.random = new Random();
 		this.streams = new ConcurrentHashMap<>();
 		this.affectedEntities = new ArrayList<>();
+		this.projectiles = new ArrayList<>();
 
 		if (this.bPlayer.isOnCooldown(this) || player.getEyeLocation().getBlock().isLiquid()) {
 			this.remove();
@@ -118,6 +120,9 @@ public class AirSwipe extends AirAbility {
 		}
 
 		this.start();
+		if (!this.charging) {
+			this.launchStreams();
+		}
 	}
 
 	/**
@@ -141,38 +146,20 @@ public class AirSwipe extends AirAbility {
 		return removed;
 	}
 
-	private void advanceSwipe() {
+	/**
+	 * Affects the entities the streams passed in the last tick.
+	 */
+	private void affectHits() {
 		this.affectedEntities.clear();
-		for (final Vector direction : this.streams.keySet()) {
-			Location location = this.streams.get(direction);
-			if (direction != null && location != null) {
-
-				BlockIterator blocks = new BlockIterator(this.getLocation().getWorld(), location.toVector(), direction, 0, (int) Math.ceil(direction.clone().multiply(speed).length()));
-
-				while (blocks.hasNext()) {
-					if(!checkLocation(blocks.next(), direction)) {
-						this.streams.remove(direction);
-						break;
-					}
-				}
-				
-				if(!this.streams.containsKey(direction)) {
-					continue;
-				}
-
-				location = location.clone().add(direction.clone().multiply(this.speed));
-				this.streams.put(direction, location);
-				playAirbendingParticles(location, this.particles, 0.2F, 0.2F, 0);
-				if (this.random.nextInt(4) == 0) {
-					playAirbendingSound(location);
-				}
-				this.affectPeople(location, direction);
+		for (final Stream stream : new ArrayList<>(this.projectiles)) {
+			if (!stream.hits.isEmpty()) {
+				final List<Entity> hits = new ArrayList<>(stream.hits);
+				stream.hits.clear();
+				this.affectPeople(hits, stream.direction);
 			}
 		}
-		if (this.streams.isEmpty()) {
-			this.remove();
-		}
 	}
+
 	public boolean checkLocation(Block block, Vector direction) {
 		if (GeneralMethods.checkDiagonalWall(block.getLocation(), direction) || !block.isPassable()) {
 			return false;
@@ -215,48 +202,32 @@ public class AirSwipe extends AirAbility {
 		}
 		return true;
 	}
-	private void affectPeople(final Location location, final Vector direction) {
-		final List<Entity> entities = GeneralMethods.getEntitiesAroundPoint(location, this.radius);
+	private void affectPeople(final List<Entity> entities, final Vector direction) {
 		final Vector fDirection = direction.clone();
 
-		for (int i = 0; i < entities.size(); i++) {
-			Location entityLocation = entities.get(i).getLocation();
-			Vector dir = new Vector(entityLocation.getX() - location.getX(), entityLocation.getY() - location.getY(), entityLocation.getZ() - location.getZ());
-			if (GeneralMethods.checkDiagonalWall(location, dir)) {
-				entities.remove(entities.get(i--));
+		for (final Entity entity : entities) {
+			if (GeneralMethods.isRegionProtectedFromBuild(this, entity.getLocation())) {
+				continue;
 			}
-		}
-
-		for (int i = 0; i < entities.size(); i++) {
-			final Entity entity = entities.get(i);
-			final AirSwipe abil = this;
-			new BukkitRunnable() {
-				@Override
-				public void run() {
-					if (GeneralMethods.isRegionProtectedFromBuild(AirSwipe.this, entity.getLocation())) {
-						return;
+			if (entity instanceof LivingEntity) {
+				if (entity instanceof Player) {
+					if (Commands.invincible.contains(((Player) entity).getName())) {
+						continue;
 					}
-					if (entity.getEntityId() != AirSwipe.this.player.getEntityId() && entity instanceof LivingEntity) {
-						if (entity instanceof Player) {
-							if (Commands.invincible.contains(((Player) entity).getName())) {
-								return;
-							}
-						}
-						if (entities.size() < MAX_AFFECTABLE_ENTITIES) {
-							GeneralMethods.setVelocity(AirSwipe.this, entity, fDirection.multiply(AirSwipe.this.pushFactor));
-						}
-						if (!AirSwipe.this.affectedEntities.contains(entity)) {
-							if (AirSwipe.this.damage != 0) {
-								DamageHandler.damageEntity(entity, AirSwipe.this.damage, abil);
-							}
-							AirSwipe.this.affectedEntities.add(entity);
-						}
-						breakBreathbendingHold(entity);
-					} else if (entity.getEntityId() != AirSwipe.this.player.getEntityId() && !(entity instanceof LivingEntity)) {
-						GeneralMethods.setVelocity(AirSwipe.this, entity, fDirection.multiply(AirSwipe.this.pushFactor));
+				}
+				if (entities.size() < MAX_AFFECTABLE_ENTITIES) {
+					GeneralMethods.setVelocity(this, entity, fDirection.multiply(this.pushFactor));
+				}
+				if (!this.affectedEntities.contains(entity)) {
+					if (this.damage != 0) {
+						DamageHandler.damageEntity(entity, this.damage, this);
 					}
+					this.affectedEntities.add(entity);
 				}
-			}.runTaskLater(ProjectKorra.plugin, i / MAX_AFFECTABLE_ENTITIES);
+				breakBreathbendingHold(entity);
+			} else {
+				GeneralMethods.setVelocity(this, entity, fDirection.multiply(this.pushFactor));
+			}
 		}
 	}
 
@@ -269,8 +240,21 @@ public class AirSwipe extends AirAbility {
 
 			Vector xz = GeneralMethods.rotateVectorAroundVector(direction, new Vector(-direction.getZ(), 0, direction.getX()).normalize(), 0);
 
-			this.streams.put(direction.clone().multiply(Math.cos(angle))
-					.add(xz.clone().multiply(Math.sin(angle))).normalize(), this.origin);
+			final Vector stream = direction.clone().multiply(Math.cos(angle)).add(xz.clone().multiply(Math.sin(angle))).normalize();
+			this.streams.put(stream, this.origin.clone());
+		}
+		this.launchStreams();
+	}
+
+	/**
+	 * Launches a projectile for every stream, once the ability is started.
+	 */
+	private void launchStreams() {
+		if (!this.isStarted() || !this.projectiles.isEmpty()) {
+			return;
+		}
+		for (final Map.Entry<Vector, Location> stream : this.streams.entrySet()) {
+			this.projectiles.add(new Stream(stream.getKey(), stream.getValue()));
 		}
 	}
 
@@ -291,7 +275,7 @@ public class AirSwipe extends AirAbility {
 				this.remove();
 				return;
 			}
-			this.advanceSwipe();
+			this.affectHits();
 		} else {
 			if (!this.player.isSneaking()) {
 				double factor = 1;
@@ -422,6 +406,9 @@ public class AirSwipe extends AirAbility {
 
 	public void setSpeed(final double speed) {
 		this.speed = speed;
+		for (final Stream stream : this.projectiles) {
+			stream.projectile.setSpeed(speed);
+		}
 	}
 
 	public double getRange() {
@@ -430,6 +417,9 @@ public class AirSwipe extends AirAbility {
 
 	public void setRange(final double range) {
 		this.range = range;
+		for (final Stream stream : this.projectiles) {
+			stream.projectile.setRange(range);
+		}
 	}
 
 	public double getRadius() {
@@ -438,6 +428,9 @@ public class AirSwipe extends AirAbility {
 
 	public void setRadius(final double radius) {
 		this.radius = radius;
+		for (final Stream stream : this.projectiles) {
+			stream.projectile.setRadius(radius);
+		}
 	}
 
 	public double getMaxChargeFactor() {
@@ -468,4 +461,63 @@ public class AirSwipe extends AirAbility {
 		this.arcIncrement = arcIncrement;
 	}
 
+	/**
+	 * One of the streams of the arc, moved by the ProjectileManager. The
+	 * location of the projectile is the location in {@link #getElements()}.
+	 */
+	private class Stream implements Projectile.Handler {
+
+		private final Vector direction;
+		private final Projectile projectile;
+		private final List<Entity> hits = new ArrayList<>();
+
+		private Stream(final Vector direction, final Location location) {
+			this.direction = direction;
+			// The speed of AirSwipe is in blocks per tick
+			this.projectile = new Projectile(AirSwipe.this, this, location, direction, AirSwipe.this.speed, AirSwipe.this.range, AirSwipe.this.radius).setSpeedPerTick(true).setOrigin(AirSwipe.this.origin).setHitPolicy(Projectile.HitPolicy.ALL);
+		}
+
+		@Override
+		public void onStep(final Projectile projectile) {
+			if (!AirSwipe.this.streams.containsKey(this.direction)) {
+				projectile.cancel();
+				return;
+			}
+			playAirbendingParticles(projectile.getLocation(), AirSwipe.this.particles, 0.2F, 0.2F, 0);
+			if (AirSwipe.this.random.nextInt(4) == 0) {
+				playAirbendingSound(projectile.getLocation());
+			}
+		}
+
+		@Override
+		public boolean onBlockHit(final Projectile projectile, final Block block) {
+			if (!AirSwipe.this.checkLocation(block, this.direction)) {
+				return true;
+			} else if (AirSwipe.this.streams.isEmpty()) {
+				// Out of range or in a protected region, which ends every stream
+				AirSwipe.this.remove();
+			}
+			return false;
+		}
+
+		@Override
+		public boolean onEntityHit(final Projectile projectile, final Entity entity) {
+			final Location location = projectile.getLocation();
+			final Location entityLocation = entity.getLocation();
+			final Vector toEntity = new Vector(entityLocation.getX() - location.getX(), entityLocation.getY() - location.getY(), entityLocation.getZ() - location.getZ());
+			if (!GeneralMethods.checkDiagonalWall(location, toEntity)) {
+				this.hits.add(entity);
+			}
+			return false;
+		}
+
+		@Override
+		public void onEnd(final Projectile projectile, final EndReason reason) {
+			AirSwipe.this.streams.remove(this.direction);
+			AirSwipe.this.projectiles.remove(this);
+			if ((reason == EndReason.RANGE || reason == EndReason.REGION || AirSwipe.this.streams.isEmpty()) && !AirSwipe.this.isRemoved()) {
+				AirSwipe.this.remove();
+			}
+		}
+	}
 }
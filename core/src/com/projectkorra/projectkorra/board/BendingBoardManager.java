@@ -1,6 +1,5 @@
 package com.projectkorra.projectkorra.board;
 
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collections;
@@ -226,22 +225,13 @@ public final class BendingBoardManager {
 	public static void clean(final Player player) {
 		scoreboardPlayers.remove(player);
 		final UUID uuid = player.getUniqueId();
-		final String updateQuery = "UPDATE pk_board SET enabled = " + (disabledPlayers.contains(uuid) ? 0 : 1) + " WHERE uuid = ?";
-		Bukkit.getScheduler().runTaskAsynchronously(ProjectKorra.plugin, () -> {
-			try {
-				PreparedStatement ps = DBConnection.sql.getConnection().prepareStatement("SELECT enabled FROM pk_board WHERE uuid = ? LIMIT 1");
-				ps.setString(1, uuid.toString());
-				PreparedStatement ps2;
-				if (!ps.executeQuery().next()) { // if the entry doesn't exist in the DB, create it.
-					ps2 = DBConnection.sql.getConnection().prepareStatement("INSERT INTO pk_board (uuid, enabled) VALUES (?, 1)");
-				} else { // if the entry exists in the DB, update it
-					ps2 = DBConnection.sql.getConnection().prepareStatement(updateQuery);
-				}
-				ps2.setString(1, uuid.toString());
-				ps2.execute();
-			} catch (SQLException e) {
-				e.printStackTrace();
+		final int enabled = disabledPlayers.contains(uuid) ? 0 : 1;
+		DBConnection.sql.submitTransaction(uuid, statements -> {
+			// if the entry doesn't exist in the DB, create it.
+			if (statements.prepare("UPDATE pk_board SET enabled = ? WHERE uuid = ?", enabled, uuid.toString()).executeUpdate() == 0) {
+				statements.prepare("INSERT INTO pk_board (uuid, enabled) VALUES (?, 1)", uuid.toString()).execute();
 			}
+			return null;
 		});
 	}
 }
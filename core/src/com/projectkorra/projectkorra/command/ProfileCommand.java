@@ -0,0 +1,177 @@
+package com.projectkorra.projectkorra.command;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.region.RegionProtection;
+import com.projectkorra.projectkorra.storage.DBConnection;
+import com.projectkorra.projectkorra.storage.Database;
+import com.projectkorra.projectkorra.storage.PlayerWriteQueue;
+import com.projectkorra.projectkorra.util.BlockChangeBuffer;
+import com.projectkorra.projectkorra.util.ChatUtil;
+import com.projectkorra.projectkorra.util.TempBlockFrame;
+import com.projectkorra.projectkorra.util.TickProfiler;
+import com.projectkorra.projectkorra.util.TickProfiler.AbilitySection;
+import com.projectkorra.projectkorra.util.TickProfiler.Section;
+
+/**
+ * Executor for /bending profile. Extends {@link PKCommand}.
+ */
+public class ProfileCommand extends PKCommand {
+
+	private final String disabled;
+	private final String empty;
+	private final String abilitiesHeader;
+	private final String sectionsHeader;
+	private final String databaseHeader;
+	private final String regionHeader;
+	private final String blocksHeader;
+	private final String reset;
+	private final String exported;
+	private final String failedToExport;
+
+	public ProfileCommand() {
+		super("profile", "/bending profile [abilities/sections/database/regions/blocks/reset/dump] [page]", ConfigManager.languageConfig.get().getString("Commands.Profile.Description"), new String[] { "profile", "profiler", "prof" });
+
+		this.disabled = ConfigManager.languageConfig.get().getString("Commands.Profile.Disabled");
+		this.empty = ConfigManager.languageConfig.get().getString("Commands.Profile.Empty");
+		this.abilitiesHeader = ConfigManager.languageConfig.get().getString("Commands.Profile.AbilitiesHeader");
+		this.sectionsHeader = ConfigManager.languageConfig.get().getString("Commands.Profile.SectionsHeader");
+		this.databaseHeader = ConfigManager.languageConfig.get().getString("Commands.Profile.DatabaseHeader");
+		this.regionHeader = ConfigManager.languageConfig.get().getString("Commands.Profile.RegionHeader");
+		this.blocksHeader = ConfigManager.languageConfig.get().getString("Commands.Profile.BlocksHeader");
+		this.reset = ConfigManager.languageConfig.get().getString("Commands.Profile.Reset");
+		this.exported = ConfigManager.languageConfig.get().getString("Commands.Profile.SuccessfullyExported");
+		this.failedToExport = ConfigManager.languageConfig.get().getString("Commands.Profile.FailedToExport");
+	}
+
+	@Override
+	public void execute(final CommandSender sender, final List<String> args) {
+		if (!this.hasPermission(sender) || !this.correctLength(sender, args.size(), 0, 2)) {
+			return;
+		} else if (!TickProfiler.isEnabled()) {
+			ChatUtil.sendBrandingMessage(sender, ChatColor.RED + this.disabled);
+			return;
+		}
+
+		final String mode = args.isEmpty() || this.isNumeric(args.get(0)) ? "abilities" : args.get(0).toLowerCase();
+		int page = 1;
+		if (args.size() == 2 && this.isNumeric(args.get(1))) {
+			page = Integer.parseInt(args.get(1));
+		} else if (args.size() == 1 && this.isNumeric(args.get(0))) {
+			page = Integer.parseInt(args.get(0));
+		}
+
+		final long ticks = Math.max(1, TickProfiler.getTicks());
+		if (Arrays.asList("reset", "r", "clear").contains(mode)) {
+			TickProfiler.reset();
+			RegionProtection.resetCacheMetrics();
+			TempBlockFrame.resetMetrics();
+			BlockChangeBuffer.resetMetrics();
+			if (DBConnection.isOpen()) {
+				DBConnection.sql.resetMetrics();
+				DBConnection.getWriteQueue().resetMetrics();
+			}
+			ChatUtil.sendBrandingMessage(sender, ChatColor.GREEN + this.reset);
+		} else if (Arrays.asList("dump", "d", "export").contains(mode)) {
+			final File file = TickProfiler.dump();
+			if (file == null) {
+				ChatUtil.sendBrandingMessage(sender, ChatColor.RED + this.failedToExport);
+			} else {
+				ChatUtil.sendBrandingMessage(sender, ChatColor.GREEN + this.exported);
+			}
+		} else if (Arrays.asList("sections", "s", "tick").contains(mode)) {
+			final List<String> lines = new ArrayList<>();
+			for (final Section section : TickProfiler.getSections()) {
+				lines.add(ChatColor.YELLOW + section.getName() + ": " + ChatColor.WHITE + TickProfiler.formatMillis((double) section.getTotalNanos() / ticks)
+						+ ChatColor.GRAY + " p95 " + TickProfiler.formatMillis(section.getHistogram().percentile(0.95))
+						+ " max " + TickProfiler.formatMillis(section.getMaxNanos()));
+			}
+			this.sendPage(sender, lines, this.sectionsHeader.replace("{ticks}", String.valueOf(TickProfiler.getTicks())), page);
+		} else if (Arrays.asList("database", "db", "storage").contains(mode)) {
+			if (!DBConnection.isOpen()) {
+				ChatUtil.sendBrandingMessage(sender, ChatColor.RED + this.empty);
+				return;
+			}
+			final Database database = DBConnection.sql;
+			final List<String> lines = new ArrayList<>();
+			lines.add(ChatColor.YELLOW + "Queued: " + ChatColor.WHITE + database.getQueueSize() + ChatColor.GRAY + " (" + database.getActiveCount() + " running)");
+			lines.add(ChatColor.YELLOW + "Submitted: " + ChatColor.WHITE + database.getSubmittedCount() + ChatColor.GRAY + " (" + database.getCompletedCount() + " completed, " + database.getFailedCount() + " failed)");
+			lines.add(ChatColor.YELLOW + "Spilled: " + ChatColor.WHITE + database.getSpilledCount());
+			lines.add(ChatColor.YELLOW + "Latency: " + ChatColor.WHITE + TickProfiler.formatMillis(database.getAverageLatencyNanos()) + ChatColor.GRAY + " max " + TickProfiler.formatMillis(database.getMaxLatencyNanos()));
+			lines.add(ChatColor.YELLOW + "Execution: " + ChatColor.WHITE + TickProfiler.formatMillis(database.getAverageExecutionNanos()));
+			final PlayerWriteQueue writes = DBConnection.getWriteQueue();
+			lines.add(ChatColor.YELLOW + "Write-behind: " + ChatColor.WHITE + writes.getQueuedCount() + " changes" + ChatColor.GRAY + " (" + writes.getCoalescedCount() + " coalesced, " + writes.getPendingCount() + " players pending)");
+			lines.add(ChatColor.YELLOW + "Written: " + ChatColor.WHITE + writes.getRowCount() + " rows" + ChatColor.GRAY + " in " + writes.getBatchCount() + " batches, " + writes.getFlushCount() + " flushes, " + writes.getFailedFlushCount() + " failed");
+			this.sendPage(sender, lines, this.databaseHeader, page);
+		} else if (Arrays.asList("regions", "region", "protection").contains(mode)) {
+			final long hits = RegionProtection.getCacheHits();
+			final long lookups = hits + RegionProtection.getCacheMisses();
+			final List<String> lines = new ArrayList<>();
+			lines.add(ChatColor.YELLOW + "Cached: " + ChatColor.WHITE + RegionProtection.getCacheSize() + ChatColor.GRAY + " (" + RegionProtection.getCacheEvictions() + " evicted)");
+			lines.add(ChatColor.YELLOW + "Hit rate: " + ChatColor.WHITE + (lookups == 0 ? 0 : hits * 100 / lookups) + "%" + ChatColor.GRAY + " (" + hits + " hits of " + lookups + " lookups)");
+			this.sendPage(sender, lines, this.regionHeader, page);
+		} else if (Arrays.asList("blocks", "b", "tempblocks").contains(mode)) {
+			final List<String> lines = new ArrayList<>();
+			lines.add(ChatColor.YELLOW + "Updates avoided: " + ChatColor.WHITE + TempBlockFrame.getAvoidedUpdateCount() / ticks + " per tick" + ChatColor.GRAY + " (" + TempBlockFrame.getAvoidedUpdateCount() + " total)");
+			lines.add(ChatColor.YELLOW + "Frames: " + ChatColor.WHITE + TempBlockFrame.getFrameCount() / ticks + " per tick" + ChatColor.GRAY + " (" + TempBlockFrame.getFrameCount() + " total)");
+			lines.add(ChatColor.YELLOW + "Kept: " + ChatColor.WHITE + TempBlockFrame.getKeptCount() + ChatColor.GRAY + " (" + TempBlockFrame.getChangedCount() + " changed in place)");
+			lines.add(ChatColor.YELLOW + "Created: " + ChatColor.WHITE + TempBlockFrame.getCreatedCount() + ChatColor.GRAY + " (" + TempBlockFrame.getRevertedCount() + " reverted)");
+			if (BlockChangeBuffer.isEnabled()) {
+				lines.add(ChatColor.YELLOW + "Buffered writes: " + ChatColor.WHITE + BlockChangeBuffer.getBufferedCount() / ticks + " per tick" + ChatColor.GRAY + " (" + BlockChangeBuffer.getCoalescedCount() + " coalesced)");
+				lines.add(ChatColor.YELLOW + "Flushed: " + ChatColor.WHITE + BlockChangeBuffer.getWrittenCount() + " written" + ChatColor.GRAY + " (" + BlockChangeBuffer.getUnchangedCount() + " unchanged, " + BlockChangeBuffer.getSectionCount() + " sections)");
+			}
+			this.sendPage(sender, lines, this.blocksHeader.replace("{ticks}", String.valueOf(TickProfiler.getTicks())), page);
+		} else if (Arrays.asList("abilities", "a", "ability").contains(mode)) {
+			final List<String> lines = new ArrayList<>();
+			for (final AbilitySection section : TickProfiler.getAbilitySections()) {
+				lines.add(ChatColor.YELLOW + section.getName() + ": " + ChatColor.WHITE + TickProfiler.formatMillis((double) section.getTotalNanos() / ticks)
+						+ ChatColor.GRAY + " p95 " + TickProfiler.formatMillis(section.getHistogram().percentile(0.95))
+						+ " x" + section.getInstances() + " (peak " + section.getPeakInstances() + ")");
+			}
+			this.sendPage(sender, lines, this.abilitiesHeader.replace("{ticks}", String.valueOf(TickProfiler.getTicks())), page);
+		} else {
+			this.help(sender, false);
+		}
+	}
+
+	private void sendPage(final CommandSender sender, final List<String> lines, final String title, final int page) {
+		if (lines.isEmpty()) {
+			ChatUtil.sendBrandingMessage(sender, ChatColor.RED + this.empty);
+			return;
+		}
+
+		for (final String line : this.getPage(lines, ChatColor.GOLD + title, page, false)) {
+			sender.sendMessage(line);
+		}
+	}
+
+	/**
+	 * Checks if the CommandSender has the permission 'bending.admin.profile'.
+	 * If not, it tells them they don't have permission.
+	 *
+	 * @return True if they have permission, false otherwise.
+	 */
+	@Override
+	public boolean hasPermission(final CommandSender sender) {
+		if (!sender.hasPermission("bending.admin." + this.getName())) {
+			sender.sendMessage(super.noPermissionMessage);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	protected List<String> getTabCompletion(final CommandSender sender, final List<String> args) {
+		if (args.size() >= 1 || !sender.hasPermission("bending.admin." + this.getName())) {
+			return new ArrayList<>();
+		}
+		return Arrays.asList("abilities", "sections", "database", "regions", "blocks", "reset", "dump");
+	}
+}
@@ -1,34 +1,30 @@
 package com.projectkorra.projectkorra.command;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.UUID;
 
 import com.projectkorra.projectkorra.util.ChatUtil;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import com.projectkorra.projectkorra.Element;
+import com.projectkorra.projectkorra.Manager;
 import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
-import com.projectkorra.projectkorra.storage.DBConnection;
+import com.projectkorra.projectkorra.util.Leaderboard;
 import com.projectkorra.projectkorra.util.Statistic;
+import com.projectkorra.projectkorra.util.StatisticsManager;
 import com.projectkorra.projectkorra.util.StatisticsMethods;
 
 public class StatsCommand extends PKCommand {
 
 	private static final String[] getaliases = { "get", "g" };
 	private static final String[] leaderboardaliases = { "leaderboard", "lb", "l" };
+	private static final String[] topaliases = { "top", "t" };
 
 	private final String invalidLookup;
 	private final String invalidSearchType;
@@ -36,7 +32,7 @@ public class StatsCommand extends PKCommand {
 	private final String invalidPlayer;
 
 	public StatsCommand() {
-		super("stats", "/bending stats <get/leaderboard> <ability/element/all> <statistic> [player/page]", ConfigManager.languageConfig.get().getString("Commands.Stats.Description"), new String[] { "statistics", "stats" });
+		super("stats", "/bending stats <get/leaderboard/top> <ability/element/all> <statistic> [player/page/amount]", ConfigManager.languageConfig.get().getString("Commands.Stats.Description"), new String[] { "statistics", "stats" });
 
 		this.invalidLookup = ConfigManager.languageConfig.get().getString("Commands.Stats.InvalidLookup");
 		this.invalidSearchType = ConfigManager.languageConfig.get().getString("Commands.Stats.InvalidSearchType");
@@ -61,7 +57,8 @@ public class StatsCommand extends PKCommand {
 
 		final boolean containsGet = this.contains(args.get(0), Arrays.asList(getaliases));
 		final boolean containsLeaderboard = this.contains(args.get(0), Arrays.asList(leaderboardaliases));
-		if (!containsGet && !containsLeaderboard) {
+		final boolean containsTop = this.contains(args.get(0), Arrays.asList(topaliases));
+		if (!containsGet && !containsLeaderboard && !containsTop) {
 			ChatUtil.sendBrandingMessage(sender, this.invalidLookup);
 			return;
 		} else if (object == null && !args.get(1).equalsIgnoreCase("all")) {
@@ -88,22 +85,28 @@ public class StatsCommand extends PKCommand {
 			}
 			final String message = this.getTarget(object, statistic, target);
 			ChatUtil.sendBrandingMessage(sender, ChatColor.translateAlternateColorCodes('&', message));
-		} else if (containsLeaderboard) {
-			int page = 1;
+		} else {
+			int number = 0;
 			try {
-				page = Integer.parseInt(args.get(3));
+				number = Integer.parseInt(args.get(3));
 			} catch (IndexOutOfBoundsException | NumberFormatException e) {}
+			final int page = Math.max(1, number);
+			final int limit = containsTop ? Math.min(number < 1 ? 10 : number, ConfigManager.getConfig().getInt("Storage.Leaderboard.Size")) : page * 10;
 			final Object o = object;
-			final int p = page;
-			new BukkitRunnable() {
-				@Override
-				public void run() {
-					final List<String> messages = StatsCommand.this.getLeaderboard(sender, o, statistic, p);
+			Manager.getManager(StatisticsManager.class).getLeaderboard().getTopAsync(statistic, object, limit).thenAccept(entries -> {
+				final Runnable send = () -> {
+					final List<String> messages = containsTop ? this.getTop(sender, o, statistic, entries) : this.getLeaderboard(sender, o, statistic, page, entries);
 					for (final String message : messages) {
 						sender.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
 					}
+				};
+				// The names of the entries are looked up on the main thread
+				if (Bukkit.isPrimaryThread()) {
+					send.run();
+				} else {
+					Bukkit.getScheduler().runTask(ProjectKorra.plugin, send);
 				}
-			}.runTaskAsynchronously(ProjectKorra.plugin);
+			});
 		}
 	}
 
@@ -136,96 +139,44 @@ public class StatsCommand extends PKCommand {
 		return message;
 	}
 
-	public List<String> getLeaderboard(final CommandSender sender, final Object object, final Statistic statistic, final int page) {
+	public List<String> getLeaderboard(final CommandSender sender, final Object object, final Statistic statistic, final int page, final List<Leaderboard.Entry> entries) {
 		final List<String> messages = new ArrayList<>();
-		final List<UUID> uuids = this.pullUUIDs(statistic, object);
-		final int maxPage = (uuids.size() / 10) + 1;
-		int p = page > maxPage ? maxPage : page;
-		p = p < 1 ? 1 : p;
-		String title = "%object% " + statistic.getDisplayName() + " Leaderboard";
-		if (object instanceof CoreAbility) {
-			final CoreAbility ability = (CoreAbility) object;
-			title = title.replace("%object%", ability.getName());
-		} else if (object instanceof Element) {
-			final Element element = (Element) object;
-			title = title.replace("%object%", element.getName());
-		} else {
-			title = title.replace("%object%", "Total");
-		}
-		ChatUtil.sendBrandingMessage(sender, ChatColor.translateAlternateColorCodes('&', "&8- &f" + title + " &8- [&7" + p + "/" + maxPage + "&8]"));
-		final int maxIndex = (10 * p) - 1;
-		final int minIndex = maxIndex - 9;
-		try {
-			uuids.get(minIndex);
-		} catch (final IndexOutOfBoundsException e) {
+		final String title = this.getObjectName(object) + " " + statistic.getDisplayName() + " Leaderboard";
+		ChatUtil.sendBrandingMessage(sender, ChatColor.translateAlternateColorCodes('&', "&8- &f" + title + " &8- [&7" + page + "&8]"));
+		final int minIndex = (page - 1) * 10;
+		if (minIndex >= entries.size()) {
 			messages.add("&7No statistics found.");
 			return messages;
 		}
-		for (int index = minIndex; index < maxIndex; index++) {
-			if (index < 0 || index >= uuids.size()) {
-				break;
-			}
-			final UUID uuid = uuids.get(index);
-			long value = 0;
-			if (object == null) {
-				value = StatisticsMethods.getStatisticTotal(uuid, statistic);
-			} else {
-				value = StatisticsMethods.getStatistic(uuid, object, statistic);
-			}
-			final OfflinePlayer oPlayer = ProjectKorra.plugin.getServer().getOfflinePlayer(uuid);
-			messages.add("&7" + (index + 1) + ") &e" + oPlayer.getName() + " &f" + value);
+		for (int index = minIndex; index < minIndex + 10 && index < entries.size(); index++) {
+			final Leaderboard.Entry entry = entries.get(index);
+			messages.add("&7" + (index + 1) + ") &e" + entry.getName() + " &f" + entry.getValue());
 		}
 		return messages;
 	}
 
-	public List<UUID> pullUUIDs(final Statistic statistic) {
-		return this.pullUUIDs(statistic, null);
+	public List<String> getTop(final CommandSender sender, final Object object, final Statistic statistic, final List<Leaderboard.Entry> entries) {
+		final List<String> messages = new ArrayList<>();
+		final String title = "Top " + entries.size() + " " + this.getObjectName(object) + " " + statistic.getDisplayName();
+		ChatUtil.sendBrandingMessage(sender, ChatColor.translateAlternateColorCodes('&', "&8- &f" + title + " &8-"));
+		if (entries.isEmpty()) {
+			messages.add("&7No statistics found.");
+			return messages;
+		}
+		for (int index = 0; index < entries.size(); index++) {
+			final Leaderboard.Entry entry = entries.get(index);
+			messages.add("&7" + (index + 1) + ") &e" + entry.getName() + " &f" + entry.getValue());
+		}
+		return messages;
 	}
 
-	public List<UUID> pullUUIDs(final Statistic statistic, final Object object) {
-		final Set<UUID> uuids = new HashSet<>();
-		try (ResultSet rs = DBConnection.sql.readQuery("SELECT uuid FROM pk_stats")) {
-			while (rs.next()) {
-				final UUID uuid = UUID.fromString(rs.getString("uuid"));
-				if (object == null) {
-					if (StatisticsMethods.getStatisticTotal(uuid, statistic) > 0) {
-						uuids.add(uuid);
-					}
-				} else {
-					if (StatisticsMethods.getStatistic(uuid, object, statistic) > 0) {
-						uuids.add(uuid);
-					}
-				}
-			}
-		} catch (final SQLException e) {
-			e.printStackTrace();
-		}
-		for (final Player player : ProjectKorra.plugin.getServer().getOnlinePlayers()) {
-			final UUID uuid = player.getUniqueId();
-			if (object == null) {
-				if (StatisticsMethods.getStatisticTotal(uuid, statistic) > 0) {
-					uuids.add(uuid);
-				}
-			} else {
-				if (StatisticsMethods.getStatistic(uuid, object, statistic) > 0) {
-					uuids.add(uuid);
-				}
-			}
+	private String getObjectName(final Object object) {
+		if (object instanceof CoreAbility) {
+			return ((CoreAbility) object).getName();
+		} else if (object instanceof Element) {
+			return ((Element) object).getName();
 		}
-		final List<UUID> list = new ArrayList<>(uuids);
-		Collections.sort(list, (u1, u2) -> {
-			long value1 = 0;
-			long value2 = 0;
-			if (object == null) {
-				value1 = StatisticsMethods.getStatisticTotal(u1, statistic);
-				value2 = StatisticsMethods.getStatisticTotal(u2, statistic);
-			} else {
-				value1 = StatisticsMethods.getStatistic(u1, object, statistic);
-				value2 = StatisticsMethods.getStatistic(u2, object, statistic);
-			}
-			return (int) (value2 - value1);
-		});
-		return list;
+		return "Total";
 	}
 
 }
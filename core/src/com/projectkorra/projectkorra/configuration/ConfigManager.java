@@ -20,6 +20,8 @@ public class ConfigManager {
 	public static Config defaultConfig;
 	public static Config languageConfig;
 
+	private static volatile ConfigSnapshot snapshot = ConfigSnapshot.EMPTY;
+
 	public ConfigManager() {
 		presetConfig = new Config(new File("presets.yml"));
 		defaultConfig = new Config(new File("config.yml"));
@@ -247,6 +249,18 @@ public class ConfigManager {
 			config.addDefault("Commands.Debug.Description", "Outputs information on the current ProjectKorra installation to /plugins/ProjectKorra/debug.txt");
 			config.addDefault("Commands.Debug.SuccessfullyExported", "Debug File Created as debug.txt in the ProjectKorra plugin folder.\nPut contents on pastie.org and create a bug report on the ProjectKorra forum if you need to.");
 
+			config.addDefault("Commands.Profile.Description", "Shows how long each ability and each stage of the bending tick takes. Use /bending profile dump to write the full profile to /plugins/ProjectKorra/profile.txt");
+			config.addDefault("Commands.Profile.Disabled", "The profiler is disabled. Enable it with Properties.Profiler.Enabled in the config.");
+			config.addDefault("Commands.Profile.Empty", "Nothing has been recorded yet.");
+			config.addDefault("Commands.Profile.AbilitiesHeader", "Ability cost over {ticks} ticks (per tick, p95, instances)");
+			config.addDefault("Commands.Profile.SectionsHeader", "Tick section cost over {ticks} ticks (per tick, p95, max)");
+			config.addDefault("Commands.Profile.DatabaseHeader", "Database queue and query latency");
+			config.addDefault("Commands.Profile.RegionHeader", "Region protection cache");
+			config.addDefault("Commands.Profile.BlocksHeader", "TempBlock frame updates over {ticks} ticks");
+			config.addDefault("Commands.Profile.Reset", "The profiler has been reset.");
+			config.addDefault("Commands.Profile.SuccessfullyExported", "Profile written to profile.txt in the ProjectKorra plugin folder.");
+			config.addDefault("Commands.Profile.FailedToExport", "Unable to write the profile file. Check the console for errors.");
+
 			config.addDefault("Commands.Board.Description", "Toggle bending board visibility.");
 			config.addDefault("Commands.Board.Disabled", "Bending board is disabled.");
 			config.addDefault("Commands.Board.ToggledOn", "You have made your bending board visible again.");
@@ -711,6 +725,19 @@ public class ConfigManager {
 			config.addDefault("Properties.RegionProtection.RespectPlotSquared", true);
 			config.addDefault("Properties.RegionProtection.RespectRedProtect", true);
 			config.addDefault("Properties.RegionProtection.CacheBlockTime", 5000);
+			config.addDefault("Properties.RegionProtection.CacheSize", 50000);
+
+			config.addDefault("Properties.Profiler.Enabled", true);
+			config.addDefault("Properties.Profiler.WindowSeconds", 60);
+
+			config.addDefault("Properties.Collisions.Broadphase.Enabled", true);
+			config.addDefault("Properties.Collisions.Broadphase.CellSize", 4.0);
+
+			config.addDefault("Properties.TempBlock.MaxRevertsPerTick", 2000);
+			config.addDefault("Properties.TempBlock.BatchChanges", false);
+
+			config.addDefault("Properties.EntitySpatialIndex.Enabled", true);
+			config.addDefault("Properties.EntitySpatialIndex.BuildThreshold", 16);
 
 			config.addDefault("Properties.Air.CanBendWithWeapons", false);
 			config.addDefault("Properties.Air.Particles", "spell");
@@ -742,6 +769,7 @@ public class ConfigManager {
 			config.addDefault("Properties.Earth.RevertEarthbending", true);
 			config.addDefault("Properties.Earth.SafeRevert", true);
 			config.addDefault("Properties.Earth.RevertCheckTime", 300000);
+			config.addDefault("Properties.Earth.RevertTimePerTick", 2);
 			config.addDefault("Properties.Earth.CanBendWithWeapons", true);
 			config.addDefault("Properties.Earth.EarthBlocks", earthBlocks);
 			config.addDefault("Properties.Earth.MetalBlocks", metalBlocks);
@@ -1774,10 +1802,18 @@ public class ConfigManager {
 			config.addDefault("Storage.MySQL.pass", "");
 			config.addDefault("Storage.MySQL.db", "minecraft");
 			config.addDefault("Storage.MySQL.user", "root");
+			config.addDefault("Storage.Pool.Workers", 4);
+			config.addDefault("Storage.Pool.QueueCapacity", 10000);
+			config.addDefault("Storage.Pool.StatementCacheSize", 64);
+			config.addDefault("Storage.WriteBehind.Interval", 5000);
+			config.addDefault("Storage.Preload.LoginBatchDelay", 100);
+			config.addDefault("Storage.Leaderboard.RefreshInterval", 300000);
+			config.addDefault("Storage.Leaderboard.Size", 100);
 
 			config.addDefault("debug", false);
 
 			defaultConfig.save();
+			compileSnapshot();
 		}
 	}
 
@@ -1785,6 +1821,24 @@ public class ConfigManager {
 		return ConfigManager.defaultConfig.get();
 	}
 
+	/**
+	 * @return The compiled values of the default config, for code that runs on
+	 *         every activation or tick
+	 */
+	public static ConfigSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Compiles the default config into a new {@link ConfigSnapshot} and
+	 * replaces the current one. Must be called whenever the default config is
+	 * reloaded, and is called again after abilities were registered, since
+	 * addons add their defaults when they load.
+	 */
+	public static void compileSnapshot() {
+		snapshot = ConfigSnapshot.compile(getConfig());
+	}
+
 	private static boolean hasChatPlugin() {
 		List<String> plugins = Arrays.asList("EssentialsChat", "VentureChat", "LPC", "ChatManager", "ChatControl", "DeluxeChat");
 
@@ -0,0 +1,197 @@
+package com.projectkorra.projectkorra.configuration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * An immutable copy of the values of the default config that are read on hot
+ * paths, e.g. on every activation or every tick. It is compiled from the YAML
+ * when the config is loaded and replaced as a whole on reload, so code that
+ * holds on to a snapshot always sees consistent values.
+ * <p>
+ * Get the current snapshot with {@link ConfigManager#getSnapshot()}.
+ */
+public final class ConfigSnapshot {
+
+	static final ConfigSnapshot EMPTY = new ConfigSnapshot();
+
+	private final Set<String> disabledWorlds;
+	private final long globalCooldown;
+	private final boolean togglePassivesWithAllBending;
+	private final Map<String, Map<String, AbilityConfig>> abilities;
+	private final Map<String, Map<String, AbilityConfig>> passives;
+
+	private ConfigSnapshot() {
+		this.disabledWorlds = Collections.emptySet();
+		this.globalCooldown = 0;
+		this.togglePassivesWithAllBending = true;
+		this.abilities = Collections.emptyMap();
+		this.passives = Collections.emptyMap();
+	}
+
+	private ConfigSnapshot(final FileConfiguration config) {
+		this.disabledWorlds = Collections.unmodifiableSet(new HashSet<>(config.getStringList("Properties.DisabledWorlds")));
+		this.globalCooldown = config.getLong("Properties.GlobalCooldown");
+		this.togglePassivesWithAllBending = config.getBoolean("Properties.TogglePassivesWithAllBending");
+
+		final Map<String, Map<String, AbilityConfig>> abilities = new HashMap<>();
+		final Map<String, Map<String, AbilityConfig>> passives = new HashMap<>();
+		final ConfigurationSection section = config.getConfigurationSection("Abilities");
+		if (section != null) {
+			for (final String element : section.getKeys(false)) {
+				final ConfigurationSection elementSection = section.getConfigurationSection(element);
+				if (elementSection == null) {
+					continue;
+				}
+				abilities.put(element, compileAbilities(elementSection, true));
+				final ConfigurationSection passiveSection = elementSection.getConfigurationSection("Passive");
+				if (passiveSection != null) {
+					passives.put(element, compileAbilities(passiveSection, false));
+				}
+			}
+		}
+		this.abilities = Collections.unmodifiableMap(abilities);
+		this.passives = Collections.unmodifiableMap(passives);
+	}
+
+	/**
+	 * Compiles a snapshot of the given config.
+	 */
+	public static ConfigSnapshot compile(final FileConfiguration config) {
+		return new ConfigSnapshot(config);
+	}
+
+	private static Map<String, AbilityConfig> compileAbilities(final ConfigurationSection section, final boolean skipPassives) {
+		final Map<String, AbilityConfig> abilities = new HashMap<>();
+		for (final String name : section.getKeys(false)) {
+			if (skipPassives && name.equals("Passive")) {
+				continue;
+			}
+			final ConfigurationSection abilitySection = section.getConfigurationSection(name);
+			if (abilitySection != null) {
+				abilities.put(name, new AbilityConfig(abilitySection));
+			}
+		}
+		return Collections.unmodifiableMap(abilities);
+	}
+
+	/**
+	 * @return The names of the worlds bending is disabled in
+	 */
+	public Set<String> getDisabledWorlds() {
+		return this.disabledWorlds;
+	}
+
+	public boolean isWorldDisabled(final World world) {
+		return this.disabledWorlds.contains(world.getName());
+	}
+
+	public boolean isWorldDisabled(final String world) {
+		return this.disabledWorlds.contains(world);
+	}
+
+	public long getGlobalCooldown() {
+		return this.globalCooldown;
+	}
+
+	public boolean isTogglePassivesWithAllBending() {
+		return this.togglePassivesWithAllBending;
+	}
+
+	/**
+	 * Get the config of an ability, e.g. the values under
+	 * {@code Abilities.Air.AirBlast} or {@code Abilities.Air.Passive.AirAgility}
+	 *
+	 * @param element The name of the element the ability is listed under
+	 * @param ability The name of the ability
+	 * @param passive Whether the ability is listed under Passive
+	 * @return The config of the ability, or null if it has none
+	 */
+	public AbilityConfig getAbility(final String element, final String ability, final boolean passive) {
+		final Map<String, AbilityConfig> abilities = (passive ? this.passives : this.abilities).get(element);
+		return abilities == null ? null : abilities.get(ability);
+	}
+
+	/**
+	 * The values of a single ability. Keys are relative to the section of the
+	 * ability, e.g. {@code Cooldown} or {@code Damage.Min}.
+	 */
+	public static final class AbilityConfig {
+
+		private final boolean enabled;
+		private final Map<String, Object> values;
+
+		private AbilityConfig(final ConfigurationSection section) {
+			this.enabled = !section.isBoolean("Enabled") || section.getBoolean("Enabled");
+
+			final Map<String, Object> values = new HashMap<>();
+			for (final Map.Entry<String, Object> entry : section.getValues(true).entrySet()) {
+				final Object value = entry.getValue();
+				if (value instanceof ConfigurationSection) {
+					continue;
+				} else if (value instanceof List) {
+					values.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>((List<?>) value)));
+				} else {
+					values.put(entry.getKey(), value);
+				}
+			}
+			this.values = Collections.unmodifiableMap(values);
+		}
+
+		/**
+		 * @return False if the ability is disabled in the config
+		 */
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public boolean contains(final String key) {
+			return this.values.containsKey(key);
+		}
+
+		public Object get(final String key) {
+			return this.values.get(key);
+		}
+
+		public boolean getBoolean(final String key, final boolean def) {
+			final Object value = this.values.get(key);
+			return value instanceof Boolean ? (Boolean) value : def;
+		}
+
+		public int getInt(final String key, final int def) {
+			final Object value = this.values.get(key);
+			return value instanceof Number ? ((Number) value).intValue() : def;
+		}
+
+		public long getLong(final String key, final long def) {
+			final Object value = this.values.get(key);
+			return value instanceof Number ? ((Number) value).longValue() : def;
+		}
+
+		public double getDouble(final String key, final double def) {
+			final Object value = this.values.get(key);
+			return value instanceof Number ? ((Number) value).doubleValue() : def;
+		}
+
+		public String getString(final String key, final String def) {
+			final Object value = this.values.get(key);
+			return value != null ? value.toString() : def;
+		}
+
+		/**
+		 * @return The values of the ability
+		 */
+		public Map<String, Object> getValues() {
+			return this.values;
+		}
+	}
+}
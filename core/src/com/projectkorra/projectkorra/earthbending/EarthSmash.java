@@ -20,6 +20,7 @@ import com.projectkorra.projectkorra.ability.EarthAbility;
 import com.projectkorra.projectkorra.ability.ElementalAbility;
 import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.command.Commands;
+import com.projectkorra.projectkorra.region.RegionProtection;
 import com.projectkorra.projectkorra.util.ClickType;
 import com.projectkorra.projectkorra.util.DamageHandler;
 import com.projectkorra.projectkorra.util.ParticleEffect;
@@ -342,15 +343,16 @@ public class EarthSmash extends EarthAbility {
 			// Remove the blocks underneath the rising smash.
 			if (this.animationCounter == 0) {
 				// Check all of the blocks and make sure that they can be removed AND make sure there is enough dirt.
+				final Block center = this.location.getBlock();
+				if (!RegionProtection.getProtectedBlocks(this.player, center.getRelative(-1, -2, -1), center.getRelative(1, -1, 1), this).isEmpty()) {
+					this.remove();
+					return;
+				}
 				int totalBendableBlocks = 0;
 				for (int x = -1; x <= 1; x++) {
 					for (int y = -2; y <= -1; y++) {
 						for (int z = -1; z <= 1; z++) {
-							final Block block = this.location.clone().add(x, y, z).getBlock();
-							if (GeneralMethods.isRegionProtectedFromBuild(this, block.getLocation())) {
-								this.remove();
-								return;
-							}
+							final Block block = center.getRelative(x, y, z);
 							if (this.isEarthbendable(block)) {
 								totalBendableBlocks++;
 							}
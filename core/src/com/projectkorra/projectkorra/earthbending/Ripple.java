@@ -1,7 +1,11 @@
 package com.projectkorra.projectkorra.earthbending;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Location;
@@ -19,6 +23,7 @@ import com.projectkorra.projectkorra.ability.EarthAbility;
 import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.avatar.AvatarState;
 import com.projectkorra.projectkorra.command.Commands;
+import com.projectkorra.projectkorra.region.RegionProtection;
 import com.projectkorra.projectkorra.util.DamageHandler;
 
 public class Ripple extends EarthAbility {
@@ -42,6 +47,7 @@ public class Ripple extends EarthAbility {
 	private Block block4;
 	private ArrayList<Location> locations = new ArrayList<Location>();
 	private ArrayList<Entity> entities = new ArrayList<Entity>();
+	private final Set<Block> protectedBlocks = new HashSet<>();
 
 	public Ripple(final Player player, final Vector direction) {
 		super(player);
@@ -77,6 +83,7 @@ public class Ripple extends EarthAbility {
 		this.maxStep = this.locations.size();
 
 		if (this.isEarthbendable(origin.getBlock())) {
+			this.findProtectedBlocks();
 			this.start();
 		}
 	}
@@ -229,6 +236,24 @@ public class Ripple extends EarthAbility {
 		}
 	}
 
+	/**
+	 * Checks the region protection of the whole path at once, including the
+	 * blocks underneath it that may be moved as well.
+	 */
+	private void findProtectedBlocks() {
+		final List<Block> blocks = new ArrayList<>(this.locations.size() * 2);
+		for (final Location location : this.locations) {
+			final Block block = location.getBlock();
+			blocks.add(block);
+			blocks.add(block.getRelative(BlockFace.DOWN));
+		}
+
+		final BitSet protectedBlocks = RegionProtection.getProtectedBlocks(this.player, blocks, this);
+		for (int i = protectedBlocks.nextSetBit(0); i >= 0; i = protectedBlocks.nextSetBit(i + 1)) {
+			this.protectedBlocks.add(blocks.get(i));
+		}
+	}
+
 	private boolean decrease(Block block) {
 		if (block == null) {
 			return false;
@@ -244,7 +269,10 @@ public class Ripple extends EarthAbility {
 			length = 2;
 			block = botBlock;
 		}
-		return this.moveEarth(block, new Vector(0, -1, 0), length, false);
+		if (this.protectedBlocks.contains(block)) {
+			return false;
+		}
+		return this.moveEarth(block, new Vector(0, -1, 0), length, false, false);
 	}
 
 	private boolean increase(final Block block) {
@@ -261,7 +289,10 @@ public class Ripple extends EarthAbility {
 		if (this.isEarthbendable(botblock)) {
 			length = 2;
 		}
-		if (this.moveEarth(block, new Vector(0, 1, 0), length, false)) {
+		if (this.protectedBlocks.contains(block)) {
+			return false;
+		}
+		if (this.moveEarth(block, new Vector(0, 1, 0), length, false, false)) {
 			for (final Entity entity : GeneralMethods.getEntitiesAroundPoint(block.getLocation().clone().add(0, 1, 0), 2)) {
 				if (entity.getEntityId() != this.player.getEntityId() && !this.entities.contains(entity)) {
 					if (!(entity instanceof FallingBlock)) {
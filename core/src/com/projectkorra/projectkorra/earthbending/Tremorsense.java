@@ -14,6 +14,7 @@ import com.projectkorra.projectkorra.GeneralMethods;
 import com.projectkorra.projectkorra.ability.EarthAbility;
 import com.projectkorra.projectkorra.ability.ElementalAbility;
 import com.projectkorra.projectkorra.attribute.Attribute;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
 
 public class Tremorsense extends EarthAbility {
 
@@ -165,7 +166,7 @@ public class Tremorsense extends EarthAbility {
 		//A replacement for the canBendIgnoreBindsCooldowns. Since this is used a passive, it should not turn off when bending is toggled.
 		if (!this.bPlayer.canBind(this) || this.bPlayer.isChiBlocked() || this.bPlayer.isParalyzed()
 				|| this.bPlayer.isBloodbent() || this.bPlayer.isControlledByMetalClips()
-				|| getConfig().getStringList("Properties.DisabledWorlds").contains(player.getLocation().getWorld().getName())) {
+				|| ConfigManager.getSnapshot().isWorldDisabled(player.getWorld())) {
 			this.remove();
 		} else if (this.player.getLocation().getBlock().getLightLevel() > this.lightThreshold) {
 			this.remove();
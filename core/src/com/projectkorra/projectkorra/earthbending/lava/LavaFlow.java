@@ -1,6 +1,7 @@
 package com.projectkorra.projectkorra.earthbending.lava;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -20,6 +21,7 @@ import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.ability.EarthAbility;
 import com.projectkorra.projectkorra.ability.LavaAbility;
 import com.projectkorra.projectkorra.attribute.Attribute;
+import com.projectkorra.projectkorra.region.RegionProtection;
 import com.projectkorra.projectkorra.util.BlockSource;
 import com.projectkorra.projectkorra.util.ClickType;
 import com.projectkorra.projectkorra.util.Information;
@@ -220,16 +222,34 @@ public class LavaFlow extends LavaAbility {
 			}
 
 			for (double x = -this.currentRadius; x <= this.currentRadius + this.particleOffset; x++) {
+				// Find the blocks of the row first so their region protection can be checked at once.
+				final List<Location> locations = new ArrayList<>();
+				final List<Block> blocks = new ArrayList<>();
+				final List<Block> toCheck = new ArrayList<>();
 				for (double z = -this.currentRadius; z < this.currentRadius + this.particleOffset; z++) {
 					final Location loc = this.origin.clone().add(x, 0, z);
 					final Block block = GeneralMethods.getTopBlock(loc, this.upwardFlow, this.downwardFlow);
 					if (block == null) {
 						continue;
 					}
+					locations.add(loc);
+					blocks.add(block);
+
+					final double dSquared = distanceSquaredXZ(block.getLocation(), this.origin);
+					if (dSquared > Math.pow(this.shiftPlatformRadius, 2) && dSquared < Math.pow(this.currentRadius, 2)) {
+						toCheck.add(block);
+					}
+				}
+				final BitSet protectedBlocks = RegionProtection.getProtectedBlocks(this.player, toCheck, this);
+
+				int checked = 0;
+				for (int i = 0; i < blocks.size(); i++) {
+					final Location loc = locations.get(i);
+					final Block block = blocks.get(i);
 
 					final double dSquared = distanceSquaredXZ(block.getLocation(), this.origin);
 					if (dSquared > Math.pow(this.shiftPlatformRadius, 2)) {
-						if (dSquared < Math.pow(this.currentRadius, 2) && !GeneralMethods.isRegionProtectedFromBuild(this, block.getLocation())) {
+						if (dSquared < Math.pow(this.currentRadius, 2) && !protectedBlocks.get(checked++)) {
 							if (dSquared < this.shiftPlatformRadius * 4 || this.getAdjacentLavaBlocks(block.getLocation()).size() > 0) {
 								if (!isLava(block)) {
 									if (isPlant(block) || isSnow(block)) {
@@ -321,54 +341,70 @@ public class LavaFlow extends LavaAbility {
 				this.clickIsFinished = true;
 				final double radius = this.makeLava ? this.clickLavaRadius : this.clickLandRadius;
 
+				// Find the blocks first so their region protection can be checked at once.
+				final List<Location> locations = new ArrayList<>();
+				final List<Block> blocks = new ArrayList<>();
+				final List<Block> toCheck = new ArrayList<>();
 				for (double x = -radius; x <= radius; x++) {
 					for (double z = -radius; z <= radius; z++) {
 						final Location loc = this.origin.clone().add(x, 0, z);
 						final Block tempBlock = GeneralMethods.getTopBlock(loc, this.upwardFlow, this.downwardFlow);
-
-						final double dSquared = distanceSquaredXZ(tempBlock.getLocation(), this.origin);
-						if (dSquared < Math.pow(radius, 2) && !GeneralMethods.isRegionProtectedFromBuild(this, loc)) {
-							if (this.makeLava && !isLava(tempBlock)) {
-								this.clickIsFinished = false;
-								if (Math.random() < this.lavaCreateSpeed) {
-									if (!isLava(tempBlock) || isSnow(tempBlock)) {
-										if (isPlant(tempBlock) || isSnow(tempBlock)) {
-											final Block lower = tempBlock.getRelative(BlockFace.DOWN);
-											if (isPlant(lower) || isSnow(lower)) {
-												final Block lower2 = lower.getRelative(BlockFace.DOWN);
-												if (!isEarth(lower2) && !isSand(lower2) && !isMetal(lower2)) {
-													continue;
-												}
-												this.createLava(lower2);
-											} else {
-												if (!isEarth(lower) && !isSand(lower) && !isMetal(lower)) {
-													continue;
-												}
-												this.createLava(lower);
+						locations.add(loc);
+						blocks.add(tempBlock);
+						if (distanceSquaredXZ(tempBlock.getLocation(), this.origin) < Math.pow(radius, 2)) {
+							toCheck.add(loc.getBlock());
+						}
+					}
+				}
+				final BitSet protectedBlocks = RegionProtection.getProtectedBlocks(this.player, toCheck, this);
+
+				int checked = 0;
+				for (int i = 0; i < blocks.size(); i++) {
+					final Location loc = locations.get(i);
+					final Block tempBlock = blocks.get(i);
+
+					final double dSquared = distanceSquaredXZ(tempBlock.getLocation(), this.origin);
+					if (dSquared < Math.pow(radius, 2) && !protectedBlocks.get(checked++)) {
+						if (this.makeLava && !isLava(tempBlock)) {
+							this.clickIsFinished = false;
+							if (Math.random() < this.lavaCreateSpeed) {
+								if (!isLava(tempBlock) || isSnow(tempBlock)) {
+									if (isPlant(tempBlock) || isSnow(tempBlock)) {
+										final Block lower = tempBlock.getRelative(BlockFace.DOWN);
+										if (isPlant(lower) || isSnow(lower)) {
+											final Block lower2 = lower.getRelative(BlockFace.DOWN);
+											if (!isEarth(lower2) && !isSand(lower2) && !isMetal(lower2)) {
+												continue;
 											}
+											this.createLava(lower2);
 										} else {
-											if (!isEarth(tempBlock) && !isSand(tempBlock) && !isMetal(tempBlock)) {
+											if (!isEarth(lower) && !isSand(lower) && !isMetal(lower)) {
 												continue;
 											}
-											this.createLava(tempBlock);
+											this.createLava(lower);
 										}
-									}
-								} else {
-									if (random.nextInt(4) == 0) {
-										final Block block = loc.getBlock();
-										final Block above = block.getRelative(BlockFace.UP);
-
-										if ((isEarth(block) || isSand(block) || isMetal(block)) && !isWater(above)) {
-											ParticleEffect.LAVA.display(loc, 1, Math.random(), Math.random(), Math.random(), 0);
+									} else {
+										if (!isEarth(tempBlock) && !isSand(tempBlock) && !isMetal(tempBlock)) {
+											continue;
 										}
+										this.createLava(tempBlock);
 									}
 								}
-							} else if (!this.makeLava && isLava(tempBlock)) {
-								this.clickIsFinished = false;
-								if (Math.random() < this.landCreateSpeed) {
-									this.removeLava(tempBlock);
+							} else {
+								if (random.nextInt(4) == 0) {
+									final Block block = loc.getBlock();
+									final Block above = block.getRelative(BlockFace.UP);
+
+									if ((isEarth(block) || isSand(block) || isMetal(block)) && !isWater(above)) {
+										ParticleEffect.LAVA.display(loc, 1, Math.random(), Math.random(), Math.random(), 0);
+									}
 								}
 							}
+						} else if (!this.makeLava && isLava(tempBlock)) {
+							this.clickIsFinished = false;
+							if (Math.random() < this.landCreateSpeed) {
+								this.removeLava(tempBlock);
+							}
 						}
 					}
 				}
@@ -26,7 +26,7 @@ public class DensityShift extends EarthAbility implements PassiveAbility {
 	}
 
 	public static boolean softenLanding(final Player player) {
-		if (Commands.isToggledForAll && ConfigManager.defaultConfig.get().getBoolean("Properties.TogglePassivesWithAllBending")) {
+		if (Commands.isToggledForAll && ConfigManager.getSnapshot().isTogglePassivesWithAllBending()) {
 			return false;
 		}
 
@@ -5,7 +5,6 @@ import org.bukkit.Bukkit;
 import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.earthbending.Shockwave;
 import com.projectkorra.projectkorra.earthbending.Tremorsense;
-import com.projectkorra.projectkorra.util.RevertChecker;
 
 public class EarthbendingManager implements Runnable {
 	public ProjectKorra plugin;
@@ -16,7 +15,6 @@ public class EarthbendingManager implements Runnable {
 
 	@Override
 	public void run() {
-		RevertChecker.revertEarthBlocks();
 		Shockwave.progressAll();
 		Tremorsense.manage(Bukkit.getServer());
 	}
@@ -16,7 +16,6 @@ import org.bukkit.block.Smoker;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.util.BlockIterator;
 import org.bukkit.util.Vector;
 
 import com.projectkorra.projectkorra.GeneralMethods;
@@ -26,6 +25,7 @@ import com.projectkorra.projectkorra.ability.AirAbility;
 import com.projectkorra.projectkorra.ability.BlueFireAbility;
 import com.projectkorra.projectkorra.ability.FireAbility;
 import com.projectkorra.projectkorra.ability.util.Collision;
+import com.projectkorra.projectkorra.ability.util.Projectile;
 import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.avatar.AvatarState;
 import com.projectkorra.projectkorra.command.Commands;
@@ -33,7 +33,7 @@ import com.projectkorra.projectkorra.firebending.util.FireDamageTimer;
 import com.projectkorra.projectkorra.util.DamageHandler;
 import com.projectkorra.projectkorra.waterbending.plant.PlantRegrowth;
 
-public class FireBlast extends FireAbility {
+public class FireBlast extends FireAbility implements Projectile.Handler {
 
 	private static final int MAX_TICKS = 10000;
 
@@ -64,6 +64,7 @@ public class FireBlast extends FireAbility {
 	private Location origin;
 	private Vector direction;
 	private List<Block> safeBlocks;
+	private Projectile projectile;
 
 	public FireBlast(final Location location, final Vector direction, final Player player, final double damage, final List<Block> safeBlocks) {
 		super(player);
@@ -83,6 +84,7 @@ public class FireBlast extends FireAbility {
 		//this.applyModifiers(this.damage, this.range);
 
 		this.start();
+		this.launch();
 	}
 	
 	public FireBlast(final Player player) {
@@ -103,6 +105,7 @@ public class FireBlast extends FireAbility {
 		this.location = this.location.add(this.direction.clone());
 
 		this.start();
+		this.launch();
 		this.bPlayer.addCooldown("FireBlast", this.cooldown);
 	}
 
@@ -123,23 +126,9 @@ public class FireBlast extends FireAbility {
 		this.random = new Random();
 	}
 
-	private void advanceLocation() {
-		if (this.isFireBurst) {
-			this.flameRadius += 0.06;
-		}
-
-		if (this.showParticles) {
-			playFirebendingParticles(this.location, 6, this.flameRadius, this.flameRadius, this.flameRadius);
-		}
-
-		BlockIterator blocks = new BlockIterator(this.getLocation().getWorld(), this.location.toVector(), this.direction, 0, (int) Math.ceil(this.direction.clone().multiply(speedFactor).length()));
-
-		while (blocks.hasNext() && checkLocation(blocks.next()));
-		
-		this.location.add(this.direction.clone().multiply(speedFactor));
-
-		if (this.random.nextInt(4) == 0) {
-			playFirebendingSound(this.location);
+	private void launch() {
+		if (this.isStarted()) {
+			this.projectile = new Projectile(this, this, this.location, this.direction, this.speed, this.range, this.collisionRadius).setOrigin(this.origin);
 		}
 	}
 
@@ -211,7 +200,7 @@ public class FireBlast extends FireAbility {
 
 	@Override
 	public void progress() {
-		if (!this.bPlayer.canBendIgnoreBindsCooldowns(this) || RegionProtection.isRegionProtected(this, this.location)) {
+		if (!this.bPlayer.canBendIgnoreBindsCooldowns(this)) {
 			this.remove();
 			return;
 		}
@@ -223,18 +212,32 @@ public class FireBlast extends FireAbility {
 			this.remove();
 			return;
 		}
+	}
 
-		if (this.location.distanceSquared(this.origin) > this.range * this.range) {
-			this.remove();
-			return;
+	@Override
+	public void onStep(final Projectile projectile) {
+		if (this.isFireBurst) {
+			this.flameRadius += 0.06;
 		}
 
-		Entity entity = GeneralMethods.getClosestEntity(this.location, this.collisionRadius);
-		if (entity != null) {
-			this.affect(entity);
+		if (this.showParticles) {
+			playFirebendingParticles(this.location, 6, this.flameRadius, this.flameRadius, this.flameRadius);
+		}
+
+		if (this.random.nextInt(4) == 0) {
+			playFirebendingSound(this.location);
 		}
+	}
+
+	@Override
+	public boolean onBlockHit(final Projectile projectile, final Block block) {
+		return !this.checkLocation(block);
+	}
 
-		this.advanceLocation();
+	@Override
+	public boolean onEntityHit(final Projectile projectile, final Entity entity) {
+		this.affect(entity);
+		return this.isRemoved();
 	}
 
 	/**
@@ -360,6 +363,9 @@ public class FireBlast extends FireAbility {
 
 	public void setRange(final double range) {
 		this.range = range;
+		if (this.projectile != null) {
+			this.projectile.setRange(range);
+		}
 	}
 
 	public double getDamage() {
@@ -376,10 +382,16 @@ public class FireBlast extends FireAbility {
 
 	public void setSpeed(final double speed) {
 		this.speed = speed;
+		if (this.projectile != null) {
+			this.projectile.setSpeed(speed);
+		}
 	}
 
 	public void setCollisionRadius(final double collisionRadius) {
 		this.collisionRadius = collisionRadius;
+		if (this.projectile != null) {
+			this.projectile.setRadius(collisionRadius);
+		}
 	}
 
 	public double getFireTicks() {
@@ -412,6 +424,9 @@ public class FireBlast extends FireAbility {
 
 	public void setOrigin(final Location origin) {
 		this.origin = origin;
+		if (this.projectile != null) {
+			this.projectile.setOrigin(origin);
+		}
 	}
 
 	public Vector getDirection() {
@@ -420,6 +435,9 @@ public class FireBlast extends FireAbility {
 
 	public void setDirection(final Vector direction) {
 		this.direction = direction;
+		if (this.projectile != null) {
+			this.projectile.setDirection(direction);
+		}
 	}
 
 	public static int getMaxTicks() {
@@ -435,7 +453,15 @@ public class FireBlast extends FireAbility {
 	}
 
 	public void setLocation(final Location location) {
-		this.location = location;
+		if (this.projectile != null) {
+			this.projectile.setLocation(location);
+		} else {
+			this.location = location;
+		}
+	}
+
+	public Projectile getProjectile() {
+		return this.projectile;
 	}
 
 	public boolean isFireBurst() {
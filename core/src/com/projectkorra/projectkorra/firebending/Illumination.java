@@ -20,6 +20,7 @@ import com.projectkorra.projectkorra.Element;
 import com.projectkorra.projectkorra.Element.SubElement;
 import com.projectkorra.projectkorra.ability.FireAbility;
 import com.projectkorra.projectkorra.attribute.Attribute;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.util.TempBlock;
 import org.bukkit.inventory.ItemStack;
 
@@ -80,7 +81,7 @@ public class Illumination extends FireAbility {
 		//A replacement for the canBendIgnoreBindsCooldowns. Since this is used a passive, it should not turn off when bending is toggled.
 		if (!this.bPlayer.canBind(this) || this.bPlayer.isChiBlocked() || this.bPlayer.isParalyzed()
 				|| this.bPlayer.isBloodbent() || this.bPlayer.isControlledByMetalClips()
-				|| getConfig().getStringList("Properties.DisabledWorlds").contains(player.getLocation().getWorld().getName())) {
+				|| ConfigManager.getSnapshot().isWorldDisabled(player.getWorld())) {
 			this.remove();
 			return;
 		}
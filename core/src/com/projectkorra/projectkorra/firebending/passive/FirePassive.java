@@ -12,7 +12,7 @@ import com.projectkorra.projectkorra.firebending.Illumination;
 public class FirePassive {
 
 	public static void handle(final Player player) {
-		if (Commands.isToggledForAll && ConfigManager.defaultConfig.get().getBoolean("Properties.TogglePassivesWithAllBending")) {
+		if (Commands.isToggledForAll && ConfigManager.getSnapshot().isTogglePassivesWithAllBending()) {
 			return;
 		}
 		final BendingPlayer bPlayer = BendingPlayer.getBendingPlayer(player);
@@ -21,4 +21,14 @@ public interface CanBendHook {
      */
     @NotNull
     Optional<Boolean> canBend(@NotNull BendingPlayer bPlayer, @NotNull CoreAbility ability, boolean isCheckingBind, boolean isCheckingCooldown);
+
+    /**
+     * Whether the answer of this hook only depends on the player and the name of the ability, and not on the
+     * ability instance. The answers of cacheable hooks are reused for every instance of an ability in the same tick,
+     * see {@link BendingPlayer#registerCanBendHook(org.bukkit.plugin.java.JavaPlugin, CanBendHook)}.
+     * @return True to allow caching the answers of this hook
+     */
+    default boolean isCacheable() {
+        return false;
+    }
 }
@@ -9,8 +9,14 @@ import org.bukkit.entity.Player;
 
 import com.projectkorra.projectkorra.BendingPlayer;
 import com.projectkorra.projectkorra.Element;
+import com.projectkorra.projectkorra.Manager;
 import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.CoreAbility;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.util.Leaderboard;
+import com.projectkorra.projectkorra.util.Statistic;
+import com.projectkorra.projectkorra.util.StatisticsManager;
+import com.projectkorra.projectkorra.util.StatisticsMethods;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 
 import java.util.Arrays;
@@ -26,6 +32,10 @@ public class PlaceholderAPIHook extends PlaceholderExpansion {
 
 	@Override
 	public String onPlaceholderRequest(final Player player, final String params) {
+		if (params.startsWith("top_")) {
+			return this.getTopPlaceholder(params.substring("top_".length()));
+		}
+
 		final BendingPlayer bPlayer = BendingPlayer.getBendingPlayer(player);
 		if (bPlayer == null) {
 			return "";
@@ -61,6 +71,8 @@ public class PlaceholderAPIHook extends PlaceholderExpansion {
 			return bPlayer.getElements().stream().map(item -> item.getColor() + item.getName()).collect(joining(" "));
 		} else if (params.equals("subelements")) {
 			return bPlayer.getSubElements().stream().map(item -> item.getColor() + item.getName()).collect(joining(" "));
+		} else if (params.startsWith("stat_")) {
+			return this.getStatPlaceholder(player, params.substring("stat_".length()));
 		} else if (params.startsWith("cooldown_")) {
 			String string = params.substring("cooldown_".length());
 
@@ -84,6 +96,84 @@ public class PlaceholderAPIHook extends PlaceholderExpansion {
 		return null;
 	}
 
+	/**
+	 * Parses {@code <statistic>_<ability/element/all>} of a statistic
+	 * placeholder.
+	 *
+	 * @return The ability or element, null for all, or the statistic itself
+	 *         if the object is invalid
+	 */
+	private Object getStatisticObject(final String name) {
+		if (name.equalsIgnoreCase("all")) {
+			return null;
+		}
+		final CoreAbility ability = CoreAbility.getAbility(name);
+		if (ability != null) {
+			return ability;
+		}
+		final Element element = Element.getElement(name);
+		return element != null ? element : name;
+	}
+
+	/**
+	 * Handles {@code top_<statistic>_<ability/element/all>_<rank>_<name/value>}.
+	 * Leaderboards are materialized in the background, so this never reads
+	 * the database.
+	 */
+	private String getTopPlaceholder(final String params) {
+		final String[] split = params.split("_");
+		if (split.length != 4 || !ProjectKorra.isStatisticsEnabled()) {
+			return "";
+		}
+		final Statistic statistic = Statistic.getStatistic(split[0]);
+		final Object object = this.getStatisticObject(split[1]);
+		if (statistic == null || object instanceof String) {
+			return "";
+		}
+		final int rank;
+		try {
+			rank = Integer.parseInt(split[2]);
+		} catch (final NumberFormatException e) {
+			return "";
+		}
+		if (rank < 1 || rank > ConfigManager.getConfig().getInt("Storage.Leaderboard.Size")) {
+			return "";
+		}
+
+		final List<Leaderboard.Entry> entries = Manager.getManager(StatisticsManager.class).getLeaderboard().getTop(statistic, object, rank);
+		if (entries.size() < rank) {
+			return "";
+		}
+		final Leaderboard.Entry entry = entries.get(rank - 1);
+		return split[3].equalsIgnoreCase("value") ? String.valueOf(entry.getValue()) : entry.getName();
+	}
+
+	/**
+	 * Handles {@code stat_<statistic>_<ability/element/all>} of the player.
+	 */
+	private String getStatPlaceholder(final Player player, final String params) {
+		final String[] split = params.split("_");
+		if (split.length != 2 || !ProjectKorra.isStatisticsEnabled()) {
+			return "";
+		}
+		final Statistic statistic = Statistic.getStatistic(split[0]);
+		final Object object = this.getStatisticObject(split[1]);
+		if (statistic == null || object instanceof String) {
+			return "";
+		}
+		final StatisticsManager manager = Manager.getManager(StatisticsManager.class);
+		if (!manager.isLoaded(player.getUniqueId())) {
+			return "0";
+		} else if (object == null) {
+			return String.valueOf(StatisticsMethods.getStatisticTotal(player.getUniqueId(), statistic));
+		} else if (object instanceof CoreAbility) {
+			// Don't create the key of a statistic nobody has yet
+			final int statId = manager.findId((CoreAbility) object, statistic);
+			return statId < 0 ? "0" : String.valueOf(manager.getStatisticCurrent(player.getUniqueId(), statId));
+		}
+		return String.valueOf(StatisticsMethods.getStatistic(player.getUniqueId(), object, statistic));
+	}
+
 	@Override
 	public boolean persist() {
 		return true;
@@ -112,7 +202,8 @@ public class PlaceholderAPIHook extends PlaceholderExpansion {
 	@Override
 	public List<String> getPlaceholders() {
 		return Arrays.asList("slot", "slot1", "slot2", "slot3", "slot4", "slot5", "slot6", "slot7", "slot8", "slot9",
-				"element", "elementcolor", "elements", "subelements", "cooldown_<ability>", "cooldown_slot", "cooldown_slot<1-9>", "cooldown_choose");
+				"element", "elementcolor", "elements", "subelements", "cooldown_<ability>", "cooldown_slot", "cooldown_slot<1-9>", "cooldown_choose",
+				"stat_<statistic>_<ability/element/all>", "top_<statistic>_<ability/element/all>_<rank>_name", "top_<statistic>_<ability/element/all>_<rank>_value");
 	}
 
 	public void unregister() {
@@ -2,6 +2,7 @@ package com.projectkorra.projectkorra.hooks;
 
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -10,4 +11,19 @@ import org.jetbrains.annotations.Nullable;
 public interface RegionProtectionHook {
 
     boolean isRegionProtected(@NotNull Player player, @NotNull Location location, @Nullable CoreAbility ability);
+
+    /**
+     * Whether {@link #isRegionProtected(Player, Location, CoreAbility)} returns the same result for
+     * every location in the chunk. If it does for every hook, a single result is cached for the whole
+     * chunk rather than one per block. Hooks that can't tell should return false.
+     * @param player The player being checked
+     * @param world The world of the chunk
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @param ability The ability to check
+     * @return True if the whole chunk has the same result
+     */
+    default boolean isChunkUniform(@NotNull Player player, @NotNull World world, int chunkX, int chunkZ, @Nullable CoreAbility ability) {
+        return false;
+    }
 }
@@ -1,6 +1,5 @@
 package com.projectkorra.projectkorra.object;
 
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -9,6 +8,7 @@ import org.apache.commons.lang3.builder.ToStringStyle;
 
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Entity;
@@ -22,12 +22,15 @@ import com.projectkorra.projectkorra.ability.Ability;
 import com.projectkorra.projectkorra.ability.ElementalAbility;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.event.HorizontalVelocityChangeEvent;
+import com.projectkorra.projectkorra.util.BlockShape;
 
 /**
  * Created by Carbogen on 2/2/2015.
  */
 public class HorizontalVelocityTracker {
 
+	private static final BlockShape NEARBY = BlockShape.sphere(1.5);
+
 	public static Map<Entity, HorizontalVelocityTracker> instances = new ConcurrentHashMap<Entity, HorizontalVelocityTracker>();
 	public boolean hasBeenDamaged = false;
 	public boolean barrier = ConfigManager.defaultConfig.get().getBoolean("Properties.HorizontalCollisionPhysics.DamageOnBarrierBlock");
@@ -86,19 +89,17 @@ public class HorizontalVelocityTracker {
 
 		final Vector diff = this.thisVelocity.subtract(this.lastVelocity);
 
-		final List<Block> blocks = GeneralMethods.getBlocksAroundPoint(this.entity.getLocation(), 1.5);
-
-		for (final Block b : blocks) {
-			if (ElementalAbility.isWater(b)) {
-				this.remove();
-				return;
-			}
+		final Location location = this.entity.getLocation();
+		final World world = location.getWorld();
+		if (!NEARBY.forEach(location, (x, y, z) -> !ElementalAbility.isWater(world.getBlockAt(x, y, z)))) {
+			this.remove();
+			return;
 		}
 
 		if (this.thisVelocity.length() < this.lastVelocity.length()) {
 			if ((diff.getX() > 1 || diff.getX() < -1) || (diff.getZ() > 1 || diff.getZ() < -1)) {
 				this.impactLocation = this.entity.getLocation();
-				for (final Block b : blocks) {
+				for (final Block b : NEARBY.getBlocks(location)) {
 					if (b.getType() == Material.BARRIER && !this.barrier) {
 						return;
 					}
@@ -2,7 +2,6 @@ package com.projectkorra.projectkorra.object;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -13,7 +12,6 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import com.projectkorra.projectkorra.BendingPlayer;
 import com.projectkorra.projectkorra.ProjectKorra;
@@ -80,37 +78,30 @@ public class Preset {
 	 * @param player The Player who's Presets should be loaded
 	 */
 	public static void loadPresets(final Player player) {
-		new BukkitRunnable() {
-			@Override
-			public void run() {
-				final UUID uuid = player.getUniqueId();
-				if (uuid == null) {
-					return;
-				}
-				try {
-					final PreparedStatement ps = DBConnection.sql.getConnection().prepareStatement(loadQuery);
-					ps.setString(1, uuid.toString());
-					final ResultSet rs = ps.executeQuery();
-					if (rs.next()) { // Presets exist.
-						int i = 0;
-						do {
-							final HashMap<Integer, String> moves = new HashMap<Integer, String>();
-							for (int total = 1; total <= 9; total++) {
-								final String slot = rs.getString("slot" + total);
-								if (slot != null) {
-									moves.put(total, slot);
-								}
+		final UUID uuid = player.getUniqueId();
+		if (uuid == null) {
+			return;
+		}
+		DBConnection.sql.submit(uuid, statements -> {
+			try (ResultSet rs = statements.prepare(loadQuery, uuid.toString()).executeQuery()) {
+				if (rs.next()) { // Presets exist.
+					int i = 0;
+					do {
+						final HashMap<Integer, String> moves = new HashMap<Integer, String>();
+						for (int total = 1; total <= 9; total++) {
+							final String slot = rs.getString("slot" + total);
+							if (slot != null) {
+								moves.put(total, slot);
 							}
-							new Preset(uuid, rs.getString("name"), moves);
-							i++;
-						} while (rs.next());
-						ProjectKorra.log.info("Loaded " + i + " presets for " + player.getName());
-					}
-				} catch (final SQLException ex) {
-					ex.printStackTrace();
+						}
+						new Preset(uuid, rs.getString("name"), moves);
+						i++;
+					} while (rs.next());
+					ProjectKorra.log.info("Loaded " + i + " presets for " + player.getName());
 				}
 			}
-		}.runTaskAsynchronously(ProjectKorra.plugin);
+			return null;
+		});
 	}
 
 	/**
@@ -268,24 +259,11 @@ public class Preset {
 	 */
 	public CompletableFuture<Boolean> delete() {
 		Preset instance = this;
-		CompletableFuture<Boolean> future = new CompletableFuture<>();
-		new BukkitRunnable() {
-			@Override
-			public void run() {
-				try {
-					final PreparedStatement ps = DBConnection.sql.getConnection().prepareStatement(deleteQuery);
-					ps.setString(1, uuid.toString());
-					ps.setString(2, name);
-					ps.execute();
-					presets.get(uuid).remove(instance);
-					future.complete(true);
-				} catch (final SQLException e) {
-					e.printStackTrace();
-					future.complete(false);
-				}
-			}
-		}.runTaskAsynchronously(ProjectKorra.plugin);
-		return future;
+		return DBConnection.sql.submit(uuid, statements -> {
+			statements.prepare(deleteQuery, uuid.toString(), name).execute();
+			presets.get(uuid).remove(instance);
+			return true;
+		}).exceptionally(e -> false);
 	}
 
 	/**
@@ -301,26 +279,16 @@ public class Preset {
 	 * Saves the Preset to the database async
 	 */
 	public CompletableFuture<Boolean> save(final Player player) {
-		CompletableFuture<Boolean> future = new CompletableFuture<>();
-		new BukkitRunnable() {
-			@Override
-			public void run() {
-				try {
-					PreparedStatement ps = DBConnection.sql.getConnection().prepareStatement(insertQuery);
-					ps.setString(1, uuid.toString());
-					ps.setString(2, name);
-					for (int i = 1; i <= 9; i++) {
-						ps.setString(2 + i, abilities.get(i));
-					}
-					ps.execute();
-					future.complete(true);
-				} catch (final SQLException e) {
-					e.printStackTrace();
-					future.complete(false);
-				}
+		return DBConnection.sql.submit(uuid, statements -> {
+			final PreparedStatement ps = statements.prepare(insertQuery);
+			ps.setString(1, uuid.toString());
+			ps.setString(2, name);
+			for (int i = 1; i <= 9; i++) {
+				ps.setString(2 + i, abilities.get(i));
 			}
-		}.runTaskAsynchronously(ProjectKorra.plugin);
-		return future;
+			ps.execute();
+			return true;
+		}).exceptionally(e -> false);
 	}
 
 	public HashMap<Integer, String> getAbilities() {
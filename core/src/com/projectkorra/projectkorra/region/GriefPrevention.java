@@ -3,13 +3,24 @@ package com.projectkorra.projectkorra.region;
 import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import me.ryanhamshire.GriefPrevention.Claim;
+import me.ryanhamshire.GriefPrevention.events.ClaimCreatedEvent;
+import me.ryanhamshire.GriefPrevention.events.ClaimDeletedEvent;
+import me.ryanhamshire.GriefPrevention.events.ClaimModifiedEvent;
+import me.ryanhamshire.GriefPrevention.events.TrustChangedEvent;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
 
-class GriefPrevention extends RegionProtectionBase {
+class GriefPrevention extends RegionProtectionBase implements Listener {
 
     protected GriefPrevention() {
         super("GriefPrevention");
+
+        Bukkit.getPluginManager().registerEvents(this, ProjectKorra.plugin);
     }
 
     @Override
@@ -24,4 +35,35 @@ class GriefPrevention extends RegionProtectionBase {
 
         return false;
     }
+
+    @Override
+    public boolean isChunkUniformReal(Player player, World world, int chunkX, int chunkZ, CoreAbility ability) {
+        // Outside of claims only the world rules apply, which are the same everywhere
+        for (Claim claim : me.ryanhamshire.GriefPrevention.GriefPrevention.instance.dataStore.getClaims(chunkX, chunkZ)) {
+            if (world.equals(claim.getLesserBoundaryCorner().getWorld())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onClaimCreated(ClaimCreatedEvent event) {
+        RegionProtection.invalidateAll();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onClaimDeleted(ClaimDeletedEvent event) {
+        RegionProtection.invalidateAll();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onClaimModified(ClaimModifiedEvent event) {
+        RegionProtection.invalidateAll();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTrustChanged(TrustChangedEvent event) {
+        RegionProtection.invalidateAll();
+    }
 }
@@ -9,6 +9,7 @@ import me.angeschossen.lands.api.flags.enums.RoleFlagCategory;
 import me.angeschossen.lands.api.flags.type.RoleFlag;
 import me.angeschossen.lands.api.land.Area;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
 class Lands extends RegionProtectionBase {
@@ -34,4 +35,10 @@ class Lands extends RegionProtectionBase {
 
         return false;
     }
+
+    @Override
+    public boolean isChunkUniformReal(Player player, World world, int chunkX, int chunkZ, CoreAbility ability) {
+        // Lands are claimed per chunk, and nothing is protected outside of them
+        return this.landsIntegration.getLandByChunk(world, chunkX, chunkZ) == null;
+    }
 }
@@ -0,0 +1,242 @@
+package com.projectkorra.projectkorra.region;
+
+import com.projectkorra.projectkorra.util.LongObjectHashMap;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size bounded cache of region protection results. Results are grouped by
+ * player, chunk and ability, and the groups are evicted in least recently used
+ * order once more than the maximum amount of results are cached. A group
+ * expires as a whole once it is older than the expiry time.
+ * <p>
+ * Unprotected results are cached just like protected ones. When every region
+ * hook reports that a chunk gives the same result everywhere, a single result
+ * is cached for the whole chunk instead of one per block.
+ */
+class RegionCache {
+
+    /**
+     * Nothing is cached for the chunk.
+     */
+    static final byte MISS = 0;
+    /**
+     * Nothing is cached for the block, but the chunk is known to not be uniform.
+     */
+    static final byte MISS_MIXED = 1;
+    static final byte ALLOWED = 2;
+    static final byte PROTECTED = 3;
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(256, 0.75F, true);
+    private int size;
+    private int maxSize;
+    private long expiry;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    RegionCache(int maxSize, long expiry) {
+        this.maxSize = maxSize;
+        this.expiry = expiry;
+    }
+
+    synchronized void configure(int maxSize, long expiry) {
+        this.maxSize = maxSize;
+        this.expiry = expiry;
+        this.evict();
+    }
+
+    /**
+     * @return {@link #ALLOWED} or {@link #PROTECTED} if the result is cached,
+     *         otherwise {@link #MISS} or {@link #MISS_MIXED}
+     */
+    synchronized byte get(UUID player, UUID world, long chunk, String ability, long block, long now) {
+        final Key key = new Key(player, world, chunk, ability);
+        final Entry entry = this.entries.get(key);
+        if (entry != null && now - entry.time > this.expiry) {
+            this.remove(key);
+        } else if (entry != null) {
+            final Boolean result = entry.uniform != null ? entry.uniform : entry.blocks.get(block);
+            if (result != null) {
+                this.hits.increment();
+                return result ? PROTECTED : ALLOWED;
+            }
+            this.misses.increment();
+            return MISS_MIXED;
+        }
+        this.misses.increment();
+        return MISS;
+    }
+
+    /**
+     * Caches a result.
+     *
+     * @param uniform Whether the result applies to the whole chunk
+     */
+    synchronized void put(UUID player, UUID world, long chunk, String ability, long block, boolean result, boolean uniform, long now) {
+        final Key key = new Key(player, world, chunk, ability);
+        Entry entry = this.entries.get(key);
+        if (entry != null && (uniform || now - entry.time > this.expiry)) {
+            this.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            entry = new Entry(now);
+            this.entries.put(key, entry);
+        }
+
+        final int before = entry.size();
+        if (uniform) {
+            entry.uniform = result;
+        } else {
+            entry.blocks.put(block, result);
+        }
+        this.size += entry.size() - before;
+        this.evict();
+    }
+
+    private void evict() {
+        final Iterator<Entry> iterator = this.entries.values().iterator();
+        while (this.size > this.maxSize && iterator.hasNext()) {
+            this.size -= iterator.next().size();
+            iterator.remove();
+            this.evictions.increment();
+        }
+    }
+
+    private void remove(Key key) {
+        final Entry entry = this.entries.remove(key);
+        if (entry != null) {
+            this.size -= entry.size();
+        }
+    }
+
+    /**
+     * Removes every expired result.
+     */
+    synchronized void cleanUp(long now) {
+        final Iterator<Entry> iterator = this.entries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (now - entry.time > this.expiry) {
+                this.size -= entry.size();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes the cached results of a chunk for every player.
+     */
+    synchronized void invalidate(UUID world, long chunk) {
+        final Iterator<Map.Entry<Key, Entry>> iterator = this.entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Key, Entry> entry = iterator.next();
+            if (entry.getKey().chunk == chunk && entry.getKey().world.equals(world)) {
+                this.size -= entry.getValue().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes the cached results of a world, or of a player if the UUID
+     * belongs to one.
+     */
+    synchronized void invalidate(UUID uuid) {
+        final Iterator<Map.Entry<Key, Entry>> iterator = this.entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Key, Entry> entry = iterator.next();
+            if (entry.getKey().player.equals(uuid) || entry.getKey().world.equals(uuid)) {
+                this.size -= entry.getValue().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    synchronized void invalidateAll() {
+        this.entries.clear();
+        this.size = 0;
+    }
+
+    synchronized int size() {
+        return this.size;
+    }
+
+    long getHits() {
+        return this.hits.sum();
+    }
+
+    long getMisses() {
+        return this.misses.sum();
+    }
+
+    long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    void resetMetrics() {
+        this.hits.reset();
+        this.misses.reset();
+        this.evictions.reset();
+    }
+
+    private static final class Key {
+
+        private final UUID player;
+        private final UUID world;
+        private final long chunk;
+        private final String ability;
+        private final int hash;
+
+        private Key(UUID player, UUID world, long chunk, String ability) {
+            this.player = player;
+            this.world = world;
+            this.chunk = chunk;
+            this.ability = ability;
+
+            int hash = player.hashCode();
+            hash = 31 * hash + world.hashCode();
+            hash = 31 * hash + Long.hashCode(chunk);
+            hash = 31 * hash + (ability == null ? 0 : ability.hashCode());
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            final Key key = (Key) o;
+            return this.chunk == key.chunk && this.player.equals(key.player) && this.world.equals(key.world)
+                    && (this.ability == null ? key.ability == null : this.ability.equals(key.ability));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private static final class Entry {
+
+        private final long time;
+        private final LongObjectHashMap<Boolean> blocks = new LongObjectHashMap<>();
+        private Boolean uniform;
+
+        private Entry(long time) {
+            this.time = time;
+        }
+
+        /**
+         * @return The amount of cached results, counting the chunk result as one
+         */
+        private int size() {
+            return this.blocks.size() + (this.uniform != null ? 1 : 0);
+        }
+    }
+}
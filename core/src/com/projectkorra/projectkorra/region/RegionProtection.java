@@ -2,10 +2,12 @@ package com.projectkorra.projectkorra.region;
 
 import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.CoreAbility;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.hooks.RegionProtectionHook;
-import com.projectkorra.projectkorra.util.BlockCacheElement;
+import com.projectkorra.projectkorra.util.BlockKey;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
@@ -13,9 +15,11 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
 
 public class RegionProtection {
 
@@ -47,7 +51,7 @@ public class RegionProtection {
     /**
      * Cached region protection
      */
-    private static final Map<String, Map<Block, BlockCacheElement>> BLOCK_CACHE = new ConcurrentHashMap<>();
+    private static final RegionCache CACHE = new RegionCache(50_000, 5000);
 
     /**
      * Register a new type of region protection to respect with bending.
@@ -56,6 +60,7 @@ public class RegionProtection {
      */
     public static void registerRegionProtection(@NotNull JavaPlugin plugin, @NotNull RegionProtectionHook hook) {
         PROTECTIONS.put(plugin, hook);
+        CACHE.invalidateAll();
     }
 
     /**
@@ -64,7 +69,9 @@ public class RegionProtection {
      * @param plugin The plugin
      */
     public static void unloadPlugin(JavaPlugin plugin) {
-        PROTECTIONS.remove(plugin);
+        if (PROTECTIONS.remove(plugin) != null) {
+            CACHE.invalidateAll();
+        }
     }
 
     /**
@@ -84,20 +91,106 @@ public class RegionProtection {
      * @return True if the region is protected by other plugins
      */
     public static boolean isRegionProtected(@NotNull Player player, @Nullable Location location, @Nullable CoreAbility ability) {
-        final String playerName = player.getName();
-        final Block block = location != null ? location.getBlock() : player.getLocation().getBlock();
-        final Map<Block, BlockCacheElement> blockMap = BLOCK_CACHE.computeIfAbsent(playerName, name -> new ConcurrentHashMap<>());
-
-        // Both abilities must be equal to each other to use the cache
-        if (blockMap.containsKey(block)) {
-            final BlockCacheElement elem = blockMap.get(block);
-            if ((ability == null && elem.getAbility() == null) || (elem.getAbility() != null && elem.getAbility().equals(ability))) {
-                return elem.isAllowed();
+        if (PROTECTIONS.isEmpty()) return false;
+
+        final long now = System.currentTimeMillis();
+        if (location != null && isProtected(player, location, ability, now)) return true;
+
+        return isProtected(player, player.getLocation(), ability, now);
+    }
+
+    /**
+     * Checks which of the blocks are protected by region protection plugins. Unlike checking the
+     * blocks one by one, the player's own location is only checked once, and every hook is only
+     * asked once per chunk that gives the same result everywhere.
+     * @param player The player being checked
+     * @param blocks The blocks to check
+     * @param ability The ability to check
+     * @return A bitset with the index of every protected block, in iteration order, set
+     */
+    public static BitSet getProtectedBlocks(@NotNull Player player, @NotNull Collection<Block> blocks, @Nullable CoreAbility ability) {
+        final BitSet result = new BitSet(blocks.size());
+        if (PROTECTIONS.isEmpty() || blocks.isEmpty()) return result;
+
+        final long now = System.currentTimeMillis();
+        if (isProtected(player, player.getLocation(), ability, now)) {
+            result.set(0, blocks.size());
+            return result;
+        }
+
+        int i = 0;
+        for (Block block : blocks) {
+            if (isProtected(player, block.getWorld(), block.getX(), block.getY(), block.getZ(), ability, now)) {
+                result.set(i);
+            }
+            i++;
+        }
+        return result;
+    }
+
+    /**
+     * Checks which blocks of a box are protected by region protection plugins, see
+     * {@link #getProtectedBlocks(Player, Collection, CoreAbility)}.
+     * @param player The player being checked
+     * @param world The world of the box
+     * @param min The minimum corner of the box
+     * @param max The maximum corner of the box, inclusive
+     * @param ability The ability to check
+     * @return A bitset with the index of every protected block set, see {@link #getBoxIndex(Block, Block, int, int, int)}
+     */
+    public static BitSet getProtectedBlocks(@NotNull Player player, @NotNull Block min, @NotNull Block max, @Nullable CoreAbility ability) {
+        final int sizeX = max.getX() - min.getX() + 1, sizeY = max.getY() - min.getY() + 1, sizeZ = max.getZ() - min.getZ() + 1;
+        final BitSet result = new BitSet(Math.max(0, sizeX * sizeY * sizeZ));
+        if (PROTECTIONS.isEmpty() || sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) return result;
+
+        final long now = System.currentTimeMillis();
+        if (isProtected(player, player.getLocation(), ability, now)) {
+            result.set(0, sizeX * sizeY * sizeZ);
+            return result;
+        }
+
+        final World world = min.getWorld();
+        for (int y = min.getY(); y <= max.getY(); y++) {
+            for (int z = min.getZ(); z <= max.getZ(); z++) {
+                for (int x = min.getX(); x <= max.getX(); x++) {
+                    if (isProtected(player, world, x, y, z, ability, now)) {
+                        result.set(getBoxIndex(min, max, x, y, z));
+                    }
+                }
             }
         }
+        return result;
+    }
+
+    /**
+     * @return The index of a block in the bitset of {@link #getProtectedBlocks(Player, Block, Block, CoreAbility)}
+     */
+    public static int getBoxIndex(@NotNull Block min, @NotNull Block max, int x, int y, int z) {
+        final int sizeX = max.getX() - min.getX() + 1, sizeZ = max.getZ() - min.getZ() + 1;
+        return ((y - min.getY()) * sizeZ + (z - min.getZ())) * sizeX + (x - min.getX());
+    }
 
-        final boolean value = isRegionProtectedCached(player, location, ability);
-        blockMap.put(block, new BlockCacheElement(player, block, ability, value, System.currentTimeMillis()));
+    private static boolean isProtected(Player player, Location location, CoreAbility ability, long now) {
+        return isProtected(player, location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ(), ability, now);
+    }
+
+    /**
+     * Checks a single block, using the cache when possible. Results are
+     * cached by the name of the ability rather than the instance, so every
+     * instance of an ability shares them.
+     */
+    private static boolean isProtected(Player player, World world, int x, int y, int z, CoreAbility ability, long now) {
+        final long chunk = BlockKey.chunk(x >> 4, z >> 4);
+        final long block = BlockKey.of(x, y, z);
+        final String name = ability == null ? null : ability.getName();
+
+        final byte cached = CACHE.get(player.getUniqueId(), world.getUID(), chunk, name, block, now);
+        if (cached == RegionCache.PROTECTED) return true;
+        if (cached == RegionCache.ALLOWED) return false;
+
+        final boolean uniform = cached == RegionCache.MISS && isChunkUniform(player, world, x >> 4, z >> 4, ability);
+        final boolean value = checkAll(player, new Location(world, x, y, z), ability);
+        CACHE.put(player.getUniqueId(), world.getUID(), chunk, name, block, value, uniform, now);
         return value;
     }
     
@@ -166,28 +259,90 @@ public class RegionProtection {
         return false;
     }
 
+    /**
+     * Whether every active region protection gives the same result everywhere
+     * in the chunk, so that a single result can be cached for all of it.
+     */
+    private static boolean isChunkUniform(Player player, World world, int chunkX, int chunkZ, CoreAbility ability) {
+        for (RegionProtectionHook protection : RegionProtection.getActiveProtections().values()) {
+            try {
+                if (!protection.isChunkUniform(player, world, chunkX, chunkZ, ability)) {
+                    return false;
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the cached results of a chunk. To be called when the regions
+     * in the chunk change.
+     * @param world The world of the chunk
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     */
+    public static void invalidate(@NotNull World world, int chunkX, int chunkZ) {
+        CACHE.invalidate(world.getUID(), BlockKey.chunk(chunkX, chunkZ));
+    }
+
+    /**
+     * Removes the cached results of a world. To be called when the regions
+     * or the region settings of the world change.
+     * @param world The world
+     */
+    public static void invalidate(@NotNull World world) {
+        CACHE.invalidate(world.getUID());
+    }
+
+    /**
+     * Removes the cached results of a player. To be called when the player
+     * is added to or removed from a region.
+     * @param player The UUID of the player
+     */
+    public static void invalidate(@NotNull UUID player) {
+        CACHE.invalidate(player);
+    }
+
+    /**
+     * Removes every cached result.
+     */
+    public static void invalidateAll() {
+        CACHE.invalidateAll();
+    }
+
+    /**
+     * @return The amount of results, or whole chunks, currently cached
+     */
+    public static int getCacheSize() {
+        return CACHE.size();
+    }
+
+    public static long getCacheHits() {
+        return CACHE.getHits();
+    }
+
+    public static long getCacheMisses() {
+        return CACHE.getMisses();
+    }
+
+    public static long getCacheEvictions() {
+        return CACHE.getEvictions();
+    }
+
+    public static void resetCacheMetrics() {
+        CACHE.resetMetrics();
+    }
+
     /**
      * Internal use only!
      * @param period The time, in milliseconds, to clean the cache
      */
     public static void startCleanCacheTask(double period) {
-        Bukkit.getScheduler().runTaskTimer(ProjectKorra.plugin, () -> {
-            final long currentTime = System.currentTimeMillis();
-            for (final String playerName : BLOCK_CACHE.keySet()) {
-                final Map<Block, BlockCacheElement> map = BLOCK_CACHE.get(playerName);
-                for (final Block key : map.keySet()) {
-                    final BlockCacheElement value = map.get(key);
-
-                    if (currentTime - value.getTime() > period) {
-                        map.remove(key);
-                    }
-                }
-                if (map.size() == 0) {
-                    BLOCK_CACHE.remove(playerName);
-                }
-
-            }
-        }, 0, (long) (period / 50));
+        CACHE.configure(ConfigManager.getConfig().getInt("Properties.RegionProtection.CacheSize"), (long) period);
+        Bukkit.getScheduler().runTaskTimer(ProjectKorra.plugin, () -> CACHE.cleanUp(System.currentTimeMillis()), 0, Math.max(1, (long) (period / 50)));
     }
 
     private static boolean enabled(String plugin) {
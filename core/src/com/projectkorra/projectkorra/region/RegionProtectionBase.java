@@ -5,6 +5,7 @@ import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.hooks.RegionProtectionHook;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
@@ -54,5 +55,24 @@ public abstract class RegionProtectionBase implements RegionProtectionHook {
         return false;
     }
 
+    @Override
+    public final boolean isChunkUniform(@NotNull Player player, @NotNull World world, int chunkX, int chunkZ, @Nullable CoreAbility ability) {
+        if (!ConfigManager.defaultConfig.get().getBoolean("Properties.RegionProtection." + path)) {
+            return true;
+        }
+        if ((ability == null || ability.isHarmlessAbility()) && ConfigManager.defaultConfig.get().getBoolean("Properties.RegionProtection.AllowHarmlessAbilities")) {
+            return true;
+        }
+        return isChunkUniformReal(player, world, chunkX, chunkZ, ability);
+    }
+
+    /**
+     * Whether the protection gives the same result everywhere in the chunk. Only hooks that can
+     * answer this cheaply should override it.
+     */
+    public boolean isChunkUniformReal(Player player, World world, int chunkX, int chunkZ, CoreAbility ability) {
+        return false;
+    }
+
     public abstract boolean isRegionProtectedReal(Player player, Location location, CoreAbility ability, boolean igniteAbility, boolean explosiveAbility);
 }
@@ -1,16 +1,28 @@
 package com.projectkorra.projectkorra.region;
 
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.event.TownBlockSettingsChangedEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.town.TownUnclaimEvent;
 import com.palmergames.bukkit.towny.object.TownyPermission;
 import com.palmergames.bukkit.towny.utils.PlayerCacheUtil;
+import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.CoreAbility;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
 
-class Towny extends RegionProtectionBase {
+class Towny extends RegionProtectionBase implements Listener {
 
     protected Towny() {
         super("Towny");
+
+        Bukkit.getPluginManager().registerEvents(this, ProjectKorra.plugin);
     }
 
     @Override
@@ -21,4 +33,25 @@ class Towny extends RegionProtectionBase {
 
         return false;
     }
+
+    @Override
+    public boolean isChunkUniformReal(Player player, World world, int chunkX, int chunkZ, CoreAbility ability) {
+        // Town blocks are aligned to their size, so a chunk never spans two of them if the size is a multiple of 16
+        return TownySettings.getTownBlockSize() % 16 == 0;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTownClaim(TownClaimEvent event) {
+        RegionProtection.invalidateAll();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownUnclaim(TownUnclaimEvent event) {
+        RegionProtection.invalidateAll();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownBlockSettingsChanged(TownBlockSettingsChangedEvent event) {
+        RegionProtection.invalidateAll();
+    }
 }
@@ -2,15 +2,31 @@ package com.projectkorra.projectkorra.region;
 
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.util.Location;
 import com.sk89q.worldguard.bukkit.WorldGuardPlugin;
 import com.sk89q.worldguard.protection.flags.Flags;
 import com.sk89q.worldguard.protection.flags.StateFlag;
+import com.sk89q.worldguard.protection.managers.RegionManager;
+import com.sk89q.worldguard.protection.regions.GlobalProtectedRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 
+import java.util.Arrays;
+
 class WorldGuard extends RegionProtectionBase {
 
+    /**
+     * Lower and upper bound of the chunk column that is checked for regions. Covers every world
+     * height a server can be configured with, including worlds below y=0.
+     */
+    private static final int MIN_Y = -2048;
+    private static final int MAX_Y = 4096;
+
+    private static final ThreadLocal<ChunkRegion> CHUNK = ThreadLocal.withInitial(ChunkRegion::new);
+
     protected WorldGuard() {
         super("WorldGuard");
     }
@@ -57,4 +73,35 @@ class WorldGuard extends RegionProtectionBase {
 
         return false;
     }
+
+    @Override
+    public boolean isChunkUniformReal(Player player, World world, int chunkX, int chunkZ, CoreAbility ability) {
+        final RegionManager regions = com.sk89q.worldguard.WorldGuard.getInstance().getPlatform().getRegionContainer().get(BukkitAdapter.adapt(world));
+        if (regions == null) return true;
+
+        // Only the global region and the global settings apply if no region touches the chunk
+        final ChunkRegion chunk = CHUNK.get();
+        chunk.moveTo(chunkX, chunkZ);
+        for (ProtectedRegion region : regions.getApplicableRegions(chunk)) {
+            if (!(region instanceof GlobalProtectedRegion)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A cuboid spanning a whole chunk column, moved to the chunk that is checked instead of
+     * creating a new region for every check.
+     */
+    private static final class ChunkRegion extends ProtectedCuboidRegion {
+
+        private ChunkRegion() {
+            super("__projectkorra_chunk__", BlockVector3.at(0, MIN_Y, 0), BlockVector3.at(15, MAX_Y, 15));
+        }
+
+        private void moveTo(int chunkX, int chunkZ) {
+            this.setMinMaxPoints(Arrays.asList(BlockVector3.at(chunkX << 4, MIN_Y, chunkZ << 4), BlockVector3.at((chunkX << 4) + 15, MAX_Y, (chunkZ << 4) + 15)));
+        }
+    }
 }
@@ -13,6 +13,7 @@ import com.projectkorra.projectkorra.configuration.ConfigManager;
 public class DBConnection {
 
 	public static Database sql;
+	private static final PlayerWriteQueue WRITE_QUEUE = new PlayerWriteQueue();
 
 	private static String host;
 	private static int port;
@@ -30,6 +31,7 @@ public class DBConnection {
 
 		if (ProjectKorra.plugin.getConfig().getString("Storage.engine").equalsIgnoreCase("mysql")) {
 			sql = new MySQL(ProjectKorra.log, host, port, user, pass, db);
+			configurePool();
 			if (((MySQL) sql).open() == null) {
 				ProjectKorra.log.severe("Disabling due to database error");
 				GeneralMethods.stopPlugin();
@@ -77,6 +79,7 @@ public class DBConnection {
 			}
 		} else {
 			sql = new SQLite(ProjectKorra.log, "projectkorra.db", ProjectKorra.plugin.getDataFolder().getAbsolutePath());
+			configurePool();
 			if (((SQLite) sql).open() == null) {
 				ProjectKorra.log.severe("Disabling due to database error");
 				GeneralMethods.stopPlugin();
@@ -123,6 +126,28 @@ public class DBConnection {
 				sql.modifyQuery(query, false);
 			}
 		}
+
+		WRITE_QUEUE.start(Math.max(1, ConfigManager.getConfig().getLong("Storage.WriteBehind.Interval") / 50));
+	}
+
+	/**
+	 * Writes everything in the write queue, then closes the database once
+	 * the queued queries have finished.
+	 */
+	public static void close() {
+		WRITE_QUEUE.stop();
+		sql.close();
+	}
+
+	/**
+	 * @return The write-behind queue for player data
+	 */
+	public static PlayerWriteQueue getWriteQueue() {
+		return WRITE_QUEUE;
+	}
+
+	private static void configurePool() {
+		sql.setPoolOptions(ConfigManager.getConfig().getInt("Storage.Pool.Workers"), ConfigManager.getConfig().getInt("Storage.Pool.QueueCapacity"), ConfigManager.getConfig().getInt("Storage.Pool.StatementCacheSize"));
 	}
 
 	/**
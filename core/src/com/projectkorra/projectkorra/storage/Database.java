@@ -5,17 +5,74 @@ import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 
-import org.bukkit.scheduler.BukkitRunnable;
-
-import com.projectkorra.projectkorra.ProjectKorra;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
 
+/**
+ * Base class of the storage backends. Queries which modify data are run on a
+ * fixed amount of worker threads, each with its own Connection and cache of
+ * PreparedStatements. Backends that only allow a single writer, like SQLite,
+ * get one worker that shares the main Connection.
+ * <p>
+ * Every worker runs its queries in the order they were submitted. Queries
+ * submitted with a key, e.g. the UUID of a player, always go to the same
+ * worker, so writes of the same row commit in order.
+ * <p>
+ * When the queue of a worker is full, further queries of that worker are
+ * kept in a spill list and moved to the queue as it drains, so a stalled
+ * database never runs queries on the calling thread, which is usually the
+ * main thread.
+ */
 public abstract class Database {
 
+	private static final AtomicInteger WORKER_IDS = new AtomicInteger();
+	/**
+	 * The sizes IN (...) lists are padded to, so only a handful of statements
+	 * end up in the statement cache.
+	 */
+	private static final int[] IN_SIZES = { 1, 4, 16, 64 };
+
 	protected final Logger log;
 	protected final String dbprefix;
 	protected Connection connection = null;
+	/**
+	 * True from {@link #close()} until the Database is opened again. Queries
+	 * submitted in between are rejected.
+	 */
+	protected volatile boolean closed = false;
+
+	private final Object lock = new Object();
+	private final Set<StatementCache> workerStatements = ConcurrentHashMap.newKeySet();
+	private StatementCache statements;
+	private Lane[] lanes;
+	private final AtomicInteger nextLane = new AtomicInteger();
+	private int workers = 4;
+	private int queueCapacity = 10000;
+	private int statementCacheSize = 64;
+
+	private final LongAdder submitted = new LongAdder();
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder spilled = new LongAdder();
+	private final LongAdder latencyNanos = new LongAdder();
+	private final LongAdder executionNanos = new LongAdder();
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
 
 	public Database(final Logger log, final String dbprefix) {
 		this.log = log;
@@ -63,9 +120,56 @@ public abstract class Database {
 	abstract Connection open();
 
 	/**
-	 * Close connection to Database.
+	 * Creates a new Connection to the Database without replacing the main
+	 * Connection. Used by the worker threads.
+	 *
+	 * @return The new Connection
+	 */
+	protected abstract Connection createConnection() throws SQLException, ClassNotFoundException;
+
+	/**
+	 * @return true if the Database only supports a single writer, in which
+	 *         case every write goes through the main Connection
+	 */
+	protected boolean isSingleWriter() {
+		return false;
+	}
+
+	/**
+	 * Sets the options of the worker pool. Takes effect the next time the
+	 * pool is started, which is after the Database has been closed.
+	 *
+	 * @param workers The amount of worker threads and connections
+	 * @param queueCapacity The max amount of queued queries over all workers,
+	 *            before further queries are spilled
+	 * @param statementCacheSize The max amount of cached statements per
+	 *            Connection
+	 */
+	public void setPoolOptions(final int workers, final int queueCapacity, final int statementCacheSize) {
+		this.workers = Math.max(1, workers);
+		this.queueCapacity = Math.max(1, queueCapacity);
+		this.statementCacheSize = Math.max(1, statementCacheSize);
+	}
+
+	/**
+	 * Close connection to Database. Waits for the queued queries to finish
+	 * first. Queries submitted after this are rejected until the Database is
+	 * opened again.
 	 */
 	public void close() {
+		this.closed = true;
+		this.shutdownExecutor();
+		for (final StatementCache cache : this.workerStatements) {
+			closeQuietly(cache);
+		}
+		this.workerStatements.clear();
+		synchronized (this.lock) {
+			if (this.statements != null) {
+				this.statements.clear();
+				this.statements = null;
+			}
+		}
+
 		if (this.connection != null) {
 			try {
 				this.connection.setAutoCommit(false);
@@ -97,32 +201,162 @@ public abstract class Database {
 	 */
 	public void modifyQuery(final String query, final boolean async) {
 		if (async) {
-			new BukkitRunnable() {
-				@Override
-				public void run() {
-					Database.this.doQuery(query);
+			this.submit(statements -> {
+				try (PreparedStatement stmt = statements.getConnection().prepareStatement(query)) {
+					stmt.execute();
 				}
-			}.runTaskAsynchronously(ProjectKorra.plugin);
+				return null;
+			});
 		} else {
 			this.doQuery(query);
 		}
 	}
 
 	/**
-	 * Queries the Database, for queries which return results.
+	 * Runs a cached PreparedStatement which modifies data on the worker pool.
+	 *
+	 * @param statement The SQL of the statement, using ? for parameters
+	 * @param params The parameters to bind, in order
+	 * @return A future with the update count of the statement
+	 */
+	public CompletableFuture<Integer> modifyStatement(final String statement, final Object... params) {
+		return this.submit(statements -> statements.prepare(statement, params).executeUpdate());
+	}
+
+	/**
+	 * Runs the task on the worker pool. Errors are printed and complete the
+	 * returned future exceptionally, as does closing the Database before the
+	 * task ran.
+	 *
+	 * @param task The task to run
+	 * @return A future with the result of the task
+	 */
+	public <T> CompletableFuture<T> submit(final Task<T> task) {
+		if (this.closed) {
+			return this.reject();
+		}
+		final Lane[] lanes = this.getLanes();
+		return this.submit(lanes[Math.floorMod(this.nextLane.getAndIncrement(), lanes.length)], task);
+	}
+
+	/**
+	 * Runs the task on the worker of the key. Tasks with the same key run one
+	 * after another, in the order they were submitted. Errors are printed and
+	 * complete the returned future exceptionally.
+	 *
+	 * @param key The key of the rows the task modifies, e.g. the UUID of a
+	 *            player
+	 * @param task The task to run
+	 * @return A future with the result of the task
+	 */
+	public <T> CompletableFuture<T> submit(final Object key, final Task<T> task) {
+		if (this.closed) {
+			return this.reject();
+		}
+		final Lane[] lanes = this.getLanes();
+		return this.submit(lanes[Math.floorMod(key.hashCode(), lanes.length)], task);
+	}
+
+	private <T> CompletableFuture<T> submit(final Lane lane, final Task<T> task) {
+		final Query<T> query = new Query<>(task);
+		this.submitted.increment();
+		lane.execute(query);
+		return query.future;
+	}
+
+	private <T> CompletableFuture<T> reject() {
+		this.failed.increment();
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		future.completeExceptionally(new SQLException("The Database is closed."));
+		return future;
+	}
+
+	/**
+	 * Runs the task on the calling thread. Worker threads use their own
+	 * Connection, every other thread shares the main Connection.
+	 *
+	 * @param task The task to run
+	 * @return The result of the task
+	 */
+	public <T> T execute(final Task<T> task) throws SQLException {
+		final Thread thread = Thread.currentThread();
+		if (thread instanceof Worker && ((Worker) thread).getDatabase() == this && !this.isSingleWriter()) {
+			final Worker worker = (Worker) thread;
+			try {
+				return task.execute(worker.getStatements());
+			} catch (final SQLException e) {
+				worker.checkConnection();
+				throw e;
+			}
+		}
+
+		synchronized (this.lock) {
+			return task.execute(this.getStatements());
+		}
+	}
+
+	/**
+	 * Runs the task in a transaction on the calling thread, see
+	 * {@link #execute(Task)}. The transaction is rolled back if the task
+	 * fails.
+	 *
+	 * @param task The task to run
+	 * @return The result of the task
+	 */
+	public <T> T executeTransaction(final Task<T> task) throws SQLException {
+		return this.execute(statements -> {
+			final Connection connection = statements.getConnection();
+			final boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try {
+				final T result = task.execute(statements);
+				connection.commit();
+				return result;
+			} catch (final SQLException | RuntimeException e) {
+				try {
+					connection.rollback();
+				} catch (final SQLException rollback) {
+					e.addSuppressed(rollback);
+				}
+				throw e;
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		});
+	}
+
+	/**
+	 * Runs the task in a transaction on the worker of the key, see
+	 * {@link #submit(Object, Task)} and {@link #executeTransaction(Task)}.
+	 *
+	 * @param key The key of the rows the task modifies
+	 * @param task The task to run
+	 * @return A future with the result of the task
+	 */
+	public <T> CompletableFuture<T> submitTransaction(final Object key, final Task<T> task) {
+		return this.submit(key, statements -> this.executeTransaction(task));
+	}
+
+	/**
+	 * Queries the Database, for queries which return results. The rows are
+	 * read into memory while holding the lock of the main Connection, so the
+	 * returned set can be used while other threads use the Connection.
 	 *
 	 * @param query Query to run
 	 * @return Result set of ran query
 	 */
 	public ResultSet readQuery(final String query) {
 		try {
-			if (this.connection == null || this.connection.isClosed()) {
-				this.open();
+			synchronized (this.lock) {
+				if (this.connection == null || this.connection.isClosed()) {
+					this.open();
+				}
+				try (PreparedStatement stmt = this.connection.prepareStatement(query); ResultSet rs = stmt.executeQuery()) {
+					final CachedRowSet rows = RowSetProvider.newFactory().createCachedRowSet();
+					rows.populate(rs);
+					return rows;
+				}
 			}
-			final PreparedStatement stmt = this.connection.prepareStatement(query);
-			final ResultSet rs = stmt.executeQuery();
-
-			return rs;
 		} catch (final SQLException e) {
 			e.printStackTrace();
 			return null;
@@ -137,13 +371,15 @@ public abstract class Database {
 	 */
 	public boolean tableExists(final String table) {
 		try {
-			if (this.connection == null || this.connection.isClosed()) {
-				this.open();
+			synchronized (this.lock) {
+				if (this.connection == null || this.connection.isClosed()) {
+					this.open();
+				}
+				final DatabaseMetaData dmd = this.connection.getMetaData();
+				try (ResultSet rs = dmd.getTables(null, null, table, null)) {
+					return rs.next();
+				}
 			}
-			final DatabaseMetaData dmd = this.connection.getMetaData();
-			final ResultSet rs = dmd.getTables(null, null, table, null);
-
-			return rs.next();
 		} catch (final Exception e) {
 			e.printStackTrace();
 			return false;
@@ -159,29 +395,405 @@ public abstract class Database {
 	 */
 	public boolean columnExists(final String table, final String column) {
 		try {
-			if (this.connection == null || this.connection.isClosed()) {
-				this.open();
+			synchronized (this.lock) {
+				if (this.connection == null || this.connection.isClosed()) {
+					this.open();
+				}
+				final DatabaseMetaData dmd = this.connection.getMetaData();
+				try (ResultSet rs = dmd.getColumns(null, null, table, column)) {
+					return rs.next();
+				}
 			}
-			final DatabaseMetaData dmd = this.connection.getMetaData();
-			final ResultSet rs = dmd.getColumns(null, null, table, column);
-			return rs.next();
 		} catch (final Exception e) {
 			e.printStackTrace();
 			return false;
 		}
 	}
 
-	private synchronized void doQuery(final String query) {
-		try {
-			if (this.connection == null || this.connection.isClosed()) {
-				this.open();
+	/**
+	 * Runs a query for every key in the collection on the calling thread,
+	 * using as few {@code IN (...)} queries as possible, and passes every
+	 * resulting row to the handler.
+	 *
+	 * @param select The query up to the IN list, e.g.
+	 *            {@code SELECT * FROM pk_players WHERE uuid IN }
+	 * @param keys The keys to look up, bound with {@code setObject}
+	 * @param handler Receives every row, positioned on that row
+	 */
+	public void selectIn(final String select, final Collection<?> keys, final RowHandler handler) throws SQLException {
+		if (keys.isEmpty()) {
+			return;
+		}
+		final List<?> list = new ArrayList<>(keys);
+		final int max = IN_SIZES[IN_SIZES.length - 1];
+		this.execute(statements -> {
+			for (int start = 0; start < list.size(); start += max) {
+				final int count = Math.min(max, list.size() - start);
+				int size = max;
+				for (final int candidate : IN_SIZES) {
+					if (candidate >= count) {
+						size = candidate;
+						break;
+					}
+				}
+
+				final StringBuilder sql = new StringBuilder(select).append('(');
+				for (int i = 0; i < size; i++) {
+					sql.append(i == 0 ? "?" : ", ?");
+				}
+				sql.append(')');
+
+				final PreparedStatement statement = statements.prepare(sql.toString());
+				for (int i = 0; i < size; i++) {
+					// Pad with the first key, duplicates in an IN list are harmless.
+					statement.setObject(i + 1, list.get(start + (i < count ? i : 0)));
+				}
+				try (ResultSet rs = statement.executeQuery()) {
+					while (rs.next()) {
+						handler.accept(rs);
+					}
+				}
 			}
-			final PreparedStatement stmt = this.connection.prepareStatement(query);
-			stmt.execute();
-			stmt.close();
+			return null;
+		});
+	}
+
+	private void doQuery(final String query) {
+		try {
+			this.execute(statements -> {
+				try (PreparedStatement stmt = statements.getConnection().prepareStatement(query)) {
+					stmt.execute();
+				}
+				return null;
+			});
 		} catch (final SQLException e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * @return The statement cache of the main Connection. Must be called while
+	 *         holding the lock.
+	 */
+	private StatementCache getStatements() throws SQLException {
+		if (this.connection == null || this.connection.isClosed()) {
+			this.open();
+			if (this.connection == null) {
+				throw new SQLException(this.dbprefix + "No connection available.");
+			}
+		}
+		if (this.statements == null || this.statements.getConnection() != this.connection) {
+			if (this.statements != null) {
+				this.statements.clear();
+			}
+			this.statements = new StatementCache(this.connection, this.statementCacheSize);
+		}
+		return this.statements;
+	}
+
+	private synchronized Lane[] getLanes() {
+		if (this.lanes == null) {
+			final Lane[] lanes = new Lane[this.isSingleWriter() ? 1 : this.workers];
+			for (int i = 0; i < lanes.length; i++) {
+				lanes[i] = new Lane(Math.max(1, this.queueCapacity / lanes.length));
+			}
+			this.lanes = lanes;
+		}
+		return this.lanes;
+	}
+
+	private synchronized void shutdownExecutor() {
+		if (this.lanes == null) {
+			return;
+		}
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		for (final Lane lane : this.lanes) {
+			lane.shutdown();
+		}
+		try {
+			for (final Lane lane : this.lanes) {
+				if (!lane.executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+					this.printErr("Timed out with " + lane.size() + " queries left in the queue.", true);
+					drop(lane.executor.shutdownNow());
+					drop(lane.drainRemaining());
+				}
+				for (final Runnable runnable : lane.drainRemaining()) {
+					runnable.run();
+				}
+			}
+		} catch (final InterruptedException e) {
+			for (final Lane lane : this.lanes) {
+				drop(lane.executor.shutdownNow());
+				drop(lane.drainRemaining());
+			}
+			Thread.currentThread().interrupt();
+		}
+		this.lanes = null;
+	}
+
+	/**
+	 * Completes the futures of queries that will never run exceptionally, so
+	 * nobody waits for them forever.
+	 */
+	private static void drop(final List<Runnable> runnables) {
+		for (final Runnable runnable : runnables) {
+			if (runnable instanceof Query) {
+				((Query<?>) runnable).drop();
+			}
+		}
+	}
+
+	private static void closeQuietly(final StatementCache cache) {
+		cache.clear();
+		try {
+			cache.getConnection().close();
+		} catch (final SQLException ignored) {}
+	}
+
+	/**
+	 * @return The amount of queries waiting for a worker, including spilled
+	 *         queries
+	 */
+	public int getQueueSize() {
+		final Lane[] lanes = this.lanes;
+		int size = 0;
+		if (lanes != null) {
+			for (final Lane lane : lanes) {
+				size += lane.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @return The amount of queries being run by the workers right now
+	 */
+	public int getActiveCount() {
+		final Lane[] lanes = this.lanes;
+		int active = 0;
+		if (lanes != null) {
+			for (final Lane lane : lanes) {
+				active += lane.executor.getActiveCount();
+			}
+		}
+		return active;
+	}
+
+	public long getSubmittedCount() {
+		return this.submitted.sum();
+	}
+
+	public long getCompletedCount() {
+		return this.completed.sum();
+	}
+
+	public long getFailedCount() {
+		return this.failed.sum();
+	}
+
+	/**
+	 * @return The amount of queries that were spilled because the queue of
+	 *         their worker was full
+	 */
+	public long getSpilledCount() {
+		return this.spilled.sum();
+	}
+
+	/**
+	 * @return The average time from submitting a query until it finished, in
+	 *         nanoseconds
+	 */
+	public double getAverageLatencyNanos() {
+		final long finished = this.completed.sum() + this.failed.sum();
+		return finished == 0 ? 0 : (double) this.latencyNanos.sum() / finished;
+	}
+
+	/**
+	 * @return The average time spent running a query, in nanoseconds
+	 */
+	public double getAverageExecutionNanos() {
+		final long finished = this.completed.sum() + this.failed.sum();
+		return finished == 0 ? 0 : (double) this.executionNanos.sum() / finished;
+	}
+
+	public long getMaxLatencyNanos() {
+		return this.maxLatencyNanos.get();
+	}
+
+	public void resetMetrics() {
+		this.submitted.reset();
+		this.completed.reset();
+		this.failed.reset();
+		this.spilled.reset();
+		this.latencyNanos.reset();
+		this.executionNanos.reset();
+		this.maxLatencyNanos.set(0);
+	}
+
+	/**
+	 * A unit of database work that is given the statement cache of the
+	 * Connection it runs on.
+	 */
+	@FunctionalInterface
+	public interface Task<T> {
+		T execute(StatementCache statements) throws SQLException;
+	}
+
+	@FunctionalInterface
+	public interface RowHandler {
+		void accept(ResultSet rs) throws SQLException;
+	}
+
+	/**
+	 * A single worker thread with its own queue. Queries that don't fit into
+	 * the queue are kept in the spill list, and moved to the queue whenever
+	 * the worker finished a query.
+	 */
+	/**
+	 * A submitted task and the future of its result.
+	 */
+	private class Query<T> implements Runnable {
+
+		private final Task<T> task;
+		private final CompletableFuture<T> future = new CompletableFuture<>();
+		private final long queued = System.nanoTime();
+
+		private Query(final Task<T> task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			final long start = System.nanoTime();
+			try {
+				this.future.complete(Database.this.execute(this.task));
+				Database.this.completed.increment();
+			} catch (final Throwable e) {
+				Database.this.failed.increment();
+				e.printStackTrace();
+				this.future.completeExceptionally(e);
+			} finally {
+				final long end = System.nanoTime();
+				Database.this.executionNanos.add(end - start);
+				Database.this.latencyNanos.add(end - this.queued);
+				Database.this.maxLatencyNanos.accumulateAndGet(end - this.queued, Math::max);
+			}
+		}
+
+		private void drop() {
+			Database.this.failed.increment();
+			this.future.completeExceptionally(new SQLException("The Database was closed before the query ran."));
+		}
+	}
+
+	private class Lane {
+
+		private final ThreadPoolExecutor executor;
+		private final ArrayDeque<Runnable> spill = new ArrayDeque<>();
+
+		private Lane(final int capacity) {
+			this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(capacity), runnable -> new Worker(Database.this, runnable)) {
+				@Override
+				protected void afterExecute(final Runnable runnable, final Throwable throwable) {
+					Lane.this.drainSpill();
+				}
+			};
+		}
+
+		private void execute(final Runnable runnable) {
+			synchronized (this) {
+				if (this.spill.isEmpty()) {
+					try {
+						this.executor.execute(runnable);
+						return;
+					} catch (final RejectedExecutionException e) {
+						// Queue full, spilled below
+					}
+				}
+				if (!this.executor.isShutdown()) {
+					this.spill.add(runnable);
+					Database.this.spilled.increment();
+					return;
+				}
+			}
+			// The Database is closing, run the query on the main Connection
+			runnable.run();
+		}
+
+		private synchronized void drainSpill() {
+			while (!this.spill.isEmpty() && this.executor.getQueue().offer(this.spill.peek())) {
+				this.spill.poll();
+			}
+		}
+
+		/**
+		 * Stops accepting queries. Spilled queries are still moved to the
+		 * queue whenever the worker finished a query, so they run before the
+		 * worker stops.
+		 */
+		private synchronized void shutdown() {
+			this.executor.shutdown();
+		}
+
+		/**
+		 * @return The spilled queries that didn't make it to the queue, e.g.
+		 *         because the worker died
+		 */
+		private synchronized List<Runnable> drainRemaining() {
+			final List<Runnable> remaining = new ArrayList<>(this.spill);
+			this.spill.clear();
+			return remaining;
+		}
+
+		private synchronized int size() {
+			return this.executor.getQueue().size() + this.spill.size();
+		}
+	}
+
+	private static class Worker extends Thread {
+
+		private final Database database;
+		private StatementCache statements;
+
+		private Worker(final Database database, final Runnable runnable) {
+			super(runnable, "ProjectKorra Database Worker #" + WORKER_IDS.incrementAndGet());
+			this.database = database;
+			this.setDaemon(true);
+		}
+
+		private Database getDatabase() {
+			return this.database;
+		}
+
+		private StatementCache getStatements() throws SQLException {
+			if (this.statements == null || this.statements.getConnection().isClosed()) {
+				if (this.statements != null) {
+					this.database.workerStatements.remove(this.statements);
+					this.statements.clear();
+				}
+				try {
+					this.statements = new StatementCache(this.database.createConnection(), this.database.statementCacheSize);
+				} catch (final ClassNotFoundException e) {
+					throw new SQLException(this.database.dbprefix + "JDBC driver not found!", e);
+				}
+				this.database.workerStatements.add(this.statements);
+			}
+			return this.statements;
+		}
+
+		/**
+		 * Drops the Connection of this worker if it is no longer valid, so a
+		 * new one is opened for the next query.
+		 */
+		private void checkConnection() {
+			try {
+				if (this.statements != null && !this.statements.getConnection().isValid(2)) {
+					this.database.workerStatements.remove(this.statements);
+					closeQuietly(this.statements);
+					this.statements = null;
+				}
+			} catch (final SQLException ignored) {}
+		}
+	}
+
 }
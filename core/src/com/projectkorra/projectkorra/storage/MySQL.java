@@ -34,10 +34,8 @@ public class MySQL extends Database {
 		try {
 			this.log.info("Establishing MySQL Connection...");
 
-			Class.forName("com.mysql.jdbc.Driver");
-			final String url = "jdbc:mysql://" + this.host + ":" + this.port + "/" + this.database;
-
-			this.connection = DriverManager.getConnection(url, this.user, this.pass);
+			this.connection = this.createConnection();
+			this.closed = false;
 			this.printInfo("Connection established!");
 
 			return this.connection;
@@ -51,4 +49,12 @@ public class MySQL extends Database {
 		}
 	}
 
+	@Override
+	protected Connection createConnection() throws SQLException, ClassNotFoundException {
+		Class.forName("com.mysql.jdbc.Driver");
+		final String url = "jdbc:mysql://" + this.host + ":" + this.port + "/" + this.database;
+
+		return DriverManager.getConnection(url, this.user, this.pass);
+	}
+
 }
@@ -0,0 +1,108 @@
+package com.projectkorra.projectkorra.storage;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The stored pk_players row of a player, together with their pk_cooldowns
+ * rows. Records are fetched in bulk so loading many players at once only
+ * takes a few queries.
+ */
+public class PlayerRecord {
+
+	private final UUID uuid;
+	private final String name;
+	private final String element;
+	private final String subelement;
+	private final String permaremoved;
+	private final String[] slots = new String[9];
+	private final Map<String, Long> cooldowns = new HashMap<>();
+
+	private PlayerRecord(final UUID uuid, final String name, final String element, final String subelement, final String permaremoved) {
+		this.uuid = uuid;
+		this.name = name;
+		this.element = element;
+		this.subelement = subelement;
+		this.permaremoved = permaremoved;
+	}
+
+	/**
+	 * Fetches the records of the given players on the calling thread. Players
+	 * without a pk_players row are missing from the result.
+	 *
+	 * @param uuids The players to fetch
+	 * @param cooldowns Whether to fetch the stored cooldowns as well
+	 * @return The records by UUID
+	 * @throws SQLException If any of the queries fail
+	 */
+	public static Map<UUID, PlayerRecord> fetch(final Collection<UUID> uuids, final boolean cooldowns) throws SQLException {
+		final Map<UUID, PlayerRecord> records = new HashMap<>();
+		if (uuids.isEmpty()) {
+			return records;
+		}
+
+		final List<String> keys = new ArrayList<>(uuids.size());
+		for (final UUID uuid : uuids) {
+			keys.add(uuid.toString());
+		}
+
+		DBConnection.sql.selectIn("SELECT * FROM pk_players WHERE uuid IN ", keys, rs -> {
+			final UUID uuid = UUID.fromString(rs.getString("uuid"));
+			final PlayerRecord record = new PlayerRecord(uuid, rs.getString("player"), rs.getString("element"), rs.getString("subelement"), rs.getString("permaremoved"));
+			for (int i = 1; i <= 9; i++) {
+				record.slots[i - 1] = rs.getString("slot" + i);
+			}
+			records.put(uuid, record);
+		});
+
+		if (cooldowns && !records.isEmpty()) {
+			DBConnection.sql.selectIn("SELECT * FROM pk_cooldowns WHERE uuid IN ", keys, rs -> {
+				final PlayerRecord record = records.get(UUID.fromString(rs.getString("uuid")));
+				if (record != null) {
+					record.cooldowns.put(rs.getString("cooldown"), rs.getLong("value"));
+				}
+			});
+		}
+		return records;
+	}
+
+	public UUID getUUID() {
+		return this.uuid;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public String getElement() {
+		return this.element;
+	}
+
+	public String getSubelement() {
+		return this.subelement;
+	}
+
+	public String getPermaremoved() {
+		return this.permaremoved;
+	}
+
+	/**
+	 * @param slot The hotbar slot, from 1 to 9
+	 * @return The stored ability name, which may be null or "null"
+	 */
+	public String getSlot(final int slot) {
+		return this.slots[slot - 1];
+	}
+
+	/**
+	 * @return The stored cooldown end times by cooldown name
+	 */
+	public Map<String, Long> getCooldowns() {
+		return this.cooldowns;
+	}
+}
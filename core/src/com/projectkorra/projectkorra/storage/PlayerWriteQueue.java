@@ -0,0 +1,431 @@
+package com.projectkorra.projectkorra.storage;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.projectkorra.projectkorra.ProjectKorra;
+
+/**
+ * Write-behind queue for the pk_players and pk_cooldowns tables. Changes are
+ * coalesced per player, so only the latest value of every column is written,
+ * and flushed in a single transaction using JDBC batches. Rows with the same
+ * set of changed columns share one batched statement, so rebinding all nine
+ * slots is one row in one batch rather than nine round trips.
+ * <p>
+ * The queue is flushed on an interval, when a player quits and when the
+ * database is closed. Flushes are serialized, and writes of a failed flush
+ * are put back in the queue unless they were replaced in the meantime.
+ */
+public class PlayerWriteQueue {
+
+	/**
+	 * The pk_players columns that can be queued.
+	 */
+	public enum Column {
+		PLAYER("player"), ELEMENT("element"), SUBELEMENT("subelement"), PERMAREMOVED("permaremoved"),
+		SLOT1("slot1"), SLOT2("slot2"), SLOT3("slot3"), SLOT4("slot4"), SLOT5("slot5"), SLOT6("slot6"), SLOT7("slot7"), SLOT8("slot8"), SLOT9("slot9");
+
+		private static final Column[] VALUES = values();
+
+		private final String name;
+
+		Column(final String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * @param slot The hotbar slot, from 1 to 9
+		 * @return The column of the slot
+		 */
+		public static Column slot(final int slot) {
+			return VALUES[SLOT1.ordinal() + slot - 1];
+		}
+	}
+
+	private final Map<UUID, PendingWrite> pending = new ConcurrentHashMap<>();
+	private final Object flushLock = new Object();
+	private BukkitTask task;
+
+	private final LongAdder queued = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder flushes = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder rows = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+
+	/**
+	 * Queues the row of a new player. The row is inserted before any other
+	 * change of the same flush is written.
+	 */
+	public void queueInsert(final UUID uuid, final String name) {
+		this.queued.increment();
+		this.pending.compute(uuid, (key, write) -> {
+			if (write == null) {
+				write = new PendingWrite(key);
+			} else if (write.insertName != null) {
+				this.coalesced.increment();
+			}
+			write.insertName = name;
+			return write;
+		});
+	}
+
+	/**
+	 * Queues a new value for a column of the player's pk_players row.
+	 */
+	public void queue(final UUID uuid, final Column column, final String value) {
+		this.queued.increment();
+		this.pending.compute(uuid, (key, write) -> {
+			if (write == null) {
+				write = new PendingWrite(key);
+			}
+			if (write.set(column, value)) {
+				this.coalesced.increment();
+			}
+			return write;
+		});
+	}
+
+	/**
+	 * Queues the player's stored cooldowns to be replaced with the given ones.
+	 *
+	 * @param cooldowns The cooldown end times by cooldown name. The map is not
+	 *            copied and must not be modified afterwards.
+	 */
+	public void queueCooldowns(final UUID uuid, final Map<String, Long> cooldowns) {
+		this.queued.increment();
+		this.pending.compute(uuid, (key, write) -> {
+			if (write == null) {
+				write = new PendingWrite(key);
+			} else if (write.cooldowns != null) {
+				this.coalesced.increment();
+			}
+			write.cooldowns = cooldowns;
+			return write;
+		});
+	}
+
+	/**
+	 * Starts flushing the queue on an interval.
+	 *
+	 * @param interval The interval in ticks
+	 */
+	public void start(final long interval) {
+		this.cancelTask();
+		this.task = Bukkit.getScheduler().runTaskTimerAsynchronously(ProjectKorra.plugin, () -> this.flush(), interval, interval);
+	}
+
+	/**
+	 * Stops the interval and flushes everything that is queued on the calling
+	 * thread. A failed flush is tried once more before giving up.
+	 */
+	public void stop() {
+		this.cancelTask();
+		if (!this.flush() && !this.flush()) {
+			ProjectKorra.log.severe("Unable to save the changes of " + this.pending.size() + " players to the database.");
+		}
+	}
+
+	private void cancelTask() {
+		if (this.task != null) {
+			this.task.cancel();
+			this.task = null;
+		}
+	}
+
+	/**
+	 * Flushes the queued writes of the player on an async thread.
+	 */
+	public void flushAsync(final UUID uuid) {
+		if (this.pending.containsKey(uuid)) {
+			Bukkit.getScheduler().runTaskAsynchronously(ProjectKorra.plugin, () -> this.flush(uuid));
+		}
+	}
+
+	/**
+	 * Writes the queued changes of the player on the calling thread.
+	 *
+	 * @return false if the writes failed
+	 */
+	public boolean flush(final UUID uuid) {
+		synchronized (this.flushLock) {
+			final PendingWrite write = this.pending.remove(uuid);
+			if (write == null) {
+				return true;
+			}
+			final List<PendingWrite> writes = new ArrayList<>(1);
+			writes.add(write);
+			return this.write(writes);
+		}
+	}
+
+	/**
+	 * Writes the queued changes of the players on the calling thread, in a
+	 * single transaction.
+	 *
+	 * @return false if the writes failed
+	 */
+	public boolean flush(final Collection<UUID> uuids) {
+		synchronized (this.flushLock) {
+			final List<PendingWrite> writes = new ArrayList<>();
+			for (final UUID uuid : uuids) {
+				final PendingWrite write = this.pending.remove(uuid);
+				if (write != null) {
+					writes.add(write);
+				}
+			}
+			return writes.isEmpty() || this.write(writes);
+		}
+	}
+
+	/**
+	 * Writes all queued changes on the calling thread.
+	 *
+	 * @return false if the writes failed
+	 */
+	public boolean flush() {
+		synchronized (this.flushLock) {
+			if (this.pending.isEmpty()) {
+				return true;
+			}
+			final List<PendingWrite> writes = new ArrayList<>(this.pending.size());
+			for (final UUID uuid : new ArrayList<>(this.pending.keySet())) {
+				final PendingWrite write = this.pending.remove(uuid);
+				if (write != null) {
+					writes.add(write);
+				}
+			}
+			return this.write(writes);
+		}
+	}
+
+	private boolean write(final List<PendingWrite> writes) {
+		if (!DBConnection.isOpen()) {
+			this.requeue(writes);
+			return false;
+		}
+
+		this.flushes.increment();
+		try {
+			DBConnection.sql.executeTransaction(statements -> {
+				this.writeBatches(statements, writes);
+				return null;
+			});
+			return true;
+		} catch (final SQLException e) {
+			this.failures.increment();
+			e.printStackTrace();
+			this.requeue(writes);
+			return false;
+		}
+	}
+
+	private void writeBatches(final StatementCache statements, final List<PendingWrite> writes) throws SQLException {
+		final List<PendingWrite> inserts = new ArrayList<>();
+		final Map<Integer, List<PendingWrite>> updates = new HashMap<>();
+		final List<PendingWrite> cooldowns = new ArrayList<>();
+		for (final PendingWrite write : writes) {
+			if (write.insertName != null) {
+				inserts.add(write);
+			}
+			if (write.dirty != 0) {
+				updates.computeIfAbsent(write.dirty, mask -> new ArrayList<>()).add(write);
+			}
+			if (write.cooldowns != null) {
+				cooldowns.add(write);
+			}
+		}
+
+		if (!inserts.isEmpty()) {
+			final PreparedStatement ps = statements.prepare("INSERT INTO pk_players (uuid, player, slot1, slot2, slot3, slot4, slot5, slot6, slot7, slot8, slot9) VALUES (?, ?, 'null', 'null', 'null', 'null', 'null', 'null', 'null', 'null', 'null')");
+			for (final PendingWrite write : inserts) {
+				ps.setString(1, write.uuid.toString());
+				ps.setString(2, write.insertName);
+				ps.addBatch();
+			}
+			this.executeBatch(ps, inserts.size());
+		}
+
+		for (final Map.Entry<Integer, List<PendingWrite>> entry : updates.entrySet()) {
+			final int mask = entry.getKey();
+			final StringBuilder sql = new StringBuilder("UPDATE pk_players SET ");
+			for (final Column column : Column.VALUES) {
+				if ((mask & (1 << column.ordinal())) != 0) {
+					sql.append(column.getName()).append(" = ?, ");
+				}
+			}
+			sql.setLength(sql.length() - 2);
+			sql.append(" WHERE uuid = ?");
+
+			final PreparedStatement ps = statements.prepare(sql.toString());
+			for (final PendingWrite write : entry.getValue()) {
+				int index = 1;
+				for (final Column column : Column.VALUES) {
+					if ((mask & (1 << column.ordinal())) != 0) {
+						ps.setString(index++, write.values[column.ordinal()]);
+					}
+				}
+				ps.setString(index, write.uuid.toString());
+				ps.addBatch();
+			}
+			this.executeBatch(ps, entry.getValue().size());
+		}
+
+		if (!cooldowns.isEmpty()) {
+			final PreparedStatement delete = statements.prepare("DELETE FROM pk_cooldowns WHERE uuid = ?");
+			for (final PendingWrite write : cooldowns) {
+				delete.setString(1, write.uuid.toString());
+				delete.addBatch();
+			}
+			this.executeBatch(delete, cooldowns.size());
+
+			final PreparedStatement insert = statements.prepare("INSERT INTO pk_cooldowns (uuid, cooldown, value) VALUES (?, ?, ?)");
+			int count = 0;
+			for (final PendingWrite write : cooldowns) {
+				for (final Map.Entry<String, Long> cooldown : write.cooldowns.entrySet()) {
+					insert.setString(1, write.uuid.toString());
+					insert.setString(2, cooldown.getKey());
+					insert.setLong(3, cooldown.getValue());
+					insert.addBatch();
+					count++;
+				}
+			}
+			if (count > 0) {
+				this.executeBatch(insert, count);
+			}
+		}
+	}
+
+	private void executeBatch(final PreparedStatement statement, final int size) throws SQLException {
+		statement.executeBatch();
+		this.batches.increment();
+		this.rows.add(size);
+	}
+
+	/**
+	 * Puts the writes of a failed flush back in the queue, without replacing
+	 * anything that was queued since.
+	 */
+	private void requeue(final List<PendingWrite> writes) {
+		for (final PendingWrite write : writes) {
+			this.pending.merge(write.uuid, write, (current, failed) -> current.fillFrom(failed));
+		}
+	}
+
+	/**
+	 * @return The amount of players with queued changes
+	 */
+	public int getPendingCount() {
+		return this.pending.size();
+	}
+
+	/**
+	 * @return The amount of changes that have been queued
+	 */
+	public long getQueuedCount() {
+		return this.queued.sum();
+	}
+
+	/**
+	 * @return The amount of queued changes that were replaced by a newer
+	 *         change before they were written
+	 */
+	public long getCoalescedCount() {
+		return this.coalesced.sum();
+	}
+
+	public long getFlushCount() {
+		return this.flushes.sum();
+	}
+
+	public long getFailedFlushCount() {
+		return this.failures.sum();
+	}
+
+	/**
+	 * @return The amount of rows that were sent in batches
+	 */
+	public long getRowCount() {
+		return this.rows.sum();
+	}
+
+	/**
+	 * @return The amount of batches sent, which is the amount of round trips
+	 */
+	public long getBatchCount() {
+		return this.batches.sum();
+	}
+
+	public void resetMetrics() {
+		this.queued.reset();
+		this.coalesced.reset();
+		this.flushes.reset();
+		this.failures.reset();
+		this.rows.reset();
+		this.batches.reset();
+	}
+
+	/**
+	 * The queued changes of one player. Only modified inside the atomic
+	 * operations of the pending map, and only read after being removed from
+	 * it.
+	 */
+	private static class PendingWrite {
+
+		private final UUID uuid;
+		private final String[] values = new String[Column.VALUES.length];
+		private int dirty;
+		private String insertName;
+		private Map<String, Long> cooldowns;
+
+		private PendingWrite(final UUID uuid) {
+			this.uuid = uuid;
+		}
+
+		/**
+		 * @return true if the column already had a queued value
+		 */
+		private boolean set(final Column column, final String value) {
+			final int bit = 1 << column.ordinal();
+			final boolean replaced = (this.dirty & bit) != 0;
+			this.values[column.ordinal()] = value;
+			this.dirty |= bit;
+			return replaced;
+		}
+
+		/**
+		 * Fills in the changes of an older write that this write doesn't
+		 * replace.
+		 */
+		private PendingWrite fillFrom(final PendingWrite older) {
+			for (final Column column : Column.VALUES) {
+				final int bit = 1 << column.ordinal();
+				if ((older.dirty & bit) != 0 && (this.dirty & bit) == 0) {
+					this.set(column, older.values[column.ordinal()]);
+				}
+			}
+			if (this.insertName == null) {
+				this.insertName = older.insertName;
+			}
+			if (this.cooldowns == null) {
+				this.cooldowns = older.cooldowns;
+			}
+			return this;
+		}
+	}
+}
@@ -30,8 +30,8 @@ public class SQLite extends Database {
 		try {
 			this.log.info("Establishing SQLite Connection...");
 
-			Class.forName("org.sqlite.JDBC");
-			this.connection = DriverManager.getConnection("jdbc:sqlite:" + this.SQLfile.getAbsolutePath());
+			this.connection = this.createConnection();
+			this.closed = false;
 
 			this.printInfo("Connection established!");
 
@@ -45,4 +45,19 @@ public class SQLite extends Database {
 		}
 	}
 
+	@Override
+	protected Connection createConnection() throws SQLException, ClassNotFoundException {
+		Class.forName("org.sqlite.JDBC");
+		return DriverManager.getConnection("jdbc:sqlite:" + this.SQLfile.getAbsolutePath());
+	}
+
+	/**
+	 * SQLite locks the whole file for every write, so all writes go through
+	 * the main Connection on a single worker.
+	 */
+	@Override
+	protected boolean isSingleWriter() {
+		return true;
+	}
+
 }
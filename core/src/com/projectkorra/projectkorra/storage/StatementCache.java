@@ -0,0 +1,93 @@
+package com.projectkorra.projectkorra.storage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A database Connection together with the PreparedStatements that have been
+ * prepared on it. Statements are kept in least recently used order, and the
+ * oldest statement is closed once the cache is full.
+ * <p>
+ * A StatementCache must only be used by one thread at a time. The
+ * {@link Database} hands each worker thread its own cache, or guards the
+ * shared one with a lock.
+ */
+public class StatementCache {
+
+	private final Connection connection;
+	private final Map<String, PreparedStatement> statements;
+
+	public StatementCache(final Connection connection, final int maxStatements) {
+		this.connection = connection;
+		this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75F, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, PreparedStatement> eldest) {
+				if (this.size() > maxStatements) {
+					closeQuietly(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public Connection getConnection() {
+		return this.connection;
+	}
+
+	/**
+	 * Gets the cached PreparedStatement for the given SQL, or prepares it if
+	 * it isn't cached yet. The parameters of the statement are cleared before
+	 * it is returned.
+	 *
+	 * @param sql The SQL of the statement, using ? for parameters
+	 * @return The PreparedStatement
+	 * @throws SQLException If the statement couldn't be prepared
+	 */
+	public PreparedStatement prepare(final String sql) throws SQLException {
+		PreparedStatement statement = this.statements.get(sql);
+		if (statement == null || statement.isClosed()) {
+			statement = this.connection.prepareStatement(sql);
+			this.statements.put(sql, statement);
+		} else {
+			statement.clearParameters();
+		}
+		return statement;
+	}
+
+	/**
+	 * Prepares the given statement and binds the parameters to it in order.
+	 */
+	public PreparedStatement prepare(final String sql, final Object... params) throws SQLException {
+		final PreparedStatement statement = this.prepare(sql);
+		for (int i = 0; i < params.length; i++) {
+			statement.setObject(i + 1, params[i]);
+		}
+		return statement;
+	}
+
+	public int size() {
+		return this.statements.size();
+	}
+
+	/**
+	 * Closes every cached statement, but not the Connection.
+	 */
+	public void clear() {
+		for (final PreparedStatement statement : this.statements.values()) {
+			closeQuietly(statement);
+		}
+		this.statements.clear();
+	}
+
+	private static void closeQuietly(final PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (final SQLException ignored) {}
+	}
+}
@@ -0,0 +1,242 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.TileState;
+import org.bukkit.block.data.BlockData;
+
+/**
+ * Buffers the world writes of TempBlocks during a bending tick and applies
+ * them at the end of it, grouped by chunk section.
+ * <p>
+ * The server already sends every change made to a chunk section during a tick
+ * as a single multi block change, so the gain isn't in the packets themselves
+ * but in what never reaches them: only the last write to a block is applied,
+ * and a block whose final data is what the world already has isn't written at
+ * all. A TempBlock that is created and reverted in the same tick, or changed
+ * back and forth by a redrawn frame, causes no block update, no light update
+ * and no packet.
+ * <p>
+ * While a write is buffered, the world still has the old data. Code that reads
+ * the world in between sees the block as it was at the start of the tick,
+ * which is why buffering is off by default.
+ */
+public final class BlockChangeBuffer {
+
+	private static final Map<World, LongObjectHashMap<LongObjectHashMap<Change>>> CHANGES = new HashMap<>();
+
+	private static boolean enabled;
+	private static boolean buffering;
+	private static int pending;
+
+	private static long buffered;
+	private static long coalesced;
+	private static long written;
+	private static long unchanged;
+	private static long sections;
+
+	private BlockChangeBuffer() {}
+
+	public static void setEnabled(final boolean enabled) {
+		if (!enabled) {
+			flush();
+		}
+		BlockChangeBuffer.enabled = enabled;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Starts buffering the writes of the current tick. Applies anything left
+	 * over from a tick that didn't finish.
+	 */
+	public static void begin() {
+		flush();
+		buffering = enabled;
+	}
+
+	/**
+	 * Applies every buffered write and stops buffering until the next
+	 * {@link #begin()}.
+	 */
+	public static void flush() {
+		buffering = false;
+		if (pending == 0) {
+			return;
+		}
+		pending = 0;
+
+		final List<LongObjectHashMap<LongObjectHashMap<Change>>> worlds = new ArrayList<>(CHANGES.values());
+		CHANGES.clear();
+		for (final LongObjectHashMap<LongObjectHashMap<Change>> world : worlds) {
+			for (final LongObjectHashMap<Change> section : world.values()) {
+				sections++;
+				for (final Change change : section.values()) {
+					change.apply();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets the data of a block, buffering the write if a tick is being
+	 * buffered.
+	 */
+	static void setBlockData(final Block block, final BlockData data, final boolean physics) {
+		final Change change = getChange(block);
+		if (change == null) {
+			block.setBlockData(data, physics);
+			return;
+		}
+		change.data = data;
+		change.physics = physics;
+		change.revert = null;
+	}
+
+	/**
+	 * Reverts a TempBlock to its original state, buffering the revert if a
+	 * tick is being buffered.
+	 */
+	static void revert(final TempBlock tempBlock) {
+		final Change change = getChange(tempBlock.getBlock());
+		if (change == null) {
+			tempBlock.revertState();
+			return;
+		}
+		change.data = null;
+		change.revert = tempBlock;
+	}
+
+	/**
+	 * @return The state a buffered revert of the block will restore, or null
+	 *         if the last buffered write of the block isn't a revert
+	 */
+	static BlockState getPendingState(final Block block) {
+		final LongObjectHashMap<LongObjectHashMap<Change>> world = CHANGES.get(block.getWorld());
+		if (world == null) {
+			return null;
+		}
+		final LongObjectHashMap<Change> section = world.get(sectionKey(block));
+		final Change change = section == null ? null : section.get(BlockKey.of(block));
+		return change != null && change.revert != null ? change.revert.getState() : null;
+	}
+
+	private static Change getChange(final Block block) {
+		if (!buffering || !Bukkit.isPrimaryThread()) {
+			return null;
+		}
+		final LongObjectHashMap<LongObjectHashMap<Change>> world = CHANGES.computeIfAbsent(block.getWorld(), w -> new LongObjectHashMap<>());
+		LongObjectHashMap<Change> section = world.get(sectionKey(block));
+		if (section == null) {
+			section = new LongObjectHashMap<>();
+			world.put(sectionKey(block), section);
+		}
+		final long key = BlockKey.of(block);
+		Change change = section.get(key);
+		if (change == null) {
+			change = new Change(block);
+			section.put(key, change);
+			pending++;
+		} else {
+			coalesced++;
+		}
+		buffered++;
+		return change;
+	}
+
+	private static long sectionKey(final Block block) {
+		return BlockKey.of(block.getX() >> 4, block.getY() >> 4, block.getZ() >> 4);
+	}
+
+	/**
+	 * @return The amount of writes that went through the buffer
+	 */
+	public static long getBufferedCount() {
+		return buffered;
+	}
+
+	/**
+	 * @return The amount of buffered writes that were replaced by a later
+	 *         write to the same block in the same tick
+	 */
+	public static long getCoalescedCount() {
+		return coalesced;
+	}
+
+	/**
+	 * @return The amount of blocks written to the world when flushing
+	 */
+	public static long getWrittenCount() {
+		return written;
+	}
+
+	/**
+	 * @return The amount of blocks that weren't written when flushing because
+	 *         they already had their final data
+	 */
+	public static long getUnchangedCount() {
+		return unchanged;
+	}
+
+	/**
+	 * @return The amount of chunk sections flushed
+	 */
+	public static long getSectionCount() {
+		return sections;
+	}
+
+	public static void resetMetrics() {
+		buffered = 0;
+		coalesced = 0;
+		written = 0;
+		unchanged = 0;
+		sections = 0;
+	}
+
+	/**
+	 * The last write to a block during the current tick.
+	 */
+	private static final class Change {
+
+		private final Block block;
+		/** The data the world had when the first write was buffered. */
+		private final BlockData initial;
+		private BlockData data;
+		private boolean physics;
+		private TempBlock revert;
+
+		private Change(final Block block) {
+			this.block = block;
+			this.initial = block.getBlockData();
+		}
+
+		private void apply() {
+			if (this.revert != null) {
+				final BlockState state = this.revert.getState();
+				if (!(state instanceof TileState) && state.getBlockData().equals(this.initial)) {
+					//The TempBlock never reached the world
+					unchanged++;
+				} else {
+					this.revert.revertState(this.initial.getMaterial());
+					written++;
+				}
+			} else if (this.data != null) {
+				if (this.data.equals(this.block.getBlockData())) {
+					unchanged++;
+				} else {
+					this.block.setBlockData(this.data, this.physics);
+					written++;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * A set of blocks that counts how often each block was added, so a block
+ * added by several users stays in the set until each of them removed it.
+ * <p>
+ * Blocks are stored by world, chunk and packed position (see
+ * {@link BlockKey}), so a lookup is a few primitive hash lookups instead of
+ * comparing Block objects, and chunks without blocks can be skipped with
+ * {@link #hasBlocks(World, int, int)}. This set is not thread safe.
+ */
+public class BlockCountSet {
+
+	private final Map<World, LongObjectHashMap<LongObjectHashMap<int[]>>> worlds = new HashMap<>();
+	private int size;
+
+	/**
+	 * Adds the block, or counts it once more if it is already in the set.
+	 *
+	 * @return True if the block wasn't in the set before
+	 */
+	public boolean add(final Block block) {
+		final LongObjectHashMap<LongObjectHashMap<int[]>> chunks = this.worlds.computeIfAbsent(block.getWorld(), w -> new LongObjectHashMap<>());
+		final long chunkKey = BlockKey.chunkOf(block);
+		LongObjectHashMap<int[]> chunk = chunks.get(chunkKey);
+		if (chunk == null) {
+			chunk = new LongObjectHashMap<>();
+			chunks.put(chunkKey, chunk);
+		}
+
+		final long key = BlockKey.of(block);
+		final int[] count = chunk.get(key);
+		if (count != null) {
+			count[0]++;
+			return false;
+		}
+		chunk.put(key, new int[] { 1 });
+		this.size++;
+		return true;
+	}
+
+	/**
+	 * Counts the block once less, and removes it once it was removed as
+	 * often as it was added.
+	 *
+	 * @return True if the block isn't in the set anymore
+	 */
+	public boolean remove(final Block block) {
+		final LongObjectHashMap<LongObjectHashMap<int[]>> chunks = this.worlds.get(block.getWorld());
+		if (chunks == null) {
+			return false;
+		}
+		final long chunkKey = BlockKey.chunkOf(block);
+		final LongObjectHashMap<int[]> chunk = chunks.get(chunkKey);
+		if (chunk == null) {
+			return false;
+		}
+
+		final long key = BlockKey.of(block);
+		final int[] count = chunk.get(key);
+		if (count == null) {
+			return false;
+		} else if (--count[0] > 0) {
+			return false;
+		}
+
+		chunk.remove(key);
+		this.size--;
+		if (chunk.isEmpty()) {
+			chunks.remove(chunkKey);
+			if (chunks.isEmpty()) {
+				this.worlds.remove(block.getWorld());
+			}
+		}
+		return true;
+	}
+
+	public boolean contains(final Block block) {
+		if (this.size == 0) {
+			return false;
+		}
+		return this.contains(block.getWorld(), block.getX(), block.getY(), block.getZ());
+	}
+
+	public boolean contains(final World world, final int x, final int y, final int z) {
+		final LongObjectHashMap<LongObjectHashMap<int[]>> chunks = this.worlds.get(world);
+		if (chunks == null) {
+			return false;
+		}
+		final LongObjectHashMap<int[]> chunk = chunks.get(BlockKey.chunk(x >> 4, z >> 4));
+		return chunk != null && chunk.containsKey(BlockKey.of(x, y, z));
+	}
+
+	/**
+	 * Are there any blocks in the given chunk? This is a constant time check,
+	 * so it can be used to skip work in chunks without blocks in the set.
+	 */
+	public boolean hasBlocks(final World world, final int chunkX, final int chunkZ) {
+		final LongObjectHashMap<LongObjectHashMap<int[]>> chunks = this.worlds.get(world);
+		return chunks != null && chunks.containsKey(BlockKey.chunk(chunkX, chunkZ));
+	}
+
+	/**
+	 * @return How many different blocks are in the set
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @return A new list with every block in the set once
+	 */
+	public ArrayList<Block> toList() {
+		final ArrayList<Block> blocks = new ArrayList<>(this.size);
+		for (final Map.Entry<World, LongObjectHashMap<LongObjectHashMap<int[]>>> entry : this.worlds.entrySet()) {
+			final World world = entry.getKey();
+			for (final LongObjectHashMap<int[]> chunk : entry.getValue().values()) {
+				for (final long key : chunk.keys()) {
+					blocks.add(world.getBlockAt(BlockKey.getX(key), BlockKey.getY(key), BlockKey.getZ(key)));
+				}
+			}
+		}
+		return blocks;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	public void clear() {
+		this.worlds.clear();
+		this.size = 0;
+	}
+}
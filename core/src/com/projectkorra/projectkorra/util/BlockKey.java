@@ -0,0 +1,79 @@
+package com.projectkorra.projectkorra.util;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+
+/**
+ * Packs block and chunk coordinates into a single long so they can be used
+ * as primitive map keys, e.g. in a {@link LongObjectHashMap}.
+ * <p>
+ * Block keys use 26 bits for x and z and 12 bits for y, which covers the
+ * whole world border and every build height. Chunk keys use the upper and
+ * lower 32 bits for the chunk x and z.
+ */
+public final class BlockKey {
+
+	private BlockKey() {}
+
+	public static long of(final int x, final int y, final int z) {
+		return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+	}
+
+	public static long of(final Block block) {
+		return of(block.getX(), block.getY(), block.getZ());
+	}
+
+	public static long of(final Location location) {
+		return of(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+	}
+
+	public static int getX(final long key) {
+		return (int) (key >> 38);
+	}
+
+	public static int getY(final long key) {
+		return (int) (key << 52 >> 52);
+	}
+
+	public static int getZ(final long key) {
+		return (int) (key << 26 >> 38);
+	}
+
+	public static long chunk(final int chunkX, final int chunkZ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+
+	public static long chunk(final Chunk chunk) {
+		return chunk(chunk.getX(), chunk.getZ());
+	}
+
+	/**
+	 * @return the key of the chunk containing the block
+	 */
+	public static long chunkOf(final Block block) {
+		return chunk(block.getX() >> 4, block.getZ() >> 4);
+	}
+
+	/**
+	 * @return the key of the chunk containing the location
+	 */
+	public static long chunkOf(final Location location) {
+		return chunk(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+	}
+
+	/**
+	 * @return the key of the chunk containing the packed block key
+	 */
+	public static long chunkOf(final long blockKey) {
+		return chunk(getX(blockKey) >> 4, getZ(blockKey) >> 4);
+	}
+
+	public static int getChunkX(final long chunkKey) {
+		return (int) (chunkKey >> 32);
+	}
+
+	public static int getChunkZ(final long chunkKey) {
+		return (int) chunkKey;
+	}
+}
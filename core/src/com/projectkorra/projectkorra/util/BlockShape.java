@@ -0,0 +1,298 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * A block shape backed by a precomputed table of integer offsets, used to
+ * query the blocks around a point without scanning the surrounding cube.
+ * <p>
+ * Shapes are cached per shape type, radius and height, so getting a shape is
+ * a map lookup and the table is only built the first time. The table holds
+ * every offset that can be inside the shape for some position of the center
+ * within its block, packed into a single int, and is sorted in x, y, z order.
+ * Visiting the shape checks the exact distance of each offset to the center
+ * and doesn't allocate.
+ * <p>
+ * Like {@code GeneralMethods.getBlocksAroundPoint}, distances are measured
+ * from the center to the minimum corner of each block.
+ */
+public final class BlockShape {
+
+	/**
+	 * The largest supported radius, limited by the 10 bits per axis of a
+	 * packed offset.
+	 */
+	public static final int MAX_RADIUS = 500;
+
+	/**
+	 * The most shapes that are cached. Shapes past this amount are built on
+	 * every call, so a caller with continuously changing radii can't fill the
+	 * cache.
+	 */
+	private static final int MAX_CACHED = 512;
+
+	private static final Map<Key, BlockShape> SHAPES = new ConcurrentHashMap<>();
+
+	public enum Type {
+		/** Every block within the radius. */
+		SPHERE,
+		/** Every block within the radius, but further than the inner radius. */
+		SHELL,
+		/** Every block within the horizontal radius, from the center block up. */
+		CYLINDER,
+		/** Every block within the horizontal radius, at the y of the center. */
+		DISC
+	}
+
+	/**
+	 * Visits the blocks of a shape.
+	 */
+	@FunctionalInterface
+	public interface Visitor {
+
+		/**
+		 * @return false to stop visiting
+		 */
+		boolean visit(int x, int y, int z);
+	}
+
+	private final Type type;
+	private final double radius;
+	private final double radiusSquared;
+	private final double innerSquared;
+	private final int height;
+	private final int[] offsets;
+
+	private BlockShape(final Type type, final double radius, final double inner, final int height) {
+		this.type = type;
+		this.radius = radius;
+		this.radiusSquared = radius * radius;
+		this.innerSquared = inner > 0 ? inner * inner : -1;
+		this.height = height;
+		this.offsets = this.buildTable();
+	}
+
+	public static BlockShape sphere(final double radius) {
+		return get(Type.SPHERE, radius, 0, 0);
+	}
+
+	/**
+	 * @return a shell that is one block thick
+	 */
+	public static BlockShape shell(final double radius) {
+		return shell(radius, 1);
+	}
+
+	/**
+	 * @param thickness The distance between the inner and outer radius
+	 */
+	public static BlockShape shell(final double radius, final double thickness) {
+		return get(Type.SHELL, radius, radius - thickness, 0);
+	}
+
+	/**
+	 * @param height The amount of layers, starting at the y of the center
+	 */
+	public static BlockShape cylinder(final double radius, final int height) {
+		return get(Type.CYLINDER, radius, 0, height);
+	}
+
+	public static BlockShape disc(final double radius) {
+		return get(Type.DISC, radius, 0, 1);
+	}
+
+	private static BlockShape get(final Type type, final double radius, final double inner, final int height) {
+		if (radius < 0 || radius > MAX_RADIUS || Double.isNaN(radius)) {
+			throw new IllegalArgumentException("Invalid shape radius: " + radius);
+		} else if (height < 0 || height > MAX_RADIUS) {
+			throw new IllegalArgumentException("Invalid shape height: " + height);
+		}
+		final Key key = new Key(type, radius, inner, height);
+		final BlockShape shape = SHAPES.get(key);
+		if (shape != null) {
+			return shape;
+		} else if (SHAPES.size() >= MAX_CACHED) {
+			return new BlockShape(type, radius, inner, height);
+		}
+		return SHAPES.computeIfAbsent(key, k -> new BlockShape(type, radius, inner, height));
+	}
+
+	/**
+	 * @return the amount of shapes that have a table
+	 */
+	public static int getCachedShapes() {
+		return SHAPES.size();
+	}
+
+	private int[] buildTable() {
+		final int bound = (int) Math.ceil(this.radius) + 1;
+		final int minY = this.type == Type.CYLINDER || this.type == Type.DISC ? 0 : -bound;
+		final int maxY = this.type == Type.CYLINDER || this.type == Type.DISC ? this.height - 1 : bound;
+
+		int[] table = new int[64];
+		int size = 0;
+		for (int dx = -bound; dx <= bound; dx++) {
+			for (int dy = minY; dy <= maxY; dy++) {
+				for (int dz = -bound; dz <= bound; dz++) {
+					if (this.isCandidate(dx, dy, dz)) {
+						if (size == table.length) {
+							table = Arrays.copyOf(table, size * 2);
+						}
+						table[size++] = pack(dx, dy, dz);
+					}
+				}
+			}
+		}
+		return Arrays.copyOf(table, size);
+	}
+
+	/**
+	 * @return true if the offset is inside the shape for some position of the
+	 *         center within its block
+	 */
+	private boolean isCandidate(final int dx, final int dy, final int dz) {
+		final double min = nearest(dx) * nearest(dx) + nearest(dz) * nearest(dz);
+		if (this.type == Type.CYLINDER || this.type == Type.DISC) {
+			return min <= this.radiusSquared;
+		}
+		final double minSquared = min + nearest(dy) * nearest(dy);
+		final double maxSquared = furthest(dx) * furthest(dx) + furthest(dy) * furthest(dy) + furthest(dz) * furthest(dz);
+		return minSquared <= this.radiusSquared && (this.type != Type.SHELL || maxSquared > this.innerSquared);
+	}
+
+	/**
+	 * @return the smallest distance along an axis between a block corner at the
+	 *         offset and a center within the origin block
+	 */
+	private static int nearest(final int d) {
+		return d >= 1 ? d - 1 : -d;
+	}
+
+	private static int furthest(final int d) {
+		return d >= 1 ? d : 1 - d;
+	}
+
+	private static int pack(final int dx, final int dy, final int dz) {
+		return ((dx & 0x3FF) << 20) | ((dy & 0x3FF) << 10) | (dz & 0x3FF);
+	}
+
+	/**
+	 * Visits the blocks of the shape around a location, in x, y, z order.
+	 *
+	 * @return true if every block was visited, false if the visitor stopped
+	 */
+	public boolean forEach(final Location center, final Visitor visitor) {
+		return this.forEach(center.getX(), center.getY(), center.getZ(), visitor);
+	}
+
+	/**
+	 * Visits the blocks of the shape around the minimum corner of a block.
+	 *
+	 * @return true if every block was visited, false if the visitor stopped
+	 */
+	public boolean forEach(final Block center, final Visitor visitor) {
+		return this.forEach(center.getX(), center.getY(), center.getZ(), visitor);
+	}
+
+	/**
+	 * Visits the blocks of the shape around a point, in x, y, z order.
+	 *
+	 * @return true if every block was visited, false if the visitor stopped
+	 */
+	public boolean forEach(final double centerX, final double centerY, final double centerZ, final Visitor visitor) {
+		final int originX = (int) Math.floor(centerX);
+		final int originY = (int) Math.floor(centerY);
+		final int originZ = (int) Math.floor(centerZ);
+		final boolean flat = this.type == Type.CYLINDER || this.type == Type.DISC;
+
+		for (final int packed : this.offsets) {
+			final int x = originX + (packed << 2 >> 22);
+			final int y = originY + (packed << 12 >> 22);
+			final int z = originZ + (packed << 22 >> 22);
+
+			final double ex = x - centerX;
+			final double ey = flat ? 0 : y - centerY;
+			final double ez = z - centerZ;
+			final double distance = ex * ex + ey * ey + ez * ez;
+			if (distance > this.radiusSquared || distance <= this.innerSquared) {
+				continue;
+			} else if (!visitor.visit(x, y, z)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the blocks of the shape around a location, in x, y, z order
+	 */
+	public List<Block> getBlocks(final Location center) {
+		final World world = center.getWorld();
+		final List<Block> blocks = new ArrayList<>();
+		this.forEach(center, (x, y, z) -> blocks.add(world.getBlockAt(x, y, z)));
+		return blocks;
+	}
+
+	public Type getType() {
+		return this.type;
+	}
+
+	public double getRadius() {
+		return this.radius;
+	}
+
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * @return the amount of offsets in the table, which is an upper bound for
+	 *         the amount of blocks visited
+	 */
+	public int getTableSize() {
+		return this.offsets.length;
+	}
+
+	private static final class Key {
+
+		private final Type type;
+		private final double radius;
+		private final double inner;
+		private final int height;
+
+		private Key(final Type type, final double radius, final double inner, final int height) {
+			this.type = type;
+			this.radius = radius;
+			this.inner = inner;
+			this.height = height;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			} else if (!(o instanceof Key)) {
+				return false;
+			}
+			final Key key = (Key) o;
+			return this.type == key.type && Double.compare(this.radius, key.radius) == 0 && Double.compare(this.inner, key.inner) == 0 && this.height == key.height;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = this.type.hashCode();
+			hash = 31 * hash + Double.hashCode(this.radius);
+			hash = 31 * hash + Double.hashCode(this.inner);
+			hash = 31 * hash + this.height;
+			return hash;
+		}
+	}
+}
@@ -0,0 +1,392 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * The cooldowns of a player, stored in a long array indexed by the id of the
+ * ability name. Ability names are interned to ids once, so checking a cooldown
+ * is an array lookup instead of a map lookup that has to allocate a
+ * {@link Cooldown}.
+ * <p>
+ * The store still is a {@code Map<String, Cooldown>}, so code that works on
+ * {@link com.projectkorra.projectkorra.OfflineBendingPlayer#getCooldowns()}
+ * keeps working. Iterating it tolerates removing cooldowns from the store
+ * while iterating.
+ * <p>
+ * A store can be tracked, which schedules every cooldown in it on a timing
+ * wheel shared by all stores. {@link #expire(long)} then only touches the
+ * cooldowns that actually ran out and passes their names to the expiry
+ * handler of their store. If the handler leaves an expired cooldown in the
+ * store, it is passed to the handler again on the next tick.
+ */
+public class CooldownStore extends AbstractMap<String, Cooldown> {
+
+	private static final long TICK_MILLIS = 50;
+	private static final long MAX_TICK = Long.MAX_VALUE / TICK_MILLIS;
+
+	private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+	private static volatile String[] names = new String[64];
+
+	private static final TimingWheel<Slot> WHEEL = new TimingWheel<>(System.currentTimeMillis() / TICK_MILLIS);
+	private static final ArrayDeque<Slot> EXPIRED = new ArrayDeque<>();
+
+	private long[] expiries = new long[0];
+	private final BitSet present = new BitSet();
+	private final BitSet database = new BitSet();
+	private TimingWheel.Timer<Slot>[] timers;
+	private Consumer<String> expiryHandler;
+	private int size;
+	private Set<Entry<String, Cooldown>> entrySet;
+
+	/**
+	 * Gets the id of an ability name, assigning it the next free id if it
+	 * doesn't have one yet.
+	 *
+	 * @param ability The name of the ability
+	 * @return The id of the name
+	 */
+	public static int getId(final String ability) {
+		final Integer id = IDS.get(ability);
+		return id != null ? id : intern(ability);
+	}
+
+	/**
+	 * @return The id of an ability name, or -1 if no cooldown with the name
+	 *         was ever stored
+	 */
+	public static int findId(final String ability) {
+		final Integer id = ability == null ? null : IDS.get(ability);
+		return id != null ? id : -1;
+	}
+
+	/**
+	 * @return The ability name of an id
+	 */
+	public static String getName(final int id) {
+		return names[id];
+	}
+
+	private static synchronized int intern(final String ability) {
+		final Integer existing = IDS.get(ability);
+		if (existing != null) {
+			return existing;
+		}
+
+		final int id = IDS.size();
+		String[] current = names;
+		if (id == current.length) {
+			current = Arrays.copyOf(current, id * 2);
+		}
+		current[id] = ability;
+		names = current;
+		IDS.put(ability, id);
+		return id;
+	}
+
+	/**
+	 * Passes every cooldown of a tracked store that expired at the given
+	 * time to the expiry handler of its store. Called every tick by the
+	 * BendingManager.
+	 *
+	 * @param now The current time in milliseconds
+	 * @return The amount of cooldowns that expired
+	 */
+	public static int expire(final long now) {
+		synchronized (WHEEL) {
+			WHEEL.advance(now / TICK_MILLIS, 0, EXPIRED::add);
+		}
+
+		int expired = 0;
+		Slot slot;
+		while ((slot = EXPIRED.poll()) != null) {
+			if (slot.store.dispatch(slot.id)) {
+				expired++;
+			}
+		}
+		return expired;
+	}
+
+	/**
+	 * @return The amount of cooldowns scheduled to expire
+	 */
+	public static int getScheduledCount() {
+		synchronized (WHEEL) {
+			return WHEEL.size();
+		}
+	}
+
+	/**
+	 * Starts tracking the expiry of the cooldowns in this store.
+	 *
+	 * @param expiryHandler Receives the name of every cooldown that expired
+	 */
+	public void track(final Consumer<String> expiryHandler) {
+		this.expiryHandler = expiryHandler;
+		for (int id = this.present.nextSetBit(0); id >= 0; id = this.present.nextSetBit(id + 1)) {
+			this.schedule(id);
+		}
+	}
+
+	/**
+	 * Stops tracking the expiry of the cooldowns in this store. The cooldowns
+	 * stay in the store.
+	 */
+	public void untrack() {
+		this.expiryHandler = null;
+		if (this.timers == null) {
+			return;
+		}
+		synchronized (WHEEL) {
+			for (final TimingWheel.Timer<Slot> timer : this.timers) {
+				if (timer != null) {
+					WHEEL.cancel(timer);
+				}
+			}
+		}
+	}
+
+	public boolean isTracked() {
+		return this.expiryHandler != null;
+	}
+
+	/**
+	 * @return True if the store has a cooldown for the ability id, expired or
+	 *         not
+	 */
+	public boolean contains(final int id) {
+		return id >= 0 && this.present.get(id);
+	}
+
+	/**
+	 * @return True if the store has a cooldown for the ability id that didn't
+	 *         expire yet
+	 */
+	public boolean isOnCooldown(final int id, final long now) {
+		return this.contains(id) && now < this.expiries[id];
+	}
+
+	/**
+	 * @return The time the cooldown of the ability id expires at, or -1 if
+	 *         the store has no cooldown for it
+	 */
+	public long getExpiry(final int id) {
+		return this.contains(id) ? this.expiries[id] : -1;
+	}
+
+	/**
+	 * @return True if the cooldown of the ability id should be saved to the
+	 *         database
+	 */
+	public boolean isDatabase(final int id) {
+		return id >= 0 && this.database.get(id);
+	}
+
+	/**
+	 * Sets the cooldown of an ability id, replacing any cooldown it had.
+	 *
+	 * @param id The id of the ability name, see {@link #getId(String)}
+	 * @param expiry The time the cooldown expires at
+	 * @param database If the cooldown should be saved to the database
+	 */
+	public void set(final int id, final long expiry, final boolean database) {
+		if (id >= this.expiries.length) {
+			this.expiries = Arrays.copyOf(this.expiries, Math.max(id + 1, Math.max(IDS.size(), this.expiries.length * 2)));
+		}
+		if (!this.present.get(id)) {
+			this.present.set(id);
+			this.size++;
+		}
+		this.expiries[id] = expiry;
+		this.database.set(id, database);
+		this.schedule(id);
+	}
+
+	/**
+	 * Removes the cooldown of an ability id.
+	 *
+	 * @return True if the store had a cooldown for it
+	 */
+	public boolean remove(final int id) {
+		if (!this.contains(id)) {
+			return false;
+		}
+		this.present.clear(id);
+		this.database.clear(id);
+		this.size--;
+		if (this.timers != null && id < this.timers.length && this.timers[id] != null) {
+			synchronized (WHEEL) {
+				WHEEL.cancel(this.timers[id]);
+			}
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void schedule(final int id) {
+		if (this.expiryHandler == null) {
+			return;
+		}
+		if (this.timers == null || id >= this.timers.length) {
+			final TimingWheel.Timer<Slot>[] timers = new TimingWheel.Timer[this.expiries.length];
+			if (this.timers != null) {
+				System.arraycopy(this.timers, 0, timers, 0, this.timers.length);
+			}
+			this.timers = timers;
+		}
+		if (this.timers[id] == null) {
+			this.timers[id] = new TimingWheel.Timer<>(new Slot(this, id));
+		}
+
+		final long expiry = this.expiries[id];
+		final long deadline = expiry >= Long.MAX_VALUE - TICK_MILLIS ? MAX_TICK : (expiry + TICK_MILLIS - 1) / TICK_MILLIS;
+		synchronized (WHEEL) {
+			WHEEL.schedule(this.timers[id], deadline);
+		}
+	}
+
+	/**
+	 * Passes an expired cooldown to the expiry handler.
+	 *
+	 * @return True if the handler was called
+	 */
+	private boolean dispatch(final int id) {
+		final Consumer<String> handler = this.expiryHandler;
+		if (handler == null || !this.present.get(id) || this.timers[id].isScheduled()) {
+			// Removed, untracked or set again since the wheel expired it.
+			return false;
+		}
+
+		handler.accept(names[id]);
+		if (this.expiryHandler != null && this.present.get(id) && !this.timers[id].isScheduled()) {
+			this.schedule(id);
+		}
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		return key instanceof String && this.contains(findId((String) key));
+	}
+
+	@Override
+	public Cooldown get(final Object key) {
+		if (!(key instanceof String)) {
+			return null;
+		}
+		final int id = findId((String) key);
+		return this.contains(id) ? new Cooldown(this.expiries[id], this.database.get(id)) : null;
+	}
+
+	@Override
+	public Cooldown put(final String key, final Cooldown value) {
+		final int id = getId(key);
+		final Cooldown previous = this.contains(id) ? new Cooldown(this.expiries[id], this.database.get(id)) : null;
+		this.set(id, value.getCooldown(), value.isDatabase());
+		return previous;
+	}
+
+	@Override
+	public void putAll(final Map<? extends String, ? extends Cooldown> map) {
+		if (!(map instanceof CooldownStore)) {
+			super.putAll(map);
+			return;
+		}
+		final CooldownStore other = (CooldownStore) map;
+		for (int id = other.present.nextSetBit(0); id >= 0; id = other.present.nextSetBit(id + 1)) {
+			this.set(id, other.expiries[id], other.database.get(id));
+		}
+	}
+
+	@Override
+	public Cooldown remove(final Object key) {
+		if (!(key instanceof String)) {
+			return null;
+		}
+		final int id = findId((String) key);
+		final Cooldown previous = this.get(key);
+		this.remove(id);
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		for (int id = this.present.nextSetBit(0); id >= 0; id = this.present.nextSetBit(id + 1)) {
+			this.remove(id);
+		}
+	}
+
+	@Override
+	public Set<Entry<String, Cooldown>> entrySet() {
+		if (this.entrySet == null) {
+			this.entrySet = new AbstractSet<Entry<String, Cooldown>>() {
+				@Override
+				public Iterator<Entry<String, Cooldown>> iterator() {
+					return new EntryIterator();
+				}
+
+				@Override
+				public int size() {
+					return CooldownStore.this.size;
+				}
+			};
+		}
+		return this.entrySet;
+	}
+
+	private class EntryIterator implements Iterator<Entry<String, Cooldown>> {
+
+		private int next = CooldownStore.this.present.nextSetBit(0);
+		private int last = -1;
+
+		@Override
+		public boolean hasNext() {
+			return this.next >= 0;
+		}
+
+		@Override
+		public Entry<String, Cooldown> next() {
+			if (this.next < 0) {
+				throw new NoSuchElementException();
+			}
+			final int id = this.next;
+			this.last = id;
+			this.next = CooldownStore.this.present.nextSetBit(id + 1);
+			return new SimpleImmutableEntry<>(names[id], new Cooldown(CooldownStore.this.expiries[id], CooldownStore.this.database.get(id)));
+		}
+
+		@Override
+		public void remove() {
+			if (this.last < 0) {
+				throw new IllegalStateException();
+			}
+			CooldownStore.this.remove(this.last);
+			this.last = -1;
+		}
+	}
+
+	private static final class Slot {
+
+		private final CooldownStore store;
+		private final int id;
+
+		private Slot(final CooldownStore store, final int id) {
+			this.store = store;
+			this.id = id;
+		}
+	}
+}
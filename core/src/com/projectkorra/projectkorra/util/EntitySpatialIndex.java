@@ -0,0 +1,463 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.util.BoundingBox;
+
+/**
+ * A snapshot of the entities of a world and their bounding boxes, built once
+ * per bending tick and shared by every ability that looks for entities during
+ * that tick.
+ * <p>
+ * Building the snapshot visits every entity of the world, which only pays off
+ * once the world is queried often. The first queries of a world in a tick are
+ * left to the world, see {@link #setBuildThreshold(int)}, and the snapshot is
+ * only built once a world was queried that often in the same tick.
+ * <p>
+ * Entities are bucketed into a grid of vertical columns by the center of
+ * their bounding box. A query only visits the columns it overlaps, widened by
+ * the largest half width seen while building, and tests the snapshotted
+ * bounds of the entities in them. Queries don't allocate; matching entities
+ * are passed to a consumer.
+ * <p>
+ * The snapshot is taken from the world when it is built, so entities spawned or teleported later in the same tick are found
+ * where they were at that time, and entities that died since then are still
+ * found until the next tick, like the world keeps them until it ticks. The
+ * index is only handed out between {@link #begin()} and {@link #end()} on the
+ * thread that runs the tick, everything else should query the world.
+ */
+public class EntitySpatialIndex {
+
+	private static final int CELL_SHIFT = 2;
+	/**
+	 * The amount of ticks an index of a world that isn't queried anymore is
+	 * kept for, so unloaded worlds aren't held on to.
+	 */
+	private static final int EXPIRE_TICKS = 1200;
+
+	private static final Map<World, EntitySpatialIndex> INDEXES = new HashMap<>();
+
+	private static boolean enabled = true;
+	private static int buildThreshold = 16;
+	private static Thread tickThread;
+	private static long tick;
+
+	private final World world;
+	private final LongObjectHashMap<Cell> cells = new LongObjectHashMap<>();
+	private Cell[] pool = new Cell[0];
+	private int pooled;
+	private Entity[] entities = new Entity[0];
+	/**
+	 * The bounds of every entity as minX, minY, minZ, maxX, maxY, maxZ.
+	 */
+	private double[] bounds = new double[0];
+	private int size;
+	private double maxHalfWidth;
+	private long builtTick = -1;
+	private long queryTick = -1;
+	private int queries;
+
+	public EntitySpatialIndex(final World world) {
+		this.world = world;
+	}
+
+	public static void setEnabled(final boolean enabled) {
+		EntitySpatialIndex.enabled = enabled;
+		if (!enabled) {
+			INDEXES.clear();
+		}
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets how many times a world has to be queried in a tick before its
+	 * index is built. Queries before that are left to the world.
+	 *
+	 * @param threshold The amount of queries, 0 or less to build the index on
+	 *            the first query
+	 */
+	public static void setBuildThreshold(final int threshold) {
+		buildThreshold = Math.max(0, threshold);
+	}
+
+	public static int getBuildThreshold() {
+		return buildThreshold;
+	}
+
+	/**
+	 * Forgets the index of a world. Called when the world unloads.
+	 */
+	public static void remove(final World world) {
+		INDEXES.remove(world);
+	}
+
+	/**
+	 * Starts a bending tick. Indexes built before are stale from now on.
+	 */
+	public static void begin() {
+		tick++;
+		tickThread = enabled ? Thread.currentThread() : null;
+		if (!INDEXES.isEmpty() && tick % EXPIRE_TICKS == 0) {
+			INDEXES.values().removeIf(index -> tick - Math.max(index.builtTick, index.queryTick) >= EXPIRE_TICKS);
+		}
+	}
+
+	/**
+	 * Ends the bending tick, the world is queried directly until the next
+	 * {@link #begin()}.
+	 */
+	public static void end() {
+		tickThread = null;
+	}
+
+	/**
+	 * Gets the index of a world for the current tick, building it once the
+	 * world was queried {@link #getBuildThreshold()} times in this tick.
+	 *
+	 * @param world The world to get the index of
+	 * @return The index, or null if the world should be queried directly:
+	 *         outside of a bending tick, off the thread that runs it, or
+	 *         while the world wasn't queried often enough in this tick
+	 */
+	public static EntitySpatialIndex get(final World world) {
+		if (tickThread != Thread.currentThread() || world == null) {
+			return null;
+		}
+		EntitySpatialIndex index = INDEXES.get(world);
+		if (index == null) {
+			index = new EntitySpatialIndex(world);
+			INDEXES.put(world, index);
+		}
+		if (index.builtTick != tick) {
+			if (index.queryTick != tick) {
+				index.queryTick = tick;
+				index.queries = 0;
+			}
+			if (++index.queries <= buildThreshold) {
+				return null;
+			}
+			index.build(world.getEntities());
+			index.builtTick = tick;
+		}
+		return index;
+	}
+
+	/**
+	 * Replaces the snapshot with the given entities and their current
+	 * bounding boxes.
+	 */
+	public void build(final Collection<? extends Entity> entities) {
+		this.clearCells();
+		if (this.entities.length < entities.size()) {
+			final int capacity = Math.max(16, Integer.highestOneBit(entities.size()) << 1);
+			this.entities = new Entity[capacity];
+			this.bounds = new double[capacity * 6];
+		} else {
+			Arrays.fill(this.entities, 0, this.size, null);
+		}
+
+		this.size = 0;
+		this.maxHalfWidth = 0;
+		for (final Entity entity : entities) {
+			final BoundingBox box = entity.getBoundingBox();
+			final int index = this.size++;
+			final int offset = index * 6;
+			this.entities[index] = entity;
+			this.bounds[offset] = box.getMinX();
+			this.bounds[offset + 1] = box.getMinY();
+			this.bounds[offset + 2] = box.getMinZ();
+			this.bounds[offset + 3] = box.getMaxX();
+			this.bounds[offset + 4] = box.getMaxY();
+			this.bounds[offset + 5] = box.getMaxZ();
+			this.maxHalfWidth = Math.max(this.maxHalfWidth, Math.max(box.getWidthX(), box.getWidthZ()) / 2);
+
+			final long key = BlockKey.chunk(cell(box.getCenterX()), cell(box.getCenterZ()));
+			Cell cell = this.cells.get(key);
+			if (cell == null) {
+				cell = this.pooled > 0 ? this.pool[--this.pooled] : new Cell();
+				this.cells.put(key, cell);
+			}
+			cell.add(index);
+		}
+	}
+
+	private void clearCells() {
+		if (this.cells.isEmpty()) {
+			return;
+		}
+		final List<Cell> cells = this.cells.values();
+		if (this.pool.length < this.pooled + cells.size()) {
+			this.pool = Arrays.copyOf(this.pool, this.pooled + cells.size());
+		}
+		for (final Cell cell : cells) {
+			cell.size = 0;
+			this.pool[this.pooled++] = cell;
+		}
+		this.cells.clear();
+	}
+
+	public World getWorld() {
+		return this.world;
+	}
+
+	/**
+	 * @return The amount of entities in the snapshot
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Passes every entity whose bounding box overlaps the box to the
+	 * consumer. The bounds are exclusive, like the ones of
+	 * {@link World#getNearbyEntities(BoundingBox)}.
+	 *
+	 * @param filter Only entities it accepts are passed, may be null
+	 * @param consumer Receives the matching entities
+	 * @return The amount of matching entities
+	 */
+	public int forEachInBox(final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ, final Predicate<? super Entity> filter, final Consumer<? super Entity> consumer) {
+		int found = 0;
+		final int minCellX = cell(minX - this.maxHalfWidth), maxCellX = cell(maxX + this.maxHalfWidth);
+		final int minCellZ = cell(minZ - this.maxHalfWidth), maxCellZ = cell(maxZ + this.maxHalfWidth);
+		final long probes = (long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1);
+		if (probes > this.cells.size()) {
+			// Large box compared to the amount of occupied cells, so test every entity instead.
+			for (int index = 0; index < this.size; index++) {
+				if (this.overlaps(index, minX, minY, minZ, maxX, maxY, maxZ) && this.accept(index, filter, consumer)) {
+					found++;
+				}
+			}
+			return found;
+		}
+		for (int x = minCellX; x <= maxCellX; x++) {
+			for (int z = minCellZ; z <= maxCellZ; z++) {
+				final Cell cell = this.cells.get(BlockKey.chunk(x, z));
+				if (cell == null) {
+					continue;
+				}
+				for (int i = 0; i < cell.size; i++) {
+					final int index = cell.indices[i];
+					if (this.overlaps(index, minX, minY, minZ, maxX, maxY, maxZ) && this.accept(index, filter, consumer)) {
+						found++;
+					}
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Passes every entity whose bounding box overlaps the box around a point
+	 * to the consumer, like {@link World#getNearbyEntities(org.bukkit.Location, double, double, double, Predicate)}.
+	 *
+	 * @see #forEachInBox(double, double, double, double, double, double, Predicate, Consumer)
+	 */
+	public int forEachAround(final double x, final double y, final double z, final double radiusX, final double radiusY, final double radiusZ, final Predicate<? super Entity> filter, final Consumer<? super Entity> consumer) {
+		return this.forEachInBox(x - radiusX, y - radiusY, z - radiusZ, x + radiusX, y + radiusY, z + radiusZ, filter, consumer);
+	}
+
+	/**
+	 * Passes every entity whose bounding box is within the radius of a point
+	 * to the consumer.
+	 *
+	 * @see #forEachInBox(double, double, double, double, double, double, Predicate, Consumer)
+	 */
+	public int forEachInSphere(final double x, final double y, final double z, final double radius, final Predicate<? super Entity> filter, final Consumer<? super Entity> consumer) {
+		int found = 0;
+		final double radiusSquared = radius * radius;
+		final int minCellX = cell(x - radius - this.maxHalfWidth), maxCellX = cell(x + radius + this.maxHalfWidth);
+		final int minCellZ = cell(z - radius - this.maxHalfWidth), maxCellZ = cell(z + radius + this.maxHalfWidth);
+		final long probes = (long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1);
+		if (probes > this.cells.size()) {
+			for (int index = 0; index < this.size; index++) {
+				if (this.distanceSquared(index, x, y, z) <= radiusSquared && this.accept(index, filter, consumer)) {
+					found++;
+				}
+			}
+			return found;
+		}
+		for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+			for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+				final Cell cell = this.cells.get(BlockKey.chunk(cellX, cellZ));
+				if (cell == null) {
+					continue;
+				}
+				for (int i = 0; i < cell.size; i++) {
+					final int index = cell.indices[i];
+					if (this.distanceSquared(index, x, y, z) <= radiusSquared && this.accept(index, filter, consumer)) {
+						found++;
+					}
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Passes every entity whose bounding box, grown by the size of the ray,
+	 * is hit by the ray within the max distance to the consumer, together
+	 * with the distance along the ray at which it is hit. With a size, this
+	 * is a swept sphere test against the bounding boxes that can report hits
+	 * slightly past their corners.
+	 *
+	 * @param x The x of the origin of the ray
+	 * @param y The y of the origin of the ray
+	 * @param z The z of the origin of the ray
+	 * @param dirX The x of the normalized direction of the ray
+	 * @param dirY The y of the normalized direction of the ray
+	 * @param dirZ The z of the normalized direction of the ray
+	 * @param maxDistance The length of the ray
+	 * @param raySize The amount the bounding boxes are grown by
+	 * @param filter Only entities it accepts are passed, may be null
+	 * @param consumer Receives the matching entities
+	 * @return The amount of matching entities
+	 */
+	public int forEachOnRay(final double x, final double y, final double z, final double dirX, final double dirY, final double dirZ, final double maxDistance, final double raySize, final Predicate<? super Entity> filter, final RayConsumer consumer) {
+		int found = 0;
+		final double endX = x + dirX * maxDistance, endZ = z + dirZ * maxDistance;
+		final double reach = raySize + this.maxHalfWidth;
+		final int minCellX = cell(Math.min(x, endX) - reach), maxCellX = cell(Math.max(x, endX) + reach);
+		final int minCellZ = cell(Math.min(z, endZ) - reach), maxCellZ = cell(Math.max(z, endZ) + reach);
+		final long probes = (long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1);
+		if (probes > this.cells.size()) {
+			for (int index = 0; index < this.size; index++) {
+				if (this.acceptRay(index, x, y, z, dirX, dirY, dirZ, maxDistance, raySize, filter, consumer)) {
+					found++;
+				}
+			}
+			return found;
+		}
+		for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+			for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+				final Cell cell = this.cells.get(BlockKey.chunk(cellX, cellZ));
+				if (cell == null) {
+					continue;
+				}
+				for (int i = 0; i < cell.size; i++) {
+					final int index = cell.indices[i];
+					if (this.acceptRay(index, x, y, z, dirX, dirY, dirZ, maxDistance, raySize, filter, consumer)) {
+						found++;
+					}
+				}
+			}
+		}
+		return found;
+	}
+
+	private boolean accept(final int index, final Predicate<? super Entity> filter, final Consumer<? super Entity> consumer) {
+		final Entity entity = this.entities[index];
+		if (filter != null && !filter.test(entity)) {
+			return false;
+		}
+		consumer.accept(entity);
+		return true;
+	}
+
+	private boolean acceptRay(final int index, final double x, final double y, final double z, final double dirX, final double dirY, final double dirZ, final double maxDistance, final double raySize, final Predicate<? super Entity> filter, final RayConsumer consumer) {
+		final double distance = this.intersect(index, x, y, z, dirX, dirY, dirZ, maxDistance, raySize);
+		if (distance < 0) {
+			return false;
+		}
+		final Entity entity = this.entities[index];
+		if (filter != null && !filter.test(entity)) {
+			return false;
+		}
+		consumer.accept(entity, distance);
+		return true;
+	}
+
+	private boolean overlaps(final int index, final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ) {
+		final int offset = index * 6;
+		final double[] bounds = this.bounds;
+		return bounds[offset] < maxX && bounds[offset + 3] > minX && bounds[offset + 1] < maxY && bounds[offset + 4] > minY && bounds[offset + 2] < maxZ && bounds[offset + 5] > minZ;
+	}
+
+	private double distanceSquared(final int index, final double x, final double y, final double z) {
+		final int offset = index * 6;
+		final double dx = Math.max(this.bounds[offset] - x, Math.max(0, x - this.bounds[offset + 3]));
+		final double dy = Math.max(this.bounds[offset + 1] - y, Math.max(0, y - this.bounds[offset + 4]));
+		final double dz = Math.max(this.bounds[offset + 2] - z, Math.max(0, z - this.bounds[offset + 5]));
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	/**
+	 * Slab test of the ray against the grown bounding box of the entity.
+	 *
+	 * @return The distance along the ray the box is entered at, 0 if the
+	 *         origin is inside of it, or -1 if the ray misses it
+	 */
+	private double intersect(final int index, final double x, final double y, final double z, final double dirX, final double dirY, final double dirZ, final double maxDistance, final double raySize) {
+		final int offset = index * 6;
+		double near = 0, far = maxDistance;
+		for (int axis = 0; axis < 3; axis++) {
+			final double origin = axis == 0 ? x : axis == 1 ? y : z;
+			final double dir = axis == 0 ? dirX : axis == 1 ? dirY : dirZ;
+			final double min = this.bounds[offset + axis] - raySize;
+			final double max = this.bounds[offset + axis + 3] + raySize;
+			if (Math.abs(dir) < 1.0E-9) {
+				if (origin < min || origin > max) {
+					return -1;
+				}
+				continue;
+			}
+			double t1 = (min - origin) / dir;
+			double t2 = (max - origin) / dir;
+			if (t1 > t2) {
+				final double t = t1;
+				t1 = t2;
+				t2 = t;
+			}
+			near = Math.max(near, t1);
+			far = Math.min(far, t2);
+			if (near > far) {
+				return -1;
+			}
+		}
+		return near;
+	}
+
+	private static int cell(final double coordinate) {
+		return (int) Math.floor(coordinate) >> CELL_SHIFT;
+	}
+
+	/**
+	 * Receives the entities hit by a ray.
+	 */
+	@FunctionalInterface
+	public interface RayConsumer {
+
+		/**
+		 * @param entity The entity that was hit
+		 * @param distance The distance along the ray it was hit at
+		 */
+		void accept(Entity entity, double distance);
+	}
+
+	/**
+	 * The indices of the entities whose bounding box center is in a column.
+	 */
+	private static final class Cell {
+
+		private int[] indices = new int[4];
+		private int size;
+
+		private void add(final int index) {
+			if (this.size == this.indices.length) {
+				this.indices = Arrays.copyOf(this.indices, this.size * 2);
+			}
+			this.indices[this.size++] = index;
+		}
+	}
+}
@@ -0,0 +1,341 @@
+package com.projectkorra.projectkorra.util;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+
+import com.projectkorra.projectkorra.Element;
+import com.projectkorra.projectkorra.ability.CoreAbility;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.storage.DBConnection;
+
+/**
+ * Answers top-N queries of a {@link Statistic} for an ability, an element or
+ * all abilities, without reading the database on the calling thread.
+ * <p>
+ * The top of every leaderboard that was asked for is materialized from
+ * pk_stats with a single grouped query on the database workers, and
+ * refreshed once it is older than {@code Storage.Leaderboard.RefreshInterval}.
+ * The live values of the loaded players replace theirs in the snapshot, so
+ * online players move up the leaderboard right away. The merged top is cached
+ * for a second, since placeholders can ask for it many times per tick.
+ * <p>
+ * Snapshots only hold the UUIDs and totals of the players. Their names are
+ * looked up when {@link Entry#getName()} is called, which has to be done on
+ * the main thread.
+ */
+public class Leaderboard {
+
+	private static final long VIEW_MILLIS = 1000;
+	private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::getValue).reversed().thenComparing(entry -> entry.getUUID());
+
+	private final StatisticsManager manager;
+	private final Map<Key, Snapshot> snapshots = new ConcurrentHashMap<>();
+	private final Map<Key, CompletableFuture<Snapshot>> loading = new ConcurrentHashMap<>();
+	private final Map<Key, View> views = new ConcurrentHashMap<>();
+	private final Map<UUID, String> names = new ConcurrentHashMap<>();
+
+	Leaderboard(final StatisticsManager manager) {
+		this.manager = manager;
+	}
+
+	/**
+	 * Gets the top of a leaderboard right away. If the leaderboard wasn't
+	 * materialized yet, it is materialized in the background and only the
+	 * loaded players are ranked until it is done.
+	 *
+	 * @param statistic The statistic to rank by
+	 * @param object The {@link CoreAbility} or {@link Element} to rank by, or
+	 *            null to rank by the total over all abilities
+	 * @param limit The max amount of entries
+	 * @return The entries, highest value first
+	 */
+	public List<Entry> getTop(final Statistic statistic, final Object object, final int limit) {
+		final Key key = new Key(statistic, object);
+		final Snapshot snapshot = this.getSnapshot(key);
+		final long now = System.currentTimeMillis();
+		View view = this.views.get(key);
+		if (view == null || view.snapshot != snapshot || now - view.time > VIEW_MILLIS || view.limit < limit) {
+			final int viewLimit = view == null ? limit : Math.max(limit, view.limit);
+			view = new View(snapshot, now, viewLimit, this.merge(key, snapshot, viewLimit));
+			this.views.put(key, view);
+		}
+		return view.entries.size() > limit ? view.entries.subList(0, limit) : view.entries;
+	}
+
+	/**
+	 * Gets the top of a leaderboard, waiting for it to be materialized if it
+	 * wasn't yet. The future is completed on a database worker if it has to
+	 * wait.
+	 *
+	 * @see #getTop(Statistic, Object, int)
+	 */
+	public CompletableFuture<List<Entry>> getTopAsync(final Statistic statistic, final Object object, final int limit) {
+		final Key key = new Key(statistic, object);
+		final Snapshot snapshot = this.snapshots.get(key);
+		if (snapshot != null) {
+			return CompletableFuture.completedFuture(this.getTop(statistic, object, limit));
+		}
+		return this.materialize(key).thenApply(materialized -> this.getTop(statistic, object, limit));
+	}
+
+	/**
+	 * Materializes every leaderboard that is older than the refresh interval
+	 * again. Called on the interval of the {@link StatisticsManager}.
+	 */
+	public void refresh() {
+		final long interval = ConfigManager.getConfig().getLong("Storage.Leaderboard.RefreshInterval");
+		final long now = System.currentTimeMillis();
+		for (final Map.Entry<Key, Snapshot> entry : this.snapshots.entrySet()) {
+			if (now - entry.getValue().time >= interval) {
+				this.materialize(entry.getKey());
+			}
+		}
+	}
+
+	/**
+	 * Drops every materialized leaderboard, e.g. after abilities were
+	 * registered again.
+	 */
+	public void clear() {
+		this.snapshots.clear();
+		this.views.clear();
+	}
+
+	/**
+	 * @return The snapshot of the leaderboard, which is materialized if it
+	 *         doesn't exist yet
+	 */
+	private Snapshot getSnapshot(final Key key) {
+		final Snapshot snapshot = this.snapshots.get(key);
+		if (snapshot == null) {
+			this.materialize(key);
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Reads the top of the leaderboard from pk_stats on the database workers,
+	 * unless it is already being read.
+	 */
+	private CompletableFuture<Snapshot> materialize(final Key key) {
+		final CompletableFuture<Snapshot> pending = this.loading.get(key);
+		if (pending != null) {
+			return pending;
+		}
+
+		final Snapshot previous = this.snapshots.get(key);
+		final List<Integer> statIds = this.getStatIds(key);
+		if (statIds.isEmpty() || !DBConnection.isOpen()) {
+			final Snapshot snapshot = new Snapshot(statIds.isEmpty() || previous == null ? Collections.emptyList() : previous.entries, System.currentTimeMillis());
+			this.snapshots.put(key, snapshot);
+			return CompletableFuture.completedFuture(snapshot);
+		}
+
+		final int size = ConfigManager.getConfig().getInt("Storage.Leaderboard.Size");
+
+		final StringBuilder sql = new StringBuilder("SELECT uuid, SUM(statValue) AS total FROM pk_stats WHERE statId IN (");
+		for (int i = 0; i < statIds.size(); i++) {
+			sql.append(i == 0 ? "?" : ", ?");
+		}
+		sql.append(") GROUP BY uuid ORDER BY total DESC LIMIT ?");
+
+		final CompletableFuture<Snapshot> future = new CompletableFuture<>();
+		this.loading.put(key, future);
+		DBConnection.sql.submit(statements -> {
+			final PreparedStatement statement = statements.prepare(sql.toString());
+			for (int i = 0; i < statIds.size(); i++) {
+				statement.setInt(i + 1, statIds.get(i));
+			}
+			statement.setInt(statIds.size() + 1, size);
+
+			final List<Entry> entries = new ArrayList<>();
+			try (ResultSet rs = statement.executeQuery()) {
+				while (rs.next()) {
+					final UUID uuid = UUID.fromString(rs.getString("uuid"));
+					entries.add(new Entry(this, uuid, rs.getLong("total")));
+				}
+			}
+			return new Snapshot(entries, System.currentTimeMillis());
+		}).whenComplete((snapshot, e) -> {
+			// Keep the previous snapshot if the query failed, it is retried after the refresh interval.
+			final Snapshot result = snapshot != null ? snapshot : new Snapshot(previous == null ? Collections.emptyList() : previous.entries, System.currentTimeMillis());
+			this.snapshots.put(key, result);
+			this.loading.remove(key);
+			future.complete(result);
+		});
+		return future;
+	}
+
+	private List<Integer> getStatIds(final Key key) {
+		final List<Integer> statIds = new ArrayList<>();
+		if (key.object instanceof CoreAbility) {
+			final int statId = this.manager.findId((CoreAbility) key.object, key.statistic);
+			if (statId >= 0) {
+				statIds.add(statId);
+			}
+			return statIds;
+		}
+		for (final int statId : this.manager.getKeysById().keySet()) {
+			final StatisticsManager.StatisticKey statisticKey = this.manager.getKey(statId);
+			if (statisticKey != null && statisticKey.getStatistic() == key.statistic && (key.object == null || statisticKey.getElement().equals(key.object))) {
+				statIds.add(statId);
+			}
+		}
+		Collections.sort(statIds);
+		return statIds;
+	}
+
+	/**
+	 * Ranks the entries of the snapshot together with the live values of the
+	 * loaded players, keeping only the highest values in a bounded heap.
+	 */
+	private List<Entry> merge(final Key key, final Snapshot snapshot, final int limit) {
+		final Map<UUID, Entry> entries = new HashMap<>();
+		if (snapshot != null) {
+			for (final Entry entry : snapshot.entries) {
+				entries.put(entry.uuid, entry);
+			}
+		}
+		this.manager.forEachLoaded(key.statistic, key.object, (uuid, value) -> {
+			final Entry entry = entries.get(uuid);
+			if (entry == null || entry.value != value) {
+				entries.put(uuid, new Entry(this, uuid, value));
+			}
+		});
+
+		final PriorityQueue<Entry> heap = new PriorityQueue<>(limit + 1, ORDER.reversed());
+		for (final Entry entry : entries.values()) {
+			if (entry.value <= 0) {
+				continue;
+			}
+			heap.add(entry);
+			if (heap.size() > limit) {
+				heap.poll();
+			}
+		}
+		final List<Entry> top = new ArrayList<>(heap);
+		top.sort(ORDER);
+		return Collections.unmodifiableList(top);
+	}
+
+	/**
+	 * Looks up the name of a player, caching the names of offline players.
+	 * Must be called on the main thread.
+	 */
+	private String getName(final UUID uuid) {
+		final Player player = Bukkit.getPlayer(uuid);
+		if (player != null) {
+			return player.getName();
+		}
+		return this.names.computeIfAbsent(uuid, id -> {
+			final OfflinePlayer oPlayer = Bukkit.getOfflinePlayer(id);
+			return oPlayer.getName() == null ? id.toString() : oPlayer.getName();
+		});
+	}
+
+	/**
+	 * A ranked player.
+	 */
+	public static final class Entry {
+
+		private final Leaderboard leaderboard;
+		private final UUID uuid;
+		private final long value;
+
+		private Entry(final Leaderboard leaderboard, final UUID uuid, final long value) {
+			this.leaderboard = leaderboard;
+			this.uuid = uuid;
+			this.value = value;
+		}
+
+		public UUID getUUID() {
+			return this.uuid;
+		}
+
+		public long getValue() {
+			return this.value;
+		}
+
+		/**
+		 * Looks up the name of the player. Must be called on the main thread.
+		 */
+		public String getName() {
+			return this.leaderboard.getName(this.uuid);
+		}
+	}
+
+	private static final class Key {
+
+		private final Statistic statistic;
+		private final Object object;
+		/**
+		 * The name of the ability or element, abilities are compared by
+		 * name since every instance of an ability is a CoreAbility.
+		 */
+		private final String name;
+
+		private Key(final Statistic statistic, final Object object) {
+			if (object instanceof CoreAbility) {
+				this.name = "ability:" + ((CoreAbility) object).getName();
+			} else if (object instanceof Element) {
+				this.name = "element:" + ((Element) object).getName();
+			} else if (object == null) {
+				this.name = "all";
+			} else {
+				throw new IllegalArgumentException("Variable object is not a valid input type. Required: CoreAbility or Element.");
+			}
+			this.statistic = statistic;
+			this.object = object;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			return o instanceof Key && this.statistic == ((Key) o).statistic && this.name.equals(((Key) o).name);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * this.statistic.hashCode() + this.name.hashCode();
+		}
+	}
+
+	private static final class Snapshot {
+
+		private final List<Entry> entries;
+		private final long time;
+
+		private Snapshot(final List<Entry> entries, final long time) {
+			this.entries = entries;
+			this.time = time;
+		}
+	}
+
+	private static final class View {
+
+		private final Snapshot snapshot;
+		private final long time;
+		private final int limit;
+		private final List<Entry> entries;
+
+		private View(final Snapshot snapshot, final long time, final int limit, final List<Entry> entries) {
+			this.snapshot = snapshot;
+			this.time = time;
+			this.limit = limit;
+			this.entries = entries;
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An open addressing hash map with primitive long keys, used for packed
+ * block and chunk coordinates so lookups don't box keys or hash Block
+ * objects. Uses linear probing with backward shift deletion, so there are no
+ * tombstones and removal keeps lookups short.
+ * <p>
+ * This map is not thread safe, and must not be modified while it is being
+ * iterated with {@link #forEach(EntryConsumer)}.
+ *
+ * @param <V> the type of values
+ */
+public class LongObjectHashMap<V> {
+
+	private static final float LOAD_FACTOR = 0.6F;
+
+	private long[] keys;
+	private Object[] values;
+	private int size;
+	private int mask;
+	private int resizeAt;
+
+	public LongObjectHashMap() {
+		this(16);
+	}
+
+	public LongObjectHashMap(final int expectedSize) {
+		int capacity = 16;
+		while (capacity * LOAD_FACTOR < expectedSize) {
+			capacity <<= 1;
+		}
+		this.allocate(capacity);
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	public boolean containsKey(final long key) {
+		return this.indexOf(key) >= 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(final long key) {
+		final int index = this.indexOf(key);
+		return index < 0 ? null : (V) this.values[index];
+	}
+
+	/**
+	 * @return the previous value for the key, or null if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(final long key, final V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Values cannot be null");
+		}
+
+		int index = mix(key) & this.mask;
+		while (this.values[index] != null) {
+			if (this.keys[index] == key) {
+				final V previous = (V) this.values[index];
+				this.values[index] = value;
+				return previous;
+			}
+			index = (index + 1) & this.mask;
+		}
+
+		this.keys[index] = key;
+		this.values[index] = value;
+		if (++this.size >= this.resizeAt) {
+			this.rehash(this.keys.length << 1);
+		}
+		return null;
+	}
+
+	/**
+	 * @return the removed value, or null if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(final long key) {
+		int index = this.indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+
+		final V previous = (V) this.values[index];
+		this.size--;
+
+		// Shift the following entries of the probe sequence back into the gap.
+		int next = (index + 1) & this.mask;
+		while (this.values[next] != null) {
+			final int ideal = mix(this.keys[next]) & this.mask;
+			if (((next - ideal) & this.mask) >= ((next - index) & this.mask)) {
+				this.keys[index] = this.keys[next];
+				this.values[index] = this.values[next];
+				index = next;
+			}
+			next = (next + 1) & this.mask;
+		}
+		this.values[index] = null;
+		return previous;
+	}
+
+	public void clear() {
+		Arrays.fill(this.values, null);
+		this.size = 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public void forEach(final EntryConsumer<V> consumer) {
+		for (int i = 0; i < this.values.length; i++) {
+			if (this.values[i] != null) {
+				consumer.accept(this.keys[i], (V) this.values[i]);
+			}
+		}
+	}
+
+	/**
+	 * @return a copy of the values, which is safe to iterate while modifying
+	 *         the map
+	 */
+	@SuppressWarnings("unchecked")
+	public List<V> values() {
+		final List<V> result = new ArrayList<>(this.size);
+		for (final Object value : this.values) {
+			if (value != null) {
+				result.add((V) value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return a copy of the keys, which is safe to iterate while modifying the
+	 *         map
+	 */
+	public long[] keys() {
+		final long[] result = new long[this.size];
+		int j = 0;
+		for (int i = 0; i < this.values.length; i++) {
+			if (this.values[i] != null) {
+				result[j++] = this.keys[i];
+			}
+		}
+		return result;
+	}
+
+	private int indexOf(final long key) {
+		int index = mix(key) & this.mask;
+		while (this.values[index] != null) {
+			if (this.keys[index] == key) {
+				return index;
+			}
+			index = (index + 1) & this.mask;
+		}
+		return -1;
+	}
+
+	private void allocate(final int capacity) {
+		this.keys = new long[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1;
+		this.resizeAt = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private void rehash(final int capacity) {
+		final long[] oldKeys = this.keys;
+		final Object[] oldValues = this.values;
+		this.allocate(capacity);
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != null) {
+				int index = mix(oldKeys[i]) & this.mask;
+				while (this.values[index] != null) {
+					index = (index + 1) & this.mask;
+				}
+				this.keys[index] = oldKeys[i];
+				this.values[index] = oldValues[i];
+			}
+		}
+	}
+
+	private static int mix(final long key) {
+		final long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	@FunctionalInterface
+	public interface EntryConsumer<V> {
+		void accept(long key, V value);
+	}
+}
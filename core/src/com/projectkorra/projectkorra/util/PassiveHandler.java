@@ -44,11 +44,11 @@ public class PassiveHandler {
 		double air = AirSaturation.getExhaustionFactor();
 		double chi = ChiSaturation.getExhaustionFactor();
 
-		if (ConfigManager.defaultConfig.get().getStringList("Properties.DisabledWorlds").contains(player.getWorld().getName())) {
+		if (ConfigManager.getSnapshot().isWorldDisabled(player.getWorld())) {
 			return;
 		}
 
-		if (Commands.isToggledForAll && ConfigManager.defaultConfig.get().getBoolean("Properties.TogglePassivesWithAllBending")) {
+		if (Commands.isToggledForAll && ConfigManager.getSnapshot().isTogglePassivesWithAllBending()) {
 			return;
 		}
 
@@ -1,15 +1,17 @@
 package com.projectkorra.projectkorra.util;
 
+import java.util.ArrayDeque;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.Callable;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Future;
 
-import org.bukkit.Server;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 
@@ -17,129 +19,338 @@ import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.EarthAbility;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
 
-import io.papermc.lib.PaperLib;
-
+/**
+ * Reverts moved earth and temporary air blocks of {@link EarthAbility} once
+ * they are older than Properties.Earth.RevertCheckTime.
+ * <p>
+ * Blocks are indexed by world and chunk (see {@link BlockKey}), and every
+ * chunk keeps its blocks ordered by the time they are due. Only the earliest
+ * due time of a chunk is scheduled on a {@link TimingWheel}, so a tick
+ * without due blocks does no work. Due blocks are queued and reverted on the
+ * main thread, for at most Properties.Earth.RevertTimePerTick milliseconds
+ * per tick. The rest is reverted in the next ticks.
+ * <p>
+ * With Properties.Earth.SafeRevert, chunks a player stands in are checked
+ * again after {@link #RETRY_MILLIS}. When a chunk unloads, all of its blocks
+ * are reverted right away, so reverts don't have to load chunks again.
+ * <p>
+ * The index is updated by EarthAbility whenever it moves earth or creates
+ * temporary air. Blocks removed from {@link EarthAbility#getMovedEarth()} or
+ * {@link EarthAbility#getTempAirLocations()} directly are skipped once they
+ * are due. This class is not thread safe and must be used on the main
+ * thread.
+ */
 public class RevertChecker implements Runnable {
 
-	private final ProjectKorra plugin;
-
-	private static final FileConfiguration config = ConfigManager.defaultConfig.get();
-	private static final boolean safeRevert = config.getBoolean("Properties.Earth.SafeRevert");
+	/**
+	 * The length of a wheel tick in milliseconds. Due times are rounded up to
+	 * whole ticks.
+	 */
+	private static final long TICK_MILLIS = 50;
+	/**
+	 * How long occupied chunks and blocks whose revert was postponed wait
+	 * before they are checked again.
+	 */
+	private static final long RETRY_MILLIS = 10000;
+	private static final Comparator<Entry> DUE_ORDER = Comparator.comparingLong(entry -> entry.due);
+
+	private static final Map<World, LongObjectHashMap<RevertChunk>> CHUNKS = new HashMap<>();
+	private static final TimingWheel<RevertChunk> WHEEL = new TimingWheel<>(System.currentTimeMillis() / TICK_MILLIS);
+	private static final ArrayDeque<Entry> PENDING = new ArrayDeque<>();
+	private static final Map<World, LongObjectHashMap<Boolean>> OCCUPIED = new HashMap<>();
+	private static boolean occupiedFound;
+
+	private static boolean safeRevert = true;
+	private static long revertCheckTime = 300000;
+	private static long maxRevertNanos = 2000000;
+
+	/**
+	 * @deprecated Blocks aren't queued here anymore, this map is always empty.
+	 */
+	@Deprecated
 	public static Map<Block, Block> earthRevertQueue = new ConcurrentHashMap<>();
-	static Map<Integer, Integer> airRevertQueue = new ConcurrentHashMap<>();
 
-	private long time;
+	private RevertChecker() {}
+
+	/**
+	 * @deprecated The checker isn't a task anymore, see {@link #progressAll()}.
+	 */
+	@Deprecated
+	public RevertChecker(final ProjectKorra bending) {}
+
+	/**
+	 * Does nothing, the checker isn't a task anymore.
+	 *
+	 * @deprecated Blocks are reverted by {@link #progressAll()}
+	 */
+	@Deprecated
+	@Override
+	public void run() {}
 
-	public RevertChecker(final ProjectKorra bending) {
-		this.plugin = bending;
+	/**
+	 * @deprecated Use {@link #progressAll()}
+	 */
+	@Deprecated
+	public static void revertEarthBlocks() {
+		progressAll();
 	}
 
+	/**
+	 * @deprecated Use {@link #progressAll()}
+	 */
+	@Deprecated
 	public static void revertAirBlocks() {
-		for (final int ID : airRevertQueue.keySet()) {
-			PaperLib.getChunkAtAsync(EarthAbility.getTempAirLocations().get(ID).getState().getBlock().getLocation()).thenAccept(result -> EarthAbility.revertAirBlock(ID));
-			RevertChecker.airRevertQueue.remove(ID);
-		}
+		progressAll();
 	}
 
-	public static void revertEarthBlocks() {
-		for (final Block block : earthRevertQueue.keySet()) {
-			PaperLib.getChunkAtAsync(block.getLocation()).thenAccept(result -> EarthAbility.revertBlock(block));
-			earthRevertQueue.remove(block);
-		}
+	/**
+	 * Reads the revert settings from the config.
+	 */
+	public static void loadConfig() {
+		final FileConfiguration config = ConfigManager.getConfig();
+		safeRevert = config.getBoolean("Properties.Earth.SafeRevert");
+		revertCheckTime = config.getLong("Properties.Earth.RevertCheckTime");
+		maxRevertNanos = Math.max(0, config.getLong("Properties.Earth.RevertTimePerTick")) * 1000000;
+	}
+
+	/**
+	 * Schedules the revert of earth that was moved to the block.
+	 *
+	 * @param block The key of the earth in {@link EarthAbility#getMovedEarth()}
+	 * @param info The information stored for the block
+	 */
+	public static void trackEarth(final Block block, final Information info) {
+		schedule(new Entry(block, info, block.getWorld(), block.getX() >> 4, block.getZ() >> 4), info.getTime() + revertCheckTime);
 	}
 
-	private Future<Set<Map<String, Integer>>> returnFuture;
+	/**
+	 * Schedules the revert of a temporary air block.
+	 *
+	 * @param info The information stored in
+	 *            {@link EarthAbility#getTempAirLocations()}
+	 */
+	public static void trackAir(final Information info) {
+		final BlockState state = info.getState();
+		schedule(new Entry(null, info, state.getWorld(), state.getX() >> 4, state.getZ() >> 4), info.getTime() + revertCheckTime);
+	}
 
-	private void addToAirRevertQueue(final int i) {
-		if (!airRevertQueue.containsKey(i)) {
-			airRevertQueue.put(i, i);
+	/**
+	 * Queues the blocks that are due and reverts as many queued blocks as the
+	 * time per tick allows. Called every tick by the BendingManager.
+	 */
+	public static void progressAll() {
+		if (!EarthAbility.isEarthRevertOn()) {
+			return;
 		}
 
-	}
+		final long now = System.currentTimeMillis();
+		occupiedFound = false;
+		WHEEL.advance(now / TICK_MILLIS, 0, chunk -> expire(chunk, now));
 
-	private void addToRevertQueue(final Block block) {
-		if (!earthRevertQueue.containsKey(block)) {
-			earthRevertQueue.put(block, block);
+		if (PENDING.isEmpty()) {
+			return;
 		}
+		final long deadline = System.nanoTime() + maxRevertNanos;
+		do {
+			revert(PENDING.poll(), now);
+		} while (!PENDING.isEmpty() && System.nanoTime() < deadline);
 	}
 
-	@Override
-	public void run() {
-		if (!this.plugin.isEnabled()) {
+	/**
+	 * Reverts every block in the chunk, whether it is due or not. Called when
+	 * the chunk unloads.
+	 */
+	public static void revertChunk(final World world, final int chunkX, final int chunkZ) {
+		if (!EarthAbility.isEarthRevertOn()) {
 			return;
 		}
 
-		this.time = System.currentTimeMillis();
-		if (config.getBoolean("Properties.Earth.RevertEarthbending")) {
-
-			try {
-				this.returnFuture = this.plugin.getServer().getScheduler().callSyncMethod(this.plugin, new getOccupiedChunks(this.plugin.getServer()));
-				final Set<Map<String, Integer>> chunks = this.returnFuture.get();
+		final long now = System.currentTimeMillis();
+		final LongObjectHashMap<RevertChunk> chunks = CHUNKS.get(world);
+		final RevertChunk chunk = chunks == null ? null : chunks.remove(BlockKey.chunk(chunkX, chunkZ));
+		if (chunk != null) {
+			WHEEL.cancel(chunk.timer);
+			if (chunks.isEmpty()) {
+				CHUNKS.remove(world);
+			}
+			for (final Entry entry : chunk.entries) {
+				revertNow(entry, now);
+			}
+		}
 
-				final Map<Block, Information> earth = new HashMap<>(EarthAbility.getMovedEarth());
+		if (!PENDING.isEmpty()) {
+			PENDING.removeIf(entry -> {
+				if (entry.world == world && entry.chunkX == chunkX && entry.chunkZ == chunkZ) {
+					revertNow(entry, now);
+					return true;
+				}
+				return false;
+			});
+		}
+	}
 
-				for (final Block block : earth.keySet()) {
-					if (earthRevertQueue.containsKey(block)) {
-						continue;
-					}
+	/**
+	 * Forgets every scheduled block without reverting it.
+	 */
+	public static void clear() {
+		WHEEL.drainAll(chunk -> {});
+		CHUNKS.clear();
+		PENDING.clear();
+	}
 
-					final Information info = earth.get(block);
+	/**
+	 * @return The amount of blocks that are scheduled or queued, including
+	 *         blocks that were reverted or moved since
+	 */
+	public static int size() {
+		int size = PENDING.size();
+		for (final LongObjectHashMap<RevertChunk> chunks : CHUNKS.values()) {
+			for (final RevertChunk chunk : chunks.values()) {
+				size += chunk.entries.size();
+			}
+		}
+		return size;
+	}
 
-					final Map<String, Integer> chunkcoord = new HashMap<>();
-					chunkcoord.put("x", block.getX() >> 4);
-					chunkcoord.put("z", block.getZ() >> 4);
+	private static void schedule(final Entry entry, final long due) {
+		entry.due = due;
+		final LongObjectHashMap<RevertChunk> chunks = CHUNKS.computeIfAbsent(entry.world, w -> new LongObjectHashMap<>());
+		final long key = BlockKey.chunk(entry.chunkX, entry.chunkZ);
+		RevertChunk chunk = chunks.get(key);
+		if (chunk == null) {
+			chunk = new RevertChunk(entry.world, entry.chunkX, entry.chunkZ);
+			chunks.put(key, chunk);
+		}
 
-					if (this.time > (info.getTime() + config.getLong("Properties.Earth.RevertCheckTime")) && !(chunks.contains(chunkcoord) && safeRevert)) {
-						this.addToRevertQueue(block);
-					}
-				}
+		chunk.entries.add(entry);
+		if (chunk.entries.peek() == entry) {
+			WHEEL.schedule(chunk.timer, toTick(due));
+		}
+	}
 
-				final Map<Integer, Information> air = new HashMap<>(EarthAbility.getTempAirLocations());
+	/**
+	 * Queues the due blocks of a chunk whose earliest due time passed.
+	 */
+	private static void expire(final RevertChunk chunk, final long now) {
+		if (safeRevert && isOccupied(chunk)) {
+			WHEEL.schedule(chunk.timer, toTick(now + RETRY_MILLIS));
+			return;
+		}
 
-				for (final Integer i : air.keySet()) {
-					if (airRevertQueue.containsKey(i)) {
-						continue;
-					}
+		while (!chunk.entries.isEmpty() && chunk.entries.peek().due <= now) {
+			PENDING.add(chunk.entries.poll());
+		}
 
-					final Information info = air.get(i);
-					final Block block = info.getBlock();
+		if (!chunk.entries.isEmpty()) {
+			WHEEL.schedule(chunk.timer, toTick(chunk.entries.peek().due));
+			return;
+		}
+		final LongObjectHashMap<RevertChunk> chunks = CHUNKS.get(chunk.world);
+		chunks.remove(BlockKey.chunk(chunk.chunkX, chunk.chunkZ));
+		if (chunks.isEmpty()) {
+			CHUNKS.remove(chunk.world);
+		}
+	}
 
-					final Map<String, Integer> chunkcoord = new HashMap<>();
-					chunkcoord.put("x", block.getX() >> 4);
-					chunkcoord.put("z", block.getZ() >> 4);
+	/**
+	 * Reverts a queued block if it is still due. Blocks that were moved again
+	 * since they were scheduled are scheduled for their new due time.
+	 */
+	private static void revert(final Entry entry, final long now) {
+		if (!entry.isCurrent()) {
+			return;
+		}
 
-					if (this.time > (info.getTime() + config.getLong("Properties.Earth.RevertCheckTime")) && !(chunks.contains(chunkcoord) && safeRevert)) {
-						this.addToAirRevertQueue(i);
-					}
-				}
-			} catch (final Exception e) {
-				e.printStackTrace();
-			}
+		final long due = entry.info.getTime() + revertCheckTime;
+		if (due > now) {
+			schedule(entry, due);
+			return;
 		}
-	}
 
-	private class getOccupiedChunks implements Callable<Set<Map<String, Integer>>> {
-		private final Server server;
+		revertNow(entry, now);
+	}
 
-		public getOccupiedChunks(final Server server) {
-			this.server = server;
+	private static void revertNow(final Entry entry, final long now) {
+		if (!entry.isCurrent()) {
+			return;
 		}
 
-		@Override
-		public Set<Map<String, Integer>> call() {
-			final Set<Map<String, Integer>> chunks = new HashSet<>();
+		if (entry.block != null) {
+			EarthAbility.revertBlock(entry.block);
+		} else {
+			EarthAbility.revertAirBlock(entry.info.getID());
+		}
 
-			for (final Player player : this.server.getOnlinePlayers()) {
-				final Map<String, Integer> chunkcoord = new HashMap<>();
-				chunkcoord.put("x", player.getLocation().getBlockX() >> 4);
-				chunkcoord.put("z", player.getLocation().getBlockZ() >> 4);
+		// The revert was postponed, e.g. because earth was moved into a temporary air block
+		if (entry.isCurrent()) {
+			schedule(entry, Math.max(entry.info.getTime() + revertCheckTime, now + RETRY_MILLIS));
+		}
+	}
 
-				chunks.add(chunkcoord);
+	private static boolean isOccupied(final RevertChunk chunk) {
+		if (!occupiedFound) {
+			for (final LongObjectHashMap<Boolean> chunks : OCCUPIED.values()) {
+				chunks.clear();
+			}
+			for (final Player player : Bukkit.getOnlinePlayers()) {
+				final Location location = player.getLocation();
+				OCCUPIED.computeIfAbsent(location.getWorld(), w -> new LongObjectHashMap<>()).put(BlockKey.chunkOf(location), Boolean.TRUE);
 			}
+			occupiedFound = true;
+		}
+
+		final LongObjectHashMap<Boolean> chunks = OCCUPIED.get(chunk.world);
+		return chunks != null && chunks.containsKey(BlockKey.chunk(chunk.chunkX, chunk.chunkZ));
+	}
 
-			return chunks;
+	private static long toTick(final long millis) {
+		return (millis + TICK_MILLIS - 1) / TICK_MILLIS;
+	}
 
+	private static final class RevertChunk {
+
+		private final World world;
+		private final int chunkX;
+		private final int chunkZ;
+		private final PriorityQueue<Entry> entries = new PriorityQueue<>(DUE_ORDER);
+		private final TimingWheel.Timer<RevertChunk> timer = new TimingWheel.Timer<>(this);
+
+		private RevertChunk(final World world, final int chunkX, final int chunkZ) {
+			this.world = world;
+			this.chunkX = chunkX;
+			this.chunkZ = chunkZ;
 		}
 	}
 
+	/**
+	 * A moved earth block, or a temporary air block if there is no block.
+	 */
+	private static final class Entry {
+
+		private final Block block;
+		private final Information info;
+		private final World world;
+		private final int chunkX;
+		private final int chunkZ;
+		private long due;
+
+		private Entry(final Block block, final Information info, final World world, final int chunkX, final int chunkZ) {
+			this.block = block;
+			this.info = info;
+			this.world = world;
+			this.chunkX = chunkX;
+			this.chunkZ = chunkZ;
+		}
+
+		/**
+		 * @return False if the block was reverted or moved since it was
+		 *         scheduled
+		 */
+		private boolean isCurrent() {
+			if (this.block != null) {
+				return EarthAbility.getMovedEarth().get(this.block) == this.info;
+			}
+			return EarthAbility.getTempAirLocations().get(this.info.getID()) == this.info;
+		}
+	}
 }
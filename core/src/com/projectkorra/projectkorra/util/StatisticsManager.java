@@ -1,58 +1,136 @@
 package com.projectkorra.projectkorra.util;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
+import com.projectkorra.projectkorra.Element;
 import com.projectkorra.projectkorra.Manager;
 import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.CoreAbility;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.storage.DBConnection;
+import com.projectkorra.projectkorra.storage.Database;
 import com.projectkorra.projectkorra.storage.MySQL;
 import com.projectkorra.projectkorra.storage.SQLite;
 
+/**
+ * Keeps the statistics of the loaded players in memory and writes the changes
+ * to the database in the background.
+ * <p>
+ * Every statistic of a loaded player is a counter, and the totals per element
+ * and over all abilities are kept up to date as statistics are added, so
+ * reading them never has to look at the individual abilities. What was added
+ * since the last flush is kept as a separate delta, which is drained by
+ * {@link #flush(boolean)} and written as a single batch of upserts. Since the
+ * upserts only add to the stored value, flushes don't have to be serialized.
+ * <p>
+ * A flush that fails before its transaction is committed is rolled back and
+ * retried with the next one. A flush that fails while committing isn't
+ * retried, since it may have been committed and the upserts would be added
+ * twice, so its deltas are logged and dropped instead.
+ */
 public class StatisticsManager extends Manager implements Runnable {
 
+	private static final Statistic[] STATISTIC_VALUES = Statistic.values();
+
+	/**
+	 * Map which contains the statistics of all loaded players.
+	 */
+	private final Map<UUID, PlayerStatistics> STATISTICS = new ConcurrentHashMap<>();
+	/**
+	 * Map which contains all statistic IDs by name.
+	 */
+	private final Map<String, Integer> KEYS_BY_NAME = new ConcurrentHashMap<>();
+	/**
+	 * Map which contains all statistic names by ID.
+	 */
+	private final Map<Integer, String> KEYS_BY_ID = new ConcurrentHashMap<>();
 	/**
-	 * HashMap which contains all current statistic values (Map<player,
-	 * Map<statId, statValue>>)
+	 * Map which contains the statistic and element of every statistic ID that
+	 * could be resolved to a registered ability.
 	 */
-	private final Map<UUID, Map<Integer, Long>> STATISTICS = new HashMap<>();
+	private final Map<Integer, StatisticKey> RESOLVED_KEYS = new ConcurrentHashMap<>();
 	/**
-	 * HashMap which contains all statistic delta values (Map<player,
-	 * Map<statId, statValue>>)
+	 * Map which contains the statistic IDs of every ability by ability name,
+	 * indexed by {@link Statistic#ordinal()}.
 	 */
-	private final Map<UUID, Map<Integer, Long>> DELTA = new HashMap<>();
+	private final Map<String, int[]> IDS_BY_ABILITY = new ConcurrentHashMap<>();
 	/**
-	 * HashMap which contains all statistic names by ID.
+	 * Set which contains all UUIDs of players who have recently logged out
+	 * to have their stats saved and unloaded.
 	 */
-	private final Map<String, Integer> KEYS_BY_NAME = new HashMap<>();
+	private final Set<UUID> STORAGE = ConcurrentHashMap.newKeySet();
 	/**
-	 * HashMap which contains all statistic IDs by name.
+	 * Set which contains all UUIDs of players who have logged in and are
+	 * waiting for their stats to be loaded.
 	 */
-	private final Map<Integer, String> KEYS_BY_ID = new HashMap<>();
+	private final Set<UUID> PENDING_LOADS = new LinkedHashSet<>();
 	/**
-	 * HashMap which contains all UUIDs of players who have recently logged out
-	 * to have their stats saved.
+	 * Deltas of flushes that failed, written again by the next flush.
 	 */
-	private final Set<UUID> STORAGE = new HashSet<>();
+	private final Queue<Delta> RETRY = new ConcurrentLinkedQueue<>();
 	private final int INTERVAL = 5;
+	private final Leaderboard leaderboard = new Leaderboard(this);
+	private BukkitTask task;
+	private BukkitTask loadTask;
 
 	private StatisticsManager() {}
 
 	@Override
 	public void onActivate() {
-		if (!ProjectKorra.isStatisticsEnabled()) {
-			ProjectKorra.plugin.getServer().getScheduler().scheduleSyncRepeatingTask(ProjectKorra.plugin, this, 20 * this.INTERVAL, 20 * this.INTERVAL);
-		}
 		this.setupStatistics();
+		this.start();
+	}
+
+	@Override
+	public void onDeactivate() {
+		this.stop();
+		if (ProjectKorra.isStatisticsEnabled()) {
+			this.flush(false);
+		}
+	}
+
+	/**
+	 * Starts saving the statistics on an interval, if statistics are enabled.
+	 */
+	public void start() {
+		this.stop();
+		// A reload cancels every task of the plugin, including the one that would load these
+		this.loadPending();
+		if (ProjectKorra.isStatisticsEnabled()) {
+			this.task = ProjectKorra.plugin.getServer().getScheduler().runTaskTimer(ProjectKorra.plugin, this, 20 * this.INTERVAL, 20 * this.INTERVAL);
+		}
+	}
+
+	/**
+	 * Stops saving the statistics on an interval.
+	 */
+	public void stop() {
+		if (this.task != null) {
+			this.task.cancel();
+			this.task = null;
+		}
 	}
 
 	public void setupStatistics() {
@@ -83,7 +161,7 @@ public class StatisticsManager extends Manager implements Runnable {
 			if (ability.isHarmlessAbility()) {
 				continue;
 			}
-			for (final Statistic statistic : Statistic.values()) {
+			for (final Statistic statistic : STATISTIC_VALUES) {
 				final String statName = statistic.getStatisticName(ability);
 				final ResultSet rs = DBConnection.sql.readQuery("SELECT * FROM pk_statKeys WHERE statName = '" + statName + "'");
 				try {
@@ -105,109 +183,474 @@ public class StatisticsManager extends Manager implements Runnable {
 		} catch (final SQLException e) {
 			e.printStackTrace();
 		}
+		this.refreshKeys();
+	}
+
+	/**
+	 * Resolves the statistic IDs against the registered abilities again and
+	 * recalculates the element totals of the loaded players. Called after
+	 * abilities are (re)registered.
+	 */
+	public void refreshKeys() {
+		this.RESOLVED_KEYS.clear();
+		this.IDS_BY_ABILITY.clear();
+		for (final PlayerStatistics statistics : this.STATISTICS.values()) {
+			statistics.recalculateTotals();
+		}
+		this.leaderboard.clear();
 	}
 
 	public void load(final UUID uuid) {
-		this.STATISTICS.put(uuid, new HashMap<>());
-		this.DELTA.put(uuid, new HashMap<>());
-		try (ResultSet rs = DBConnection.sql.readQuery("SELECT * FROM pk_stats WHERE uuid = '" + uuid.toString() + "'")) {
-			while (rs.next()) {
-				this.STATISTICS.get(uuid).put(rs.getInt("statId"), rs.getLong("statValue"));
-				this.DELTA.get(uuid).put(rs.getInt("statId"), 0L);
-			}
+		final PlayerStatistics statistics = new PlayerStatistics();
+		this.STATISTICS.put(uuid, statistics);
+		try {
+			statistics.loadAll(this.select(uuid));
 		} catch (final SQLException e) {
 			e.printStackTrace();
 		}
 	}
 
-	public void save(final UUID uuid, final boolean async) {
-		if (!this.DELTA.containsKey(uuid)) {
+	/**
+	 * Loads the statistics of many players at once, using a few bulk queries
+	 * rather than one query per player.
+	 */
+	public void loadAll(final Collection<UUID> uuids) {
+		for (final UUID uuid : uuids) {
+			this.STATISTICS.put(uuid, new PlayerStatistics());
+		}
+		this.fetch(uuids);
+	}
+
+	/**
+	 * Loads the statistics of a player that just logged in. The player can
+	 * gain statistics right away, but the stored values are loaded together
+	 * with those of other players logging in shortly after.
+	 */
+	public void queueLoad(final UUID uuid) {
+		// Still loaded if the player logged out moments ago.
+		this.STORAGE.remove(uuid);
+		if (this.STATISTICS.containsKey(uuid)) {
+			return;
+		}
+		final long delay = ConfigManager.getConfig().getLong("Storage.Preload.LoginBatchDelay") / 50;
+		if (delay <= 0) {
+			this.load(uuid);
 			return;
 		}
-		final Map<Integer, Long> stats = this.DELTA.get(uuid);
-		for (final Entry<Integer, Long> entry : stats.entrySet()) {
-			final int statId = entry.getKey();
-			final long statValue = entry.getValue();
-			try (ResultSet rs = DBConnection.sql.readQuery("SELECT * FROM pk_stats WHERE uuid = '" + uuid.toString() + "' AND statId = " + statId)) {
-				if (!rs.next()) {
-					DBConnection.sql.modifyQuery("INSERT INTO pk_stats (statId, uuid, statValue) VALUES (" + statId + ", '" + uuid.toString() + "', " + statValue + ")", async);
-				} else {
-					DBConnection.sql.modifyQuery("UPDATE pk_stats SET statValue = statValue + " + statValue + " WHERE uuid = '" + uuid.toString() + "' AND statId = " + statId + ";", async);
+		this.STATISTICS.put(uuid, new PlayerStatistics());
+		this.PENDING_LOADS.add(uuid);
+		if (this.loadTask == null || !ProjectKorra.plugin.getServer().getScheduler().isQueued(this.loadTask.getTaskId())) {
+			this.loadTask = ProjectKorra.plugin.getServer().getScheduler().runTaskLater(ProjectKorra.plugin, this::loadPending, delay);
+		}
+	}
+
+	/**
+	 * Loads the stored statistics of the players queued by
+	 * {@link #queueLoad(UUID)}.
+	 */
+	private void loadPending() {
+		if (this.loadTask != null) {
+			this.loadTask.cancel();
+			this.loadTask = null;
+		}
+		if (this.PENDING_LOADS.isEmpty()) {
+			return;
+		}
+		final List<UUID> uuids = new ArrayList<>(this.PENDING_LOADS);
+		this.PENDING_LOADS.clear();
+		this.fetch(uuids);
+	}
+
+	/**
+	 * Adds the stored statistics of the players to the loaded ones, keeping
+	 * whatever they have gained since they were put in the map.
+	 */
+	private void fetch(final Collection<UUID> uuids) {
+		final List<String> keys = new ArrayList<>(uuids.size());
+		for (final UUID uuid : uuids) {
+			if (this.STATISTICS.containsKey(uuid)) {
+				keys.add(uuid.toString());
+			}
+		}
+		if (keys.isEmpty()) {
+			return;
+		}
+		try {
+			DBConnection.sql.selectIn("SELECT * FROM pk_stats WHERE uuid IN ", keys, rs -> {
+				final PlayerStatistics statistics = this.STATISTICS.get(UUID.fromString(rs.getString("uuid")));
+				if (statistics != null) {
+					statistics.load(rs.getInt("statId"), rs.getLong("statValue"));
+				}
+			});
+		} catch (final SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Reads the stored statistics of a player on the calling thread.
+	 */
+	private Map<Integer, Long> select(final UUID uuid) throws SQLException {
+		return DBConnection.sql.execute(statements -> {
+			final Map<Integer, Long> map = new HashMap<>();
+			try (ResultSet rs = statements.prepare("SELECT statId, statValue FROM pk_stats WHERE uuid = ?", uuid.toString()).executeQuery()) {
+				while (rs.next()) {
+					map.put(rs.getInt("statId"), rs.getLong("statValue"));
 				}
-			} catch (final SQLException e) {
-				e.printStackTrace();
 			}
+			return map;
+		});
+	}
+
+	/**
+	 * Writes the statistics the player gained since the last flush.
+	 */
+	public void save(final UUID uuid, final boolean async) {
+		final PlayerStatistics statistics = this.STATISTICS.get(uuid);
+		if (statistics == null) {
+			return;
 		}
+		final List<Delta> deltas = new ArrayList<>();
+		statistics.drain(uuid.toString(), deltas);
+		this.write(deltas, async);
 	}
 
-	public long getStatisticDelta(final UUID uuid, final int statId) {
-		// If the player is offline, pull value from database.
-		if (!this.DELTA.containsKey(uuid)) {
-			return 0;
-		} else if (!this.DELTA.get(uuid).containsKey(statId)) {
-			return 0;
+	/**
+	 * Writes the statistics all loaded players gained since the last flush,
+	 * together with the deltas of failed flushes.
+	 *
+	 * @param async If true, the deltas are written on the database workers
+	 */
+	public void flush(final boolean async) {
+		final List<Delta> deltas = new ArrayList<>();
+		Delta retry;
+		while ((retry = this.RETRY.poll()) != null) {
+			deltas.add(retry);
 		}
-		return this.DELTA.get(uuid).get(statId);
+		for (final Map.Entry<UUID, PlayerStatistics> entry : this.STATISTICS.entrySet()) {
+			entry.getValue().drain(entry.getKey().toString(), deltas);
+		}
+		this.write(deltas, async);
 	}
 
-	public long getStatisticCurrent(final UUID uuid, final int statId) {
-		// If the player is offline, pull value from database.
-		if (!this.STATISTICS.containsKey(uuid)) {
-			try (ResultSet rs = DBConnection.sql.readQuery("SELECT statValue FROM pk_stats WHERE uuid = '" + uuid.toString() + "' AND statId = " + statId + ";")) {
-				if (rs.next()) {
-					return rs.getLong("statValue");
+	private void write(final List<Delta> deltas, final boolean async) {
+		if (deltas.isEmpty()) {
+			return;
+		} else if (!DBConnection.isOpen()) {
+			this.RETRY.addAll(deltas);
+			return;
+		}
+
+		final String upsert = DBConnection.sql instanceof MySQL ? "INSERT INTO pk_stats (statId, uuid, statValue) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE statValue = statValue + VALUES(statValue)" : "INSERT INTO pk_stats (statId, uuid, statValue) VALUES (?, ?, ?) ON CONFLICT (statId, uuid) DO UPDATE SET statValue = statValue + excluded.statValue";
+		// Set once the commit is attempted, after which a failure may still have been committed
+		final AtomicBoolean committing = new AtomicBoolean();
+		final Database.Task<Void> task = statements -> {
+			final Connection connection = statements.getConnection();
+			final boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try {
+				final PreparedStatement ps = statements.prepare(upsert);
+				for (final Delta delta : deltas) {
+					ps.setInt(1, delta.statId);
+					ps.setString(2, delta.uuid);
+					ps.setLong(3, delta.value);
+					ps.addBatch();
 				}
+				ps.executeBatch();
+				committing.set(true);
+				connection.commit();
+			} catch (final SQLException e) {
+				if (!committing.get()) {
+					connection.rollback();
+				}
+				throw e;
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+			return null;
+		};
+
+		if (async) {
+			DBConnection.sql.submit(task).exceptionally(e -> {
+				this.failed(deltas, committing.get(), e);
+				return null;
+			});
+		} else {
+			try {
+				DBConnection.sql.execute(task);
 			} catch (final SQLException e) {
-				e.printStackTrace();
+				this.failed(deltas, committing.get(), e);
 			}
-			return 0;
-		} else if (!this.STATISTICS.get(uuid).containsKey(statId)) {
-			return 0;
 		}
-		return this.STATISTICS.get(uuid).get(statId);
 	}
 
-	public void addStatistic(final UUID uuid, final int statId, final long statDelta) {
-		if (!this.STATISTICS.containsKey(uuid) || !this.DELTA.containsKey(uuid)) {
+	/**
+	 * Queues the deltas of a failed flush to be written again, unless the
+	 * flush failed while committing and may have been written already.
+	 */
+	private void failed(final List<Delta> deltas, final boolean committing, final Throwable e) {
+		if (!committing) {
+			ProjectKorra.log.warning("Failed to write statistics, they are written again with the next flush: " + e.getMessage());
+			this.RETRY.addAll(deltas);
 			return;
 		}
-		this.STATISTICS.get(uuid).put(statId, this.getStatisticCurrent(uuid, statId) + statDelta);
-		this.DELTA.get(uuid).put(statId, this.getStatisticDelta(uuid, statId) + statDelta);
+		ProjectKorra.log.severe("Failed to commit " + deltas.size() + " statistic changes, they are not written again since they may have been committed: " + e.getMessage());
+		e.printStackTrace();
+	}
+
+	/**
+	 * @return The amount of deltas waiting to be written again after a failed
+	 *         flush
+	 */
+	public int getRetryCount() {
+		return this.RETRY.size();
+	}
+
+	public long getStatisticDelta(final UUID uuid, final int statId) {
+		final PlayerStatistics statistics = this.STATISTICS.get(uuid);
+		return statistics == null ? 0 : statistics.getDelta(statId);
+	}
+
+	/**
+	 * Gets the value of a statistic. If the player isn't loaded, the value is
+	 * read from the database on the calling thread, use
+	 * {@link #getStatisticCurrentAsync(UUID, int)} to not block the main
+	 * thread.
+	 */
+	public long getStatisticCurrent(final UUID uuid, final int statId) {
+		final PlayerStatistics statistics = this.STATISTICS.get(uuid);
+		if (statistics != null) {
+			return statistics.get(statId);
+		}
+		final Long value = this.getStatisticsMap(uuid).get(statId);
+		return value == null ? 0 : value;
+	}
+
+	/**
+	 * Gets the value of a statistic without blocking. If the player isn't
+	 * loaded, the value is read from the database on the database workers.
+	 */
+	public CompletableFuture<Long> getStatisticCurrentAsync(final UUID uuid, final int statId) {
+		return this.getStatisticsMapAsync(uuid).thenApply(map -> map.getOrDefault(statId, 0L));
+	}
 
+	public void addStatistic(final UUID uuid, final int statId, final long statDelta) {
+		final PlayerStatistics statistics = this.STATISTICS.get(uuid);
+		if (statistics != null) {
+			statistics.add(statId, statDelta);
+		}
 	}
 
+	/**
+	 * Gets the values of all statistics of the player by statistic ID. If the
+	 * player isn't loaded, the values are read from the database on the
+	 * calling thread, use {@link #getStatisticsMapAsync(UUID)} to not block
+	 * the main thread.
+	 */
 	public Map<Integer, Long> getStatisticsMap(final UUID uuid) {
-		final Map<Integer, Long> map = new HashMap<>();
-		// If the player is offline, create a new temporary Map from the database.
-		if (!this.STATISTICS.containsKey(uuid)) {
-			try (ResultSet rs = DBConnection.sql.readQuery("SELECT * FROM pk_stats WHERE uuid = '" + uuid.toString() + "'")) {
+		final PlayerStatistics statistics = this.STATISTICS.get(uuid);
+		if (statistics != null) {
+			return statistics.toMap();
+		}
+		try {
+			return this.select(uuid);
+		} catch (final SQLException e) {
+			e.printStackTrace();
+			return new HashMap<>();
+		}
+	}
+
+	/**
+	 * Gets the values of all statistics of the player by statistic ID without
+	 * blocking. If the player isn't loaded, the values are read from the
+	 * database on the database workers.
+	 */
+	public CompletableFuture<Map<Integer, Long>> getStatisticsMapAsync(final UUID uuid) {
+		final PlayerStatistics statistics = this.STATISTICS.get(uuid);
+		if (statistics != null) {
+			return CompletableFuture.completedFuture(statistics.toMap());
+		}
+		return DBConnection.sql.submit(statements -> {
+			final Map<Integer, Long> map = new HashMap<>();
+			try (ResultSet rs = statements.prepare("SELECT statId, statValue FROM pk_stats WHERE uuid = ?", uuid.toString()).executeQuery()) {
 				while (rs.next()) {
-					final int statId = rs.getInt("statId");
-					final long statValue = rs.getLong("statValue");
-					map.put(statId, statValue);
+					map.put(rs.getInt("statId"), rs.getLong("statValue"));
 				}
-			} catch (final SQLException e) {
-				e.printStackTrace();
 			}
 			return map;
+		});
+	}
+
+	/**
+	 * Gets the sum of a statistic over all abilities of an element. The
+	 * ability has to be of the element itself, abilities of its subelements
+	 * are not counted.
+	 */
+	public long getStatisticElement(final UUID uuid, final Element element, final Statistic statistic) {
+		final PlayerStatistics statistics = this.STATISTICS.get(uuid);
+		if (statistics != null) {
+			return statistics.getElementTotal(element, statistic);
+		}
+		return this.sum(this.getStatisticsMap(uuid), element, statistic);
+	}
+
+	public CompletableFuture<Long> getStatisticElementAsync(final UUID uuid, final Element element, final Statistic statistic) {
+		return this.getStatisticsMapAsync(uuid).thenApply(map -> this.sum(map, element, statistic));
+	}
+
+	/**
+	 * Gets the sum of a statistic over all abilities.
+	 */
+	public long getStatisticTotal(final UUID uuid, final Statistic statistic) {
+		final PlayerStatistics statistics = this.STATISTICS.get(uuid);
+		if (statistics != null) {
+			return statistics.getTotal(statistic);
+		}
+		return this.sum(this.getStatisticsMap(uuid), null, statistic);
+	}
+
+	public CompletableFuture<Long> getStatisticTotalAsync(final UUID uuid, final Statistic statistic) {
+		return this.getStatisticsMapAsync(uuid).thenApply(map -> this.sum(map, null, statistic));
+	}
+
+	/**
+	 * Sums the values of a statistic, only counting the abilities of the
+	 * element if it isn't null.
+	 */
+	private long sum(final Map<Integer, Long> values, final Element element, final Statistic statistic) {
+		long total = 0;
+		for (final Map.Entry<Integer, Long> entry : values.entrySet()) {
+			final StatisticKey key = this.getKey(entry.getKey());
+			if (key != null && key.statistic == statistic && (element == null || key.element.equals(element))) {
+				total += entry.getValue();
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Gets the statistic ID of an ability from the loaded keys only. Unlike
+	 * {@link #getId(CoreAbility, Statistic)}, a missing key isn't created, so
+	 * this never touches the database.
+	 *
+	 * @return The ID, or -1 if there is none yet
+	 */
+	public int findId(final CoreAbility ability, final Statistic statistic) {
+		final int[] ids = this.IDS_BY_ABILITY.get(ability.getName());
+		if (ids != null) {
+			return ids[statistic.ordinal()];
 		}
-		return this.STATISTICS.get(uuid);
+		final Integer id = this.KEYS_BY_NAME.get(statistic.getStatisticName(ability));
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Gets the statistic ID of an ability, caching it by ability name.
+	 *
+	 * @return The ID, or -1 if there is none
+	 */
+	public int getId(final CoreAbility ability, final Statistic statistic) {
+		int[] ids = this.IDS_BY_ABILITY.get(ability.getName());
+		if (ids == null) {
+			ids = new int[STATISTIC_VALUES.length];
+			for (final Statistic value : STATISTIC_VALUES) {
+				ids[value.ordinal()] = StatisticsMethods.getId(value.getStatisticName(ability));
+			}
+			this.IDS_BY_ABILITY.put(ability.getName(), ids);
+		}
+		return ids[statistic.ordinal()];
+	}
+
+	/**
+	 * @return The statistic and element of the statistic ID, or null if it
+	 *         isn't the ID of a registered ability
+	 */
+	StatisticKey getKey(final int statId) {
+		StatisticKey key = this.RESOLVED_KEYS.get(statId);
+		if (key != null) {
+			return key;
+		}
+		final String statName = this.KEYS_BY_ID.get(statId);
+		if (statName == null) {
+			return null;
+		}
+		final String[] split = statName.split("_");
+		if (split.length < 2) {
+			return null;
+		}
+		final Statistic statistic = Statistic.getStatistic(split[0]);
+		final CoreAbility ability = CoreAbility.getAbility(split[1]);
+		if (statistic == null || ability == null || ability.getElement() == null) {
+			return null;
+		}
+		key = new StatisticKey(statistic, ability.getElement());
+		this.RESOLVED_KEYS.put(statId, key);
+		return key;
 	}
 
 	public void store(final UUID uuid) {
 		this.STORAGE.add(uuid);
 	}
 
+	/**
+	 * Flushes the gained statistics and unloads the players who logged out.
+	 */
 	@Override
 	public void run() {
+		final Set<UUID> unload = new HashSet<>();
 		for (final UUID uuid : this.STORAGE) {
 			// Confirm that the player is offline.
 			final Player player = ProjectKorra.plugin.getServer().getPlayer(uuid);
 			if (player == null) {
-				this.save(uuid, true);
+				unload.add(uuid);
 			}
 		}
 		this.STORAGE.clear();
+		this.flush(true);
+		// Their deltas were drained by the flush, so nothing is lost.
+		this.STATISTICS.keySet().removeAll(unload);
+		this.leaderboard.refresh();
+	}
+
+	/**
+	 * @return The leaderboards of the statistics
+	 */
+	public Leaderboard getLeaderboard() {
+		return this.leaderboard;
+	}
+
+	/**
+	 * @return True if the statistics of the player are loaded
+	 */
+	public boolean isLoaded(final UUID uuid) {
+		return this.STATISTICS.containsKey(uuid);
+	}
+
+	/**
+	 * Passes the value of a statistic of every loaded player to the consumer.
+	 *
+	 * @param object The {@link CoreAbility} or {@link Element} of the
+	 *            statistic, or null for the total over all abilities
+	 */
+	void forEachLoaded(final Statistic statistic, final Object object, final LoadedConsumer consumer) {
+		final int statId = object instanceof CoreAbility ? this.getId((CoreAbility) object, statistic) : -1;
+		for (final Map.Entry<UUID, PlayerStatistics> entry : this.STATISTICS.entrySet()) {
+			final PlayerStatistics statistics = entry.getValue();
+			final long value;
+			if (object instanceof CoreAbility) {
+				value = statistics.get(statId);
+			} else if (object instanceof Element) {
+				value = statistics.getElementTotal((Element) object, statistic);
+			} else {
+				value = statistics.getTotal(statistic);
+			}
+			consumer.accept(entry.getKey(), value);
+		}
+	}
+
+	@FunctionalInterface
+	interface LoadedConsumer {
+		void accept(UUID uuid, long value);
 	}
 
 	public Map<String, Integer> getKeysByName() {
@@ -218,4 +661,134 @@ public class StatisticsManager extends Manager implements Runnable {
 		return this.KEYS_BY_ID;
 	}
 
+	static final class StatisticKey {
+
+		private final Statistic statistic;
+		private final Element element;
+
+		private StatisticKey(final Statistic statistic, final Element element) {
+			this.statistic = statistic;
+			this.element = element;
+		}
+
+		Statistic getStatistic() {
+			return this.statistic;
+		}
+
+		Element getElement() {
+			return this.element;
+		}
+	}
+
+	private static final class Delta {
+
+		private final String uuid;
+		private final int statId;
+		private final long value;
+
+		private Delta(final String uuid, final int statId, final long value) {
+			this.uuid = uuid;
+			this.statId = statId;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * The statistics of a loaded player.
+	 */
+	private final class PlayerStatistics {
+
+		private final Map<Integer, LongAdder> values = new ConcurrentHashMap<>();
+		private final Map<Integer, AtomicLong> deltas = new ConcurrentHashMap<>();
+		private final LongAdder[] totals = newCounters();
+		private final Map<Element, LongAdder[]> elementTotals = new ConcurrentHashMap<>();
+
+		private long get(final int statId) {
+			final LongAdder value = this.values.get(statId);
+			return value == null ? 0 : value.sum();
+		}
+
+		private long getDelta(final int statId) {
+			final AtomicLong delta = this.deltas.get(statId);
+			return delta == null ? 0 : delta.get();
+		}
+
+		private long getTotal(final Statistic statistic) {
+			return this.totals[statistic.ordinal()].sum();
+		}
+
+		private long getElementTotal(final Element element, final Statistic statistic) {
+			final LongAdder[] totals = this.elementTotals.get(element);
+			return totals == null ? 0 : totals[statistic.ordinal()].sum();
+		}
+
+		/**
+		 * Adds a value that was gained, which is written by the next flush.
+		 */
+		private void add(final int statId, final long value) {
+			this.load(statId, value);
+			this.deltas.computeIfAbsent(statId, id -> new AtomicLong()).addAndGet(value);
+		}
+
+		/**
+		 * Adds a value that is already stored in the database.
+		 */
+		private void load(final int statId, final long value) {
+			this.values.computeIfAbsent(statId, id -> new LongAdder()).add(value);
+			this.addToTotals(statId, value);
+		}
+
+		private void loadAll(final Map<Integer, Long> values) {
+			for (final Map.Entry<Integer, Long> entry : values.entrySet()) {
+				this.load(entry.getKey(), entry.getValue());
+			}
+		}
+
+		private void addToTotals(final int statId, final long value) {
+			final StatisticKey key = StatisticsManager.this.getKey(statId);
+			if (key == null) {
+				return;
+			}
+			this.totals[key.statistic.ordinal()].add(value);
+			this.elementTotals.computeIfAbsent(key.element, element -> newCounters())[key.statistic.ordinal()].add(value);
+		}
+
+		private void recalculateTotals() {
+			for (final LongAdder total : this.totals) {
+				total.reset();
+			}
+			this.elementTotals.clear();
+			for (final Map.Entry<Integer, LongAdder> entry : this.values.entrySet()) {
+				this.addToTotals(entry.getKey(), entry.getValue().sum());
+			}
+		}
+
+		/**
+		 * Moves the deltas gained since the last drain to the list.
+		 */
+		private void drain(final String uuid, final List<Delta> deltas) {
+			for (final Map.Entry<Integer, AtomicLong> entry : this.deltas.entrySet()) {
+				final long value = entry.getValue().getAndSet(0);
+				if (value != 0) {
+					deltas.add(new Delta(uuid, entry.getKey(), value));
+				}
+			}
+		}
+
+		private Map<Integer, Long> toMap() {
+			final Map<Integer, Long> map = new HashMap<>();
+			for (final Map.Entry<Integer, LongAdder> entry : this.values.entrySet()) {
+				map.put(entry.getKey(), entry.getValue().sum());
+			}
+			return map;
+		}
+	}
+
+	private static LongAdder[] newCounters() {
+		final LongAdder[] counters = new LongAdder[STATISTIC_VALUES.length];
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = new LongAdder();
+		}
+		return counters;
+	}
 }
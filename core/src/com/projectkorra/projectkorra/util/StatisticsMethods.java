@@ -3,6 +3,7 @@ package com.projectkorra.projectkorra.util;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.entity.Player;
 
@@ -32,8 +33,8 @@ public class StatisticsMethods {
 		if (!ProjectKorra.isStatisticsEnabled()) {
 			return 0;
 		}
-		final int statId = getId(statistic.getStatisticName(ability));
-		return Manager.getManager(StatisticsManager.class).getStatisticCurrent(uuid, statId);
+		final StatisticsManager manager = Manager.getManager(StatisticsManager.class);
+		return manager.getStatisticCurrent(uuid, manager.getId(ability, statistic));
 	}
 
 	/**
@@ -52,8 +53,8 @@ public class StatisticsMethods {
 		if (!ProjectKorra.isStatisticsEnabled()) {
 			return;
 		}
-		final int statId = getId(statistic.getStatisticName(ability));
-		Manager.getManager(StatisticsManager.class).addStatistic(uuid, statId, statDelta);
+		final StatisticsManager manager = Manager.getManager(StatisticsManager.class);
+		manager.addStatistic(uuid, manager.getId(ability, statistic), statDelta);
 	}
 
 	/**
@@ -73,23 +74,7 @@ public class StatisticsMethods {
 		if (!ProjectKorra.isStatisticsEnabled()) {
 			return 0;
 		}
-		long totalValue = 0;
-		for (final int statId : Manager.getManager(StatisticsManager.class).getStatisticsMap(uuid).keySet()) {
-			final String abilName = getAbilityName(statId);
-			final CoreAbility ability = CoreAbility.getAbility(abilName);
-			if (ability == null) {
-				continue;
-			} else if (!ability.getElement().equals(element)) {
-				continue;
-			}
-			// If the ID for this statistic and ability do not equal statId, then it must be a different statistic type.
-			else if (getId(statistic.getStatisticName(ability)) != statId) {
-				continue;
-			}
-			final long value = getStatisticAbility(uuid, ability, statistic);
-			totalValue += value;
-		}
-		return totalValue;
+		return Manager.getManager(StatisticsManager.class).getStatisticElement(uuid, element, statistic);
 	}
 
 	/**
@@ -107,21 +92,38 @@ public class StatisticsMethods {
 		if (!ProjectKorra.isStatisticsEnabled()) {
 			return 0;
 		}
-		long totalValue = 0;
-		for (final int statId : Manager.getManager(StatisticsManager.class).getStatisticsMap(uuid).keySet()) {
-			final String abilName = getAbilityName(statId);
-			final CoreAbility ability = CoreAbility.getAbility(abilName);
-			if (ability == null) {
-				continue;
-			}
-			// If the ID for this statistic and ability do not equal statId, then it must be a different statistic type.
-			else if (getId(statistic.getStatisticName(ability)) != statId) {
-				continue;
-			}
-			final long value = getStatisticAbility(uuid, ability, statistic);
-			totalValue += value;
+		return Manager.getManager(StatisticsManager.class).getStatisticTotal(uuid, statistic);
+	}
+
+	/**
+	 * Get the {@link Statistic} value of the given {@link CoreAbility} or
+	 * {@link Element} for the {@link Player} with {@link UUID} uuid without
+	 * blocking. If the target player is not loaded, the value is read from
+	 * the database on the database workers.
+	 *
+	 * @param uuid The {@link UUID} of the {@link Player} being looked up.
+	 * @param object The {@link CoreAbility} or {@link Element} to look up, or
+	 *            null for the total over all abilities.
+	 * @param statistic The {@link Statistic} being searched under.
+	 * @return A future with the found value of the given statistic.
+	 *
+	 * @throws IllegalArgumentException if the given object argument is not of
+	 *             type {@link CoreAbility} or {@link Element}.
+	 */
+	public static CompletableFuture<Long> getStatisticAsync(final UUID uuid, final Object object, final Statistic statistic) throws IllegalArgumentException {
+		if (!ProjectKorra.isStatisticsEnabled()) {
+			return CompletableFuture.completedFuture(0L);
+		}
+		final StatisticsManager manager = Manager.getManager(StatisticsManager.class);
+		if (object == null) {
+			return manager.getStatisticTotalAsync(uuid, statistic);
+		} else if (object instanceof CoreAbility) {
+			return manager.getStatisticCurrentAsync(uuid, manager.getId((CoreAbility) object, statistic));
+		} else if (object instanceof Element) {
+			return manager.getStatisticElementAsync(uuid, (Element) object, statistic);
+		} else {
+			throw new IllegalArgumentException("Variable object is not a valid input type. Required: CoreAbility or Element.");
 		}
-		return totalValue;
 	}
 
 	/**
@@ -9,7 +9,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -37,21 +36,30 @@ import io.papermc.lib.PaperLib;
 
 public class TempBlock {
 
-	private static final Map<Block, LinkedList<TempBlock>> instances_ = new HashMap<>();
+	/**
+	 * TempBlocks indexed by world, then by packed chunk key, then by packed
+	 * block position. See {@link BlockKey}.
+	 */
+	private static final Map<World, LongObjectHashMap<LongObjectHashMap<LinkedList<TempBlock>>>> instances_ = new HashMap<>();
 	/**
 	 * Marked for removal. Doesn't do anything right now
 	 */
 	@Deprecated
 	public static Map<Block, TempBlock> instances = new ConcurrentHashMap<>();
-	private static final PriorityQueue<TempBlock> REVERT_QUEUE = new PriorityQueue<>(128, (t1, t2) -> (int) (t1.revertTime - t2.revertTime));
-	private static boolean REVERT_TASK_RUNNING;
+	/**
+	 * The length of a revert wheel tick in milliseconds. Revert times are
+	 * rounded up to whole ticks.
+	 */
+	private static final long REVERT_TICK_MILLIS = 50;
+	private static final TimingWheel<TempBlock> REVERT_WHEEL = new TimingWheel<>(System.currentTimeMillis() / REVERT_TICK_MILLIS);
+	private static int maxRevertsPerTick = 0;
 
 	private final Block block;
 	private BlockData newData;
 	private BlockState state;
 	private Set<TempBlock> attachedTempBlocks; //Temp Block states that should be reverted as well when the temp block expires (e.g. double blocks)
 	private long revertTime;
-	private boolean inRevertQueue;
+	private TimingWheel.Timer<TempBlock> revertTimer;
 	private boolean reverted;
 	private Runnable revertTask = null;
 	private Optional<CoreAbility> ability = Optional.empty(); // If we want this TempBlock to have an assigned ability created from it
@@ -99,13 +107,16 @@ public class TempBlock {
 			}
 		}
 
-		if (instances_.containsKey(block)) {
-			final TempBlock temp = instances_.get(block).getFirst();
+		final LinkedList<TempBlock> existing = getAll(block);
+		if (existing != null) {
+			final TempBlock temp = existing.getFirst();
 			this.state = temp.state; //Set the original blockstate of the tempblock
 			put(block, this);
-			block.setBlockData(newData, applyPhysics(newData.getMaterial()));
+			BlockChangeBuffer.setBlockData(block, newData, applyPhysics(newData.getMaterial()));
 		} else {
-			this.state = block.getState();
+			//A TempBlock reverted earlier this tick may not have reached the world yet
+			final BlockState pending = BlockChangeBuffer.getPendingState(block);
+			this.state = pending != null ? pending : block.getState();
 
 			if (this.state instanceof Container || this.state.getType() == Material.JUKEBOX) {
 				return;
@@ -113,7 +124,7 @@ public class TempBlock {
 
 			put(block, this);
 
-			block.setBlockData(newData, applyPhysics(newData.getMaterial()));
+			BlockChangeBuffer.setBlockData(block, newData, applyPhysics(newData.getMaterial()));
 		}
 		
 		this.setRevertTime(revertTime);
@@ -125,10 +136,8 @@ public class TempBlock {
 	 * @return The topmost TempBlock
 	 */
 	public static TempBlock get(final Block block) {
-		if (isTempBlock(block)) {
-			return instances_.get(block).getLast();
-		}
-		return null;
+		final LinkedList<TempBlock> tempBlocks = getAll(block);
+		return tempBlocks == null ? null : tempBlocks.getLast();
 	}
 
 	/**
@@ -137,7 +146,24 @@ public class TempBlock {
 	 * @return The list of TempBlocks
 	 */
 	public static LinkedList<TempBlock> getAll(Block block) {
-		return instances_.get(block);
+		if (block == null) {
+			return null;
+		}
+		return getAll(block.getWorld(), block.getX(), block.getY(), block.getZ());
+	}
+
+	private static LinkedList<TempBlock> getAll(final World world, final int x, final int y, final int z) {
+		final LongObjectHashMap<LinkedList<TempBlock>> chunk = getChunk(world, x >> 4, z >> 4);
+		return chunk == null ? null : chunk.get(BlockKey.of(x, y, z));
+	}
+
+	/**
+	 * @return the TempBlocks in the chunk keyed by packed block position, or
+	 *         null if there are none
+	 */
+	private static LongObjectHashMap<LinkedList<TempBlock>> getChunk(final World world, final int chunkX, final int chunkZ) {
+		final LongObjectHashMap<LongObjectHashMap<LinkedList<TempBlock>>> chunks = instances_.get(world);
+		return chunks == null ? null : chunks.get(BlockKey.chunk(chunkX, chunkZ));
 	}
 
 	/**
@@ -146,14 +172,55 @@ public class TempBlock {
 	 * @param tempBlock The TempBlock
 	 */
 	private static void put(Block block, TempBlock tempBlock) {
-		if (!instances_.containsKey(block)) {
-			instances_.put(block, new LinkedList<>());
+		final LongObjectHashMap<LongObjectHashMap<LinkedList<TempBlock>>> chunks = instances_.computeIfAbsent(block.getWorld(), w -> new LongObjectHashMap<>());
+		final long chunkKey = BlockKey.chunkOf(block);
+		LongObjectHashMap<LinkedList<TempBlock>> chunk = chunks.get(chunkKey);
+		if (chunk == null) {
+			chunk = new LongObjectHashMap<>();
+			chunks.put(chunkKey, chunk);
+		}
+		final long key = BlockKey.of(block);
+		LinkedList<TempBlock> tempBlocks = chunk.get(key);
+		if (tempBlocks == null) {
+			tempBlocks = new LinkedList<>();
+			chunk.put(key, tempBlocks);
 		}
-		instances_.get(block).add(tempBlock);
+		tempBlocks.add(tempBlock);
 	}
 
 	public static boolean isTempBlock(final Block block) {
-		return block != null && instances_.containsKey(block);
+		return getAll(block) != null;
+	}
+
+	/**
+	 * Are there any TempBlocks in the given chunk? This is a constant time
+	 * check, so it can be used to skip work in chunks without TempBlocks.
+	 * @param world The world of the chunk
+	 * @param chunkX The chunk x coordinate
+	 * @param chunkZ The chunk z coordinate
+	 * @return True if the chunk contains a TempBlock
+	 */
+	public static boolean hasTempBlocks(final World world, final int chunkX, final int chunkZ) {
+		return getChunk(world, chunkX, chunkZ) != null;
+	}
+
+	/**
+	 * Are there any TempBlocks in the chunk of the given block, or close
+	 * enough to it that the block could be touching one?
+	 * @param block The block location
+	 * @return False if there can't be a TempBlock beside or at the block
+	 */
+	public static boolean hasTempBlocksNear(final Block block) {
+		if (!instances_.containsKey(block.getWorld())) {
+			return false;
+		}
+		final int x = block.getX(), z = block.getZ();
+		final int chunkX = x >> 4, chunkZ = z >> 4;
+		return hasTempBlocks(block.getWorld(), chunkX, chunkZ)
+				|| ((x & 15) == 0 && hasTempBlocks(block.getWorld(), chunkX - 1, chunkZ))
+				|| ((x & 15) == 15 && hasTempBlocks(block.getWorld(), chunkX + 1, chunkZ))
+				|| ((z & 15) == 0 && hasTempBlocks(block.getWorld(), chunkX, chunkZ - 1))
+				|| ((z & 15) == 15 && hasTempBlocks(block.getWorld(), chunkX, chunkZ + 1));
 	}
 
 	/**
@@ -163,36 +230,56 @@ public class TempBlock {
 	 * @return True if there is a TempBlock beside it
 	 */
 	public static boolean isTouchingTempBlock(final Block block) {
-		final BlockFace[] faces = { BlockFace.NORTH, BlockFace.SOUTH, BlockFace.EAST, BlockFace.WEST, BlockFace.UP, BlockFace.DOWN };
-		for (final BlockFace face : faces) {
-			if (instances_.containsKey(block.getRelative(face))) {
-				return true;
-			}
+		if (!hasTempBlocksNear(block)) {
+			return false;
 		}
-		return false;
+		final World world = block.getWorld();
+		final int x = block.getX(), y = block.getY(), z = block.getZ();
+		return getAll(world, x, y, z - 1) != null || getAll(world, x, y, z + 1) != null
+				|| getAll(world, x + 1, y, z) != null || getAll(world, x - 1, y, z) != null
+				|| getAll(world, x, y + 1, z) != null || getAll(world, x, y - 1, z) != null;
 	}
 
 	/**
 	 * Remove and revert all TempBlocks on the server. Done at server shutdown or PK reload.
 	 */
 	public static void removeAll() {
-		for (final Block block : new HashSet<>(instances_.keySet())) {
-			revertBlock(block, Material.AIR);
+		BlockChangeBuffer.flush();
+		for (final World world : new ArrayList<>(instances_.keySet())) {
+			removeAllInWorld(world);
 		}
-		for (final TempBlock tempblock : REVERT_QUEUE) {
+		REVERT_WHEEL.drainAll(tempblock -> {
 			tempblock.state.update(true, applyPhysics(tempblock.state.getType()));
 			if (tempblock.revertTask != null) {
 				tempblock.revertTask.run();
 			}
-		}
-		REVERT_QUEUE.clear();
+		});
 	}
 
 	public static void removeAllInWorld(World world) {
-		for (final Block block : new HashSet<>(instances_.keySet())) {
-			if (block.getWorld() == world) {
-				revertBlock(block, Material.AIR);
-			}
+		final LongObjectHashMap<LongObjectHashMap<LinkedList<TempBlock>>> chunks = instances_.get(world);
+		if (chunks == null) {
+			return;
+		}
+		for (final long chunkKey : chunks.keys()) {
+			removeAllInChunk(world, BlockKey.getChunkX(chunkKey), BlockKey.getChunkZ(chunkKey));
+		}
+	}
+
+	/**
+	 * Remove and revert all TempBlocks in a chunk. Done when the chunk unloads
+	 * so the TempBlocks don't get saved with it.
+	 * @param world The world of the chunk
+	 * @param chunkX The chunk x coordinate
+	 * @param chunkZ The chunk z coordinate
+	 */
+	public static void removeAllInChunk(final World world, final int chunkX, final int chunkZ) {
+		final LongObjectHashMap<LinkedList<TempBlock>> chunk = getChunk(world, chunkX, chunkZ);
+		if (chunk == null) {
+			return;
+		}
+		for (final long key : chunk.keys()) {
+			revertBlock(world.getBlockAt(BlockKey.getX(key), BlockKey.getY(key), BlockKey.getZ(key)), Material.AIR);
 		}
 	}
 
@@ -201,8 +288,12 @@ public class TempBlock {
 	 * @param block The block location
 	 */
 	public static void removeBlock(final Block block) {
-		instances_.get(block).forEach(t -> {
-			REVERT_QUEUE.remove(t);
+		final LinkedList<TempBlock> tempBlocks = getAll(block);
+		if (tempBlocks == null) {
+			return;
+		}
+		new ArrayList<>(tempBlocks).forEach(t -> {
+			t.cancelRevert();
 			remove(t);
 		});
 	}
@@ -212,10 +303,29 @@ public class TempBlock {
 	 * @param tempBlock The TempBlock to remove
 	 */
 	private static void remove(TempBlock tempBlock) {
-		if (instances_.containsKey(tempBlock.block)) {
-			instances_.get(tempBlock.block).remove(tempBlock);
-			if (instances_.get(tempBlock.block).size() == 0) {
-				instances_.remove(tempBlock.block);
+		final Block block = tempBlock.block;
+		final LongObjectHashMap<LongObjectHashMap<LinkedList<TempBlock>>> chunks = instances_.get(block.getWorld());
+		if (chunks == null) {
+			return;
+		}
+		final long chunkKey = BlockKey.chunkOf(block);
+		final LongObjectHashMap<LinkedList<TempBlock>> chunk = chunks.get(chunkKey);
+		if (chunk == null) {
+			return;
+		}
+		final long key = BlockKey.of(block);
+		final LinkedList<TempBlock> tempBlocks = chunk.get(key);
+		if (tempBlocks == null) {
+			return;
+		}
+		tempBlocks.remove(tempBlock);
+		if (tempBlocks.isEmpty()) {
+			chunk.remove(key);
+			if (chunk.isEmpty()) {
+				chunks.remove(chunkKey);
+				if (chunks.isEmpty()) {
+					instances_.remove(block.getWorld());
+				}
 			}
 		}
 	}
@@ -226,9 +336,10 @@ public class TempBlock {
 	 * @param defaulttype The default material to revert to if it can't
 	 */
 	public static void revertBlock(final Block block, final Material defaulttype) {
-		if (instances_.containsKey(block)) {
+		final LinkedList<TempBlock> existing = getAll(block);
+		if (existing != null) {
 			//We clone the list first, then remove before reverting. The tempblock list is cloned so we get no concurrent modification exceptions
-			List<TempBlock> tempBlocks = new ArrayList<>(instances_.get(block));
+			List<TempBlock> tempBlocks = new ArrayList<>(existing);
 			tempBlocks.forEach((b) -> {
 				TempBlock.remove(b);
 				b.trueRevertBlock();
@@ -305,9 +416,18 @@ public class TempBlock {
 			return;
 		}
 		this.revertTime = revertTime + System.currentTimeMillis();
-		if (!this.inRevertQueue) {
-			this.inRevertQueue = true;
-			REVERT_QUEUE.add(this);
+		if (this.revertTimer == null) {
+			this.revertTimer = new TimingWheel.Timer<>(this);
+		}
+		REVERT_WHEEL.schedule(this.revertTimer, (this.revertTime + REVERT_TICK_MILLIS - 1) / REVERT_TICK_MILLIS);
+	}
+
+	/**
+	 * Stop this TempBlock from reverting automatically
+	 */
+	private void cancelRevert() {
+		if (this.revertTimer != null) {
+			REVERT_WHEEL.cancel(this.revertTimer);
 		}
 	}
 
@@ -325,28 +445,19 @@ public class TempBlock {
 	 * This is used to revert the block without removing the instances from memory. Used when multiple tempblocks are to be reverted at once
 	 */
 	private void trueRevertBlock() {
-		this.trueRevertBlock(true);
-	}
-
-	/**
-	 * This is used to revert the block without removing the instances from memory. Used when multiple tempblocks are to be reverted at once
-	 * @param removeFromQueue If the TempBlock should be removed from the queue. Should be false when it has already been removed from the revert queue
-
-	 */
-	private void trueRevertBlock(boolean removeFromQueue) {
 		this.reverted = true;
-		if (instances_.containsKey(this.block)) {
+		if (isTempBlock(this.block)) {
 			PaperLib.getChunkAtAsync(this.block.getLocation()).thenAccept(result -> {
-				TempBlock last = instances_.get(this.block).getLast();
-				this.block.setBlockData(last.newData); //Set the block to the next in line TempBlock
+				TempBlock last = get(this.block);
+				if (last != null) {
+					BlockChangeBuffer.setBlockData(this.block, last.newData, true); //Set the block to the next in line TempBlock
+				}
 			});
 		} else { //Set to the original blockstate
-			PaperLib.getChunkAtAsync(this.block.getLocation()).thenAccept(result -> revertState());
+			PaperLib.getChunkAtAsync(this.block.getLocation()).thenAccept(result -> BlockChangeBuffer.revert(this));
 		}
 
-		if (removeFromQueue) { //Remove from the queue if it's in there. We only do this when required because it is an intensive action due to the collection type
-			REVERT_QUEUE.remove(this);
-		}
+		this.cancelRevert(); //Cancelling is O(1) with the revert wheel, so there is no need to skip it when it already expired
 		if (this.revertTask != null) {
 			this.revertTask.run();
 		}
@@ -359,10 +470,18 @@ public class TempBlock {
 	/**
 	 * Revert the TempBlock to the proper BlockState it should be
 	 */
-	private void revertState() {
+	void revertState() {
+		this.revertState(this.newData.getMaterial());
+	}
+
+	/**
+	 * Revert the TempBlock to the proper BlockState it should be
+	 * @param current The material the block should have in the world right now
+	 */
+	void revertState(final Material current) {
 		Block block = this.state.getBlock();
 		//If the block has been changed by the time we revert (e.g. block place). Also, we ignore fire since it isn't worth the time
-		if (block.getType() != this.newData.getMaterial() && block.getType() != Material.FIRE && block.getType() != Material.SOUL_FIRE) {
+		if (block.getType() != current && block.getType() != Material.FIRE && block.getType() != Material.SOUL_FIRE) {
 			//Get the drops of the original block and drop them in the world
 			GeneralMethods.dropItems(block, GeneralMethods.getDrops(block, this.state.getType(), this.state.getBlockData()));
 		} else {
@@ -445,8 +564,14 @@ public class TempBlock {
 	public void setType(final BlockData data) {
 		if (isReverted())
 			return;
+		if (data.equals(this.newData) && data.equals(this.block.getBlockData())) {
+			//The world already has this data, so there is no need to send the same block change again.
+			//The world is checked too, since something else may have changed the block since.
+			TempBlockFrame.skipped++;
+			return;
+		}
 		this.newData = data;
-		this.block.setBlockData(data, applyPhysics(data.getMaterial()));
+		BlockChangeBuffer.setBlockData(this.block, data, applyPhysics(data.getMaterial()));
 	}
 
 	/**
@@ -505,22 +630,43 @@ public class TempBlock {
 				'}';
 	}
 
+	/**
+	 * Set the max amount of TempBlocks that are reverted automatically each
+	 * tick. TempBlocks above the limit are reverted on the following ticks.
+	 * @param max The max amount of reverts per tick, or 0 for no limit
+	 */
+	public static void setMaxRevertsPerTick(final int max) {
+		maxRevertsPerTick = Math.max(0, max);
+	}
+
+	public static int getMaxRevertsPerTick() {
+		return maxRevertsPerTick;
+	}
+
+	/**
+	 * @return The amount of TempBlocks waiting to be reverted automatically
+	 */
+	public static int getScheduledRevertCount() {
+		return REVERT_WHEEL.size();
+	}
+
+	/**
+	 * @return The amount of expired TempBlocks that were pushed to the next tick due to {@link #getMaxRevertsPerTick()}
+	 */
+	public static int getSpilledRevertCount() {
+		return REVERT_WHEEL.getSpillSize();
+	}
+
 	public static class TempBlockRevertTask implements Runnable {
 		@Override
 		public void run() {
-			final long currentTime = System.currentTimeMillis();
-			while (!REVERT_QUEUE.isEmpty()) {
-				final TempBlock tempBlock = REVERT_QUEUE.peek(); //Check if the top TempBlock is ready for reverting
-				if (currentTime >= tempBlock.getRevertTime()) {
-					REVERT_QUEUE.poll();
-					if (!tempBlock.reverted) {
-						remove(tempBlock);
-						tempBlock.trueRevertBlock(false); //It's already been removed from the poll(), so don't try remove it again
-					}
-				} else {
-					break;
+			//Only the slots of the ticks that passed since the last run are drained
+			REVERT_WHEEL.advance(System.currentTimeMillis() / REVERT_TICK_MILLIS, maxRevertsPerTick, tempBlock -> {
+				if (!tempBlock.reverted) {
+					remove(tempBlock);
+					tempBlock.trueRevertBlock();
 				}
-			}
+			});
 		}
 	}
 }
@@ -0,0 +1,254 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+
+import com.projectkorra.projectkorra.ability.CoreAbility;
+
+/**
+ * A set of TempBlocks that is redrawn as a whole, e.g. every tick. Instead of
+ * reverting the previous frame and creating the next one from scratch, the
+ * blocks of the next frame are diffed against the previous one:
+ * <ul>
+ * <li>Blocks that are in both frames with the same data are kept as they are,
+ * without touching the world or sending a block change.</li>
+ * <li>Blocks that are in both frames with different data are changed in
+ * place.</li>
+ * <li>Blocks that are only in the next frame are created, and blocks that are
+ * only in the previous frame are reverted when the frame ends.</li>
+ * </ul>
+ * A frame is drawn by calling {@link #begin()}, then {@link #set(Block, BlockData)}
+ * for every block of the frame, then {@link #end()}.
+ */
+public class TempBlockFrame {
+
+	private static long frames;
+	private static long created;
+	private static long changed;
+	private static long kept;
+	private static long reverted;
+	static long skipped;
+
+	private final CoreAbility ability;
+	private final Consumer<Block> onRevert;
+	private Map<Block, TempBlock> blocks = new LinkedHashMap<>();
+	private Map<Block, TempBlock> next = new LinkedHashMap<>();
+	private boolean drawing;
+
+	public TempBlockFrame() {
+		this(null, null);
+	}
+
+	/**
+	 * @param ability The ability the created TempBlocks are assigned to, or
+	 *            null
+	 * @param onRevert Called with every block this frame reverts, or null
+	 */
+	public TempBlockFrame(final CoreAbility ability, final Consumer<Block> onRevert) {
+		this.ability = ability;
+		this.onRevert = onRevert;
+	}
+
+	/**
+	 * Starts drawing the next frame. Ends the current frame first if it was
+	 * never ended.
+	 */
+	public void begin() {
+		if (this.drawing) {
+			this.end();
+		}
+		this.drawing = true;
+		frames++;
+	}
+
+	/**
+	 * Sets a block of the frame that is being drawn. If the block was already
+	 * set during this frame it is left as it is.
+	 *
+	 * @param block The block
+	 * @param data The data the block should have
+	 * @return The TempBlock of the block
+	 */
+	public TempBlock set(final Block block, final BlockData data) {
+		if (!this.drawing) {
+			this.begin();
+		}
+
+		TempBlock tempBlock = this.next.get(block);
+		if (tempBlock != null) {
+			return tempBlock;
+		}
+
+		tempBlock = this.blocks.remove(block);
+		if (tempBlock != null && !tempBlock.isReverted()) {
+			if (tempBlock.getBlockData().equals(data)) {
+				kept++;
+			} else {
+				tempBlock.setType(data);
+				changed++;
+			}
+		} else {
+			tempBlock = this.ability != null ? new TempBlock(block, data, this.ability) : new TempBlock(block, data);
+			created++;
+		}
+		this.next.put(block, tempBlock);
+		return tempBlock;
+	}
+
+	/**
+	 * Adds a TempBlock that wasn't created by this frame to the frame that is
+	 * being drawn, e.g. one that was taken over from another ability. It is
+	 * reverted once it is no longer part of the frame.
+	 */
+	public void add(final TempBlock tempBlock) {
+		if (!this.drawing) {
+			this.begin();
+		}
+		this.blocks.remove(tempBlock.getBlock());
+		this.next.putIfAbsent(tempBlock.getBlock(), tempBlock);
+	}
+
+	/**
+	 * Ends the frame that is being drawn, reverting every block that was in
+	 * the previous frame but wasn't set during this one.
+	 */
+	public void end() {
+		if (!this.drawing) {
+			return;
+		}
+		this.drawing = false;
+
+		final Map<Block, TempBlock> previous = this.blocks;
+		this.blocks = this.next;
+		this.next = previous;
+		this.revert(previous);
+	}
+
+	/**
+	 * Reverts every block of the frame.
+	 */
+	public void clear() {
+		this.drawing = false;
+		this.revert(this.next);
+		this.revert(this.blocks);
+	}
+
+	private void revert(final Map<Block, TempBlock> blocks) {
+		for (final TempBlock tempBlock : blocks.values()) {
+			if (!tempBlock.isReverted()) {
+				tempBlock.revertBlock();
+				reverted++;
+			}
+			if (this.onRevert != null) {
+				this.onRevert.accept(tempBlock.getBlock());
+			}
+		}
+		blocks.clear();
+	}
+
+	/**
+	 * @return True if the block is part of the frame that is being drawn, or
+	 *         part of the previous frame and not yet replaced
+	 */
+	public boolean contains(final Block block) {
+		return this.next.containsKey(block) || this.blocks.containsKey(block);
+	}
+
+	public boolean contains(final TempBlock tempBlock) {
+		return tempBlock != null && (this.next.get(tempBlock.getBlock()) == tempBlock || this.blocks.get(tempBlock.getBlock()) == tempBlock);
+	}
+
+	/**
+	 * @return The TempBlock of the block in this frame, or null
+	 */
+	public TempBlock get(final Block block) {
+		final TempBlock tempBlock = this.next.get(block);
+		return tempBlock != null ? tempBlock : this.blocks.get(block);
+	}
+
+	/**
+	 * @return The TempBlocks of the last frame that was drawn, or of the frame
+	 *         that is being drawn and the blocks of the previous frame that
+	 *         weren't replaced yet
+	 */
+	public List<TempBlock> getTempBlocks() {
+		final List<TempBlock> tempBlocks = new ArrayList<>(this.next.size() + this.blocks.size());
+		tempBlocks.addAll(this.next.values());
+		tempBlocks.addAll(this.blocks.values());
+		return tempBlocks;
+	}
+
+	/**
+	 * @return The blocks of the frame, in the same order as
+	 *         {@link #getTempBlocks()}
+	 */
+	public List<Block> getBlocks() {
+		final List<Block> blocks = new ArrayList<>(this.next.size() + this.blocks.size());
+		blocks.addAll(this.next.keySet());
+		blocks.addAll(this.blocks.keySet());
+		return blocks;
+	}
+
+	public boolean isEmpty() {
+		return this.next.isEmpty() && this.blocks.isEmpty();
+	}
+
+	public int size() {
+		return this.next.size() + this.blocks.size();
+	}
+
+	/**
+	 * @return The amount of frames drawn by every TempBlockFrame
+	 */
+	public static long getFrameCount() {
+		return frames;
+	}
+
+	public static long getCreatedCount() {
+		return created;
+	}
+
+	/**
+	 * @return The amount of blocks that changed data between two frames and
+	 *         were updated in place
+	 */
+	public static long getChangedCount() {
+		return changed;
+	}
+
+	/**
+	 * @return The amount of blocks that were left untouched because they had
+	 *         the same data in two frames
+	 */
+	public static long getKeptCount() {
+		return kept;
+	}
+
+	public static long getRevertedCount() {
+		return reverted;
+	}
+
+	/**
+	 * @return The amount of block updates that would have been sent by
+	 *         reverting and recreating every block of every frame, or by
+	 *         setting a TempBlock to the data it already has, but weren't
+	 */
+	public static long getAvoidedUpdateCount() {
+		return 2 * kept + changed + skipped;
+	}
+
+	public static void resetMetrics() {
+		frames = 0;
+		created = 0;
+		changed = 0;
+		kept = 0;
+		reverted = 0;
+		skipped = 0;
+	}
+}
@@ -0,0 +1,444 @@
+package com.projectkorra.projectkorra.util;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.projectkorra.projectkorra.GeneralMethods;
+import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.ability.CoreAbility;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
+
+/**
+ * Always-on profiler for the bending tick. Every stage of the
+ * {@link com.projectkorra.projectkorra.BendingManager} loop is recorded as a
+ * named {@link Section}, and {@link CoreAbility#progressAll()} records the
+ * cost of every ability class as an {@link AbilitySection}.
+ * <p>
+ * Recording only uses {@link LongAdder}s and atomic arrays so that the
+ * results can be read from any thread (e.g. /bending profile) without
+ * blocking the main thread.
+ */
+public class TickProfiler {
+
+	public static final String TICK = "BendingManager";
+	public static final String ABILITIES = "CoreAbility";
+	public static final String PROGRESS_EVENT = "AbilityProgressEvent";
+
+	private static final int WINDOW_SLICES = 6;
+
+	private static final Map<String, Section> SECTIONS = new ConcurrentHashMap<>();
+	private static final Map<Class<? extends CoreAbility>, AbilitySection> ABILITY_SECTIONS = new ConcurrentHashMap<>();
+
+	private static volatile boolean enabled = true;
+	private static volatile long windowMillis = 10000;
+	private static volatile long clock = System.currentTimeMillis();
+	private static volatile long resetTime = System.currentTimeMillis();
+
+	/**
+	 * Reads the profiler settings from the config. Previously recorded data
+	 * is discarded since the rolling window may have changed.
+	 */
+	public static void loadConfig() {
+		enabled = ConfigManager.getConfig().getBoolean("Properties.Profiler.Enabled");
+		final long windowSeconds = Math.max(WINDOW_SLICES, ConfigManager.getConfig().getLong("Properties.Profiler.WindowSeconds"));
+		windowMillis = windowSeconds * 1000 / WINDOW_SLICES;
+		reset();
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Discards everything that has been recorded so far.
+	 */
+	public static void reset() {
+		SECTIONS.clear();
+		ABILITY_SECTIONS.clear();
+		resetTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Marks the start of a new bending tick. The wall clock is sampled once
+	 * here so that recording does not need to call
+	 * {@link System#currentTimeMillis()} for every sample.
+	 */
+	public static void beginTick() {
+		clock = System.currentTimeMillis();
+	}
+
+	/**
+	 * @return the current {@link System#nanoTime()} or 0 if the profiler is
+	 *         disabled
+	 */
+	public static long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records the time elapsed since start for the named section.
+	 *
+	 * @param section the name of the section
+	 * @param start the value returned by {@link #start()}
+	 */
+	public static void stop(final String section, final long start) {
+		if (!enabled || start == 0) {
+			return;
+		}
+		record(section, System.nanoTime() - start, 1);
+	}
+
+	/**
+	 * Records an already measured duration for the named section.
+	 *
+	 * @param section the name of the section
+	 * @param nanos the duration in nanoseconds
+	 * @param calls the number of calls the duration covers
+	 */
+	public static void record(final String section, final long nanos, final int calls) {
+		if (!enabled) {
+			return;
+		}
+		SECTIONS.computeIfAbsent(section, Section::new).record(nanos, calls);
+	}
+
+	/**
+	 * Records the cost of all instances of one ability class for the current
+	 * tick.
+	 *
+	 * @param clazz the ability class
+	 * @param instances how many instances of the class were alive
+	 * @param calls how many times {@link CoreAbility#progress()} was called
+	 * @param progressNanos the time spent inside progress()
+	 * @param eventNanos the time spent dispatching {@link com.projectkorra.projectkorra.event.AbilityProgressEvent}
+	 */
+	public static void recordAbility(final Class<? extends CoreAbility> clazz, final int instances, final int calls, final long progressNanos, final long eventNanos) {
+		if (!enabled) {
+			return;
+		}
+		ABILITY_SECTIONS.computeIfAbsent(clazz, AbilitySection::new).record(instances, calls, progressNanos, eventNanos);
+	}
+
+	/**
+	 * @return the sections sorted by their total recorded time
+	 */
+	public static List<Section> getSections() {
+		final List<Section> sections = new ArrayList<>(SECTIONS.values());
+		sections.sort(Comparator.comparingLong(Section::getTotalNanos).reversed());
+		return sections;
+	}
+
+	/**
+	 * @return the ability sections sorted by their total recorded time
+	 */
+	public static List<AbilitySection> getAbilitySections() {
+		final List<AbilitySection> sections = new ArrayList<>(ABILITY_SECTIONS.values());
+		sections.sort(Comparator.comparingLong(Section::getTotalNanos).reversed());
+		return sections;
+	}
+
+	/**
+	 * @return the section with the given name, or null if it was never
+	 *         recorded
+	 */
+	public static Section getSection(final String name) {
+		return SECTIONS.get(name);
+	}
+
+	/**
+	 * @return the amount of bending ticks recorded since the last reset
+	 */
+	public static long getTicks() {
+		final Section tick = SECTIONS.get(TICK);
+		return tick == null ? 0 : tick.getCalls();
+	}
+
+	public static long getResetTime() {
+		return resetTime;
+	}
+
+	/**
+	 * @return the length of the rolling window used for percentiles in
+	 *         milliseconds
+	 */
+	public static long getWindowMillis() {
+		return windowMillis * WINDOW_SLICES;
+	}
+
+	/**
+	 * Formats a duration in nanoseconds as milliseconds.
+	 */
+	public static String formatMillis(final double nanos) {
+		return String.format("%.3fms", nanos / 1_000_000D);
+	}
+
+	/**
+	 * Writes every recorded section to profile.txt in the plugin folder.
+	 *
+	 * @return the file that was written, or null if it couldn't be written
+	 */
+	public static File dump() {
+		final List<String> lines = new ArrayList<>();
+		final long ticks = Math.max(1, getTicks());
+
+		lines.add("ProjectKorra Tick Profile");
+		lines.add("====================");
+		lines.add("");
+		lines.add("Date Created: " + GeneralMethods.getCurrentDate());
+		lines.add("Recording For: " + TimeUtil.formatTime(System.currentTimeMillis() - resetTime));
+		lines.add("Ticks Recorded: " + getTicks());
+		lines.add("Percentile Window: " + TimeUtil.formatTime(getWindowMillis()));
+		lines.add("");
+		lines.add("Sections");
+		lines.add("====================");
+		for (final Section section : getSections()) {
+			lines.add(section.getName() + ": " + section.describe(ticks));
+		}
+
+		lines.add("");
+		lines.add("Abilities");
+		lines.add("====================");
+		for (final AbilitySection section : getAbilitySections()) {
+			lines.add(section.getName() + ": " + section.describe(ticks));
+		}
+
+		final File dataFolder = ProjectKorra.plugin.getDataFolder();
+		if (!dataFolder.exists()) {
+			dataFolder.mkdir();
+		}
+
+		final File saveTo = new File(dataFolder, "profile.txt");
+		try (PrintWriter pw = new PrintWriter(new FileWriter(saveTo, false))) {
+			for (final String line : lines) {
+				pw.println(line);
+			}
+			return saveTo;
+		} catch (final IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * A named stage of the tick. Keeps cumulative totals since the last reset
+	 * and a {@link RollingHistogram} of the per-tick cost.
+	 */
+	public static class Section {
+
+		private final String name;
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder samples = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final RollingHistogram histogram = new RollingHistogram(WINDOW_SLICES, windowMillis);
+
+		public Section(final String name) {
+			this.name = name;
+		}
+
+		void record(final long nanos, final int calls) {
+			this.calls.add(calls);
+			this.samples.increment();
+			this.totalNanos.add(nanos);
+			this.histogram.record(nanos);
+
+			long max = this.maxNanos.get();
+			while (nanos > max && !this.maxNanos.compareAndSet(max, nanos)) {
+				max = this.maxNanos.get();
+			}
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public long getCalls() {
+			return this.calls.sum();
+		}
+
+		public long getSamples() {
+			return this.samples.sum();
+		}
+
+		public long getTotalNanos() {
+			return this.totalNanos.sum();
+		}
+
+		public long getMaxNanos() {
+			return this.maxNanos.get();
+		}
+
+		public RollingHistogram getHistogram() {
+			return this.histogram;
+		}
+
+		/**
+		 * @param ticks the amount of ticks to average the total over
+		 * @return a one line summary of this section
+		 */
+		public String describe(final long ticks) {
+			final long calls = this.getCalls();
+			final long total = this.getTotalNanos();
+			return formatMillis((double) total / ticks) + "/tick"
+					+ ", " + formatMillis(calls == 0 ? 0 : (double) total / calls) + "/call"
+					+ ", p50 " + formatMillis(this.histogram.percentile(0.5))
+					+ ", p95 " + formatMillis(this.histogram.percentile(0.95))
+					+ ", p99 " + formatMillis(this.histogram.percentile(0.99))
+					+ ", max " + formatMillis(this.getMaxNanos())
+					+ ", calls " + calls;
+		}
+	}
+
+	/**
+	 * A {@link Section} for a single ability class, which also tracks how many
+	 * instances were alive and how long {@link com.projectkorra.projectkorra.event.AbilityProgressEvent}
+	 * dispatch took for that class.
+	 */
+	public static class AbilitySection extends Section {
+
+		private final Class<? extends CoreAbility> abilityClass;
+		private final LongAdder eventNanos = new LongAdder();
+		private final AtomicLong peakInstances = new AtomicLong();
+		private volatile int instances;
+
+		public AbilitySection(final Class<? extends CoreAbility> abilityClass) {
+			super(abilityClass.getSimpleName());
+			this.abilityClass = abilityClass;
+		}
+
+		void record(final int instances, final int calls, final long progressNanos, final long eventNanos) {
+			this.record(progressNanos + eventNanos, calls);
+			this.eventNanos.add(eventNanos);
+			this.instances = instances;
+
+			long peak = this.peakInstances.get();
+			while (instances > peak && !this.peakInstances.compareAndSet(peak, instances)) {
+				peak = this.peakInstances.get();
+			}
+		}
+
+		public Class<? extends CoreAbility> getAbilityClass() {
+			return this.abilityClass;
+		}
+
+		public long getEventNanos() {
+			return this.eventNanos.sum();
+		}
+
+		/**
+		 * @return the amount of instances alive the last time this class was
+		 *         progressed
+		 */
+		public int getInstances() {
+			return this.instances;
+		}
+
+		public long getPeakInstances() {
+			return this.peakInstances.get();
+		}
+
+		@Override
+		public String describe(final long ticks) {
+			return super.describe(ticks)
+					+ ", event " + formatMillis((double) this.getEventNanos() / ticks) + "/tick"
+					+ ", instances " + this.getInstances() + " (peak " + this.getPeakInstances() + ")";
+		}
+	}
+
+	/**
+	 * A lock-free histogram with power of two nanosecond buckets over a
+	 * rolling time window. The window is split into slices which are lazily
+	 * cleared once they are reused, so old samples age out without a
+	 * background task.
+	 */
+	public static class RollingHistogram {
+
+		private static final int BUCKETS = 40; // 2^40ns is roughly 18 minutes, far beyond any sane tick.
+
+		private final int slices;
+		private final long sliceMillis;
+		private final AtomicLongArray counts;
+		private final AtomicLongArray epochs;
+
+		public RollingHistogram(final int slices, final long sliceMillis) {
+			this.slices = slices;
+			this.sliceMillis = Math.max(1, sliceMillis);
+			this.counts = new AtomicLongArray(slices * BUCKETS);
+			this.epochs = new AtomicLongArray(slices);
+		}
+
+		public void record(final long nanos) {
+			final long epoch = clock / this.sliceMillis;
+			final int slice = (int) (epoch % this.slices);
+			final long current = this.epochs.get(slice);
+			if (current != epoch && this.epochs.compareAndSet(slice, current, epoch)) {
+				for (int i = 0; i < BUCKETS; i++) {
+					this.counts.set(slice * BUCKETS + i, 0);
+				}
+			}
+			this.counts.incrementAndGet(slice * BUCKETS + bucket(nanos));
+		}
+
+		/**
+		 * @return the amount of samples in each bucket that are still inside
+		 *         the rolling window
+		 */
+		public long[] snapshot() {
+			final long[] result = new long[BUCKETS];
+			final long epoch = System.currentTimeMillis() / this.sliceMillis;
+			for (int slice = 0; slice < this.slices; slice++) {
+				final long sliceEpoch = this.epochs.get(slice);
+				if (sliceEpoch <= epoch - this.slices || sliceEpoch > epoch) {
+					continue;
+				}
+				for (int i = 0; i < BUCKETS; i++) {
+					result[i] += this.counts.get(slice * BUCKETS + i);
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * @param percentile a value between 0 and 1
+		 * @return the upper bound of the bucket the percentile falls in, in
+		 *         nanoseconds
+		 */
+		public long percentile(final double percentile) {
+			final long[] snapshot = this.snapshot();
+			long total = 0;
+			for (final long count : snapshot) {
+				total += count;
+			}
+			if (total == 0) {
+				return 0;
+			}
+
+			final long target = (long) Math.ceil(total * percentile);
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += snapshot[i];
+				if (seen >= target) {
+					return 1L << (i + 1);
+				}
+			}
+			return 1L << BUCKETS;
+		}
+
+		private static int bucket(final long nanos) {
+			if (nanos <= 1) {
+				return 0;
+			}
+			return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(nanos));
+		}
+	}
+}
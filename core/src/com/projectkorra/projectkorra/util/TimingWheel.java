@@ -0,0 +1,281 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel keyed by tick. Scheduling, rescheduling and
+ * cancelling a {@link Timer} are all O(1) and do not allocate, since every
+ * timer is an intrusive node in the doubly linked list of its slot.
+ * <p>
+ * The wheel has {@link #LEVELS} levels of {@link #SLOTS} slots each. Level 0
+ * has a resolution of one tick, and every level above it covers
+ * {@link #SLOTS} times the range of the level below. Timers further away
+ * than the top level can cover are parked in the top level and placed again
+ * whenever their slot comes around.
+ * <p>
+ * Expired timers are first moved onto a spill list, which is then drained up
+ * to a limit per call of {@link #advance(long, int, Consumer)}. Anything
+ * above the limit stays on the spill list and is drained first on the next
+ * call, so a mass expiry is spread over several ticks.
+ *
+ * @param <T> the type of value held by the timers
+ */
+public class TimingWheel<T> {
+
+	private static final int SLOT_BITS = 6;
+	public static final int SLOTS = 1 << SLOT_BITS;
+	public static final int LEVELS = 4;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+	private final Bucket<T>[][] wheel;
+	private final Bucket<T> spill;
+	private long tick;
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	public TimingWheel(final long startTick) {
+		this.wheel = new Bucket[LEVELS][SLOTS];
+		for (int level = 0; level < LEVELS; level++) {
+			for (int slot = 0; slot < SLOTS; slot++) {
+				this.wheel[level][slot] = new Bucket<>();
+			}
+		}
+		this.spill = new Bucket<>();
+		this.tick = startTick;
+	}
+
+	/**
+	 * @return the last tick the wheel was advanced to
+	 */
+	public long getTick() {
+		return this.tick;
+	}
+
+	/**
+	 * @return the amount of scheduled timers, including expired timers that
+	 *         are waiting on the spill list
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @return the amount of expired timers that could not be drained yet due
+	 *         to the per tick limit
+	 */
+	public int getSpillSize() {
+		return this.spill.size;
+	}
+
+	/**
+	 * Schedules the timer to expire at the given tick. If the timer is
+	 * already scheduled it is moved. Deadlines in the past expire on the next
+	 * tick.
+	 *
+	 * @param timer the timer to schedule
+	 * @param deadline the tick the timer should expire at
+	 */
+	public void schedule(final Timer<T> timer, final long deadline) {
+		if (timer.bucket != null) {
+			timer.bucket.unlink(timer);
+			this.size--;
+		}
+		timer.deadline = Math.max(deadline, this.tick + 1);
+		this.place(timer);
+		this.size++;
+	}
+
+	/**
+	 * Cancels the timer if it is scheduled.
+	 *
+	 * @return true if the timer was scheduled
+	 */
+	public boolean cancel(final Timer<T> timer) {
+		if (timer.bucket == null) {
+			return false;
+		}
+		timer.bucket.unlink(timer);
+		this.size--;
+		return true;
+	}
+
+	/**
+	 * Advances the wheel up to the given tick and passes expired timers to
+	 * the consumer. Timers are unscheduled before they are passed on, so the
+	 * consumer may schedule them again.
+	 *
+	 * @param toTick the tick to advance to
+	 * @param limit the max amount of timers to expire, or a value less than 1
+	 *            for no limit
+	 * @param consumer receives the value of every expired timer
+	 * @return the amount of timers that expired
+	 */
+	public int advance(final long toTick, final int limit, final Consumer<T> consumer) {
+		while (this.tick < toTick) {
+			this.tick++;
+			this.cascade();
+			this.spill.spliceFrom(this.wheel[0][(int) (this.tick & SLOT_MASK)]);
+		}
+
+		int expired = 0;
+		while (this.spill.head != null && (limit < 1 || expired < limit)) {
+			final Timer<T> timer = this.spill.head;
+			this.spill.unlink(timer);
+			this.size--;
+			expired++;
+			consumer.accept(timer.value);
+		}
+		return expired;
+	}
+
+	/**
+	 * Unschedules every timer and passes it to the consumer, regardless of
+	 * its deadline.
+	 */
+	public void drainAll(final Consumer<T> consumer) {
+		for (int level = 0; level < LEVELS; level++) {
+			for (int slot = 0; slot < SLOTS; slot++) {
+				this.spill.spliceFrom(this.wheel[level][slot]);
+			}
+		}
+		while (this.spill.head != null) {
+			final Timer<T> timer = this.spill.head;
+			this.spill.unlink(timer);
+			this.size--;
+			consumer.accept(timer.value);
+		}
+	}
+
+	/**
+	 * Moves the timers of the higher level slots that start at the current
+	 * tick down to the lower levels.
+	 */
+	private void cascade() {
+		int highest = 0;
+		for (int level = 1; level < LEVELS; level++) {
+			if ((this.tick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+				break;
+			}
+			highest = level;
+		}
+
+		// Higher levels first so their timers can keep falling through the lower levels.
+		for (int level = highest; level > 0; level--) {
+			final Bucket<T> bucket = this.wheel[level][(int) ((this.tick >> (SLOT_BITS * level)) & SLOT_MASK)];
+			Timer<T> timer = bucket.head;
+			bucket.head = null;
+			bucket.tail = null;
+			bucket.size = 0;
+			while (timer != null) {
+				final Timer<T> next = timer.next;
+				timer.bucket = null;
+				timer.prev = null;
+				timer.next = null;
+				this.place(timer);
+				timer = next;
+			}
+		}
+	}
+
+	private void place(final Timer<T> timer) {
+		final long delay = Math.min(timer.deadline - this.tick, MAX_DELAY);
+		final long target = this.tick + delay;
+		int level = 0;
+		while (level < LEVELS - 1 && delay >= (1L << (SLOT_BITS * (level + 1)))) {
+			level++;
+		}
+		this.wheel[level][(int) ((target >> (SLOT_BITS * level)) & SLOT_MASK)].link(timer);
+	}
+
+	/**
+	 * A scheduled value. A timer can be scheduled on one wheel at a time.
+	 */
+	public static class Timer<T> {
+
+		private final T value;
+		private long deadline;
+		private Bucket<T> bucket;
+		private Timer<T> prev;
+		private Timer<T> next;
+
+		public Timer(final T value) {
+			this.value = value;
+		}
+
+		public T getValue() {
+			return this.value;
+		}
+
+		/**
+		 * @return the tick this timer was last scheduled to expire at
+		 */
+		public long getDeadline() {
+			return this.deadline;
+		}
+
+		public boolean isScheduled() {
+			return this.bucket != null;
+		}
+	}
+
+	private static class Bucket<T> {
+
+		private Timer<T> head;
+		private Timer<T> tail;
+		private int size;
+
+		private void link(final Timer<T> timer) {
+			timer.bucket = this;
+			timer.prev = this.tail;
+			timer.next = null;
+			if (this.tail == null) {
+				this.head = timer;
+			} else {
+				this.tail.next = timer;
+			}
+			this.tail = timer;
+			this.size++;
+		}
+
+		private void unlink(final Timer<T> timer) {
+			if (timer.prev == null) {
+				this.head = timer.next;
+			} else {
+				timer.prev.next = timer.next;
+			}
+			if (timer.next == null) {
+				this.tail = timer.prev;
+			} else {
+				timer.next.prev = timer.prev;
+			}
+			timer.bucket = null;
+			timer.prev = null;
+			timer.next = null;
+			this.size--;
+		}
+
+		/**
+		 * Appends every timer of the other bucket to this one.
+		 */
+		private void spliceFrom(final Bucket<T> other) {
+			if (other.head == null) {
+				return;
+			}
+			for (Timer<T> timer = other.head; timer != null; timer = timer.next) {
+				timer.bucket = this;
+			}
+			if (this.tail == null) {
+				this.head = other.head;
+			} else {
+				this.tail.next = other.head;
+				other.head.prev = this.tail;
+			}
+			this.tail = other.tail;
+			this.size += other.size;
+			other.head = null;
+			other.tail = null;
+			other.size = 0;
+		}
+	}
+}
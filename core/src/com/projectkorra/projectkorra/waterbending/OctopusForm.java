@@ -26,6 +26,7 @@ import com.projectkorra.projectkorra.util.ClickType;
 import com.projectkorra.projectkorra.util.DamageHandler;
 import com.projectkorra.projectkorra.util.ParticleEffect;
 import com.projectkorra.projectkorra.util.TempBlock;
+import com.projectkorra.projectkorra.util.TempBlockFrame;
 import com.projectkorra.projectkorra.waterbending.ice.PhaseChange;
 import com.projectkorra.projectkorra.waterbending.ice.PhaseChange.PhaseChangeType;
 import com.projectkorra.projectkorra.waterbending.plant.PlantRegrowth;
@@ -65,8 +66,7 @@ public class OctopusForm extends WaterAbility {
 	private Block sourceBlock;
 	private TempBlock source;
 	private Location sourceLocation;
-	private ArrayList<TempBlock> blocks;
-	private ArrayList<TempBlock> newBlocks;
+	private TempBlockFrame blocks;
 	private PhaseChange pc;
 
 	public OctopusForm(final Player player) {
@@ -107,8 +107,7 @@ public class OctopusForm extends WaterAbility {
 		this.duration = applyModifiers(getConfig().getLong("Abilities.Water.OctopusForm.Duration"));
 		this.angleIncrement = getConfig().getDouble("Abilities.Water.OctopusForm.AngleIncrement");
 		this.currentFormHeight = 0;
-		this.blocks = new ArrayList<TempBlock>();
-		this.newBlocks = new ArrayList<TempBlock>();
+		this.blocks = new TempBlockFrame(this, null);
 		if (hasAbility(player, PhaseChange.class)) {
 			this.pc = getAbility(player, PhaseChange.class);
 		} else {
@@ -339,7 +338,7 @@ public class OctopusForm extends WaterAbility {
 
 	private void formOctopus() {
 		final Location location = this.player.getLocation();
-		this.newBlocks.clear();
+		this.blocks.begin();
 		final ArrayList<Block> doneBlocks = new ArrayList<Block>();
 
 		for (double theta = this.startAngle; theta < this.startAngle + this.angle; theta += 10) {
@@ -365,14 +364,7 @@ public class OctopusForm extends WaterAbility {
 			this.tentacle(location.clone().add(new Vector(this.radius * Math.cos(phi), 0, this.radius * Math.sin(phi))), astep);
 		}
 
-		for (final TempBlock block : this.blocks) {
-			if (!this.newBlocks.contains(block)) {
-				block.revertBlock();
-			}
-		}
-
-		this.blocks.clear();
-		this.blocks.addAll(this.newBlocks);
+		this.blocks.end();
 
 		if (this.blocks.isEmpty()) {
 			this.remove();
@@ -425,22 +417,22 @@ public class OctopusForm extends WaterAbility {
 			return;
 		}
 
-		if (TempBlock.isTempBlock(block)) {
+		if (this.blocks.contains(block)) {
+			this.blocks.set(block, GeneralMethods.getWaterData(0));
+		} else if (TempBlock.isTempBlock(block)) {
 			final TempBlock tblock = TempBlock.get(block);
-			if (!this.newBlocks.contains(tblock) && !this.blocks.contains(tblock) && isBendableWaterTempBlock(tblock)) {
+			if (isBendableWaterTempBlock(tblock)) {
 				if (!SurgeWave.canThaw(block)) {
 					SurgeWave.thaw(block);
 				}
 				tblock.setType(GeneralMethods.getWaterData(0));
-				this.newBlocks.add(tblock);
-			} else if (this.blocks.contains(tblock)) {
-				this.newBlocks.add(tblock);
+				this.blocks.add(tblock);
 			}
 		} else if (this.isWaterbendable(this.player, block) || FireAbility.isFire(block.getType()) || isAir(block.getType())) {
 			if (isWater(block) && !TempBlock.isTempBlock(block)) {
 				ParticleEffect.WATER_BUBBLE.display(block.getLocation().clone().add(0.5, 0.5, 0.5), 5, Math.random(), Math.random(), Math.random(), 0);
 			}
-			this.newBlocks.add(new TempBlock(block, GeneralMethods.getWaterData(0), this));
+			this.blocks.set(block, GeneralMethods.getWaterData(0));
 		}
 	}
 
@@ -476,9 +468,7 @@ public class OctopusForm extends WaterAbility {
 		if (this.source != null) {
 			this.source.revertBlock();
 		}
-		for (final TempBlock block : this.blocks) {
-			block.revertBlock();
-		}
+		this.blocks.clear();
 		new BukkitRunnable() {
 
 			@Override
@@ -706,11 +696,16 @@ public class OctopusForm extends WaterAbility {
 	}
 
 	public ArrayList<TempBlock> getBlocks() {
-		return this.blocks;
+		return new ArrayList<>(this.blocks.getTempBlocks());
 	}
 
+	/**
+	 * @deprecated The blocks are a {@link TempBlockFrame} now, so the blocks
+	 *             of the next form are the same as {@link #getBlocks()}
+	 */
+	@Deprecated
 	public ArrayList<TempBlock> getNewBlocks() {
-		return this.newBlocks;
+		return this.getBlocks();
 	}
 
 	public void setCooldown(final long cooldown) {
@@ -29,6 +29,7 @@ import com.projectkorra.projectkorra.util.BlockSource;
 import com.projectkorra.projectkorra.util.ClickType;
 import com.projectkorra.projectkorra.util.ParticleEffect;
 import com.projectkorra.projectkorra.util.TempBlock;
+import com.projectkorra.projectkorra.util.TempBlockFrame;
 import com.projectkorra.projectkorra.waterbending.plant.PlantRegrowth;
 import com.projectkorra.projectkorra.waterbending.util.WaterReturn;
 
@@ -62,6 +63,7 @@ public class SurgeWall extends WaterAbility {
 	private Vector firstDirection;
 	private Vector targetDirection;
 	private Map<Block, TempBlock> tempBlocks = new HashMap<>();
+	private final TempBlockFrame wall = new TempBlockFrame(this, WALL_BLOCKS::remove);
 
 	public SurgeWall(final Player player) {
 		super(player);
@@ -143,12 +145,12 @@ public class SurgeWall extends WaterAbility {
 		tempBlocks.values().forEach(TempBlock::revertBlock);
 		tempBlocks.clear();
 
-		for (final Block block : WALL_BLOCKS.keySet()) {
-			if (WALL_BLOCKS.get(block) == this.player) {
-				tempBlocks.put(block, new TempBlock(block, Material.ICE.createBlockData(), this).setCanSuffocate(false));
-				playIcebendingSound(block.getLocation());
-			}
+		this.wall.begin();
+		for (final Block block : this.wall.getBlocks()) {
+			this.wall.set(block, Material.ICE.createBlockData()).setCanSuffocate(false);
+			playIcebendingSound(block.getLocation());
 		}
+		this.wall.end();
 	}
 
 	private void thaw() {
@@ -157,11 +159,11 @@ public class SurgeWall extends WaterAbility {
 		tempBlocks.values().forEach(TempBlock::revertBlock);
 		tempBlocks.clear();
 
-		for (final Block block : WALL_BLOCKS.keySet()) {
-			if (WALL_BLOCKS.get(block) == this.player) {
-				tempBlocks.put(block, new TempBlock(block, Material.WATER));
-			}
+		this.wall.begin();
+		for (final Block block : this.wall.getBlocks()) {
+			this.wall.set(block, Material.WATER.createBlockData());
 		}
+		this.wall.end();
 	}
 
 	public boolean prepare() {
@@ -275,12 +277,12 @@ public class SurgeWall extends WaterAbility {
 					playWaterbendingSound(this.location);
 				}
 
-				final ArrayList<Block> blocks = new ArrayList<Block>();
 				final Location targetLoc = GeneralMethods.getTargetedLocation(this.player, (int) this.range, false, false, Material.WATER, Material.ICE);
 				this.location = targetLoc.clone();
 				final Vector eyeDir = this.player.getEyeLocation().getDirection();
 				Vector vector;
 				Block block;
+				this.wall.begin();
 				for (double i = 0; i <= this.getNightFactor(this.radius); i += 0.5) {
 					for (double angle = 0; angle < 360; angle += 10) {
 						vector = GeneralMethods.getOrthogonalVector(eyeDir.clone(), angle, i);
@@ -288,23 +290,20 @@ public class SurgeWall extends WaterAbility {
 
 						if (RegionProtection.isRegionProtected(this, block.getLocation())) {
 							continue;
-						} else if (WALL_BLOCKS.containsKey(block)) {
-							blocks.add(block);
-						} else if (!blocks.contains(block) && (ElementalAbility.isAir(block.getType()) || FireAbility.isFire(block.getType()) || this.isWaterbendable(block)) && this.isTransparent(block)) {
+						} else if (this.wall.contains(block)) {
+							this.setWallBlock(block);
+						} else if (!WALL_BLOCKS.containsKey(block) && (ElementalAbility.isAir(block.getType()) || FireAbility.isFire(block.getType()) || this.isWaterbendable(block)) && this.isTransparent(block)) {
 							WALL_BLOCKS.put(block, this.player);
-							this.addWallBlock(block);
-							blocks.add(block);
+							this.setWallBlock(block);
 							this.locations.add(block.getLocation());
 							FireBlast.removeFireBlastsAroundPoint(block.getLocation(), 2);
 						}
 					}
 				}
 
-				for (final Block blocki : WALL_BLOCKS.keySet()) {
-					if (WALL_BLOCKS.get(blocki) == this.player && !blocks.contains(blocki)) {
-						this.finalRemoveWater(blocki);
-					}
+				this.wall.end();
 
+				for (final Block blocki : WALL_BLOCKS.keySet()) {
 					if (solidifyLava) {
 						for (BlockFace relative : BlockFace.values()) {
 							Block blockRelative = blocki.getRelative(relative);
@@ -365,11 +364,11 @@ public class SurgeWall extends WaterAbility {
 		}
 	}
 
-	private void addWallBlock(final Block block) {
+	private void setWallBlock(final Block block) {
 		if (this.frozen) {
-			tempBlocks.put(block, new TempBlock(block, Material.ICE.createBlockData(), this));
+			this.wall.set(block, Material.ICE.createBlockData());
 		} else {
-			tempBlocks.put(block, new TempBlock(block, Material.WATER.createBlockData(), this));
+			this.wall.set(block, Material.WATER.createBlockData());
 		}
 	}
 
@@ -378,12 +377,7 @@ public class SurgeWall extends WaterAbility {
 		super.remove();
 		this.returnWater();
 		this.finalRemoveWater(this.sourceBlock);
-
-		for (final Block block : WALL_BLOCKS.keySet()) {
-			if (WALL_BLOCKS.get(block) == this.player) {
-				this.finalRemoveWater(block);
-			}
-		}
+		this.wall.clear();
 
 	}
 
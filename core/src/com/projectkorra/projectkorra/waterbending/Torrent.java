@@ -30,6 +30,7 @@ import com.projectkorra.projectkorra.util.ClickType;
 import com.projectkorra.projectkorra.util.DamageHandler;
 import com.projectkorra.projectkorra.util.ParticleEffect;
 import com.projectkorra.projectkorra.util.TempBlock;
+import com.projectkorra.projectkorra.util.TempBlockFrame;
 import com.projectkorra.projectkorra.waterbending.plant.PlantRegrowth;
 import com.projectkorra.projectkorra.waterbending.util.WaterReturn;
 
@@ -78,7 +79,7 @@ public class Torrent extends WaterAbility {
 	private Block sourceBlock;
 	private TempBlock source;
 	private Location location;
-	private ArrayList<TempBlock> blocks;
+	private TempBlockFrame ring;
 	private ArrayList<TempBlock> launchedBlocks;
 	private ArrayList<Entity> hurtEntities;
 
@@ -103,7 +104,7 @@ public class Torrent extends WaterAbility {
 		this.chargeTimeout = applyInverseModifiers(getConfig().getLong("Abilities.Water.Torrent.ChargeTimeout"));
 		this.revert = getConfig().getBoolean("Abilities.Water.Torrent.Revert");
 		this.revertTime = getConfig().getLong("Abilities.Water.Torrent.RevertTime");
-		this.blocks = new ArrayList<>();
+		this.ring = new TempBlockFrame();
 		this.launchedBlocks = new ArrayList<>();
 		this.hurtEntities = new ArrayList<>();
 
@@ -306,7 +307,7 @@ public class Torrent extends WaterAbility {
 				}
 
 				this.formRing();
-				if (this.blocks.isEmpty()) {
+				if (this.ring.isEmpty()) {
 					this.remove();
 					return;
 				}
@@ -344,12 +345,12 @@ public class Torrent extends WaterAbility {
 	}
 
 	private boolean launch() {
-		if (this.launchedBlocks.isEmpty() && this.blocks.isEmpty()) {
+		if (this.launchedBlocks.isEmpty() && this.ring.isEmpty()) {
 			return false;
 		}
 
 		if (this.launchedBlocks.isEmpty()) {
-			this.clearRing();
+			this.ring.clear();
 			final Location loc = this.player.getEyeLocation();
 			final ArrayList<Block> doneBlocks = new ArrayList<Block>();
 			for (double theta = this.startAngle; theta < this.angle + this.startAngle; theta += 20) {
@@ -482,7 +483,7 @@ public class Torrent extends WaterAbility {
 	}
 
 	private void formRing() {
-		this.clearRing();
+		this.ring.begin();
 		this.startAngle += 30;
 
 		final Location loc = this.player.getEyeLocation();
@@ -498,8 +499,8 @@ public class Torrent extends WaterAbility {
 			final Location blockLoc = loc.clone().add(dx, dy, dz);
 			final Block block = blockLoc.getBlock();
 			if (!doneBlocks.contains(block)) {
-				if (isTransparent(this.player, block)) {
-					this.blocks.add(new TempBlock(block, Material.WATER));
+				if (this.ring.contains(block) || isTransparent(this.player, block)) {
+					this.ring.set(block, Material.WATER.createBlockData());
 					doneBlocks.add(block);
 					for (final Entity entity : entities) {
 						if (entity.getWorld() != blockLoc.getWorld()) {
@@ -512,19 +513,13 @@ public class Torrent extends WaterAbility {
 				}
 			}
 		}
-	}
-
-	private void clearRing() {
-		for (final TempBlock block : this.blocks) {
-			block.revertBlock();
-		}
-		this.blocks.clear();
+		this.ring.end();
 	}
 
 	@Override
 	public void remove() {
 		super.remove();
-		this.clearRing();
+		this.ring.clear();
 		for (final TempBlock block : this.launchedBlocks) {
 			block.revertBlock();
 		}
@@ -770,7 +765,7 @@ public class Torrent extends WaterAbility {
 	@Override
 	public List<Location> getLocations() {
 		final ArrayList<Location> locations = new ArrayList<>();
-		for (final TempBlock tblock : this.blocks) {
+		for (final TempBlock tblock : this.ring.getTempBlocks()) {
 			locations.add(tblock.getLocation());
 		}
 		for (final TempBlock tblock : this.launchedBlocks) {
@@ -956,11 +951,18 @@ public class Torrent extends WaterAbility {
 	}
 
 	public ArrayList<TempBlock> getBlocks() {
-		return this.blocks;
+		return new ArrayList<>(this.ring.getTempBlocks());
 	}
 
+	/**
+	 * Replaces the ring with the given TempBlocks. They are reverted once the
+	 * ring is redrawn without them.
+	 */
 	public void setBlocks(final ArrayList<TempBlock> blocks) {
-		this.blocks = blocks;
+		this.ring.clear();
+		this.ring.begin();
+		blocks.forEach(this.ring::add);
+		this.ring.end();
 	}
 
 	public static double getCleanupRange() {
@@ -19,12 +19,13 @@ import com.projectkorra.projectkorra.ability.util.Collision;
 import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.util.ParticleEffect;
 import com.projectkorra.projectkorra.util.TempBlock;
+import com.projectkorra.projectkorra.util.TempBlockFrame;
 import org.bukkit.util.Vector;
 
 public class WaterSpout extends WaterAbility {
 
 	private static final Map<Block, Block> AFFECTED_BLOCKS = new ConcurrentHashMap<Block, Block>();
-	private final List<TempBlock> blocks = new ArrayList<TempBlock>();
+	private final TempBlockFrame blocks = new TempBlockFrame(null, AFFECTED_BLOCKS::remove);
 
 	@Attribute("CanBendOnPackedIce")
 	private boolean canBendOnPackedIce;
@@ -128,8 +129,8 @@ public class WaterSpout extends WaterAbility {
 			loc.add(x, height, z);
 
 			final Block block = loc.getBlock();
-			if ((!TempBlock.isTempBlock(block)) && (ElementalAbility.isAir(block.getType()) || !GeneralMethods.isSolid(block))) {
-				this.blocks.add(new TempBlock(block, GeneralMethods.getWaterData(7)));
+			if (this.blocks.contains(block) || (!TempBlock.isTempBlock(block) && (ElementalAbility.isAir(block.getType()) || !GeneralMethods.isSolid(block)))) {
+				this.blocks.set(block, GeneralMethods.getWaterData(7));
 				AFFECTED_BLOCKS.put(block, block);
 			}
 		}
@@ -137,10 +138,6 @@ public class WaterSpout extends WaterAbility {
 
 	@Override
 	public void progress() {
-		for (final TempBlock tb : this.blocks) {
-			AFFECTED_BLOCKS.remove(tb.getBlock());
-			tb.revertBlock();
-		}
 		if (this.player.isDead() || !this.player.isOnline() || !this.bPlayer.canBendIgnoreBindsCooldowns(this)) {
 			this.remove();
 			return;
@@ -149,7 +146,7 @@ public class WaterSpout extends WaterAbility {
 			this.remove();
 			return;
 		} else {
-			this.blocks.clear();
+			this.blocks.begin();
 			this.player.setFallDistance(0);
 			this.player.setSprinting(false);
 			if ((new Random()).nextInt(10) == 0) {
@@ -174,14 +171,15 @@ public class WaterSpout extends WaterAbility {
 
 					block = location.clone().add(0, i, 0).getBlock();
 
-					if (!TempBlock.isTempBlock(block)) {
-						this.blocks.add(new TempBlock(block, Material.WATER));
+					if (this.blocks.contains(block) || !TempBlock.isTempBlock(block)) {
+						this.blocks.set(block, Material.WATER.createBlockData());
 						AFFECTED_BLOCKS.put(block, block);
 					}
 					this.rotateParticles(block);
 				}
 
 				this.displayWaterSpiral(location.clone().add(.5, 0, .5));
+				this.blocks.end();
 				if (this.player.getLocation().getBlockY() > block.getY()) {
 					if (this.player.isFlying()) {
 						this.player.setFlying(false);
@@ -204,10 +202,7 @@ public class WaterSpout extends WaterAbility {
 	public void remove() {
 		super.remove();
 		this.revertBaseBlock();
-		for (final TempBlock tb : this.blocks) {
-			AFFECTED_BLOCKS.remove(tb.getBlock());
-			tb.revertBlock();
-		}
+		this.blocks.clear();
 		this.flightHandler.removeInstance(this.player, this.getName());
 	}
 
@@ -281,7 +276,7 @@ public class WaterSpout extends WaterAbility {
 				return -1;
 			}
 
-			if (TempBlock.get(blocki) == null || !this.blocks.contains(TempBlock.get(blocki))) {
+			if (!this.blocks.contains(TempBlock.get(blocki))) {
 				if (isWater(blocki)) {
 					if (!TempBlock.isTempBlock(blocki)) {
 						this.revertBaseBlock();
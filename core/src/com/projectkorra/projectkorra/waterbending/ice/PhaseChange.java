@@ -1,6 +1,7 @@
 package com.projectkorra.projectkorra.waterbending.ice;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -252,8 +253,11 @@ public class PhaseChange extends IceAbility {
 		}
 
 		final ArrayList<Block> toFreeze = this.getBlocksToFreeze(center, radius);
-		for (final Block b : toFreeze) {
-			this.freeze(b);
+		final BitSet protectedBlocks = RegionProtection.getProtectedBlocks(this.player, toFreeze, this);
+		for (int i = 0; i < toFreeze.size(); i++) {
+			if (!protectedBlocks.get(i)) {
+				this.freezeUnprotected(toFreeze.get(i));
+			}
 		}
 
 		if (!this.blocks.isEmpty()) {
@@ -276,15 +280,18 @@ public class PhaseChange extends IceAbility {
 	}
 
 	public void freeze(final Block b) {
-		if (b.getWorld() != this.player.getWorld()) {
+		if (RegionProtection.isRegionProtected(this.player, b.getLocation(), this)) {
 			return;
 		}
+		this.freezeUnprotected(b);
+	}
 
-		if (b.getLocation().distanceSquared(this.player.getLocation()) > this.controlRadius * this.controlRadius) {
+	private void freezeUnprotected(final Block b) {
+		if (b.getWorld() != this.player.getWorld()) {
 			return;
 		}
 
-		if (RegionProtection.isRegionProtected(this.player, b.getLocation(), this)) {
+		if (b.getLocation().distanceSquared(this.player.getLocation()) > this.controlRadius * this.controlRadius) {
 			return;
 		}
 
@@ -322,15 +329,31 @@ public class PhaseChange extends IceAbility {
 
 		this.meltTicks += this.meltSpeed / 20;
 
-		for (int i = 0; i < this.meltTicks % (this.meltSpeed); i++) {
+		final int count = this.meltTicks % (this.meltSpeed);
+		final List<Block> melting = new ArrayList<Block>(Math.max(0, Math.min(count, ice.size())));
+		boolean exhausted = false;
+		for (int i = 0; i < count; i++) {
 			if (ice.size() == 0) {
-				this.meltRadius++;
-				return;
+				exhausted = true;
+				break;
 			}
 
-			final Block b = ice.get(this.r.nextInt(ice.size()));
-			this.melt(b);
-			ice.remove(b);
+			// Move the last block into the gap instead of shifting the list.
+			final int index = this.r.nextInt(ice.size());
+			final int last = ice.size() - 1;
+			melting.add(ice.get(index));
+			ice.set(index, ice.get(last));
+			ice.remove(last);
+		}
+
+		if (!melting.isEmpty()) {
+			final BitSet protectedBlocks = RegionProtection.getProtectedBlocks(this.player, melting, this);
+			for (int i = protectedBlocks.nextClearBit(0); i < melting.size(); i = protectedBlocks.nextClearBit(i + 1)) {
+				this.meltUnprotected(melting.get(i));
+			}
+		}
+		if (exhausted) {
+			this.meltRadius++;
 		}
 	}
 
@@ -339,13 +362,17 @@ public class PhaseChange extends IceAbility {
 	}
 
 	public void melt(final Block b) {
-		if (b.getWorld() != this.player.getWorld()) {
+		if (RegionProtection.isRegionProtected(this.player, b.getLocation(), this)) {
 			return;
 		}
-		if (b.getLocation().distanceSquared(this.player.getLocation()) > this.controlRadius * this.controlRadius) {
+		this.meltUnprotected(b);
+	}
+
+	private void meltUnprotected(final Block b) {
+		if (b.getWorld() != this.player.getWorld()) {
 			return;
 		}
-		if (RegionProtection.isRegionProtected(this.player, b.getLocation(), this)) {
+		if (b.getLocation().distanceSquared(this.player.getLocation()) > this.controlRadius * this.controlRadius) {
 			return;
 		}
 		if (SurgeWall.getWallBlocks().containsKey(b)) {
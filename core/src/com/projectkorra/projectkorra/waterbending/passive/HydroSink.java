@@ -19,7 +19,7 @@ public class HydroSink extends WaterAbility implements PassiveAbility {
 	}
 
 	public static boolean applyNoFall(final Player player) {
-		if (Commands.isToggledForAll && ConfigManager.defaultConfig.get().getBoolean("Properties.TogglePassivesWithAllBending")) {
+		if (Commands.isToggledForAll && ConfigManager.getSnapshot().isTogglePassivesWithAllBending()) {
 			return false;
 		}
 